@@ -12,11 +12,14 @@ private InternalCacheNames() {}
    public static final String PROTOBUF_METADATA_CACHE_NAME = "___protobuf_metadata";
    // stores cluster-wide server scripts
    public static final String SCRIPT_CACHE_NAME = "___script_cache";
+   // stores cluster-wide RESP search index definitions
+   public static final String RESP_SEARCH_INDEXES_CACHE_NAME = "___resp_search_indexes";
 
    public static final Set<String> GLOBAL_STATE_INTERNAL_CACHES = Set.of(
          CONFIG_STATE_CACHE_NAME,
          PROTOBUF_METADATA_CACHE_NAME,
-         SCRIPT_CACHE_NAME
+         SCRIPT_CACHE_NAME,
+         RESP_SEARCH_INDEXES_CACHE_NAME
    );
 
 }
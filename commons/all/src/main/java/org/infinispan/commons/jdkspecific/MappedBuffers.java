@@ -0,0 +1,22 @@
+package org.infinispan.commons.jdkspecific;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Releases the memory of mapped files without waiting for the garbage collector.
+ *
+ * @since 16.3
+ */
+public class MappedBuffers {
+
+   private MappedBuffers() {
+   }
+
+   /**
+    * Unmaps the buffer returned by {@link java.nio.channels.FileChannel#map}. The buffer, and any view created from it,
+    * must not be accessed afterward, as it would crash the JVM.
+    */
+   public static void unmap(MappedByteBuffer buffer) {
+      UnsafeHolder.UNSAFE.invokeCleaner(buffer);
+   }
+}
@@ -442,6 +442,11 @@ public interface ProtoStreamTypeIds {
    int COLLECTOR_FINALIZER_SUPPLIER = CORE_LOWER_BOUND + 335;
    int COLLECTOR_REDUCER_SUPPLIER = CORE_LOWER_BOUND + 336;
 
+   int SEGMENT_DIGEST = CORE_LOWER_BOUND + 337;
+   int STATE_TRANSFER_GET_DIGESTS_COMMAND = CORE_LOWER_BOUND + 338;
+   int SEGMENT_ACCESS_COUNTS = CORE_LOWER_BOUND + 339;
+   int STATE_TRANSFER_GET_ACCESS_COUNTS_COMMAND = CORE_LOWER_BOUND + 340;
+
    // Counter range 4000 -> 4199
    int COUNTERS_LOWER_BOUND = 4000;
    int COUNTER_STATE = COUNTERS_LOWER_BOUND;
@@ -689,6 +694,13 @@ public interface ProtoStreamTypeIds {
    int RESP_TOPK_INFO_FUNCTION = RESP_LOWER_BOUND + 69;
    int RESP_TOPK_COUNT_FUNCTION = RESP_LOWER_BOUND + 70;
    int RESP_TOPK_INFO = RESP_LOWER_BOUND + 71;
+   int RESP_SEARCH_INDEX_KEY = RESP_LOWER_BOUND + 72;
+   int RESP_SEARCH_INDEX_DEFINITION = RESP_LOWER_BOUND + 73;
+   int RESP_SEARCH_INDEX_SOURCE = RESP_LOWER_BOUND + 74;
+   int RESP_SEARCH_FIELD = RESP_LOWER_BOUND + 75;
+   int RESP_SEARCH_FIELD_TYPE = RESP_LOWER_BOUND + 76;
+   int RESP_SEARCH_HIT = RESP_LOWER_BOUND + 77;
+   int RESP_SEARCH_HITS = RESP_LOWER_BOUND + 78;
 
    // Clustered Locks 6300 -> 6399
    int CLUSTERED_LOCK_LOWER_BOUND = 6300;
@@ -6,8 +6,9 @@
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,7 +22,7 @@
  */
 class UnsafeMemoryAddressOffHeapMemory implements OffHeapMemory {
    private static final Logger log = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
-   private final ConcurrentMap<Long, Long> allocatedBlocks = isFinerEnabled() ? new ConcurrentHashMap<>() : null;
+   private final ConcurrentNavigableMap<Long, Long> allocatedBlocks = isFinerEnabled() ? new ConcurrentSkipListMap<>() : null;
 
    static final UnsafeMemoryAddressOffHeapMemory INSTANCE = new UnsafeMemoryAddressOffHeapMemory();
 
@@ -176,10 +177,12 @@ private void checkAddress(long address, long offset) {
       if (!isFinerEnabled())
          return;
 
-      Long blockSize = allocatedBlocks.get(address);
-      if (blockSize == null || blockSize < offset) {
-         throw new IllegalArgumentException(String.format("Trying to access address 0x%016x+%d, but blockSize was %d",
-               address, offset, blockSize));
+      // Blocks may be split by the caller, like the slabs of the pooled allocator, so the address can be anywhere
+      // inside a block
+      Map.Entry<Long, Long> block = allocatedBlocks.floorEntry(address);
+      if (block == null || block.getKey() + block.getValue() < address + offset) {
+         throw new IllegalArgumentException(String.format("Trying to access address 0x%016x+%d, but block was %s",
+               address, offset, block));
       }
    }
 
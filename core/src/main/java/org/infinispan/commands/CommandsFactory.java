@@ -52,6 +52,8 @@
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetDigestsCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetListenersCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand;
 import org.infinispan.commands.statetransfer.StateTransferStartCommand;
@@ -104,6 +106,7 @@
 import org.infinispan.reactive.publisher.impl.commands.batch.NextPublisherCommand;
 import org.infinispan.reactive.publisher.impl.commands.reduction.ReductionPublisherRequestCommand;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.SegmentDigest;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
@@ -422,14 +425,32 @@ ComputeIfAbsentCommand buildComputeIfAbsentCommand(Object key, Function mappingF
 
    ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments);
 
+   /**
+    * Builds a ConflictResolutionStartCommand that only requests the entries in the given digest buckets.
+    *
+    * @since 16.3
+    */
+   ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments, IntSet buckets);
+
    StateTransferCancelCommand buildStateTransferCancelCommand(int topologyId, IntSet segments);
 
+   StateTransferGetAccessCountsCommand buildStateTransferGetAccessCountsCommand(int topologyId, IntSet segments);
+
+   StateTransferGetDigestsCommand buildStateTransferGetDigestsCommand(int topologyId, IntSet segments);
+
    StateTransferGetListenersCommand buildStateTransferGetListenersCommand(int topologyId);
 
    StateTransferGetTransactionsCommand buildStateTransferGetTransactionsCommand(int topologyId, IntSet segments);
 
    StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments);
 
+   /**
+    * Builds a StateTransferStartCommand that only requests the entries that differ from the given digests.
+    *
+    * @since 16.3
+    */
+   StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments, Collection<SegmentDigest> digests);
+
    /**
     * Builds a StateResponseCommand used for pushing cache entries to another node.
     */
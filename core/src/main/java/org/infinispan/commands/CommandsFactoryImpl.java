@@ -52,6 +52,8 @@
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetDigestsCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetListenersCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand;
 import org.infinispan.commands.statetransfer.StateTransferStartCommand;
@@ -118,6 +120,7 @@
 import org.infinispan.reactive.publisher.impl.commands.batch.NextPublisherCommand;
 import org.infinispan.reactive.publisher.impl.commands.reduction.ReductionPublisherRequestCommand;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.SegmentDigest;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.ByteString;
@@ -325,11 +328,26 @@ public ConflictResolutionStartCommand buildConflictResolutionStartCommand(int to
       return new ConflictResolutionStartCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments, IntSet buckets) {
+      return new ConflictResolutionStartCommand(cacheName, topologyId, segments, buckets);
+   }
+
    @Override
    public StateTransferCancelCommand buildStateTransferCancelCommand(int topologyId, IntSet segments) {
       return new StateTransferCancelCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public StateTransferGetAccessCountsCommand buildStateTransferGetAccessCountsCommand(int topologyId, IntSet segments) {
+      return new StateTransferGetAccessCountsCommand(cacheName, topologyId, segments);
+   }
+
+   @Override
+   public StateTransferGetDigestsCommand buildStateTransferGetDigestsCommand(int topologyId, IntSet segments) {
+      return new StateTransferGetDigestsCommand(cacheName, topologyId, segments);
+   }
+
    @Override
    public StateTransferGetListenersCommand buildStateTransferGetListenersCommand(int topologyId) {
       return new StateTransferGetListenersCommand(cacheName, topologyId);
@@ -345,6 +363,11 @@ public StateTransferStartCommand buildStateTransferStartCommand(int topologyId,
       return new StateTransferStartCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments, Collection<SegmentDigest> digests) {
+      return new StateTransferStartCommand(cacheName, topologyId, segments, digests);
+   }
+
    @Override
    public StateResponseCommand buildStateResponseCommand(int topologyId, Collection<StateChunk> stateChunks, boolean applyState) {
       return new StateResponseCommand(cacheName, topologyId, stateChunks, applyState);
@@ -9,6 +9,7 @@
 import org.infinispan.marshall.protostream.impl.WrappedMessages;
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
 import org.infinispan.remoting.transport.NodeVersion;
 import org.infinispan.statetransfer.StateProvider;
@@ -23,22 +24,49 @@
 @ProtoTypeId(ProtoStreamTypeIds.CONFLICT_RESOLUTION_START_COMMAND)
 public class ConflictResolutionStartCommand extends AbstractStateTransferCommand {
 
+   private final IntSet buckets;
+
    @ProtoFactory
-   ConflictResolutionStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments) {
-      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments));
+   ConflictResolutionStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments,
+                                  WrappedMessage wrappedBuckets) {
+      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments),
+           WrappedMessages.<IntSet>unwrap(wrappedBuckets));
    }
 
    public ConflictResolutionStartCommand(ByteString cacheName, int topologyId, IntSet segments) {
+      this(cacheName, topologyId, segments, null);
+   }
+
+   /**
+    * @param buckets the {@link org.infinispan.statetransfer.SegmentDigest} buckets of the entries to send, or
+    *                {@code null} to send all the entries of the segments
+    * @since 16.3
+    */
+   public ConflictResolutionStartCommand(ByteString cacheName, int topologyId, IntSet segments, IntSet buckets) {
       super(cacheName, topologyId, segments);
+      this.buckets = buckets;
+   }
+
+   @ProtoField(4)
+   WrappedMessage getWrappedBuckets() {
+      return WrappedMessages.orElseNull(buckets);
    }
 
    @Override
    public CompletionStage<?> invokeAsync(ComponentRegistry registry) throws Throwable {
       StateProvider stateProvider = registry.getStateTransferManager().getStateProvider();
-      stateProvider.startOutboundTransfer(origin, topologyId, segments, false);
+      if (buckets == null) {
+         stateProvider.startOutboundTransfer(origin, topologyId, segments, false);
+      } else {
+         stateProvider.startConflictResolutionTransfer(origin, topologyId, segments, buckets);
+      }
       return CompletableFutures.completedNull();
    }
 
+   public IntSet getBuckets() {
+      return buckets;
+   }
+
    @Override
    public NodeVersion supportedSince() {
       return NodeVersion.SIXTEEN;
@@ -49,6 +77,7 @@ public String toString() {
       return "ConflictResolutionStartCommand{" +
             "topologyId=" + topologyId +
             ", segments=" + segments +
+            ", buckets=" + buckets +
             ", cacheName=" + cacheName +
             '}';
    }
@@ -0,0 +1,56 @@
+package org.infinispan.commands.statetransfer;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.marshall.protostream.impl.WrappedMessages;
+import org.infinispan.protostream.WrappedMessage;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.statetransfer.SegmentDigest;
+import org.infinispan.statetransfer.StateProvider;
+import org.infinispan.util.ByteString;
+
+/**
+ * Get the digests of the entries in the specified segments.
+ *
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.STATE_TRANSFER_GET_DIGESTS_COMMAND)
+public class StateTransferGetDigestsCommand extends AbstractStateTransferCommand {
+
+   public static final NodeVersion SUPPORTED_SINCE = NodeVersion.from((byte) 16, (byte) 3, (byte) 0);
+
+   @ProtoFactory
+   StateTransferGetDigestsCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments) {
+      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments));
+   }
+
+   public StateTransferGetDigestsCommand(ByteString cacheName, int topologyId, IntSet segments) {
+      super(cacheName, topologyId, segments);
+   }
+
+   @Override
+   public CompletionStage<Collection<SegmentDigest>> invokeAsync(ComponentRegistry registry) throws Throwable {
+      StateProvider stateProvider = registry.getStateTransferManager().getStateProvider();
+      return stateProvider.getSegmentDigests(origin, topologyId, segments);
+   }
+
+   @Override
+   public NodeVersion supportedSince() {
+      return SUPPORTED_SINCE;
+   }
+
+   @Override
+   public String toString() {
+      return "StateTransferGetDigestsCommand{" +
+            "topologyId=" + topologyId +
+            ", segments=" + segments +
+            ", cacheName=" + cacheName +
+            '}';
+   }
+}
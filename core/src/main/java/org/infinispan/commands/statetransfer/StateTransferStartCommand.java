@@ -1,5 +1,7 @@
 package org.infinispan.commands.statetransfer;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
@@ -9,8 +11,10 @@
 import org.infinispan.marshall.protostream.impl.WrappedMessages;
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
 import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.statetransfer.SegmentDigest;
 import org.infinispan.statetransfer.StateProvider;
 import org.infinispan.util.ByteString;
 
@@ -23,22 +27,41 @@
 @ProtoTypeId(ProtoStreamTypeIds.STATE_TRANSFER_START_COMMAND)
 public class StateTransferStartCommand extends AbstractStateTransferCommand {
 
+   @ProtoField(4)
+   final Collection<SegmentDigest> digests;
+
    @ProtoFactory
-   StateTransferStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments) {
-      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments));
+   StateTransferStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments,
+                             Collection<SegmentDigest> digests) {
+      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments), digests);
    }
 
    public StateTransferStartCommand(ByteString cacheName, int topologyId, IntSet segments) {
+      this(cacheName, topologyId, segments, Collections.emptyList());
+   }
+
+   /**
+    * @param digests the digests of the entries the requester already has in some of the segments, the provider
+    *                only sends the entries that differ in those segments
+    * @since 16.3
+    */
+   public StateTransferStartCommand(ByteString cacheName, int topologyId, IntSet segments,
+                                    Collection<SegmentDigest> digests) {
       super(cacheName, topologyId, segments);
+      this.digests = digests == null ? Collections.emptyList() : digests;
    }
 
    @Override
    public CompletionStage<?> invokeAsync(ComponentRegistry registry) throws Throwable {
       StateProvider stateProvider = registry.getStateTransferManager().getStateProvider();
-      stateProvider.startOutboundTransfer(origin, topologyId, segments, true);
+      stateProvider.startOutboundTransfer(origin, topologyId, segments, true, digests);
       return CompletableFutures.completedNull();
    }
 
+   public Collection<SegmentDigest> getDigests() {
+      return digests;
+   }
+
    @Override
    public NodeVersion supportedSince() {
       return NodeVersion.SIXTEEN;
@@ -49,6 +72,7 @@ public String toString() {
       return "StateTransferStartCommand{" +
             "topologyId=" + topologyId +
             ", segments=" + segments +
+            ", digests=" + digests.size() +
             ", cacheName=" + cacheName +
             '}';
    }
@@ -32,15 +32,17 @@ public class HashConfiguration extends ConfigurationElement<HashConfiguration> {
          .initializer(HashFunctionPartitioner::new)
          .serializer(AttributeSerializer.INSTANCE_CLASS_NAME)
          .immutable().build();
+   public static final AttributeDefinition<ReadRouting> READ_ROUTING = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.READ_ROUTING, ReadRouting.PRIMARY).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(HashConfiguration.class, NUM_OWNERS,
-            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER);
+            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER, READ_ROUTING);
    }
 
    private final Attribute<Integer> numOwners;
    private final Attribute<Integer> numSegments;
    private final Attribute<Float> capacityFactor;
+   private final Attribute<ReadRouting> readRouting;
 
    private final GroupsConfiguration groupsConfiguration;
 
@@ -50,6 +52,7 @@ static AttributeSet attributeDefinitionSet() {
       numOwners = attributes.attribute(NUM_OWNERS);
       numSegments = attributes.attribute(NUM_SEGMENTS);
       capacityFactor = attributes.attribute(CAPACITY_FACTOR);
+      readRouting = attributes.attribute(READ_ROUTING);
       attributes.attribute(KEY_PARTITIONER).get().init(this);
    }
 
@@ -88,6 +91,15 @@ public KeyPartitioner keyPartitioner() {
       return attributes.attribute(KEY_PARTITIONER).get();
    }
 
+   /**
+    * Controls which owner of a key is asked first when the key is read from a remote node.
+    *
+    * @since 16.3
+    */
+   public ReadRouting readRouting() {
+      return readRouting.get();
+   }
+
    /**
     * Configuration for various grouper definitions. See the user guide for more information.
     */
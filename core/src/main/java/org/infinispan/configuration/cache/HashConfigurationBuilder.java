@@ -4,6 +4,7 @@
 import static org.infinispan.configuration.cache.HashConfiguration.KEY_PARTITIONER;
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_OWNERS;
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_SEGMENTS;
+import static org.infinispan.configuration.cache.HashConfiguration.READ_ROUTING;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -99,6 +100,19 @@ public KeyPartitioner keyPartitioner() {
       return attributes.attribute(KEY_PARTITIONER).get();
    }
 
+   /**
+    * Controls which owner of a key is asked first when the key is read from a remote node. The other owners are asked
+    * as well if the first one does not reply in time.
+    * <p>
+    * The default is {@link ReadRouting#PRIMARY}.
+    *
+    * @since 16.3
+    */
+   public HashConfigurationBuilder readRouting(ReadRouting readRouting) {
+      attributes.attribute(READ_ROUTING).set(readRouting);
+      return this;
+   }
+
    public GroupsConfigurationBuilder groups() {
       return groupsConfigurationBuilder;
    }
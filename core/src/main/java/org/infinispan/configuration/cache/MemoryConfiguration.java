@@ -21,9 +21,10 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<String> EVICTION_CONTAINER = AttributeDefinition.builder(Attribute.EVICTION_CONTAINER, null, String.class).immutable().build();
+   public static final AttributeDefinition<String> OFF_HEAP_MAX_SIZE = AttributeDefinition.builder(Attribute.OFF_HEAP_MAX_SIZE, null, String.class).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER, OFF_HEAP_MAX_SIZE);
    }
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -101,6 +102,31 @@ public String evictionContainer() {
       return attributes.attribute(EVICTION_CONTAINER).get();
    }
 
+   /**
+    * The maximum size of the off-heap tier that holds the entries evicted from the heap.
+    * @return the configured size, or null if entries evicted from the heap are removed from memory
+    * @since 16.3
+    */
+   public String offHeapMaxSize() {
+      return attributes.attribute(OFF_HEAP_MAX_SIZE).get();
+   }
+
+   /**
+    * @return the maximum size of the off-heap tier in bytes or -1 if not configured.
+    * @since 16.3
+    */
+   public long offHeapMaxSizeBytes() {
+      return maxSizeToBytes(offHeapMaxSize());
+   }
+
+   /**
+    * @return true if entries evicted from the heap are moved to an off-heap tier
+    * @since 16.3
+    */
+   public boolean isTiered() {
+      return offHeapMaxSize() != null;
+   }
+
    private boolean isSizeBounded() {
       return maxSize() != null;
    }
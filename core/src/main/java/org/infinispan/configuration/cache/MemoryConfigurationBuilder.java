@@ -120,6 +120,36 @@ public String evictionContainer() {
       return attributes.attribute(MemoryConfiguration.EVICTION_CONTAINER).get();
    }
 
+   /**
+    * Moves the entries evicted from the heap to an off-heap tier of the given size, instead of removing them from
+    * memory. Entries are serialized when they are moved off-heap, and deserialized and moved back to the heap
+    * when they are accessed again. Entries are passivated, or removed, only when they are evicted from the off-heap
+    * tier.
+    * <p>
+    * Requires {@link StorageType#HEAP} storage bounded by {@link #maxCount(long)} or {@link #maxSize(String)}.
+    *
+    * @param size the maximum size of the off-heap tier, with an optional unit as in {@link #maxSize(String)}
+    * @return this
+    * @since 16.3
+    */
+   public MemoryConfigurationBuilder offHeapMaxSize(String size) {
+      attributes.attribute(MemoryConfiguration.OFF_HEAP_MAX_SIZE).set(size);
+      return this;
+   }
+
+   /**
+    * Same as {@link #offHeapMaxSize(String)}, with the size in bytes.
+    * @since 16.3
+    */
+   public MemoryConfigurationBuilder offHeapMaxSize(long size) {
+      attributes.attribute(MemoryConfiguration.OFF_HEAP_MAX_SIZE).set(Long.toString(size));
+      return this;
+   }
+
+   public String offHeapMaxSize() {
+      return attributes.attribute(MemoryConfiguration.OFF_HEAP_MAX_SIZE).get();
+   }
+
    private void checkBinaryRequirement() {
       if (!storage().canStoreReferences()) {
          if (getBuilder().clustering().hash().groups().isEnabled()) {
@@ -147,6 +177,15 @@ public void validate() {
          }
       }
       EvictionStrategy strategy = whenFull();
+      if (offHeapMaxSize() != null) {
+         if (storage() != StorageType.HEAP || evictionContainer() != null || (!isSizeBounded() && !isCountBounded()) ||
+               strategy.isExceptionBased() || strategy == EvictionStrategy.MANUAL) {
+            throw CONFIG.offHeapTierRequiresBoundedHeap();
+         }
+         if (MemoryConfiguration.maxSizeToBytes(offHeapMaxSize()) <= 0) {
+            throw CONFIG.invalidEvictionSize();
+         }
+      }
       if (strategy.isEnabled()) {
          if (!isSizeBounded() && !isCountBounded()) {
             throw CONFIG.invalidEvictionSize();
@@ -0,0 +1,40 @@
+package org.infinispan.configuration.cache;
+
+import java.util.Locale;
+
+/**
+ * Controls which owner of a key is asked first when a clustered cache reads the key from a remote node.
+ * <p>
+ * Regardless of the policy, the other owners are asked as well if the first one does not reply in time.
+ *
+ * @since 16.3
+ */
+public enum ReadRouting {
+   /**
+    * Read from the primary owner. This is the default.
+    */
+   PRIMARY,
+   /**
+    * Read from a random owner, preferring the owners on the same machine, rack or site as the local node.
+    */
+   ANY_OWNER,
+   /**
+    * Read from the owner with the lowest load, estimated from its recent response times and from the number of reads
+    * waiting for its reply.
+    */
+   LEAST_LOADED;
+
+   private final String value = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+   @Override
+   public String toString() {
+      return value;
+   }
+
+   /**
+    * @return the policy with the given name, either in the {@code least-loaded} or in the {@code LEAST_LOADED} form
+    */
+   public static ReadRouting fromString(String value) {
+      return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+   }
+}
@@ -4,6 +4,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.ByteQuantity;
 import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Element;
 
@@ -18,15 +19,22 @@ public class StateTransferConfiguration extends ConfigurationElement<StateTransf
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, true).immutable().build();
    public static final AttributeDefinition<TimeQuantity> TIMEOUT = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TIMEOUT, TimeQuantity.valueOf("4m")).parser(TimeQuantity.PARSER).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_SIZE, 512).immutable().build();
+   public static final AttributeDefinition<Boolean> INCREMENTAL_REJOIN = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INCREMENTAL_REJOIN, false).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_CONCURRENT_SEGMENTS = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_CONCURRENT_SEGMENTS, -1).immutable().build();
+   public static final AttributeDefinition<String> MAX_BANDWIDTH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_BANDWIDTH, null, String.class).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER, INCREMENTAL_REJOIN,
+            MAX_CONCURRENT_SEGMENTS, MAX_BANDWIDTH);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<TimeQuantity> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Boolean> incrementalRejoin;
+   private final Attribute<Integer> maxConcurrentSegments;
+   private final Attribute<String> maxBandwidth;
 
    StateTransferConfiguration(AttributeSet attributes) {
       super(Element.STATE_TRANSFER, attributes);
@@ -34,6 +42,9 @@ static AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      incrementalRejoin = attributes.attribute(INCREMENTAL_REJOIN);
+      maxConcurrentSegments = attributes.attribute(MAX_CONCURRENT_SEGMENTS);
+      maxBandwidth = attributes.attribute(MAX_BANDWIDTH);
    }
 
    /**
@@ -63,6 +74,46 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * If {@code true}, a node that owns entries in a private store sends a digest of those entries when it requests
+    * segments, and the other owners only send the entries that differ. This speeds up the rejoin of nodes restarted
+    * with a populated store, at the cost of reading the local entries of the requested segments on both sides.
+    *
+    * @since 16.3
+    */
+   public boolean incrementalRejoin() {
+      return incrementalRejoin.get();
+   }
+
+   /**
+    * The maximum number of segments this node receives at the same time, or -1 for no limit. When limited, the
+    * segments accessed most often on this node are requested first.
+    *
+    * @since 16.3
+    */
+   public int maxConcurrentSegments() {
+      return maxConcurrentSegments.get();
+   }
+
+   /**
+    * The maximum rate of state transfer for this cache, e.g. {@code 10MB} for 10 megabytes per second, or null for no
+    * limit.
+    *
+    * @since 16.3
+    */
+   public String maxBandwidth() {
+      return maxBandwidth.get();
+   }
+
+   /**
+    * @return the maximum rate of state transfer in bytes per second, or -1 if not configured.
+    * @since 16.3
+    */
+   public long maxBandwidthBytes() {
+      String value = maxBandwidth.get();
+      return value == null ? -1 : ByteQuantity.parse(value);
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -3,6 +3,9 @@
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.INCREMENTAL_REJOIN;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_BANDWIDTH;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_CONCURRENT_SEGMENTS;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 import static org.infinispan.util.logging.Log.CONFIG;
 
@@ -12,6 +15,7 @@
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.ByteQuantity;
 import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.global.GlobalConfiguration;
 
@@ -64,6 +68,50 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * If {@code true}, a node that owns entries in a private store sends a digest of those entries when it requests
+    * segments, and the other owners only send the entries that differ. This speeds up the rejoin of nodes restarted
+    * with a populated store, at the cost of reading the local entries of the requested segments on both sides.
+    *
+    * @since 16.3
+    */
+   public StateTransferConfigurationBuilder incrementalRejoin(boolean b) {
+      attributes.attribute(INCREMENTAL_REJOIN).set(b);
+      return this;
+   }
+
+   /**
+    * The maximum number of segments this node receives at the same time, or -1 for no limit. When limited, the
+    * segments accessed most often on this node are requested first.
+    *
+    * @since 16.3
+    */
+   public StateTransferConfigurationBuilder maxConcurrentSegments(int i) {
+      attributes.attribute(MAX_CONCURRENT_SEGMENTS).set(i);
+      return this;
+   }
+
+   /**
+    * The maximum rate of state transfer for this cache, e.g. {@code 10MB} for 10 megabytes per second. By default the
+    * rate is not limited.
+    *
+    * @since 16.3
+    */
+   public StateTransferConfigurationBuilder maxBandwidth(String bandwidth) {
+      attributes.attribute(MAX_BANDWIDTH).set(bandwidth);
+      return this;
+   }
+
+   /**
+    * Same as {@link #maxBandwidth(String)}, in bytes per second.
+    *
+    * @since 16.3
+    */
+   public StateTransferConfigurationBuilder maxBandwidth(long bytesPerSecond) {
+      attributes.attribute(MAX_BANDWIDTH).set(Long.toString(bytesPerSecond));
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -100,6 +148,16 @@ public void validate() {
          throw CONFIG.invalidChunkSize(chunkSize);
       }
 
+      int maxConcurrentSegments = attributes.attribute(MAX_CONCURRENT_SEGMENTS).get();
+      if (maxConcurrentSegments == 0 || maxConcurrentSegments < -1) {
+         throw CONFIG.invalidMaxConcurrentSegments(maxConcurrentSegments);
+      }
+
+      String maxBandwidth = attributes.attribute(MAX_BANDWIDTH).get();
+      if (maxBandwidth != null && ByteQuantity.parse(maxBandwidth) <= 0) {
+         throw CONFIG.invalidStateTransferBandwidth(maxBandwidth);
+      }
+
       if (clustering().cacheMode().isInvalidation()) {
          Attribute<Boolean> fetchAttribute = attributes.attribute(FETCH_IN_MEMORY_STATE);
          if (fetchAttribute.isModified() && fetchAttribute.get()) {
@@ -38,13 +38,16 @@ public enum Attribute {
     CAPACITY,
     CAPACITY_FACTOR,
     CATEGORIES,
+    CHECKSUM,
     CHUNK_SIZE,
     CLASS,
     CLUSTER,
     COLLECTOR_ENDPOINT,
     COMMIT_INTERVAL,
     COMPACTION_THRESHOLD,
+    COMPACT_INDEX,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
+    COMPRESSION,
     CONCURRENCY_LEVEL,
     CONFIGURATION,
     CONNECTION_ATTEMPTS,
@@ -85,6 +88,7 @@ public enum Attribute {
     GROUP_ONLY_MAPPING,
     HISTOGRAMS,
     ID,
+    INCREMENTAL_REJOIN,
     INDEX,
     INDEX_QUEUE_LENGTH("max-queue-length"),
     INDEXED_ENTITIES,
@@ -114,8 +118,10 @@ public enum Attribute {
     MACHINE_ID("machine"),
     MAPPER,
     MARSHALLER,
+    MAX_BANDWIDTH,
     MAX_BATCH_SIZE,
     MAX_CLEANUP_DELAY,
+    MAX_CONCURRENT_SEGMENTS,
     MAX_COUNT,
     MAX_ENTRIES,
     MAX_FILE_SIZE,
@@ -130,6 +136,7 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED,
     MEMORY_THRESHOLD,
     MIN_NODE_SIZE,
     MODE,
@@ -143,6 +150,7 @@ public enum Attribute {
     NON_BLOCKING_EXECUTOR,
     NOTIFICATIONS,
     ON_REHASH("onRehash"),
+    OFF_HEAP_MAX_SIZE,
     OPEN_FILES_LIMIT,
     OWNERS,
     PATH,
@@ -166,6 +174,7 @@ public enum Attribute {
     RAM_BUFFER_SIZE,
     RAFT_MEMBERS,
     READ_ONLY,
+    READ_ROUTING,
     REAPER_WAKE_UP_INTERVAL("reaper-interval"),
     REBATCH_REQUESTS_SIZE,
     RECOVERY_INFO_CACHE_NAME("recovery-cache"),
@@ -39,6 +39,7 @@
 import org.infinispan.configuration.cache.MemoryConfigurationBuilder;
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.ReadRouting;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfigurationBuilder;
@@ -48,6 +49,7 @@
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.expiration.TouchMode;
 import org.infinispan.partitionhandling.PartitionHandling;
+import org.infinispan.persistence.sifs.configuration.CompressionType;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.telemetry.SpanCategory;
 import org.infinispan.transaction.LockingMode;
@@ -835,6 +837,15 @@ protected void parseDistributedCache(ConfigurationReader reader, ConfigurationBu
                builder.clustering().hash().capacityFactor(Float.parseFloat(value));
                break;
             }
+            case READ_ROUTING: {
+               try {
+                  builder.clustering().hash().readRouting(ReadRouting.fromString(value));
+               } catch (IllegalArgumentException e) {
+                  throw CONFIG.invalidAttributeEnumValue(reader.getLocalName(), reader.getAttributeName(i), value,
+                        Arrays.toString(ReadRouting.values()), reader.getLocation());
+               }
+               break;
+            }
             default: {
                this.parseSegmentedCacheAttribute(reader, i, attribute, value, builder, holder.getClassLoader());
             }
@@ -1034,6 +1045,15 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case COMPRESSION:
+               builder.compression(ParseUtils.parseEnum(reader, i, CompressionType.class, value));
+               break;
+            case CHECKSUM:
+               builder.checksum(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            case MEMORY_MAPPED:
+               builder.memoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
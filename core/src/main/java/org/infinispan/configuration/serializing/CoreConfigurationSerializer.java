@@ -688,6 +688,7 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
          attributes.write(writer, MemoryConfiguration.EVICTION_CONTAINER, Attribute.EVICTION_CONTAINER);
+         attributes.write(writer, MemoryConfiguration.OFF_HEAP_MAX_SIZE, Attribute.OFF_HEAP_MAX_SIZE);
          writer.writeEndElement();
       }
    }
@@ -860,7 +861,10 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.COMPRESSION,
+            DataConfiguration.CHECKSUM,
+            DataConfiguration.MEMORY_MAPPED);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -2,6 +2,7 @@
 
 import static org.infinispan.factories.KnownComponentNames.CACHE_NAME;
 import static org.infinispan.factories.KnownComponentNames.NON_BLOCKING_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_MARSHALLER;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,14 +11,20 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.statetransfer.StateTransferGetDigestsCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.logging.Log;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.NullCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
@@ -33,10 +40,17 @@
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.impl.PassthroughSingleResponseCollector;
 import org.infinispan.statetransfer.InboundTransferTask;
+import org.infinispan.statetransfer.SegmentDigest;
 import org.infinispan.statetransfer.StateChunk;
+import org.infinispan.statetransfer.StateProvider;
 import org.infinispan.topology.CacheTopology;
 
 /**
@@ -55,6 +69,9 @@
    @Inject CommandsFactory commandsFactory;
    @Inject InternalDataContainer<K, V> dataContainer;
    @Inject RpcManager rpcManager;
+   @Inject StateProvider stateProvider;
+   @Inject @ComponentName(PERSISTENCE_MARSHALLER)
+   Marshaller persistenceMarshaller;
    @Inject @ComponentName(NON_BLOCKING_EXECUTOR)
    ExecutorService nonBlockingExecutor;
 
@@ -125,9 +142,35 @@ Map<Address, InboundTransferTask> getTransferTaskMap(int segmentId) {
       return requestMap.get(segmentId).transferTaskMap;
    }
 
-   InboundTransferTask createTransferTask(int segmentId, Address source, CacheTopology topology, long transferTimeout) {
+   InboundTransferTask createTransferTask(int segmentId, Address source, CacheTopology topology, long transferTimeout,
+                                          IntSet buckets) {
       return new InboundTransferTask(IntSets.immutableSet(segmentId), source, topology.getTopologyId(),
-            rpcManager, commandsFactory, transferTimeout, cacheName, false);
+            rpcManager, commandsFactory, transferTimeout, cacheName, buckets);
+   }
+
+   /**
+    * Only compare the digests of the replicas if all the members understand the digest requests.
+    */
+   private boolean canUseDigests() {
+      return !rpcManager.getTransport().getOldestMember().lessThan(StateTransferGetDigestsCommand.SUPPORTED_SINCE);
+   }
+
+   private boolean isInBuckets(Object key, IntSet buckets) {
+      if (buckets == null)
+         return true;
+      try {
+         return buckets.contains(SegmentDigest.bucketOf(persistenceMarshaller, key));
+      } catch (Exception e) {
+         return true;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private static Collection<SegmentDigest> digestsFromResponse(Response response) {
+      if (response instanceof SuccessfulResponse<?> successfulResponse) {
+         return (Collection<SegmentDigest>) successfulResponse.getResponseValue();
+      }
+      throw new CacheException(String.valueOf(response));
    }
 
    class SegmentRequest {
@@ -166,11 +209,75 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
             }
          });
 
+         if (canUseDigests()) {
+            requestDigests().whenComplete((buckets, t) -> stateReceiverExecutor.execute(() -> requestEntries(buckets)));
+         } else {
+            requestEntries(null);
+         }
+         return future;
+      }
+
+      /**
+       * Requests the digests of the segment from all the replicas, and compares them to find the buckets with
+       * conflicting entries.
+       *
+       * @return a {@code CompletionStage} that completes with the buckets where the replicas differ, or with
+       * {@code null} if the digests could not be compared
+       */
+      private CompletionStage<IntSet> requestDigests() {
+         IntSet segments = IntSets.immutableSet(segmentId);
+         Map<Address, CompletionStage<Collection<SegmentDigest>>> stages = new HashMap<>();
+         for (Address replica : replicaHosts) {
+            if (replica.equals(rpcManager.getAddress())) {
+               stages.put(replica, stateProvider.getSegmentDigests(replica, topology.getTopologyId(), segments));
+            } else {
+               StateTransferGetDigestsCommand cmd =
+                     commandsFactory.buildStateTransferGetDigestsCommand(topology.getTopologyId(), segments);
+               RpcOptions rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
+               stages.put(replica, rpcManager.invokeCommand(replica, cmd, PassthroughSingleResponseCollector.INSTANCE,
+                                                            rpcOptions)
+                                             .thenApply(StateReceiverImpl::digestsFromResponse));
+            }
+         }
+         return CompletionStages.allOf(stages.values().toArray(CompletionStage[]::new))
+               .handle((ignored, t) -> {
+                  if (t != null) {
+                     log.debugf(t, "Cache %s could not compare the digests of segment %s, requesting all the entries",
+                                cacheName, segmentId);
+                     return null;
+                  }
+                  List<SegmentDigest> digests = new ArrayList<>(stages.size());
+                  for (CompletionStage<Collection<SegmentDigest>> stage : stages.values()) {
+                     Collection<SegmentDigest> replicaDigests = CompletionStages.join(stage);
+                     if (replicaDigests == null || replicaDigests.isEmpty()) {
+                        // The replica could not hash its entries
+                        return null;
+                     }
+                     digests.addAll(replicaDigests);
+                  }
+                  IntSet buckets = SegmentDigest.differingBuckets(digests);
+                  if (log.isTraceEnabled())
+                     log.tracef("Cache %s replicas of segment %s differ in %d buckets", cacheName, segmentId,
+                                buckets.size());
+                  return buckets;
+               });
+      }
+
+      private synchronized void requestEntries(IntSet buckets) {
+         if (future.isDone())
+            return;
+
+         if (buckets != null && buckets.isEmpty()) {
+            // All the replicas have the same entries
+            completeRequest();
+            return;
+         }
+
          for (final Address replica : replicaHosts) {
             if (replica.equals(rpcManager.getAddress())) {
                dataContainer.forEach(entry -> {
                   int keySegment = topology.getDistribution(entry.getKey()).segmentId();
-                  if (keySegment == segmentId) {
+                  if (keySegment == segmentId && isInBuckets(entry.getKey(), buckets)) {
                      addKeyToReplicaMap(replica, entry);
                   }
                });
@@ -179,7 +286,7 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
                   completeRequest();
                }
             } else {
-               final InboundTransferTask transferTask = createTransferTask(segmentId, replica, topology, timeout);
+               final InboundTransferTask transferTask = createTransferTask(segmentId, replica, topology, timeout, buckets);
                transferTaskMap.put(replica, transferTask);
 
                stateReceiverExecutor.execute(() -> {
@@ -196,7 +303,6 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
                });
             }
          }
-         return future;
       }
 
       synchronized void clear() {
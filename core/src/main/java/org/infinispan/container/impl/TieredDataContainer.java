@@ -0,0 +1,602 @@
+package org.infinispan.container.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.MarshallingException;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.FilterIterator;
+import org.infinispan.commons.util.FilterSpliterator;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IteratorMapper;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.CacheEntrySizeCalculator;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+import org.reactivestreams.Publisher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.google.errorprone.annotations.ThreadSafe;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Data container that keeps the most recently used entries on the heap, and moves the entries evicted from the heap
+ * to a bounded off-heap tier instead of removing them.
+ * <p>
+ * Entries are serialized with the persistence marshaller when they are moved off-heap, and they are deserialized and
+ * moved back to the heap the next time they are read or written. Only the entries evicted from the off-heap tier are
+ * passivated and reported to the eviction listeners. Peeking, touching and iterating do not move entries between
+ * the tiers.
+ * <p>
+ * An entry is moved between the tiers while holding the heap lock for its key, so operations on the same key always
+ * see it in one of the tiers. Iteration is weakly consistent: it visits the heap tier first and the off-heap tier
+ * second, and may miss or repeat an entry that is concurrently moved to the other tier.
+ * <p>
+ * {@link #capacity()}, {@link #evictionSize()} and {@link #resize(long)} refer to the heap tier.
+ *
+ * @since 16.3
+ */
+@ThreadSafe
+public class TieredDataContainer<K, V> extends AbstractInternalDataContainer<K, V> {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+
+   @Inject @ComponentName(KnownComponentNames.PERSISTENCE_MARSHALLER)
+   Marshaller marshaller;
+
+   private final Cache<K, InternalCacheEntry<K, V>> evictionCache;
+   private final PeekableTouchableCaffeineMap<K, V> heapEntries;
+   private final OffHeapTier offHeapTier;
+   private final TieredMap entries;
+
+   public TieredDataContainer(long thresholdSize, boolean memoryBound, long offHeapMaxSize) {
+      Caffeine<K, InternalCacheEntry<K, V>> caffeine = caffeineBuilder();
+      if (memoryBound) {
+         CacheEntrySizeCalculator<K, V> calc = new CacheEntrySizeCalculator<>(new WrappedByteArraySizeCalculator<>(
+               new PrimitiveEntrySizeCalculator()));
+         caffeine.weigher((k, v) -> (int) calc.calculateSize(k, v)).maximumWeight(thresholdSize);
+      } else {
+         caffeine.maximumSize(thresholdSize);
+      }
+      DefaultEvictionListener evictionListener = new DefaultEvictionListener() {
+         @Override
+         void onEntryChosenForEviction(K key, InternalCacheEntry<K, V> value) {
+            if (!moveOffHeap(key, value)) {
+               super.onEntryChosenForEviction(key, value);
+            }
+         }
+      };
+      evictionCache = applyListener(caffeine, evictionListener).build();
+      heapEntries = new PeekableTouchableCaffeineMap<>(evictionCache);
+      offHeapTier = new OffHeapTier(offHeapMaxSize, this);
+      entries = new TieredMap();
+   }
+
+   @Inject
+   void injectOffHeapTier(ComponentRegistry componentRegistry) {
+      componentRegistry.wireDependencies(offHeapTier, true);
+   }
+
+   @Start
+   public void start() {
+      offHeapTier.start();
+   }
+
+   @Stop
+   public void stop() {
+      clear();
+      offHeapTier.stop();
+   }
+
+   @Override
+   protected PeekableTouchableMap<K, V> getMapForSegment(int segment) {
+      return entries;
+   }
+
+   @Override
+   protected int getSegmentForKey(Object key) {
+      // We always map to same map, so no reason to waste finding out segment
+      return -1;
+   }
+
+   /**
+    * Invoked by the heap tier while holding the lock for the evicted key.
+    * @return whether the entry was moved to the off-heap tier, or it must be evicted from the container
+    */
+   private boolean moveOffHeap(K key, InternalCacheEntry<K, V> ice) {
+      if (ice.isL1Entry() || ice.getValue() == null) {
+         return false;
+      }
+      WrappedBytes keyBytes;
+      WrappedBytes valueBytes;
+      try {
+         keyBytes = toBytes(key);
+         valueBytes = toBytes(ice.getValue());
+      } catch (MarshallingException e) {
+         log.tracef(e, "Unable to move entry for key %s off-heap, evicting it instead", Util.toStr(key));
+         return false;
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Moving entry for key %s off-heap", Util.toStr(key));
+      }
+      offHeapTier.put(0, keyBytes, valueBytes, ice.getMetadata(), ice.getInternalMetadata(), ice.getCreated(),
+            ice.getLastUsed());
+      return true;
+   }
+
+   /**
+    * @return the serialized key, or null if the off-heap tier is empty or the key cannot be serialized, as it cannot
+    * be off-heap in either case
+    */
+   private WrappedBytes offHeapKey(Object key) {
+      if (offHeapTier.sizeIncludingExpired() == 0) {
+         return null;
+      }
+      try {
+         return toBytes(key);
+      } catch (MarshallingException e) {
+         return null;
+      }
+   }
+
+   /**
+    * Removes the entry from the off-heap tier so it can be moved back to the heap. Must be invoked while holding the
+    * heap lock for the key.
+    */
+   private InternalCacheEntry<K, V> removeOffHeap(K key) {
+      WrappedBytes keyBytes = offHeapKey(key);
+      if (keyBytes == null) {
+         return null;
+      }
+      ByRef<InternalCacheEntry<WrappedBytes, WrappedBytes>> ref = new ByRef<>(null);
+      offHeapTier.compute(0, keyBytes, (k, oldEntry, factory) -> {
+         ref.set(oldEntry);
+         return null;
+      });
+      InternalCacheEntry<WrappedBytes, WrappedBytes> offHeapEntry = ref.get();
+      if (offHeapEntry == null) {
+         return null;
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Moving entry for key %s back to the heap", Util.toStr(key));
+      }
+      return toHeapEntry(key, offHeapEntry);
+   }
+
+   private boolean isOffHeap(Object key) {
+      WrappedBytes keyBytes = offHeapKey(key);
+      return keyBytes != null && offHeapTier.peek(0, keyBytes) != null;
+   }
+
+   private InternalCacheEntry<K, V> peekOffHeap(Object key) {
+      WrappedBytes keyBytes = offHeapKey(key);
+      if (keyBytes == null) {
+         return null;
+      }
+      InternalCacheEntry<WrappedBytes, WrappedBytes> offHeapEntry = offHeapTier.peek(0, keyBytes);
+      return offHeapEntry != null ? toHeapEntry((K) key, offHeapEntry) : null;
+   }
+
+   void offHeapEntryEvicted(InternalCacheEntry<WrappedBytes, WrappedBytes> offHeapEntry) {
+      InternalCacheEntry<K, V> ice = toHeapEntry((K) fromBytes(offHeapEntry.getKey()), offHeapEntry);
+      handleEviction(ice, orderer, passivator.running(), evictionManager, this, nonBlockingExecutor, null);
+   }
+
+   private InternalCacheEntry<K, V> toHeapEntry(K key, InternalCacheEntry<WrappedBytes, WrappedBytes> offHeapEntry) {
+      InternalCacheEntry<K, V> ice = entryFactory.create(key, (V) fromBytes(offHeapEntry.getValue()), offHeapEntry);
+      ice.setInternalMetadata(offHeapEntry.getInternalMetadata());
+      return ice;
+   }
+
+   private WrappedBytes toBytes(Object o) {
+      try {
+         return new WrappedByteArray(marshaller.objectToByteBuffer(o));
+      } catch (IOException e) {
+         throw new MarshallingException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new MarshallingException(e);
+      }
+   }
+
+   private Object fromBytes(WrappedBytes bytes) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes.getBytes(), bytes.backArrayOffset(), bytes.getLength());
+      } catch (IOException | ClassNotFoundException e) {
+         throw new MarshallingException(e);
+      }
+   }
+
+   private Policy.Eviction<K, InternalCacheEntry<K, V>> eviction() {
+      Optional<Policy.Eviction<K, InternalCacheEntry<K, V>>> eviction = evictionCache.policy().eviction();
+      if (eviction.isPresent()) {
+         return eviction.get();
+      }
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public long capacity() {
+      return eviction().getMaximum();
+   }
+
+   @Override
+   public void resize(long newSize) {
+      eviction().setMaximum(newSize);
+   }
+
+   @Override
+   public long evictionSize() {
+      return eviction().weightedSize().orElse(heapEntries.size());
+   }
+
+   /**
+    * @return the number of bytes used by the off-heap tier
+    */
+   public long offHeapEvictionSize() {
+      return offHeapTier.evictionSize();
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return entries.size();
+   }
+
+   @Override
+   public void clear(IntSet segments) {
+      Iterator<InternalCacheEntry<K, V>> iter = iteratorIncludingExpired(segments);
+      while (iter.hasNext()) {
+         iter.next();
+         iter.remove();
+      }
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing data container");
+      entries.clear();
+   }
+
+   @Override
+   public Publisher<InternalCacheEntry<K, V>> publisher(IntSet segments) {
+      return Flowable.fromIterable(() -> iterator(segments));
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(iteratorIncludingExpired());
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator(IntSet segments) {
+      return new FilterIterator<>(iterator(), ice -> segments.contains(keyPartitioner.getSegment(ice.getKey())));
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliterator() {
+      return filterExpiredEntries(spliteratorIncludingExpired());
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliterator(IntSet segments) {
+      return new FilterSpliterator<>(spliterator(),
+            ice -> segments.contains(keyPartitioner.getSegment(ice.getKey())));
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired() {
+      return entries.values().spliterator();
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired(IntSet segments) {
+      return new FilterSpliterator<>(spliteratorIncludingExpired(),
+            ice -> segments.contains(keyPartitioner.getSegment(ice.getKey())));
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return entries.values().iterator();
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments) {
+      return new FilterIterator<>(iteratorIncludingExpired(),
+            ice -> segments.contains(keyPartitioner.getSegment(ice.getKey())));
+   }
+
+   @Override
+   public void addSegments(IntSet segments) {
+      // All segments share the same tiers
+   }
+
+   @Override
+   public void removeSegments(IntSet segments) {
+      clear(segments);
+   }
+
+   @Override
+   public void cleanUp() {
+      // Caffeine may not evict an entry right away if concurrent threads are writing, so this forces a cleanUp
+      evictionCache.cleanUp();
+   }
+
+   @Override
+   public void forEachSegment(ObjIntConsumer<PeekableTouchableMap<K, V>> segmentMapConsumer) {
+      segmentMapConsumer.accept(entries, 0);
+   }
+
+   /**
+    * Off-heap tier that hands the entries it evicts back to the owning container.
+    */
+   static class OffHeapTier extends BoundedOffHeapDataContainer {
+      private final TieredDataContainer<?, ?> owner;
+
+      OffHeapTier(long maxSize, TieredDataContainer<?, ?> owner) {
+         super(maxSize, true);
+         this.owner = owner;
+      }
+
+      @Override
+      protected void entryEvicted(InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
+         owner.offHeapEntryEvicted(ice);
+      }
+   }
+
+   /**
+    * Map view over both tiers. All the writes go through the heap tier, moving the entry back from the off-heap tier
+    * first if needed.
+    */
+   class TieredMap extends AbstractMap<K, InternalCacheEntry<K, V>> implements PeekableTouchableMap<K, V> {
+      private final ConcurrentMap<K, InternalCacheEntry<K, V>> heap = evictionCache.asMap();
+
+      @Override
+      public InternalCacheEntry<K, V> get(Object key) {
+         InternalCacheEntry<K, V> ice = heap.get(key);
+         if (ice != null || !isOffHeap(key)) {
+            return ice;
+         }
+         return heap.computeIfAbsent((K) key, TieredDataContainer.this::removeOffHeap);
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> peek(Object key) {
+         InternalCacheEntry<K, V> ice = heapEntries.peek(key);
+         return ice != null ? ice : peekOffHeap(key);
+      }
+
+      @Override
+      public boolean touchKey(Object key, long currentTimeMillis) {
+         if (heapEntries.touchKey(key, currentTimeMillis)) {
+            return true;
+         }
+         WrappedBytes keyBytes = offHeapKey(key);
+         return keyBytes != null && offHeapTier.touch(0, keyBytes, currentTimeMillis);
+      }
+
+      @Override
+      public void touchAll(long currentTimeMillis) {
+         heapEntries.touchAll(currentTimeMillis);
+         offHeapTier.forEachSegment((map, segment) -> map.touchAll(currentTimeMillis));
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+         return peek(key) != null;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> compute(K key,
+            BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+         return heap.compute(key, (k, ice) -> remappingFunction.apply(k, ice != null ? ice : removeOffHeap(k)));
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> computeIfPresent(K key,
+            BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+         return compute(key, (k, ice) -> ice != null ? remappingFunction.apply(k, ice) : null);
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> computeIfAbsent(K key,
+            Function<? super K, ? extends InternalCacheEntry<K, V>> mappingFunction) {
+         return compute(key, (k, ice) -> ice != null ? ice : mappingFunction.apply(k));
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> put(K key, InternalCacheEntry<K, V> value) {
+         ByRef<InternalCacheEntry<K, V>> previous = new ByRef<>(null);
+         compute(key, (k, ice) -> {
+            previous.set(ice);
+            return value;
+         });
+         return previous.get();
+      }
+
+      @Override
+      public void putNoReturn(K key, InternalCacheEntry<K, V> value) {
+         compute(key, (k, ice) -> value);
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> putIfAbsent(K key, InternalCacheEntry<K, V> value) {
+         ByRef<InternalCacheEntry<K, V>> previous = new ByRef<>(null);
+         compute(key, (k, ice) -> {
+            previous.set(ice);
+            return ice != null ? ice : value;
+         });
+         return previous.get();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> remove(Object key) {
+         ByRef<InternalCacheEntry<K, V>> previous = new ByRef<>(null);
+         compute((K) key, (k, ice) -> {
+            previous.set(ice);
+            return null;
+         });
+         return previous.get();
+      }
+
+      @Override
+      public boolean remove(Object key, Object value) {
+         ByRef.Boolean removed = new ByRef.Boolean(false);
+         compute((K) key, (k, ice) -> {
+            if (ice != null && Objects.equals(ice, value)) {
+               removed.set(true);
+               return null;
+            }
+            return ice;
+         });
+         return removed.get();
+      }
+
+      @Override
+      public boolean replace(K key, InternalCacheEntry<K, V> oldValue, InternalCacheEntry<K, V> newValue) {
+         ByRef.Boolean replaced = new ByRef.Boolean(false);
+         compute(key, (k, ice) -> {
+            if (ice != null && Objects.equals(ice, oldValue)) {
+               replaced.set(true);
+               return newValue;
+            }
+            return ice;
+         });
+         return replaced.get();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> replace(K key, InternalCacheEntry<K, V> value) {
+         ByRef<InternalCacheEntry<K, V>> previous = new ByRef<>(null);
+         compute(key, (k, ice) -> {
+            previous.set(ice);
+            return ice != null ? value : null;
+         });
+         return previous.get();
+      }
+
+      @Override
+      public int size() {
+         long size = (long) heap.size() + offHeapTier.sizeIncludingExpired();
+         return (int) Math.min(size, Integer.MAX_VALUE);
+      }
+
+      @Override
+      public boolean isEmpty() {
+         return heap.isEmpty() && offHeapTier.sizeIncludingExpired() == 0;
+      }
+
+      @Override
+      public void clear() {
+         heap.clear();
+         offHeapTier.clear();
+      }
+
+      @Override
+      public Collection<InternalCacheEntry<K, V>> values() {
+         return new AbstractCollection<>() {
+            @Override
+            public Iterator<InternalCacheEntry<K, V>> iterator() {
+               return new TieredIterator();
+            }
+
+            @Override
+            public int size() {
+               return TieredMap.this.size();
+            }
+         };
+      }
+
+      @Override
+      public Set<Entry<K, InternalCacheEntry<K, V>>> entrySet() {
+         return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, InternalCacheEntry<K, V>>> iterator() {
+               return new IteratorMapper<>(new TieredIterator(), ice -> new SimpleImmutableEntry<>(ice.getKey(), ice));
+            }
+
+            @Override
+            public int size() {
+               return TieredMap.this.size();
+            }
+         };
+      }
+   }
+
+   /**
+    * Iterates over the heap tier and then over the off-heap tier, deserializing the off-heap entries without moving
+    * them back to the heap.
+    */
+   private class TieredIterator implements Iterator<InternalCacheEntry<K, V>> {
+      private final Iterator<InternalCacheEntry<K, V>> heapIterator = evictionCache.asMap().values().iterator();
+      private Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> offHeapIterator;
+      private WrappedBytes lastOffHeapKey;
+      private boolean canRemove;
+
+      @Override
+      public boolean hasNext() {
+         if (offHeapIterator == null) {
+            if (heapIterator.hasNext()) {
+               return true;
+            }
+            offHeapIterator = offHeapTier.iteratorIncludingExpired();
+         }
+         return offHeapIterator.hasNext();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         canRemove = true;
+         if (offHeapIterator == null) {
+            return heapIterator.next();
+         }
+         InternalCacheEntry<WrappedBytes, WrappedBytes> offHeapEntry = offHeapIterator.next();
+         lastOffHeapKey = offHeapEntry.getKey();
+         return toHeapEntry((K) fromBytes(lastOffHeapKey), offHeapEntry);
+      }
+
+      @Override
+      public void remove() {
+         if (!canRemove) {
+            throw new IllegalStateException();
+         }
+         canRemove = false;
+         if (lastOffHeapKey == null) {
+            heapIterator.remove();
+         } else {
+            offHeapTier.remove(0, lastOffHeapKey);
+         }
+      }
+   }
+}
@@ -114,6 +114,8 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private final StripedLock locks;
 
    private final OffHeapMemoryAllocator allocator;
+   // Allocates the entries, all of its memory is released when the map is closed
+   private final OffHeapMemoryAllocator entryAllocator;
    private final OffHeapEntryFactory offHeapEntryFactory;
 
    private final EntryListener listener;
@@ -140,10 +142,14 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private MemoryAddressHash oldMemoryLookup;
    @GuardedBy("locks")
    private int oldMemoryShift;
+   // Set while closing if the entry allocator is an arena, whose memory is released as a whole afterwards
+   @GuardedBy("locks#lockAll")
+   private boolean releaseArena;
 
    public OffHeapConcurrentMap(OffHeapMemoryAllocator allocator,
          OffHeapEntryFactory offHeapEntryFactory, EntryListener listener) {
       this.allocator = Objects.requireNonNull(allocator);
+      this.entryAllocator = allocator.newArena();
       this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
       this.listener = listener;
 
@@ -275,7 +281,9 @@ private void entryRemoved(long removedAddress) {
       if (listener != null) {
          listener.entryRemoved(removedAddress);
       }
-      allocator.deallocate(removedAddress, offHeapEntryFactory.getSize(removedAddress, false));
+      if (!releaseArena) {
+         entryAllocator.deallocate(removedAddress, offHeapEntryFactory.getSize(removedAddress, false));
+      }
    }
 
    @GuardedBy("locks#writeLock")
@@ -283,7 +291,7 @@ private void entryReplaced(long newAddress, long oldAddress) {
       if (listener != null) {
          listener.entryReplaced(newAddress, oldAddress);
       }
-      allocator.deallocate(oldAddress, offHeapEntryFactory.getSize(oldAddress, false));
+      entryAllocator.deallocate(oldAddress, offHeapEntryFactory.getSize(oldAddress, false));
    }
 
    @GuardedBy("locks#readLock")
@@ -547,9 +555,12 @@ private void transfer(int lockOffset) {
    public void close() {
       locks.lockAll();
       try {
+         // The entries still have to be removed to notify the listener, but their memory is released with the arena
+         releaseArena = entryAllocator != allocator;
          actualClear();
          memoryLookup.deallocate();
          memoryLookup = null;
+         entryAllocator.close();
       } finally {
          locks.unlockAll();
       }
@@ -591,7 +602,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          if (prev == result) {
             // noop
          } else if (result != null) {
-            long newAddress = offHeapEntryFactory.create(key, hashCode, result);
+            long newAddress = offHeapEntryFactory.create(entryAllocator, key, hashCode, result);
             // TODO: Technically actualAddress could be a 0 and bucketAddress != 0, which means we will loop through
             // entire bucket for no reason as it will never match (doing key equality checks)
             performPut(bucketAddress, actualAddress, newAddress, key, memoryOffset, false, false);
@@ -704,7 +715,7 @@ public void putNoReturn(WrappedBytes key, InternalCacheEntry<WrappedBytes, Wrapp
 
          int memoryOffset = getMemoryOffset(hashCode);
          long address = memoryLookup.getMemoryAddressOffset(memoryOffset);
-         long newAddress = offHeapEntryFactory.create(key, hashCode, value);
+         long newAddress = offHeapEntryFactory.create(entryAllocator, key, hashCode, value);
          performPut(address, 0, newAddress, key, memoryOffset, false, false);
       } finally {
          stampedLock.unlockWrite(writeStamp);
@@ -726,7 +737,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> put(WrappedBytes key,
 
          int memoryOffset = getMemoryOffset(hashCode);
          long address = memoryLookup.getMemoryAddressOffset(memoryOffset);
-         long newAddress = offHeapEntryFactory.create(key, hashCode, value);
+         long newAddress = offHeapEntryFactory.create(entryAllocator, key, hashCode, value);
          returnedValue = performPut(address, 0, newAddress, key, memoryOffset, true, false);
       } finally {
          stampedLock.unlockWrite(writeStamp);
@@ -1078,7 +1089,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performReplace(long bucke
                ice = offHeapEntryFactory.fromMemory(address);
             }
 
-            long newAddress = offHeapEntryFactory.create(key, hashCode, newValue);
+            long newAddress = offHeapEntryFactory.create(entryAllocator, key, hashCode, newValue);
 
             entryReplaced(newAddress, address);
             if (prevAddress != 0) {
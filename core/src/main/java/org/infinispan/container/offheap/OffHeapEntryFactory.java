@@ -22,6 +22,17 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     */
    long create(WrappedBytes key, int hashCode, InternalCacheEntry<WrappedBytes, WrappedBytes> ice);
 
+   /**
+    * Creates an off-heap entry using the provided key value and metadata, in memory allocated by the given allocator
+    * @param allocator the allocator providing the memory of the entry
+    * @param key the key to use
+    * @param hashCode the hashCode of the key
+    * @param ice the internal entry to use
+    * @return the address of where the entry was created
+    */
+   long create(OffHeapMemoryAllocator allocator, WrappedBytes key, int hashCode,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice);
+
    /**
     * Returns how many bytes in memory this address location uses assuming it is an {@link InternalCacheEntry}.
     *
@@ -77,6 +77,12 @@ public void start() {
 
    @Override
    public long create(WrappedBytes key, int hashCode, InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
+      return create(allocator, key, hashCode, ice);
+   }
+
+   @Override
+   public long create(OffHeapMemoryAllocator allocator, WrappedBytes key, int hashCode,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
       byte type;
       boolean shouldWriteMetadataSize = false;
       byte[] metadataBytes;
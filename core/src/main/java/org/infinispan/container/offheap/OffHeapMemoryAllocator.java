@@ -23,4 +23,42 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Returns how much native memory is held by this allocator, including the memory kept for reuse after it was
+    * deallocated.
+    * <p>
+    * By default the allocator does not keep any memory, and the amount is the same as {@link #getAllocatedAmount()}.
+    * @return the amount of native memory in bytes
+    */
+   default long getReservedAmount() {
+      return getAllocatedAmount();
+   }
+
+   /**
+    * Returns the memory that was deallocated but is still held by this allocator to the native allocator, when it can.
+    * <p>
+    * By default the allocator does not hold any memory, and nothing is released.
+    * @return the amount of native memory released in bytes
+    */
+   default long releaseFreeMemory() {
+      return 0;
+   }
+
+   /**
+    * Creates an allocator for the entries of a single segment, which must be closed when the segment is removed.
+    * Closing the arena releases all the memory it allocated at once, even the memory that was not deallocated.
+    * <p>
+    * By default the allocator itself is returned, and closing it does nothing.
+    * @return the allocator to use for the entries of a segment
+    */
+   default OffHeapMemoryAllocator newArena() {
+      return this;
+   }
+
+   /**
+    * Releases all the memory allocated by an allocator returned from {@link #newArena()}.
+    */
+   default void close() {
+   }
 }
@@ -0,0 +1,81 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+
+/**
+ * Striped and lossy buffer of the addresses of the entries read from a bounded off-heap container, so that a read hit
+ * does not have to acquire the LRU lock to move the entry to the end of the LRU list.
+ * <p>
+ * Reading threads record the address in the stripe of the thread without blocking, and the address is dropped if the
+ * stripe is full. The recorded addresses are replayed on the LRU list by {@link #drain(LongConsumer)} while holding
+ * the LRU lock, which happens when a stripe fills up and before an entry is removed from the list. Every address
+ * still in the buffer is therefore a live entry: the removal of an entry needs the write lock of its region, which
+ * cannot be acquired while the reading thread is recording the address under the read lock.
+ *
+ * @since 16.3
+ */
+class OffHeapReadBuffer {
+   private static final int STRIPES = Math.min(Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors()), 64);
+   static final int STRIPE_SIZE = 16;
+   private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+   // Counters are spread 64 bytes apart to avoid false sharing between the stripes
+   private static final int COUNTER_SHIFT = 3;
+
+   private final AtomicLongArray addresses = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+   private final AtomicLongArray writeCounters = new AtomicLongArray(STRIPES << COUNTER_SHIFT);
+   private final AtomicLongArray readCounters = new AtomicLongArray(STRIPES << COUNTER_SHIFT);
+
+   /**
+    * Records the address of an entry that was read. The address is dropped if the stripe of the thread is full or if
+    * another thread is recording concurrently in the same stripe.
+    * @param address the address of the entry
+    * @return true if the stripe is full and should be drained
+    */
+   boolean offer(long address) {
+      int hash = Thread.currentThread().hashCode();
+      int stripe = (hash ^ (hash >>> 16)) & (STRIPES - 1);
+      int counter = stripe << COUNTER_SHIFT;
+      long head = readCounters.get(counter);
+      long tail = writeCounters.get(counter);
+      long size = tail - head;
+      if (size >= STRIPE_SIZE) {
+         return true;
+      }
+      if (writeCounters.compareAndSet(counter, tail, tail + 1)) {
+         addresses.lazySet(stripe * STRIPE_SIZE + (int) (tail & STRIPE_MASK), address);
+         return size + 1 >= STRIPE_SIZE;
+      }
+      return false;
+   }
+
+   /**
+    * Replays all the recorded addresses in the order they were recorded in each stripe. Must be invoked while holding
+    * the LRU lock.
+    * @param consumer invoked with every recorded address
+    */
+   void drain(LongConsumer consumer) {
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+         int counter = stripe << COUNTER_SHIFT;
+         long head = readCounters.get(counter);
+         long tail = writeCounters.get(counter);
+         if (head == tail) {
+            continue;
+         }
+         for (; head < tail; head++) {
+            int index = stripe * STRIPE_SIZE + (int) (head & STRIPE_MASK);
+            long address;
+            // The writer acquired the slot but has not stored the address yet, this can only take a few instructions
+            while ((address = addresses.get(index)) == 0) {
+               Thread.onSpinWait();
+            }
+            addresses.lazySet(index, 0);
+            consumer.accept(address);
+         }
+         readCounters.set(counter, head);
+      }
+   }
+}
@@ -0,0 +1,362 @@
+package org.infinispan.container.offheap;
+
+import static org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator.estimateSizeOverhead;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Memory allocator that carves the blocks out of slabs, instead of allocating every block from the native allocator.
+ * <p>
+ * Blocks are rounded up to a size class using {@link UnpooledOffHeapMemoryAllocator#estimateSizeOverhead(long)}, so
+ * the amount reported by {@link #getAllocatedAmount()} is the same as with the unpooled allocator. Deallocated blocks
+ * are kept in a free list per size class, whose link is stored in the first 8 bytes of the block, and are reused by
+ * the next allocation of the same size class. When the free list of a size class is empty, the smallest larger free
+ * block is split and the rest of it goes to the free list of its own size class, so a new slab is only allocated when
+ * no free block is large enough. Blocks larger than {@link #MAX_POOLED_SIZE} are allocated directly.
+ * <p>
+ * Every segment of the data container gets its own arena through {@link #newArena()}, so that removing a segment
+ * releases all of its slabs at once. The memory of the arena can only be reused by the same segment, and the slabs
+ * whose blocks are all free are returned to the native allocator by {@link #releaseFreeMemory()}. Only the memory
+ * bounded container calls it, so the other caches use {@link UnpooledOffHeapMemoryAllocator}.
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class);
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+
+   static final int SLAB_SIZE = 32 * 1024;
+   static final int MAX_POOLED_SIZE = 2 * 1024;
+   static final int MIN_SLAB_SIZE = 2 * MAX_POOLED_SIZE;
+   // The slabs of all the segments must not take more than this fraction of the maximum size of the cache
+   private static final int MAX_SLAB_FRACTION = 8;
+   // Size classes are multiples of 16, from 16 up to MAX_POOLED_SIZE
+   private static final int SIZE_CLASSES = MAX_POOLED_SIZE >>> 4;
+
+   private final int slabSize;
+   private final LongAdder amountAllocated = new LongAdder();
+   private final LongAdder amountReserved = new LongAdder();
+   private final Set<Arena> arenas = ConcurrentHashMap.newKeySet();
+   // Used by the allocations that do not belong to a segment, like the bucket addresses of the maps
+   private final Arena shared;
+   private final Lock releaseLock = new ReentrantLock();
+   // Guarded by releaseLock
+   private long freeAfterRelease;
+
+   public PooledOffHeapMemoryAllocator() {
+      this(SLAB_SIZE);
+   }
+
+   PooledOffHeapMemoryAllocator(int slabSize) {
+      this.slabSize = slabSize;
+      this.shared = new Arena();
+   }
+
+   /**
+    * Creates the allocator for a cache whose data container is bounded to the given amount of memory. Every segment
+    * holds at least one slab, so the slabs are smaller for the smaller caches, and the blocks are not pooled at all
+    * when even the smallest slabs of all the segments would take a significant part of the memory.
+    * @param maxSizeBytes the maximum size of the data container in bytes
+    * @param numSegments the number of segments of the data container
+    * @return the allocator to use for the cache
+    */
+   public static OffHeapMemoryAllocator boundedAllocator(long maxSizeBytes, int numSegments) {
+      long slabSize = Long.highestOneBit(maxSizeBytes / ((long) numSegments * MAX_SLAB_FRACTION));
+      if (slabSize < MIN_SLAB_SIZE) {
+         return new UnpooledOffHeapMemoryAllocator();
+      }
+      return new PooledOffHeapMemoryAllocator((int) Math.min(slabSize, SLAB_SIZE));
+   }
+
+   @Stop
+   public void stop() {
+      shared.close();
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      return shared.allocate(memoryLength);
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      shared.deallocate(memoryAddress, size);
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   @Override
+   public long getReservedAmount() {
+      return amountReserved.sum();
+   }
+
+   @Override
+   public OffHeapMemoryAllocator newArena() {
+      Arena arena = new Arena();
+      arenas.add(arena);
+      return arena;
+   }
+
+   /**
+    * Returns the slabs whose blocks are all free to the native allocator. The free lists of every arena are walked,
+    * so nothing is done unless the free memory grew since the last release by a slab, or by an eighth if that is more.
+    * @return the amount of native memory released in bytes
+    */
+   @Override
+   public long releaseFreeMemory() {
+      if (!releaseLock.tryLock()) {
+         return 0;
+      }
+      try {
+         long free = getReservedAmount() - getAllocatedAmount();
+         if (free - freeAfterRelease < Math.max(slabSize, freeAfterRelease >>> 3)) {
+            // Follow the free memory when it is reused, so the next release is not delayed
+            freeAfterRelease = Math.min(freeAfterRelease, free);
+            return 0;
+         }
+         long released = shared.releaseFreeSlabs();
+         for (Arena arena : arenas) {
+            released += arena.releaseFreeSlabs();
+         }
+         freeAfterRelease = getReservedAmount() - getAllocatedAmount();
+         if (log.isTraceEnabled()) {
+            log.tracef("Released %d bytes of free off-heap slabs. Total reserved: %d", released, getReservedAmount());
+         }
+         return released;
+      } finally {
+         releaseLock.unlock();
+      }
+   }
+
+   private static int sizeClass(long blockSize) {
+      return (int) (blockSize >>> 4) - 1;
+   }
+
+   private class Arena implements OffHeapMemoryAllocator {
+      private final long[] freeLists = new long[SIZE_CLASSES];
+      private final Object[] freeListLocks = new Object[SIZE_CLASSES];
+      private final Set<Long> largeBlocks = ConcurrentHashMap.newKeySet();
+      private final LongAdder arenaAllocated = new LongAdder();
+      private final LongAdder arenaReserved = new LongAdder();
+      // Guarded by this
+      private final TreeSet<Long> slabs = new TreeSet<>();
+      private long slabAddress;
+      private long slabRemaining;
+
+      Arena() {
+         for (int i = 0; i < SIZE_CLASSES; i++) {
+            freeListLocks[i] = new Object();
+         }
+      }
+
+      @Override
+      public long allocate(long memoryLength) {
+         long blockSize = estimateSizeOverhead(memoryLength);
+         long address;
+         if (blockSize > MAX_POOLED_SIZE) {
+            address = MEMORY.allocate(memoryLength);
+            largeBlocks.add(address);
+            reserved(blockSize);
+         } else {
+            address = reuse(blockSize);
+            if (address == 0) {
+               address = carve(blockSize);
+            }
+         }
+         arenaAllocated.add(blockSize);
+         amountAllocated.add(blockSize);
+         if (log.isTraceEnabled()) {
+            log.tracef("Allocated off-heap memory at 0x%016x with %d bytes. Total size: %d", address, blockSize,
+                  amountAllocated.sum());
+         }
+         return address;
+      }
+
+      @Override
+      public void deallocate(long memoryAddress, long size) {
+         long blockSize = estimateSizeOverhead(size);
+         arenaAllocated.add(-blockSize);
+         amountAllocated.add(-blockSize);
+         if (log.isTraceEnabled()) {
+            log.tracef("Deallocating off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+                  blockSize, amountAllocated.sum());
+         }
+         if (blockSize > MAX_POOLED_SIZE) {
+            largeBlocks.remove(memoryAddress);
+            MEMORY.free(memoryAddress);
+            reserved(-blockSize);
+         } else {
+            offer(sizeClass(blockSize), memoryAddress);
+         }
+      }
+
+      @Override
+      public long getAllocatedAmount() {
+         return arenaAllocated.sum();
+      }
+
+      @Override
+      public long getReservedAmount() {
+         return arenaReserved.sum();
+      }
+
+      @Override
+      public void close() {
+         arenas.remove(this);
+         for (Long address : largeBlocks) {
+            MEMORY.free(address);
+         }
+         largeBlocks.clear();
+         // Wait for a concurrent release, which may be walking the free lists of this arena
+         releaseLock.lock();
+         try {
+            synchronized (this) {
+               for (Long address : slabs) {
+                  MEMORY.free(address);
+               }
+               slabs.clear();
+               slabRemaining = 0;
+            }
+         } finally {
+            releaseLock.unlock();
+         }
+         amountAllocated.add(-arenaAllocated.sumThenReset());
+         amountReserved.add(-arenaReserved.sumThenReset());
+         if (log.isTraceEnabled()) {
+            log.tracef("Released off-heap arena. Total size: %d", amountAllocated.sum());
+         }
+      }
+
+      private long reuse(long blockSize) {
+         int sizeClass = sizeClass(blockSize);
+         for (int i = sizeClass; i < SIZE_CLASSES; i++) {
+            // Read without the lock to skip the empty free lists, poll checks it again
+            if (freeLists[i] == 0) {
+               continue;
+            }
+            long address = poll(i);
+            if (address != 0) {
+               if (i > sizeClass) {
+                  // The rest of the block is a multiple of 16 smaller than the block, so it has a size class
+                  offer(i - sizeClass - 1, address + blockSize);
+               }
+               return address;
+            }
+         }
+         return 0;
+      }
+
+      private long poll(int sizeClass) {
+         synchronized (freeListLocks[sizeClass]) {
+            long address = freeLists[sizeClass];
+            if (address != 0) {
+               freeLists[sizeClass] = MEMORY.getLong(address, 0);
+            }
+            return address;
+         }
+      }
+
+      private void offer(int sizeClass, long address) {
+         synchronized (freeListLocks[sizeClass]) {
+            MEMORY.putLong(address, 0, freeLists[sizeClass]);
+            freeLists[sizeClass] = address;
+         }
+      }
+
+      private synchronized long carve(long blockSize) {
+         if (slabRemaining < blockSize) {
+            // The rest of the slab is smaller than the largest size class and a multiple of 16, so it fits in one
+            if (slabRemaining > 0) {
+               offer(sizeClass(slabRemaining), slabAddress);
+            }
+            slabAddress = MEMORY.allocate(slabSize);
+            slabRemaining = slabSize;
+            slabs.add(slabAddress);
+            reserved(slabSize);
+         }
+         long address = slabAddress;
+         slabAddress += blockSize;
+         slabRemaining -= blockSize;
+         return address;
+      }
+
+      /**
+       * Frees the slabs whose blocks are all in the free lists. The free lists are detached first, so the blocks
+       * deallocated or split meanwhile go to new lists and keep their slab, and the blocks that are not released are
+       * offered again afterwards. The rest of the current slab is never in a free list, so it is not released either.
+       * Must be invoked while holding the release lock.
+       */
+      long releaseFreeSlabs() {
+         long[] bases;
+         long[] heads = new long[SIZE_CLASSES];
+         // No slab is added while the lists are detached, so every detached block belongs to one of the bases
+         synchronized (this) {
+            if (slabs.isEmpty()) {
+               return 0;
+            }
+            bases = slabs.stream().mapToLong(Long::longValue).toArray();
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+               synchronized (freeListLocks[i]) {
+                  heads[i] = freeLists[i];
+                  freeLists[i] = 0;
+               }
+            }
+         }
+         long[] freeBytes = new long[bases.length];
+         for (int i = 0; i < SIZE_CLASSES; i++) {
+            for (long address = heads[i]; address != 0; address = MEMORY.getLong(address, 0)) {
+               freeBytes[slabIndex(bases, address)] += (long) (i + 1) << 4;
+            }
+         }
+         for (int i = 0; i < SIZE_CLASSES; i++) {
+            long address = heads[i];
+            while (address != 0) {
+               long next = MEMORY.getLong(address, 0);
+               if (freeBytes[slabIndex(bases, address)] != slabSize) {
+                  offer(i, address);
+               }
+               address = next;
+            }
+         }
+         long released = 0;
+         synchronized (this) {
+            for (int i = 0; i < bases.length; i++) {
+               if (freeBytes[i] == slabSize) {
+                  slabs.remove(bases[i]);
+                  MEMORY.free(bases[i]);
+                  released += slabSize;
+               }
+            }
+         }
+         reserved(-released);
+         return released;
+      }
+
+      private int slabIndex(long[] bases, long address) {
+         int index = Arrays.binarySearch(bases, address);
+         // Blocks are always inside a slab, so the address is after the base of its slab
+         return index >= 0 ? index : -index - 2;
+      }
+
+      private void reserved(long amount) {
+         arenaReserved.add(amount);
+         amountReserved.add(amount);
+      }
+   }
+}
@@ -54,6 +54,8 @@ public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInte
 
    protected final long maxSize;
    protected final Lock lruLock;
+   // Read hits are recorded here instead of acquiring the lruLock, and replayed on the LRU list later
+   protected final OffHeapReadBuffer readBuffer = new OffHeapReadBuffer();
    protected final boolean useCount;
    protected final int numSegments;
 
@@ -159,8 +161,9 @@ protected OffHeapConcurrentMap getMapThatContainsKey(byte[] key) {
     * If the LRU list head changes, we release both locks and try again.
     */
    private void ensureSize() {
+      long limit = evictionLimit();
       // Try reading outside of lock first to allow for less locking for insert that doesn't require eviction
-      if (currentSize <= maxSize) {
+      if (currentSize <= limit) {
          return;
       }
 
@@ -171,11 +174,15 @@ private void ensureSize() {
          OffHeapConcurrentMap map;
          lruLock.lock();
          try {
-            if (currentSize <= maxSize) {
+            if (currentSize <= limit) {
+               break;
+            }
+            // Apply the pending reads so they are not evicted
+            drainReadBuffer();
+            // Every entry was evicted, the rest is the memory of the maps and the memory held by the allocator
+            if (firstAddress == 0) {
                break;
             }
-            // We shouldn't be able to get into this state
-            assert firstAddress > 0;
             // We read the key before hashCode due to how off-heap bytes are written (key requires reading metadata
             // which comes before hashCode, which should keep hashCode bytes in memory register in most cases)
             byte[] key = offHeapEntryFactory.getKey(firstAddress);
@@ -207,7 +214,7 @@ private void ensureSize() {
             try {
                lruLock.lock();
                try {
-                  if (currentSize <= maxSize) {
+                  if (currentSize <= limit || firstAddress == 0) {
                      break;
                   }
                   // Now that we have locks we have to verify the first address is protected by the same lock still
@@ -239,10 +246,8 @@ private void ensureSize() {
             try {
                InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(addressToRemove);
                map.remove(ice.getKey(), addressToRemove);
-               // Note this is non blocking now - this MUST be invoked after removing the entry from the
-               // underlying map
-               AbstractInternalDataContainer.handleEviction(ice, orderer, passivator.running(), evictionManager, this,
-                     nonBlockingExecutor, null);
+               // Note this MUST be invoked after removing the entry from the underlying map
+               entryEvicted(ice);
             } finally {
                stampedLock.unlockWrite(writeStamp);
             }
@@ -250,6 +255,55 @@ private void ensureSize() {
       }
    }
 
+   /**
+    * Returns the size the entries must be evicted down to. When the size is bounded by memory, the memory held by the
+    * allocator for reuse counts against the maximum size too: when the entries and the held memory exceed it, the
+    * allocator is asked to release the memory it holds, and the entries are evicted down to the maximum size minus
+    * what is left of the excess, so that the next entries reuse the held memory instead of making the allocator
+    * reserve more. Evicting an entry moves its memory to the held memory and does not change the excess, which is why
+    * the limit is only computed once per check.
+    */
+   private long evictionLimit() {
+      if (useCount) {
+         return maxSize;
+      }
+      long excess = heldExcess();
+      if (excess > 0 && allocator.releaseFreeMemory() > 0) {
+         excess = heldExcess();
+      }
+      return excess > 0 ? maxSize - excess : maxSize;
+   }
+
+   private long heldExcess() {
+      long held = allocator.getReservedAmount() - allocator.getAllocatedAmount();
+      return held > 0 ? Math.min(held, currentSize + held - maxSize) : 0;
+   }
+
+   /**
+    * Invoked after an entry was removed to bring the container back within its maximum size, while the write lock
+    * for the entry is still held. The default implementation passivates the entry and notifies the eviction listeners
+    * in a non blocking fashion.
+    *
+    * @param ice the evicted entry
+    */
+   protected void entryEvicted(InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
+      AbstractInternalDataContainer.handleEviction(ice, orderer, passivator.running(), evictionManager, this,
+            nonBlockingExecutor, null);
+   }
+
+   /**
+    * Moves the entries read since the last drain to the end of the LRU list.
+    * This method should only be invoked after acquiring the lruLock
+    */
+   private void drainReadBuffer() {
+      readBuffer.drain(entryAddress -> {
+         if (log.isTraceEnabled()) {
+            log.tracef("Moving entry 0x%016x to the end of the LRU list", entryAddress);
+         }
+         offHeapListener.moveToEnd(entryAddress);
+      });
+   }
+
    private class OffHeapMapSupplier implements Supplier<PeekableTouchableMap<WrappedBytes,
             WrappedBytes>> {
       @Override
@@ -307,6 +361,8 @@ public void entryRemoved(long removedAddress) {
          long removedSize = getSize(removedAddress);
          lruLock.lock();
          try {
+            // The buffer may contain the address, which must not be moved after being removed
+            drainReadBuffer();
             // Current size has to be updated in the lock
             currentSize -=  removedSize;
             removeNode(removedAddress);
@@ -321,6 +377,8 @@ public void entryReplaced(long newAddress, long oldAddress) {
          long newSize = getSize(newAddress);
          lruLock.lock();
          try {
+            // The buffer may contain the old address, which must not be moved after being removed
+            drainReadBuffer();
             removeNode(oldAddress);
             addEntryAddressToEnd(newAddress);
 
@@ -333,14 +391,13 @@ public void entryReplaced(long newAddress, long oldAddress) {
 
       @Override
       public void entryRetrieved(long entryAddress) {
-         lruLock.lock();
-         try {
-            if (log.isTraceEnabled()) {
-               log.tracef("Moving entry 0x%016x to the end of the LRU list", entryAddress);
+         // Read hits never wait for the lruLock, if it is busy the buffer is drained by a later read or write
+         if (readBuffer.offer(entryAddress) && lruLock.tryLock()) {
+            try {
+               drainReadBuffer();
+            } finally {
+               lruLock.unlock();
             }
-            moveToEnd(entryAddress);
-         } finally {
-            lruLock.unlock();
          }
       }
 
@@ -18,6 +18,7 @@
 import org.infinispan.container.impl.PeekableTouchableMap;
 import org.infinispan.container.impl.SharedCaffeineMap;
 import org.infinispan.container.impl.SharedContainerMaps;
+import org.infinispan.container.impl.TieredDataContainer;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
 import org.infinispan.container.offheap.OffHeapConcurrentMap;
 import org.infinispan.container.offheap.OffHeapDataContainer;
@@ -91,7 +92,9 @@ public Object construct(String componentName) {
       long thresholdSize = sizeInBytes ? memoryConfiguration.maxSizeBytes() : memoryConfiguration.maxCount();
 
       DataContainer<?, ?> dataContainer;
-      if (offHeap) {
+      if (memoryConfiguration.isTiered()) {
+         dataContainer = new TieredDataContainer<>(thresholdSize, sizeInBytes, memoryConfiguration.offHeapMaxSizeBytes());
+      } else if (offHeap) {
          if (shouldSegment) {
             dataContainer = new SegmentedBoundedOffHeapDataContainer(segments, thresholdSize, sizeInBytes);
          } else {
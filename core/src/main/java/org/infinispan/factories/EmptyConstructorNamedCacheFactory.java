@@ -11,9 +11,12 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.configuration.cache.MemoryConfiguration;
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.container.versioning.irac.DefaultIracVersionGenerator;
 import org.infinispan.container.versioning.irac.IracVersionGenerator;
@@ -46,6 +49,7 @@
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.reactive.publisher.impl.PublisherHandler;
 import org.infinispan.statetransfer.CommitManager;
+import org.infinispan.statetransfer.SegmentAccessCounters;
 import org.infinispan.statetransfer.StateTransferLock;
 import org.infinispan.statetransfer.StateTransferLockImpl;
 import org.infinispan.stats.ClusterCacheStats;
@@ -92,7 +96,7 @@
                               ByteBufferFactory.class, MarshallableEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
-                              FunctionalNotifier.class, CommandAckCollector.class, TriangleOrderManager.class,
+                              FunctionalNotifier.class, CommandAckCollector.class, TriangleOrderManager.class, SegmentAccessCounters.class,
                               TransactionOriginatorChecker.class, OffHeapEntryFactory.class, OffHeapMemoryAllocator.class,
                               PublisherHandler.class, InvocationHelper.class, TakeOfflineManager.class,
                               IracVersionGenerator.class, BackupReceiver.class, StorageConfigurationManager.class,
@@ -171,6 +175,12 @@ public Object construct(String componentName) {
          } else {
             return null;
          }
+      } else if (componentName.equals(SegmentAccessCounters.class.getName())) {
+         if (configuration.clustering().cacheMode().isClustered()) {
+            return new SegmentAccessCounters(configuration.clustering().hash().numSegments());
+         } else {
+            return null;
+         }
       } else if (componentName.equals(TransactionOriginatorChecker.class.getName())) {
          return configuration.clustering().cacheMode() == CacheMode.LOCAL ?
                TransactionOriginatorChecker.LOCAL :
@@ -178,6 +188,13 @@ public Object construct(String componentName) {
       } else if (componentName.equals(OffHeapEntryFactory.class.getName())) {
          return new OffHeapEntryFactoryImpl();
       } else if (componentName.equals(OffHeapMemoryAllocator.class.getName())) {
+         MemoryConfiguration memoryConfiguration = configuration.memory();
+         if (memoryConfiguration.isOffHeap() && memoryConfiguration.maxSize() != null) {
+            int segments = Configurations.needSegments(configuration) ?
+                  configuration.clustering().hash().numSegments() : 1;
+            return PooledOffHeapMemoryAllocator.boundedAllocator(memoryConfiguration.maxSizeBytes(), segments);
+         }
+         // Only the memory bounded container releases the free slabs, other caches would never give them back
          return new UnpooledOffHeapMemoryAllocator();
       } else if (componentName.equals(ClusterCacheNotifier.class.getName())) {
          return ComponentAlias.of(CacheNotifier.class);
@@ -8,6 +8,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -91,6 +92,7 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
 
    protected boolean isL1Enabled;
    protected boolean isReplicated;
+   protected ReadOwnerSelector readOwnerSelector;
 
    private final ReadOnlyManyHelper readOnlyManyHelper = new ReadOnlyManyHelper();
    private final InvocationSuccessFunction<AbstractDataWriteCommand> primaryReturnHandler = this::primaryReturnHandler;
@@ -105,6 +107,7 @@ public void configure() {
       // Can't rely on the super injectConfiguration() to be called before our injectDependencies() method2
       isL1Enabled = cacheConfiguration.clustering().l1().enabled();
       isReplicated = cacheConfiguration.clustering().cacheMode().isReplicated();
+      readOwnerSelector = new ReadOwnerSelector(cacheConfiguration.clustering().hash().readRouting());
    }
 
    @Override
@@ -159,8 +162,11 @@ protected <C extends FlagAffectedCommand & TopologyAffectedCommand> CompletionSt
       getCommand.setTopologyId(topologyId);
       getCommand.setWrite(isWrite);
 
-      return rpcManager.invokeCommandStaggered(info.readOwners(), getCommand, new RemoteGetSingleKeyCollector(),
-                                               rpcManager.getSyncRpcOptions())
+      // Writes keep asking the primary owner first, so that it can detect conflicting writes
+      List<Address> targets = isWrite ? info.readOwners() : orderReadOwners(cacheTopology, info.readOwners());
+      return trackRemoteRead(targets, rpcManager.invokeCommandStaggered(targets, getCommand,
+                                                                       new RemoteGetSingleKeyCollector(),
+                                                                       rpcManager.getSyncRpcOptions()))
                        .thenAccept(response -> {
                           Object responseValue = response.getResponseValue();
                           if (responseValue == null) {
@@ -178,6 +184,29 @@ protected <C extends FlagAffectedCommand & TopologyAffectedCommand> CompletionSt
                        });
    }
 
+   private List<Address> orderReadOwners(LocalizedCacheTopology cacheTopology, List<Address> readOwners) {
+      if (readOwnerSelector.tracksLoad()) {
+         readOwnerSelector.retainMembers(cacheTopology.getMembers());
+      }
+      return readOwnerSelector.order(rpcManager.getAddress(), readOwners);
+   }
+
+   /**
+    * Report the latency of a remote read to the {@link ReadOwnerSelector}, attributing it to the first target.
+    */
+   private <T> CompletionStage<T> trackRemoteRead(List<Address> targets, CompletionStage<T> rpc) {
+      if (!readOwnerSelector.tracksLoad() || targets.isEmpty())
+         return rpc;
+
+      Address target = targets.get(0);
+      long start = timeService.time();
+      readOwnerSelector.readStarted(target);
+      return rpc.whenComplete((response, throwable) -> {
+         long duration = throwable == null ? timeService.timeDuration(start, TimeUnit.NANOSECONDS) : -1;
+         readOwnerSelector.readCompleted(target, duration);
+      });
+   }
+
    protected void wrapRemoteEntry(InvocationContext ctx, Object key, CacheEntry ice, boolean isWrite) {
       entryFactory.wrapExternalEntry(ctx, key, ice, true, isWrite);
    }
@@ -569,7 +598,7 @@ private Map<Address, List<Object>> getKeysByOwner(InvocationContext ctx, Collect
             if (!foundExisting) {
                Address target = null;
                if (ignoredOwners == null) {
-                  target = distributionInfo.primary();
+                  target = readOwnerSelector.select(rpcManager.getAddress(), distributionInfo.readOwners());
                } else {
                   for (Address address : distributionInfo.readOwners()) {
                      if (ignoreForKey == null) {
@@ -652,7 +681,7 @@ public Object visitReadOnlyKeyCommand(InvocationContext ctx, ReadOnlyKeyCommand
       }
       if (readNeedsRemoteValue(command)) {
          LocalizedCacheTopology cacheTopology = CacheTopologyUtil.checkTopology(command, getCacheTopology());
-         Collection<Address> owners = cacheTopology.getDistribution(key).readOwners();
+         List<Address> owners = orderReadOwners(cacheTopology, cacheTopology.getDistribution(key).readOwners());
          if (log.isTraceEnabled())
             log.tracef("Doing a remote get for key %s in topology %d to %s", key, cacheTopology.getTopologyId(), owners);
 
@@ -660,9 +689,9 @@ public Object visitReadOnlyKeyCommand(InvocationContext ctx, ReadOnlyKeyCommand
          // make sure that the command topology is set to the value according which we route it
          remoteCommand.setTopologyId(cacheTopology.getTopologyId());
 
-         CompletionStage<SuccessfulResponse> rpc =
+         CompletionStage<SuccessfulResponse> rpc = trackRemoteRead(owners,
             rpcManager.invokeCommandStaggered(owners, remoteCommand, new RemoteGetSingleKeyCollector(),
-                                              rpcManager.getSyncRpcOptions());
+                                              rpcManager.getSyncRpcOptions()));
          return asyncValue(rpc).thenApply(ctx, command, (rCtx, rCommand, response) -> {
             Object responseValue = ((SuccessfulResponse) response).getResponseValue();
             return unwrapFunctionalResultOnOrigin(rCtx, rCommand.getKey(), responseValue);
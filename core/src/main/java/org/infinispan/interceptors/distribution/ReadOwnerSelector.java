@@ -0,0 +1,178 @@
+package org.infinispan.interceptors.distribution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.configuration.cache.ReadRouting;
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * Chooses the owner that is asked first when reading a key from its remote owners, based on the configured
+ * {@link ReadRouting}.
+ * <p>
+ * With {@link ReadRouting#LEAST_LOADED}, the selector keeps an exponentially weighted moving average of the read
+ * latency of every node, and the number of reads that are still waiting for a response from it.
+ * Nodes without any recorded read are preferred, so that every owner is sampled.
+ *
+ * @since 16.3
+ */
+public class ReadOwnerSelector {
+   // The weight of a new sample in the latency moving average
+   private static final double ALPHA = 0.2;
+
+   private final ReadRouting routing;
+   private final ConcurrentMap<Address, NodeLoad> loads = new ConcurrentHashMap<>();
+
+   public ReadOwnerSelector(ReadRouting routing) {
+      this.routing = routing;
+   }
+
+   /**
+    * @return {@code true} if reads must be reported with {@link #readStarted(Address)} and
+    *         {@link #readCompleted(Address, long)}
+    */
+   public boolean tracksLoad() {
+      return routing == ReadRouting.LEAST_LOADED;
+   }
+
+   /**
+    * @return the owners, with the owner that should be asked first at the start of the list
+    */
+   public List<Address> order(Address localAddress, List<Address> owners) {
+      int index = selectIndex(localAddress, owners);
+      if (index == 0)
+         return owners;
+
+      List<Address> ordered = new ArrayList<>(owners.size());
+      ordered.add(owners.get(index));
+      for (int i = 0; i < owners.size(); i++) {
+         if (i != index) {
+            ordered.add(owners.get(i));
+         }
+      }
+      return ordered;
+   }
+
+   /**
+    * @return the owner that should be asked first
+    */
+   public Address select(Address localAddress, List<Address> owners) {
+      return owners.get(selectIndex(localAddress, owners));
+   }
+
+   /**
+    * Records the start of a read from a node.
+    */
+   public void readStarted(Address target) {
+      loads.computeIfAbsent(target, a -> new NodeLoad()).inFlight.incrementAndGet();
+   }
+
+   /**
+    * Records the end of a read from a node.
+    *
+    * @param durationNanos the time it took for the read to complete, or a negative value if it failed
+    */
+   public void readCompleted(Address target, long durationNanos) {
+      NodeLoad load = loads.get(target);
+      if (load == null)
+         return;
+
+      load.inFlight.decrementAndGet();
+      if (durationNanos >= 0) {
+         load.record(durationNanos);
+      }
+   }
+
+   /**
+    * Forgets the nodes that are no longer members of the cache.
+    */
+   public void retainMembers(Collection<Address> members) {
+      if (loads.size() > 2 * members.size()) {
+         loads.keySet().retainAll(members);
+      }
+   }
+
+   private int selectIndex(Address localAddress, List<Address> owners) {
+      if (owners.size() < 2)
+         return 0;
+
+      switch (routing) {
+         case ANY_OWNER:
+            return selectClosest(localAddress, owners);
+         case LEAST_LOADED:
+            return selectLeastLoaded(owners);
+         default:
+            return 0;
+      }
+   }
+
+   private static int selectClosest(Address localAddress, List<Address> owners) {
+      int bestDistance = Integer.MAX_VALUE;
+      int candidates = 0;
+      int selected = 0;
+      for (int i = 0; i < owners.size(); i++) {
+         int distance = distance(localAddress, owners.get(i));
+         if (distance < bestDistance) {
+            bestDistance = distance;
+            candidates = 1;
+            selected = i;
+         } else if (distance == bestDistance) {
+            // Reservoir sampling, so that every owner at the best distance has the same chance to be selected
+            candidates++;
+            if (ThreadLocalRandom.current().nextInt(candidates) == 0) {
+               selected = i;
+            }
+         }
+      }
+      return selected;
+   }
+
+   private static int distance(Address localAddress, Address owner) {
+      if (localAddress == null)
+         return 0;
+      if (localAddress.isSameMachine(owner))
+         return 0;
+      if (localAddress.isSameRack(owner))
+         return 1;
+      if (localAddress.isSameSite(owner))
+         return 2;
+      return 3;
+   }
+
+   private int selectLeastLoaded(List<Address> owners) {
+      double bestScore = Double.MAX_VALUE;
+      int selected = 0;
+      for (int i = 0; i < owners.size(); i++) {
+         NodeLoad load = loads.get(owners.get(i));
+         double score = load == null ? 0 : load.score();
+         if (score < bestScore) {
+            bestScore = score;
+            selected = i;
+         }
+      }
+      return selected;
+   }
+
+   private static final class NodeLoad {
+      final AtomicInteger inFlight = new AtomicInteger();
+      // Races between concurrent updates only lose a sample
+      volatile double latencyNanos;
+
+      void record(long durationNanos) {
+         double current = latencyNanos;
+         latencyNanos = current == 0 ? durationNanos : current + ALPHA * (durationNanos - current);
+      }
+
+      double score() {
+         int pending = Math.max(0, inFlight.get());
+         double latency = latencyNanos;
+         // Until the first read completes, only the pending reads count
+         return latency == 0 ? pending : latency * (1 + pending);
+      }
+   }
+}
@@ -11,6 +11,7 @@
 
 import org.infinispan.commands.AbstractVisitor;
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.SegmentSpecificCommand;
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.functional.ReadOnlyKeyCommand;
@@ -36,6 +37,7 @@
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.statetransfer.AllOwnersLostException;
 import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.statetransfer.SegmentAccessCounters;
 import org.infinispan.statetransfer.StateTransferLock;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.logging.Log;
@@ -59,6 +61,7 @@ public abstract class BaseStateTransferInterceptor extends DDAsyncInterceptor {
    @Inject DistributionManager distributionManager;
    @Inject @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    ScheduledExecutorService timeoutExecutor;
+   @Inject SegmentAccessCounters segmentAccessCounters;
 
    private long transactionDataTimeout;
 
@@ -134,9 +137,21 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) t
    protected <C extends VisitableCommand & TopologyAffectedCommand & FlagAffectedCommand> Object handleReadCommand(
          InvocationContext ctx, C command) {
       updateTopologyId(command);
+      recordSegmentAccess(command);
       return invokeNextAndHandle(ctx, command, handleReadCommandReturn);
    }
 
+   /**
+    * Counts an access to the segment of a single key command, so that state transfer requests the most accessed
+    * segments first. The accesses are sampled, so most commands do not update the counters.
+    */
+   protected void recordSegmentAccess(FlagAffectedCommand command) {
+      if (segmentAccessCounters != null && command instanceof SegmentSpecificCommand &&
+            !command.hasAnyFlag(FlagBitSets.PUT_FOR_STATE_TRANSFER)) {
+         segmentAccessCounters.recordAccess(((SegmentSpecificCommand) command).getSegment());
+      }
+   }
+
    private Object handleExceptionOnReadCommandReturn(InvocationContext rCtx, VisitableCommand rCommand, Throwable t) throws Throwable {
       Throwable ce = t;
       while (ce instanceof RemoteException) {
@@ -7,7 +7,9 @@
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -173,13 +175,28 @@ public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsent
 
    private Object visitManyDataCommand(InvocationContext ctx, FlagAffectedCommand command, Collection<?> keys) {
       AggregateCompletionStage<Void> stage = null;
+      Map<Object, Integer> keysToLoad = null;
       for (Object key : keys) {
-         CompletionStage<?> innerStage = loadIfNeeded(ctx, key, command);
-         if (innerStage != null && !CompletionStages.isCompletedSuccessfully(innerStage)) {
-            if (stage == null) {
-               stage = CompletionStages.aggregateCompletionStage();
+         int segment = SegmentSpecificCommand.extractSegment(command, key, partitioner);
+         if (skipLoad(ctx, key, segment, command)) {
+            continue;
+         }
+         // Keys missing from memory are loaded together, so that stores can load them with a single operation
+         if (!activation && dataContainer.peek(segment, key) == null && !pendingLoads.containsKey(key)) {
+            if (keysToLoad == null) {
+               keysToLoad = new HashMap<>();
             }
-            stage.dependsOn(innerStage);
+            keysToLoad.put(key, segment);
+            continue;
+         }
+         stage = dependsOn(stage, loadInContext(ctx, key, segment, command));
+      }
+      if (keysToLoad != null) {
+         if (keysToLoad.size() == 1) {
+            Map.Entry<Object, Integer> entry = keysToLoad.entrySet().iterator().next();
+            stage = dependsOn(stage, loadInContext(ctx, entry.getKey(), entry.getValue(), command));
+         } else {
+            stage = dependsOn(stage, loadAllInContext(ctx, keysToLoad, command));
          }
       }
       if (stage != null) {
@@ -346,6 +363,81 @@ protected CompletionStage<?> loadInContext(InvocationContext ctx, Object key, in
       return cf;
    }
 
+   private static AggregateCompletionStage<Void> dependsOn(AggregateCompletionStage<Void> stage, CompletionStage<?> innerStage) {
+      if (innerStage != null && !CompletionStages.isCompletedSuccessfully(innerStage)) {
+         if (stage == null) {
+            stage = CompletionStages.aggregateCompletionStage();
+         }
+         stage.dependsOn(innerStage);
+      }
+      return stage;
+   }
+
+   /**
+    * Same as {@link #loadInContext(InvocationContext, Object, int, FlagAffectedCommand)} for many keys that are not in
+    * the data container. The keys are loaded from the persistence stores with a single bulk load, except for the keys
+    * that are already being loaded concurrently.
+    * @param ctx context for this invocation
+    * @param keys the keys to load mapped to their segment
+    * @param cmd the command that initiated this load
+    * @return a stage that when complete will have the entries loaded into the provided context
+    */
+   protected CompletionStage<?> loadAllInContext(InvocationContext ctx, Map<Object, Integer> keys, FlagAffectedCommand cmd) {
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      Map<Object, CompletableFuture<InternalCacheEntry<K, V>>> futures = new HashMap<>(keys.size());
+      Map<Object, Integer> keysToLoad = new HashMap<>(keys.size());
+      for (Map.Entry<Object, Integer> entry : keys.entrySet()) {
+         Object key = entry.getKey();
+         CompletableFuture<InternalCacheEntry<K, V>> cf = new CompletableFuture<>();
+         CompletionStage<InternalCacheEntry<K, V>> otherCF = pendingLoads.putIfAbsent(key, cf);
+         if (otherCF != null) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Piggybacking on concurrent load for key %s", key);
+            }
+            stage.dependsOn(otherCF.thenAcceptAsync(ice -> putInContext(ctx, key, cmd, ice), nonBlockingExecutor));
+         } else {
+            futures.put(key, cf);
+            keysToLoad.put(key, entry.getValue());
+            stage.dependsOn(cf);
+         }
+      }
+      if (keysToLoad.isEmpty()) {
+         return stage.freeze();
+      }
+
+      if (log.isTraceEnabled()) {
+         log.tracef("Loading entries for keys %s", keysToLoad.keySet());
+      }
+      try {
+         persistenceManager.<K, V>loadAllFromAllStores(keysToLoad, ctx.isOriginLocal(), true)
+               .whenComplete((entries, throwable) -> {
+                  for (Map.Entry<Object, CompletableFuture<InternalCacheEntry<K, V>>> entry : futures.entrySet()) {
+                     Object key = entry.getKey();
+                     CompletableFuture<InternalCacheEntry<K, V>> cf = entry.getValue();
+                     if (throwable != null) {
+                        finishLoadInContext(ctx, key, cmd, cf, null, throwable);
+                        continue;
+                     }
+                     CompletionStage<InternalCacheEntry<K, V>> result;
+                     try {
+                        InternalCacheEntry<K, V> ice = storeInDataContainer(key, keysToLoad.get(key), entries.get(key));
+                        result = notifyLoaded(ctx, key, cmd, CompletableFuture.completedFuture(ice));
+                     } catch (Throwable t) {
+                        finishLoadInContext(ctx, key, cmd, cf, null, t);
+                        continue;
+                     }
+                     result.whenComplete((value, t) -> finishLoadInContext(ctx, key, cmd, cf, value, t));
+                  }
+               });
+      } catch (Throwable t) {
+         for (Map.Entry<Object, CompletableFuture<InternalCacheEntry<K, V>>> entry : futures.entrySet()) {
+            pendingLoads.remove(entry.getKey());
+            entry.getValue().completeExceptionally(t);
+         }
+      }
+      return stage.freeze();
+   }
+
    private void finishLoadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd, CompletableFuture<InternalCacheEntry<K, V>> cf, InternalCacheEntry<K, V> value, Throwable throwable) {
       // Make sure we clean up our pendingLoads properly and before completing any responses
       pendingLoads.remove(key);
@@ -383,41 +475,48 @@ public CompletionStage<InternalCacheEntry<K, V>> loadAndStoreInDataContainer(Inv
          log.tracef("Loading entry for key %s", key);
       }
       CompletionStage<InternalCacheEntry<K, V>> resultStage = persistenceManager.<K, V>loadFromAllStores(key, segment,
-            ctx.isOriginLocal(), includeStores).thenApply(me -> {
-         if (me != null) {
-            InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
-            if (getStatisticsEnabled()) {
-               cacheLoads.incrementAndGet();
-            }
-            if (log.isTraceEnabled()) {
-               log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
-                     ice, key);
-            }
+            ctx.isOriginLocal(), includeStores).thenApply(me -> storeInDataContainer(key, segment, me));
+      return notifyLoaded(ctx, key, cmd, resultStage);
+   }
 
-            DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
-               if (oldEntry != null &&
-                     (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
-                  return oldEntry;
-               }
-               if (ice.canExpire()) {
-                  ice.touch(timeService.wallClockTime());
-               }
-               return ice;
-            };
-
-            dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
-            return ice;
-         } else {
-            if (log.isTraceEnabled()) {
-               log.tracef("Missed entry load for key %s from store", key);
+   private InternalCacheEntry<K, V> storeInDataContainer(Object key, int segment, MarshallableEntry<K, V> me) {
+      if (me != null) {
+         InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
+         if (getStatisticsEnabled()) {
+            cacheLoads.incrementAndGet();
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
+                  ice, key);
+         }
+
+         DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
+            if (oldEntry != null &&
+                  (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
+               return oldEntry;
             }
-            if (getStatisticsEnabled()) {
-               cacheMisses.incrementAndGet();
+            if (ice.canExpire()) {
+               ice.touch(timeService.wallClockTime());
             }
-            return null;
+            return ice;
+         };
+
+         dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
+         return ice;
+      } else {
+         if (log.isTraceEnabled()) {
+            log.tracef("Missed entry load for key %s from store", key);
          }
-      });
+         if (getStatisticsEnabled()) {
+            cacheMisses.incrementAndGet();
+         }
+         return null;
+      }
+   }
 
+   private CompletionStage<InternalCacheEntry<K, V>> notifyLoaded(InvocationContext ctx, Object key,
+                                                                 FlagAffectedCommand cmd,
+                                                                 CompletionStage<InternalCacheEntry<K, V>> resultStage) {
       if (notifier.hasListener(CacheEntryLoaded.class) || notifier.hasListener(CacheEntryActivated.class)) {
          return resultStage.thenCompose(ice -> {
             if (ice != null) {
@@ -69,6 +69,8 @@
 import org.infinispan.jmx.annotations.Units;
 import org.infinispan.metrics.impl.CustomMetricsSupplier;
 import org.infinispan.metrics.impl.helper.KeyMetrics;
+import org.infinispan.metrics.impl.helper.LatencyMetrics;
+import org.infinispan.metrics.impl.helper.LatencyMetrics.Operation;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.manager.PersistenceManager.AccessMode;
 import org.infinispan.topology.CacheTopology;
@@ -96,6 +98,7 @@ public final class CacheMgmtInterceptor extends JmxStatsCommandInterceptor imple
    private final StripedCounters<StripeB> counters = new StripedCounters<>(StripeC::new);
 
    private final KeyMetrics<CacheMgmtInterceptor> keyMetrics = new KeyMetrics<>();
+   private final LatencyMetrics<CacheMgmtInterceptor> latencyMetrics = new LatencyMetrics<>();
 
    @Start
    public void start() {
@@ -105,7 +108,9 @@ public void start() {
 
    @Override
    public Collection<MetricInfo> getCustomMetrics(GlobalMetricsConfiguration configuration) {
-      return keyMetrics.getMetrics(configuration.histograms(), cacheMgmtInterceptor -> cacheMgmtInterceptor.keyMetrics, distributionManager == null);
+      List<MetricInfo> metrics = keyMetrics.getMetrics(configuration.histograms(), cacheMgmtInterceptor -> cacheMgmtInterceptor.keyMetrics, distributionManager == null);
+      metrics.addAll(latencyMetrics.getMetrics(configuration.histograms(), cacheMgmtInterceptor -> cacheMgmtInterceptor.latencyMetrics));
+      return metrics;
    }
 
    @Override
@@ -126,11 +131,13 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
    }
 
    public void addDataRead(boolean foundValue, long timeNanoSeconds, Ownership ownership) {
+      long nanos = timeService.timeDuration(timeNanoSeconds, TimeUnit.NANOSECONDS);
       if (foundValue) {
-         trackHit(timeNanoSeconds, ownership);
+         trackHit(nanos, ownership);
       } else {
-         trackMiss(timeNanoSeconds, ownership);
+         trackMiss(nanos, ownership);
       }
+      latencyMetrics.record(Operation.GET, nanos);
    }
 
    private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand command) {
@@ -169,6 +176,7 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) {
          if (missCount > 0) {
             trackMultipleMisses(intervalNanos, missCount, requests);
          }
+         latencyMetrics.record(Operation.GET_ALL, intervalNanos);
       });
    }
 
@@ -188,6 +196,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) {
             counters.add(StripeB.storesFieldUpdater, stripe, data.size());
             keyMetrics.recordStore(intervalNanos);
          }
+         latencyMetrics.record(Operation.PUT_ALL, intervalNanos);
       });
    }
 
@@ -214,11 +223,13 @@ public Object visitComputeCommand(InvocationContext ctx, ComputeCommand command)
 
       long start = timeService.time();
       return invokeNextAndFinally(ctx, command, (rCtx, rCommand, rv, t) -> {
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          if (rv == null && rCommand.isSuccessful()) {
-            trackRemoveMiss(start, getWriteOwnership(rCommand.getSegment()));
+            trackRemoveMiss(nanos, getWriteOwnership(rCommand.getSegment()));
          } else if (rCommand.isSuccessful()) {
-            trackStore(start, getWriteOwnership(rCommand.getSegment()));
+            trackStore(nanos, getWriteOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(Operation.PUT, nanos);
       });
    }
 
@@ -234,9 +245,11 @@ private Object updateStoreStatistics(InvocationContext ctx, DataWriteCommand com
 
       long start = timeService.time();
       return invokeNextAndFinally(ctx, command, (rCtx, rCommand, rv, t) -> {
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          if (rCommand.isSuccessful()) {
-            trackStore(start, getWriteOwnership(rCommand.getSegment()));
+            trackStore(nanos, getWriteOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(Operation.PUT, nanos);
       });
    }
 
@@ -250,12 +263,14 @@ public Object visitReadOnlyKeyCommand(InvocationContext ctx, ReadOnlyKeyCommand
 
       long start = timeService.time();
       return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          var envelope = (StatsEnvelope<?>) rv;
          if (envelope.isMiss()) {
-            trackMiss(start, getReadOwnership(rCommand.getSegment()));
+            trackMiss(nanos, getReadOwnership(rCommand.getSegment()));
          } else if (envelope.isHit()) {
-            trackHit(start, getReadOwnership(rCommand.getSegment()));
+            trackHit(nanos, getReadOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(Operation.GET, nanos);
          return envelope.value();
       });
    }
@@ -286,6 +301,7 @@ public Object visitReadOnlyManyCommand(InvocationContext ctx, ReadOnlyManyComman
          if (hitCount.get() > 0) {
             trackMultipleHits(intervalNanos, hitCount.get(), numResults);
          }
+         latencyMetrics.record(Operation.GET_ALL, intervalNanos);
          return retvals.stream();
       });
    }
@@ -304,12 +320,14 @@ private Object updateStatisticsWriteOnly(InvocationContext ctx, AbstractDataComm
 
       long start = timeService.time();
       return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          StatsEnvelope<?> envelope = (StatsEnvelope<?>) rv;
          if (envelope.isDelete()) {
-            trackRemoveHit(start, getWriteOwnership(rCommand.getSegment()));
+            trackRemoveHit(nanos, getWriteOwnership(rCommand.getSegment()));
          } else if ((envelope.flags() & (StatsEnvelope.CREATE | StatsEnvelope.UPDATE)) != 0) {
-            trackStore(start, getWriteOwnership(rCommand.getSegment()));
+            trackStore(nanos, getWriteOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(envelope.isDelete() ? Operation.REMOVE : Operation.PUT, nanos);
          assert envelope.value() == null;
          return null;
       });
@@ -334,17 +352,19 @@ private Object updateStatisticsReadWrite(InvocationContext ctx, AbstractDataComm
          if (rv == null && !rCommand.isSuccessful() && rCommand.hasAnyFlag(FlagBitSets.FAIL_SILENTLY))
             return null;
 
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          StatsEnvelope<?> envelope = (StatsEnvelope<?>) rv;
          if (envelope.isDelete()) {
-            trackRemoveHit(start, getWriteOwnership(rCommand.getSegment()));
+            trackRemoveHit(nanos, getWriteOwnership(rCommand.getSegment()));
          } else if ((envelope.flags() & (StatsEnvelope.CREATE | StatsEnvelope.UPDATE)) != 0) {
-            trackStore(start, getWriteOwnership(rCommand.getSegment()));
+            trackStore(nanos, getWriteOwnership(rCommand.getSegment()));
          }
          if (envelope.isHit()) {
-            trackHit(start, getWriteOwnership(rCommand.getSegment()));
+            trackHit(nanos, getWriteOwnership(rCommand.getSegment()));
          } else if (envelope.isMiss()) {
-            trackMiss(start, getWriteOwnership(rCommand.getSegment()));
+            trackMiss(nanos, getWriteOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(envelope.isDelete() ? Operation.REMOVE : Operation.PUT, nanos);
          return envelope.value();
       });
    }
@@ -417,6 +437,7 @@ private Object updateStatisticsReadWrite(InvocationContext ctx, AbstractWriteMan
          if (hits > 0) {
             trackMultipleHits(intervalNanos, hits, numResults);
          }
+         latencyMetrics.record(Operation.PUT_ALL, intervalNanos);
          return results;
       });
    }
@@ -434,45 +455,43 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) {
 
       long start = timeService.time();
       return invokeNextAndFinally(ctx, command, (rCtx, rCommand, rv, t) -> {
+         long nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          if (rCommand.isConditional()) {
             if (rCommand.isSuccessful())
-               trackRemoveHit(start, getWriteOwnership(rCommand.getSegment()));
+               trackRemoveHit(nanos, getWriteOwnership(rCommand.getSegment()));
             else
-               trackRemoveMiss(start, getWriteOwnership(rCommand.getSegment()));
+               trackRemoveMiss(nanos, getWriteOwnership(rCommand.getSegment()));
          } else {
             if (rv == null)
-               trackRemoveMiss(start, getWriteOwnership(rCommand.getSegment()));
+               trackRemoveMiss(nanos, getWriteOwnership(rCommand.getSegment()));
             else
-               trackRemoveHit(start, getWriteOwnership(rCommand.getSegment()));
+               trackRemoveHit(nanos, getWriteOwnership(rCommand.getSegment()));
          }
+         latencyMetrics.record(Operation.REMOVE, nanos);
       });
    }
 
-   private void trackRemoveHit(long start, Ownership ownership) {
-      var nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+   private void trackRemoveHit(long nanos, Ownership ownership) {
       var stripe = counters.stripeForCurrentThread();
       counters.add(StripeB.removeTimesFieldUpdater, stripe, nanos);
       counters.increment(StripeB.removeHitsFieldUpdater, stripe);
       keyMetrics.recordRemoveHit(nanos, ownership);
    }
 
-   private void trackRemoveMiss(long start, Ownership ownership) {
-      var nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+   private void trackRemoveMiss(long nanos, Ownership ownership) {
       var stripe = counters.stripeForCurrentThread();
       counters.increment(StripeB.removeMissesFieldUpdater, stripe);
       keyMetrics.recordRemoveMiss(nanos, ownership);
    }
 
-   private void trackStore(long start, Ownership ownership) {
-      var nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+   private void trackStore(long nanos, Ownership ownership) {
       var stripe = counters.stripeForCurrentThread();
       counters.add(StripeB.storeTimesFieldUpdater, stripe, nanos);
       counters.increment(StripeB.storesFieldUpdater, stripe);
       keyMetrics.recordStore(nanos, ownership);
    }
 
-   private void trackHit(long start, Ownership ownership) {
-      var nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+   private void trackHit(long nanos, Ownership ownership) {
       var stripe = counters.stripeForCurrentThread();
       counters.add(StripeB.hitTimesFieldUpdater, stripe, nanos);
       counters.increment(StripeB.hitsFieldUpdater, stripe);
@@ -487,8 +506,7 @@ private void trackMultipleHits(long durationNanos, int hits, int total) {
       keyMetrics.recordHit(nanos);
    }
 
-   private void trackMiss(long start, Ownership ownership) {
-      var nanos = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+   private void trackMiss(long nanos, Ownership ownership) {
       var stripe = counters.stripeForCurrentThread();
       counters.add(StripeB.missTimesFieldUpdater, stripe, nanos);
       counters.increment(StripeB.missesFieldUpdater, stripe);
@@ -656,6 +674,96 @@ public long getAverageRemoveTimeNanos() {
       return counters.get(StripeB.removeTimesFieldUpdater) / removes;
    }
 
+   @ManagedAttribute(
+         description = "99th percentile of the latency of single key read operations in the cache during the last minute, in nanoseconds",
+         displayName = "Get latency 99th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getGetLatencyP99Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.GET, 99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the latency of single key read operations in the cache during the last minute, in nanoseconds",
+         displayName = "Get latency 99.9th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getGetLatencyP999Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.GET, 99.9);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the latency of single key write operations in the cache during the last minute, in nanoseconds",
+         displayName = "Put latency 99th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getPutLatencyP99Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.PUT, 99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the latency of single key write operations in the cache during the last minute, in nanoseconds",
+         displayName = "Put latency 99.9th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getPutLatencyP999Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.PUT, 99.9);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the latency of single key remove operations in the cache during the last minute, in nanoseconds",
+         displayName = "Remove latency 99th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getRemoveLatencyP99Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.REMOVE, 99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the latency of single key remove operations in the cache during the last minute, in nanoseconds",
+         displayName = "Remove latency 99.9th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getRemoveLatencyP999Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.REMOVE, 99.9);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the latency of multiple key read operations in the cache during the last minute, in nanoseconds",
+         displayName = "GetAll latency 99th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getGetAllLatencyP99Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.GET_ALL, 99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the latency of multiple key read operations in the cache during the last minute, in nanoseconds",
+         displayName = "GetAll latency 99.9th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getGetAllLatencyP999Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.GET_ALL, 99.9);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the latency of multiple key write operations in the cache during the last minute, in nanoseconds",
+         displayName = "PutAll latency 99th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getPutAllLatencyP99Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.PUT_ALL, 99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the latency of multiple key write operations in the cache during the last minute, in nanoseconds",
+         displayName = "PutAll latency 99.9th percentile",
+         units = Units.NANOSECONDS
+   )
+   public long getPutAllLatencyP999Nanos() {
+      return latencyMetrics.valueAtPercentile(Operation.PUT_ALL, 99.9);
+   }
+
    @ManagedAttribute(
          description = "Approximate number of entries currently in the cache, including persisted and expired entries",
          displayName = "Approximate number of entries"
@@ -763,6 +871,14 @@ public long getOffHeapMemoryUsed() {
       return allocator.getAllocatedAmount();
    }
 
+   @ManagedAttribute(
+         description = "Amount of off-heap memory held by this cache, including the memory kept for reuse (bytes)",
+         displayName = "Off-Heap memory reserved"
+   )
+   public long getOffHeapMemoryReserved() {
+      return allocator.getReservedAmount();
+   }
+
    @ManagedAttribute(
          description = "Amount of nodes required to guarantee data consistency",
          displayName = "Required Minimum Nodes"
@@ -848,6 +964,7 @@ public void resetStatistics() {
       counters.reset(StripeB.removeHitsFieldUpdater);
       counters.reset(StripeB.removeTimesFieldUpdater);
       counters.reset(StripeB.removeMissesFieldUpdater);
+      latencyMetrics.reset();
       resetNanoseconds.set(timeService.time());
 
       //todo [anistor] how do we reset Micrometer metrics ?
@@ -3,8 +3,10 @@
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.commands.FlagAffectedCommand;
@@ -32,10 +34,12 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.configuration.global.GlobalMetricsConfiguration;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.container.impl.InternalEntryFactory;
@@ -52,6 +56,9 @@
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.metrics.impl.CustomMetricsSupplier;
+import org.infinispan.metrics.impl.MetricUtils;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
@@ -77,7 +84,7 @@
  * @since 9.0
  */
 @MBean(objectName = "CacheStore", description = "Component that handles storing of entries to a CacheStore from memory.")
-public class CacheWriterInterceptor extends JmxStatsCommandInterceptor {
+public class CacheWriterInterceptor extends JmxStatsCommandInterceptor implements CustomMetricsSupplier {
    private static final Log log = LogFactory.getLog(CacheWriterInterceptor.class);
 
    @Inject protected PersistenceManager persistenceManager;
@@ -437,6 +444,7 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
    @Override
    public void resetStatistics() {
       cacheStores.set(0);
+      persistenceManager.getAsyncStoreStatistics().reset();
    }
 
    @ManagedAttribute(
@@ -448,6 +456,69 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of modifications waiting to be written to the stores with write-behind enabled",
+         displayName = "Write-behind queue size"
+   )
+   public int getAsyncStoreQueueSize() {
+      return persistenceManager.getAsyncStoreStatistics().getQueueSize();
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes to the stores with write-behind enabled that replaced a pending write to the same key",
+         displayName = "Number of coalesced write-behind writes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAsyncStoreCoalescedWrites() {
+      return persistenceManager.getAsyncStoreStatistics().getCoalescedWrites();
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of the writes to the stores with write-behind enabled that were coalesced",
+         displayName = "Write-behind coalescing ratio",
+         units = Units.PERCENTAGE
+   )
+   public double getAsyncStoreCoalescingRatio() {
+      return persistenceManager.getAsyncStoreStatistics().getCoalescingRatio();
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes that were delayed because the write-behind queue was filling up",
+         displayName = "Number of throttled write-behind writes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAsyncStoreThrottledWrites() {
+      return persistenceManager.getAsyncStoreStatistics().getThrottledWrites();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written to the stores with write-behind enabled",
+         displayName = "Number of write-behind flushes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAsyncStoreFlushes() {
+      return persistenceManager.getAsyncStoreStatistics().getFlushes();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of milliseconds to write a batch to a store with write-behind enabled",
+         displayName = "Average write-behind flush time",
+         units = Units.MILLISECONDS
+   )
+   public long getAverageAsyncStoreFlushTime() {
+      return TimeUnit.NANOSECONDS.toMillis(persistenceManager.getAsyncStoreStatistics().getAverageFlushNanos());
+   }
+
+   @Override
+   public Collection<MetricInfo> getCustomMetrics(GlobalMetricsConfiguration configuration) {
+      if (!configuration.histograms()) {
+         return List.of();
+      }
+      return List.of(MetricUtils.<CacheWriterInterceptor>createTimer("AsyncStoreFlushTimes",
+            "Time to write a batch to a store with write-behind enabled",
+            (interceptor, timer) -> interceptor.persistenceManager.getAsyncStoreStatistics().setFlushTimer(timer), null));
+   }
+
    CompletionStage<Void> storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return storeEntry(ctx, key, command, true);
    }
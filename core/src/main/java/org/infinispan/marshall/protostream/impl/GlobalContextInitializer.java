@@ -70,6 +70,8 @@
             org.infinispan.commands.statetransfer.ConflictResolutionStartCommand.class,
             org.infinispan.commands.statetransfer.StateResponseCommand.class,
             org.infinispan.commands.statetransfer.StateTransferCancelCommand.class,
+            org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand.class,
+            org.infinispan.commands.statetransfer.StateTransferGetDigestsCommand.class,
             org.infinispan.commands.statetransfer.StateTransferGetListenersCommand.class,
             org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand.class,
             org.infinispan.commands.statetransfer.StateTransferStartCommand.class,
@@ -274,6 +276,8 @@
             org.infinispan.remoting.responses.SuccessfulTransientMortalCacheValueResponse.class,
             org.infinispan.remoting.responses.UnsuccessfulResponse.class,
             org.infinispan.remoting.responses.UnsureResponse.class,
+            org.infinispan.statetransfer.SegmentAccessCounts.class,
+            org.infinispan.statetransfer.SegmentDigest.class,
             org.infinispan.statetransfer.StateChunk.class,
             org.infinispan.statetransfer.TransactionInfo.class,
             org.infinispan.stats.impl.ClusterCacheStatsImpl.DistributedCacheStatsCallable.class,
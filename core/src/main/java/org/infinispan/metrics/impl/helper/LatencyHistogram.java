@@ -0,0 +1,222 @@
+package org.infinispan.metrics.impl.helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+import org.infinispan.commons.util.ProcessorInfo;
+
+/**
+ * A lock-free histogram of the recent latencies, in nanoseconds, with a bounded relative error.
+ * <p>
+ * Values are recorded in log-linear buckets, in the same way as HdrHistogram: each power of 2 is split in
+ * {@code 16} linear sub-buckets, so the value reported for a percentile is at most ~6% higher than the recorded one.
+ * Values above {@link #MAX_VALUE} are recorded as {@link #MAX_VALUE}.
+ * <p>
+ * Only the values recorded during the last {@link #DEFAULT_WINDOW_NANOS window} are reported. Like the
+ * {@code Recorder} of HdrHistogram, the histogram swaps between two intervals: values are recorded in the current
+ * interval, and every half window the previous interval is cleared and becomes the current one. Percentiles are
+ * computed from both intervals, so they cover between half a window and a whole window of recent values.
+ * <p>
+ * Each thread records in one of several stripes, chosen by its id, so concurrent recorders rarely update the same
+ * counters. Stripes are only allocated when a thread first records in them. Reading a percentile sums all the stripes,
+ * so it is much more expensive than recording a value and is not atomic with concurrent updates.
+ *
+ * @since 16.3
+ */
+public final class LatencyHistogram {
+   /**
+    * The highest value that can be recorded, roughly 18 minutes in nanoseconds.
+    */
+   public static final long MAX_VALUE = (1L << 40) - 1;
+
+   /**
+    * The length of the window covered by the percentiles.
+    */
+   public static final long DEFAULT_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+   private static final int SUB_BUCKET_HALF_BITS = 4;
+   private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_BITS;
+   private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF_COUNT << 1;
+   // The exponent of the highest bit of the values recorded in the first, linear, bucket
+   private static final int FIRST_EXPONENT = SUB_BUCKET_HALF_BITS + 1;
+   private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+   // Each stripe holds the buckets of both intervals
+   private static final int INTERVAL_COUNT = 2;
+
+   private static final int STRIPE_COUNT = Math.min(16, Integer.highestOneBit(ProcessorInfo.availableProcessors()) << 1);
+   private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+
+   private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+   private final LongSupplier nanoTime;
+   private final long intervalNanos;
+   private final AtomicBoolean swapping = new AtomicBoolean();
+   // The offset of the buckets of the current interval in the stripes
+   private volatile int currentOffset;
+   private volatile long nextSwapNanos;
+
+   public LatencyHistogram() {
+      this(DEFAULT_WINDOW_NANOS, System::nanoTime);
+   }
+
+   LatencyHistogram(long windowNanos, LongSupplier nanoTime) {
+      this.nanoTime = nanoTime;
+      this.intervalNanos = windowNanos / INTERVAL_COUNT;
+      this.nextSwapNanos = nanoTime.getAsLong() + intervalNanos;
+   }
+
+   /**
+    * Records a single value.
+    *
+    * @param nanos the value to record, negative values are recorded as {@code 0}
+    */
+   public void record(long nanos) {
+      swapIfNeeded();
+      stripeForCurrentThread().getAndIncrement(currentOffset + bucketIndex(Math.min(Math.max(nanos, 0), MAX_VALUE)));
+   }
+
+   /**
+    * @return the number of values recorded during the window, since the creation of the histogram or the last
+    * {@link #reset()}
+    */
+   public long count() {
+      long count = 0;
+      for (long bucket : snapshot()) {
+         count += bucket;
+      }
+      return count;
+   }
+
+   /**
+    * Returns the value at the given percentile of the values recorded during the window.
+    *
+    * @param percentile the percentile, between {@code 0} and {@code 100}
+    * @return the highest value that is equivalent to the value at the given percentile, or {@code 0} if no values
+    * were recorded
+    */
+   public long valueAtPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100)
+         throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+
+      long[] buckets = snapshot();
+      long count = 0;
+      for (long bucket : buckets) {
+         count += bucket;
+      }
+      if (count == 0)
+         return 0;
+
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < buckets.length; i++) {
+         seen += buckets[i];
+         if (seen >= rank)
+            return highestEquivalentValue(i);
+      }
+      return MAX_VALUE;
+   }
+
+   /**
+    * Removes all the recorded values.
+    * <p>
+    * Values recorded concurrently with the reset may or may not be removed.
+    */
+   public void reset() {
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+         AtomicLongArray stripe = stripes.get(i);
+         if (stripe != null) {
+            for (int j = 0; j < stripe.length(); j++) {
+               stripe.set(j, 0);
+            }
+         }
+      }
+   }
+
+   /**
+    * Clears the previous interval and makes it the current one when the current interval is over. If both intervals
+    * are over, both are cleared.
+    * <p>
+    * Values recorded concurrently with the swap may be recorded in the interval that is cleared, and be lost.
+    */
+   private void swapIfNeeded() {
+      long now = nanoTime.getAsLong();
+      if (now - nextSwapNanos < 0 || !swapping.compareAndSet(false, true))
+         return;
+
+      try {
+         long next = nextSwapNanos;
+         int offset = currentOffset;
+         for (int i = 0; i < INTERVAL_COUNT && now - next >= 0; i++) {
+            offset = (offset + BUCKET_COUNT) % (BUCKET_COUNT * INTERVAL_COUNT);
+            clearInterval(offset);
+            currentOffset = offset;
+            next += intervalNanos;
+         }
+         // Nothing was recorded for longer than the window, the intervals start again from now
+         nextSwapNanos = now - next >= 0 ? now + intervalNanos : next;
+      } finally {
+         swapping.set(false);
+      }
+   }
+
+   private void clearInterval(int offset) {
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+         AtomicLongArray stripe = stripes.get(i);
+         if (stripe != null) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+               stripe.set(offset + j, 0);
+            }
+         }
+      }
+   }
+
+   private long[] snapshot() {
+      swapIfNeeded();
+      long[] buckets = new long[BUCKET_COUNT];
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+         AtomicLongArray stripe = stripes.get(i);
+         if (stripe != null) {
+            for (int j = 0; j < stripe.length(); j++) {
+               buckets[j % BUCKET_COUNT] += stripe.get(j);
+            }
+         }
+      }
+      return buckets;
+   }
+
+   private AtomicLongArray stripeForCurrentThread() {
+      // Spread the thread id a bit, in case it's always a multiple of 16
+      long id = Thread.currentThread().getId();
+      id ^= id >>> 7 ^ id >>> 4;
+      int index = (int) (id & STRIPE_MASK);
+      AtomicLongArray stripe = stripes.get(index);
+      if (stripe == null) {
+         stripe = new AtomicLongArray(BUCKET_COUNT * INTERVAL_COUNT);
+         if (!stripes.compareAndSet(index, null, stripe)) {
+            stripe = stripes.get(index);
+         }
+      }
+      return stripe;
+   }
+
+   static int bucketIndex(long value) {
+      if (value < SUB_BUCKET_COUNT)
+         return (int) value;
+
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      int subBucket = (int) (value >>> (exponent - SUB_BUCKET_HALF_BITS)) - SUB_BUCKET_HALF_COUNT;
+      return SUB_BUCKET_COUNT + (exponent - FIRST_EXPONENT) * SUB_BUCKET_HALF_COUNT + subBucket;
+   }
+
+   static long highestEquivalentValue(int index) {
+      if (index < SUB_BUCKET_COUNT)
+         return index;
+
+      int offset = index - SUB_BUCKET_COUNT;
+      int exponent = offset / SUB_BUCKET_HALF_COUNT + FIRST_EXPONENT;
+      long subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+      return ((subBucket + 1) << (exponent - SUB_BUCKET_HALF_BITS)) - 1;
+   }
+}
@@ -0,0 +1,84 @@
+package org.infinispan.metrics.impl.helper;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.infinispan.commons.stat.MetricInfo;
+import org.infinispan.commons.stat.TimerTracker;
+import org.infinispan.metrics.impl.MetricUtils;
+
+/**
+ * Latency distribution of the cache operations.
+ * <p>
+ * Every latency is recorded in a {@link LatencyHistogram}, which provides the percentiles of the last minute exposed via
+ * JMX, and in a timer that is exported as a Prometheus histogram when {@code histograms} are enabled in the metrics
+ * configuration.
+ *
+ * @since 16.3
+ */
+public class LatencyMetrics<C> {
+
+   private final EnumMap<Operation, OperationLatency> latencies;
+
+   public LatencyMetrics() {
+      latencies = new EnumMap<>(Operation.class);
+      for (Operation operation : Operation.values()) {
+         latencies.put(operation, new OperationLatency());
+      }
+   }
+
+   public List<MetricInfo> getMetrics(boolean histograms, Function<C, LatencyMetrics<C>> transformer) {
+      if (!histograms) {
+         // Without histograms a timer only tracks the count and the total time, which are already exported
+         return List.of();
+      }
+      var values = Operation.values();
+      List<MetricInfo> metrics = new ArrayList<>(values.length);
+      for (var v : values) {
+         metrics.add(MetricUtils.<C>createTimer(v.name + "Latency", "The latency of " + v.description + " operations",
+               (o, t) -> transformer.apply(o).latencies.get(v).timer = t, null));
+      }
+      return metrics;
+   }
+
+   public void record(Operation operation, long nanos) {
+      var latency = latencies.get(operation);
+      latency.histogram.record(nanos);
+      latency.timer.update(nanos, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * @return the latency of the operation at the given percentile, in nanoseconds
+    */
+   public long valueAtPercentile(Operation operation, double percentile) {
+      return latencies.get(operation).histogram.valueAtPercentile(percentile);
+   }
+
+   public void reset() {
+      latencies.values().forEach(latency -> latency.histogram.reset());
+   }
+
+   public enum Operation {
+      GET("Get", "single key read"),
+      PUT("Put", "single key write"),
+      REMOVE("Remove", "single key remove"),
+      GET_ALL("GetAll", "multiple key read"),
+      PUT_ALL("PutAll", "multiple key write");
+
+      final String name;
+      final String description;
+
+      Operation(String name, String description) {
+         this.name = name;
+         this.description = description;
+      }
+   }
+
+   private static class OperationLatency {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      TimerTracker timer = TimerTracker.NO_OP;
+   }
+}
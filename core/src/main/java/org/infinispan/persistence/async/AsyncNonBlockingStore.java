@@ -4,6 +4,8 @@
 import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -19,6 +21,7 @@
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.reactive.RxJavaInterop;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
@@ -41,6 +44,7 @@
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.flowables.ConnectableFlowable;
 import io.reactivex.rxjava3.functions.Function;
 
@@ -56,6 +60,12 @@
  * subsequent write will be added to the queue, but the returned Stage will not complete until the current batch completes
  * in an attempt to provide some backpressure to slow writes.
  * <p>
+ * The batches are sized from the observed latency of the delegate store, so that a batch takes about 100 milliseconds
+ * to write, but never less than {@link StoreConfiguration#maxBatchSize()} modifications.
+ * Once the queue is more than half full, the returned Stages are also delayed in proportion to the queue size and to
+ * the time the delegate store needs to write a single modification, so that writers slow down to the speed of the
+ * delegate store before they have to wait for a whole batch.
+ * <p>
  * Read operations may be resolved by this store immediately if the given key is still being updated in the
  * delegate store or if it is enqueued for the next batch. If the key is in neither it will query the underlying store
  * to acquire it.
@@ -66,11 +76,18 @@
  */
 public class AsyncNonBlockingStore<K, V> extends DelegatingNonBlockingStore<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   // The batches are sized so that the delegate store writes them in about this time
+   private static final long TARGET_FLUSH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+   // Writes are not delayed for less than this time
+   private static final long MIN_THROTTLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
    private final NonBlockingStore<K, V> actual;
+   private final AsyncStoreStatistics statistics;
 
    private Executor nonBlockingExecutor;
+   private TimeService timeService;
    private int segmentCount;
    private int modificationQueueSize;
+   private int maxBatchSize;
    private PersistenceConfiguration persistenceConfiguration;
    private AsyncStoreConfiguration asyncConfiguration;
 
@@ -104,10 +121,18 @@
    // True if there is an outstanding clear that is being ran on the delegating store
    @GuardedBy("this")
    private boolean isReplicatingClear;
+   // Moving average of the time the delegate store took to write a single modification, 0 until a batch completes
+   @GuardedBy("this")
+   private long nanosPerModification;
    private volatile boolean stopped = true;
 
    public AsyncNonBlockingStore(NonBlockingStore<K, V> actual) {
+      this(actual, new AsyncStoreStatistics());
+   }
+
+   public AsyncNonBlockingStore(NonBlockingStore<K, V> actual, AsyncStoreStatistics statistics) {
       this.actual = actual;
+      this.statistics = statistics;
    }
 
    @Override
@@ -128,8 +153,11 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       segmentCount = storeConfiguration.segmented() ? cacheConfiguration.clustering().hash().numSegments() : 1;
       asyncConfiguration = storeConfiguration.async();
       modificationQueueSize = asyncConfiguration.modificationQueueSize();
+      maxBatchSize = Math.max(1, storeConfiguration.maxBatchSize());
       nonBlockingExecutor = ctx.getNonBlockingExecutor();
+      timeService = ctx.getTimeService();
       stopped = false;
+      statistics.register(this);
       return actual.start(ctx);
    }
 
@@ -145,6 +173,7 @@ public CompletionStage<Void> stop() {
             log.tracef("Stopping store %s from async store", actual);
          }
          stopped = true;
+         statistics.unregister(this);
          return actual.stop();
       });
    }
@@ -167,7 +196,8 @@ private CompletionStage<Void> awaitQuiescence() {
    }
 
    void putModification(Object key, Modification modification) {
-      pendingModifications.put(key, modification);
+      Modification previous = pendingModifications.put(key, modification);
+      statistics.recordWrite(previous != null);
    }
 
    void putClearModification() {
@@ -186,24 +216,23 @@ void putClearModification() {
     * to ensure that only one batch is being processed at any time.
     */
    private void submitTask() {
-      Map<Object, Modification> newMap = new HashMap<>();
-      if (log.isTraceEnabled()) {
-         log.tracef("Starting new batch with id %s", System.identityHashCode(newMap));
-      }
       boolean ourClearToReplicate;
       Map<Object, Modification> ourModificationsToReplicate;
       synchronized (this) {
          // The isReplicatingClear would be true or replicatingModifications non empty if an update was currently pending
          // But we should only allow one at a time
          assert replicatingModifications.isEmpty() && !isReplicatingClear;
-         replicatingModifications = pendingModifications;
-         ourModificationsToReplicate = pendingModifications;
-         pendingModifications = newMap;
+         ourModificationsToReplicate = takeBatch();
+         replicatingModifications = ourModificationsToReplicate;
          isReplicatingClear = hasPendingClear;
          ourClearToReplicate = hasPendingClear;
          hasPendingClear = false;
       }
+      if (log.isTraceEnabled()) {
+         log.tracef("Starting new batch with id %s", System.identityHashCode(ourModificationsToReplicate));
+      }
 
+      long startTime = timeService.time();
       CompletionStage<Void> asyncBatchStage;
       if (ourClearToReplicate) {
          if (log.isTraceEnabled()) {
@@ -237,9 +266,18 @@ private void submitTask() {
          if (log.isTraceEnabled()) {
             log.tracef("Async operations completed for id %s", System.identityHashCode(ourModificationsToReplicate));
          }
+         int batchSize = ourModificationsToReplicate.size();
+         long durationNanos = timeService.timeDuration(startTime, TimeUnit.NANOSECONDS);
+         if (t == null && batchSize > 0) {
+            statistics.recordFlush(batchSize, durationNanos);
+         }
          boolean submitNewBatch;
          CompletableFuture<Void> future;
          synchronized (this) {
+            if (t == null && batchSize > 0) {
+               long sample = Math.max(1, durationNanos / batchSize);
+               nanosPerModification = nanosPerModification == 0 ? sample : (nanosPerModification * 7 + sample) / 8;
+            }
             submitNewBatch = !pendingModifications.isEmpty() || hasPendingClear;
             future = batchFuture;
             batchFuture = submitNewBatch ? new CompletableFuture<>() : null;
@@ -258,6 +296,49 @@ private void submitTask() {
       });
    }
 
+   /**
+    * Removes the modifications of the next batch from {@code pendingModifications}. The batch contains all the pending
+    * modifications, unless the delegate store is expected to take longer than {@link #TARGET_FLUSH_NANOS} to write
+    * them. The remaining modifications stay pending until the batch completes.
+    */
+   @GuardedBy("this")
+   private Map<Object, Modification> takeBatch() {
+      Map<Object, Modification> batch;
+      int batchLimit = batchLimit();
+      // A pending clear must be replicated together with all the modifications after it
+      if (hasPendingClear || pendingModifications.size() <= batchLimit) {
+         batch = pendingModifications;
+         pendingModifications = new HashMap<>();
+      } else {
+         batch = new HashMap<>();
+         Iterator<Map.Entry<Object, Modification>> iterator = pendingModifications.entrySet().iterator();
+         while (batch.size() < batchLimit) {
+            Map.Entry<Object, Modification> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Limiting batch to %d modifications, %d remain pending", batchLimit, pendingModifications.size());
+         }
+      }
+      return batch;
+   }
+
+   @GuardedBy("this")
+   private int batchLimit() {
+      if (nanosPerModification == 0) {
+         return Integer.MAX_VALUE;
+      }
+      return (int) Math.max(maxBatchSize, Math.min(Integer.MAX_VALUE, TARGET_FLUSH_NANOS / nanosPerModification));
+   }
+
+   /**
+    * @return the number of modifications waiting to be written or being written to the delegate store
+    */
+   public synchronized int getQueueSize() {
+      return pendingModifications.size() + replicatingModifications.size();
+   }
+
    /**
     * Attempts to run the given supplier, checking the stage if it contains an error. It will rerun the Supplier
     * until a supplied stage doesn't contain an exception or it has encountered retries amount of exceptions. In the
@@ -421,6 +502,29 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return actual.load(segment, key);
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      assertNotStopped();
+      Set<Object> keysToLoad = null;
+      Flowable<MarshallableEntry<K, V>> pendingEntries = Flowable.empty();
+      for (Object key : keys) {
+         CompletionStage<MarshallableEntry<K, V>> pendingStage = getStageFromPending(key);
+         if (pendingStage != null) {
+            // A pending remove or clear completes with null which is just ignored
+            pendingEntries = pendingEntries.concatWith(Maybe.fromCompletionStage(pendingStage));
+         } else {
+            if (keysToLoad == null) {
+               keysToLoad = new HashSet<>();
+            }
+            keysToLoad.add(key);
+         }
+      }
+      if (keysToLoad == null) {
+         return pendingEntries;
+      }
+      return pendingEntries.concatWith(actual.loadAll(segments, keysToLoad));
+   }
+
    private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key) {
       Object wrappedKey = wrapKeyIfNeeded(key);
       Map<Object, Modification> modificationsToReplicate;
@@ -481,6 +585,7 @@ CompletionStage<Void> submitModification(Modification modification) {
       boolean isTraceEnabled = log.isTraceEnabled();
       boolean startNewBatch;
       CompletionStage<Void> submitStage;
+      long throttleNanos = 0;
       synchronized (this) {
          int previousBatchId;
          if (isTraceEnabled) {
@@ -503,13 +608,30 @@ CompletionStage<Void> submitModification(Modification modification) {
             log.tracef("Too many modifications queued (%d), operation must wait until previous batch %d completes",
                        queueSize, previousBatchId);
          }
+         int throttleThreshold = modificationQueueSize / 2;
+         if (submitStage == null && queueSize > throttleThreshold) {
+            // Slow down the writer by the time the delegate store needs to catch up with the excess modifications
+            throttleNanos = Math.min(nanosPerModification * (queueSize - throttleThreshold), TARGET_FLUSH_NANOS);
+         }
       }
 
       if (startNewBatch) {
          submitTask();
       }
-      return submitStage == null ? CompletableFutures.completedNull() :
-             submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      if (submitStage != null) {
+         statistics.recordThrottledWrite();
+         return submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      }
+      if (throttleNanos >= MIN_THROTTLE_NANOS) {
+         if (isTraceEnabled) {
+            log.tracef("Modification queue is filling up, delaying operation by %d ns", throttleNanos);
+         }
+         statistics.recordThrottledWrite();
+         CompletableFuture<Void> throttleStage = new CompletableFuture<>();
+         scheduler.schedule(() -> throttleStage.complete(null), throttleNanos, TimeUnit.NANOSECONDS);
+         return throttleStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      }
+      return CompletableFutures.completedNull();
    }
 
    @Override
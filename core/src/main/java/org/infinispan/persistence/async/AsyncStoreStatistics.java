@@ -0,0 +1,122 @@
+package org.infinispan.persistence.async;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.stat.TimerTracker;
+
+/**
+ * Statistics of the {@link AsyncNonBlockingStore} instances of a cache.
+ * <p>
+ * The counters are shared by all the async stores of the cache, while the queue size is computed from the stores
+ * that are currently running.
+ *
+ * @since 16.3
+ */
+public class AsyncStoreStatistics {
+   private final Set<AsyncNonBlockingStore<?, ?>> stores = ConcurrentHashMap.newKeySet();
+   private final LongAdder submittedWrites = new LongAdder();
+   private final LongAdder coalescedWrites = new LongAdder();
+   private final LongAdder throttledWrites = new LongAdder();
+   private final LongAdder flushes = new LongAdder();
+   private final LongAdder flushedModifications = new LongAdder();
+   private final LongAdder flushNanos = new LongAdder();
+   private volatile TimerTracker flushTimer = TimerTracker.NO_OP;
+
+   void register(AsyncNonBlockingStore<?, ?> store) {
+      stores.add(store);
+   }
+
+   void unregister(AsyncNonBlockingStore<?, ?> store) {
+      stores.remove(store);
+   }
+
+   void recordWrite(boolean coalesced) {
+      submittedWrites.increment();
+      if (coalesced) {
+         coalescedWrites.increment();
+      }
+   }
+
+   void recordThrottledWrite() {
+      throttledWrites.increment();
+   }
+
+   void recordFlush(int modifications, long durationNanos) {
+      flushes.increment();
+      flushedModifications.add(modifications);
+      flushNanos.add(durationNanos);
+      flushTimer.update(durationNanos, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * Sets the tracker that records the duration of every batch flushed to the underlying stores.
+    */
+   public void setFlushTimer(TimerTracker flushTimer) {
+      this.flushTimer = flushTimer;
+   }
+
+   /**
+    * @return the number of modifications waiting to be written, or being written, to the underlying stores
+    */
+   public int getQueueSize() {
+      int queueSize = 0;
+      for (AsyncNonBlockingStore<?, ?> store : stores) {
+         queueSize += store.getQueueSize();
+      }
+      return queueSize;
+   }
+
+   public long getSubmittedWrites() {
+      return submittedWrites.sum();
+   }
+
+   /**
+    * @return the number of writes that replaced a pending write to the same key, and were never written separately
+    */
+   public long getCoalescedWrites() {
+      return coalescedWrites.sum();
+   }
+
+   /**
+    * @return the ratio of coalesced writes to submitted writes, or 0 if there were no writes
+    */
+   public double getCoalescingRatio() {
+      long submitted = submittedWrites.sum();
+      return submitted == 0 ? 0 : (double) coalescedWrites.sum() / submitted;
+   }
+
+   /**
+    * @return the number of writes that were delayed or blocked because the modification queue was filling up
+    */
+   public long getThrottledWrites() {
+      return throttledWrites.sum();
+   }
+
+   public long getFlushes() {
+      return flushes.sum();
+   }
+
+   public long getFlushedModifications() {
+      return flushedModifications.sum();
+   }
+
+   /**
+    * @return the average duration of a flush in nanoseconds, or 0 if there were no flushes
+    */
+   public long getAverageFlushNanos() {
+      long count = flushes.sum();
+      return count == 0 ? 0 : flushNanos.sum() / count;
+   }
+
+   public void reset() {
+      submittedWrites.reset();
+      coalescedWrites.reset();
+      throttledWrites.reset();
+      flushes.reset();
+      flushedModifications.reset();
+      flushNanos.reset();
+   }
+}
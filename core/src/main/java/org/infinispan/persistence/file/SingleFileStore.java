@@ -13,8 +13,12 @@
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
@@ -23,6 +27,7 @@
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.SortedSet;
@@ -35,6 +40,8 @@
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.commons.hash.Hash;
+import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.time.TimeService;
@@ -81,7 +88,9 @@
  * keys and file positions are kept in memory.
   * Note: this CacheStore implementation keeps keys and file positions in memory!
  * The current implementation needs about 100 bytes per cache entry, plus the
- * memory for the key objects.
+ * memory for the key objects. With {@link SingleFileStoreConfiguration#compactIndex()}
+ * the index keeps the serialized keys and the file positions in primitive arrays instead,
+ * which needs about 64 bytes per cache entry plus the serialized key, and no object per entry.
   * So, the space taken by this cache store is both the space in the file
  * itself plus the in-memory index with the keys and their file positions.
  * With this in mind and to avoid the cache store leading to
@@ -1576,7 +1585,9 @@ private void blockingAddSegments(IntSet segments) {
          for (int segment : segments) {
             if (entries[segment] != null)
                continue;
-            Map<K, FileEntry> entryMap = new HashMap<>();
+            Map<K, FileEntry> entryMap = configuration.compactIndex() ?
+                  new CompactIndex<>(ctx.getPersistenceMarshaller()) :
+                  new HashMap<>();
             entries[segment] = Collections.synchronizedMap(entryMap);
          }
       } finally {
@@ -1621,6 +1632,379 @@ private void blockingRemoveSegments(IntSet segments) {
       processFreeEntries();
    }
 
+   /**
+    * Index of the entries of a segment that keeps the serialized keys and the fields of the {@link FileEntry} in
+    * primitive arrays, using open addressing with linear probing, so that the index does not hold any object per entry.
+    * <p>
+    * Keys are compared in their serialized form, so every lookup marshalls the key, and the iteration unmarshalls the
+    * keys. {@link FileEntry} instances are created when they are returned by the index, and the instances that might
+    * have been locked by a reader are retained until they are unlocked, so that {@link #put(Object, FileEntry)} and
+    * {@link #remove(Object)} return the same instance the reader is holding, as with a regular map.
+    * <p>
+    * Like {@link HashMap}, this class is not thread safe and must be wrapped with
+    * {@link Collections#synchronizedMap(Map)}.
+    */
+   private static class CompactIndex<K> extends AbstractMap<K, FileEntry> {
+      /*
+       * Each slot of the table is made of 6 longs:
+       * 0 - offset of the entry in the file, EMPTY if the slot was never used or DELETED if the entry was removed
+       * 1 - expiration time
+       * 2 - hash of the serialized key (upper 32 bits) and size (lower 32 bits)
+       * 3 - key length (upper 32 bits) and data length (lower 32 bits)
+       * 4 - metadata length (upper 32 bits) and internal metadata length (lower 32 bits)
+       * 5 - position of the serialized key in the keys array
+       */
+      private static final int STRIDE = 6;
+      private static final int OFFSET = 0;
+      private static final int EXPIRY = 1;
+      private static final int HASH_SIZE = 2;
+      private static final int KEY_DATA_LEN = 3;
+      private static final int METADATA_LEN = 4;
+      private static final int KEY_POS = 5;
+      // The file starts with the magic bytes, so no entry can be at offset 0
+      private static final long EMPTY = 0;
+      private static final long DELETED = -1;
+      private static final int INITIAL_CAPACITY = 16;
+      private static final int INITIAL_KEYS_LENGTH = 256;
+      private static final int MAX_KEYS_LENGTH = Integer.MAX_VALUE - 8;
+      private static final int MIN_RETAINED_SWEEP = 64;
+
+      private final Marshaller marshaller;
+      private final Hash hashFunction = MurmurHash3.getInstance();
+      // FileEntry instances returned by the index, by offset
+      private final Map<Long, FileEntry> retained = new HashMap<>();
+      private int retainedSweep = MIN_RETAINED_SWEEP;
+      private long[] table;
+      private int mask;
+      private int size;
+      private int deleted;
+      private byte[] keys;
+      private int keysLength;
+      private int keysGarbage;
+
+      CompactIndex(Marshaller marshaller) {
+         this.marshaller = marshaller;
+         reset();
+      }
+
+      private void reset() {
+         table = new long[INITIAL_CAPACITY * STRIDE];
+         mask = INITIAL_CAPACITY - 1;
+         size = 0;
+         deleted = 0;
+         keys = new byte[INITIAL_KEYS_LENGTH];
+         keysLength = 0;
+         keysGarbage = 0;
+         retained.clear();
+         retainedSweep = MIN_RETAINED_SWEEP;
+      }
+
+      @Override
+      public int size() {
+         return size;
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+         if (size == 0)
+            return false;
+
+         byte[] keyBytes = marshall(key);
+         return find(keyBytes, hashFunction.hash(keyBytes)) >= 0;
+      }
+
+      @Override
+      public FileEntry get(Object key) {
+         if (size == 0)
+            return null;
+
+         byte[] keyBytes = marshall(key);
+         int slot = find(keyBytes, hashFunction.hash(keyBytes));
+         return slot < 0 ? null : entryAt(slot);
+      }
+
+      @Override
+      public FileEntry put(K key, FileEntry fe) {
+         byte[] keyBytes = marshall(key);
+         int hash = hashFunction.hash(keyBytes);
+         int slot = find(keyBytes, hash);
+         if (slot >= 0) {
+            // The serialized key is the same, only the entry fields change
+            FileEntry oldEntry = release(slot);
+            setEntry(slot * STRIDE, hash, fe);
+            return oldEntry;
+         }
+
+         ensureCapacity(keyBytes.length);
+         slot = hash & mask;
+         while (table[slot * STRIDE + OFFSET] > 0) {
+            slot = (slot + 1) & mask;
+         }
+         int base = slot * STRIDE;
+         if (table[base + OFFSET] == DELETED) {
+            deleted--;
+         }
+         setEntry(base, hash, fe);
+         System.arraycopy(keyBytes, 0, keys, keysLength, keyBytes.length);
+         table[base + KEY_POS] = keysLength;
+         keysLength += keyBytes.length;
+         size++;
+         return null;
+      }
+
+      @Override
+      public FileEntry remove(Object key) {
+         if (size == 0)
+            return null;
+
+         byte[] keyBytes = marshall(key);
+         int slot = find(keyBytes, hashFunction.hash(keyBytes));
+         if (slot < 0)
+            return null;
+
+         FileEntry oldEntry = release(slot);
+         delete(slot);
+         return oldEntry;
+      }
+
+      @Override
+      public void clear() {
+         reset();
+      }
+
+      @Override
+      public Set<Entry<K, FileEntry>> entrySet() {
+         return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, FileEntry>> iterator() {
+               return new SlotIterator<>() {
+                  @Override
+                  Entry<K, FileEntry> element(int slot) {
+                     return new SimpleImmutableEntry<>(unmarshallKey(slot), entryAt(slot));
+                  }
+               };
+            }
+
+            @Override
+            public int size() {
+               return size;
+            }
+         };
+      }
+
+      @Override
+      public Collection<FileEntry> values() {
+         // Avoid unmarshalling the keys
+         return new AbstractCollection<>() {
+            @Override
+            public Iterator<FileEntry> iterator() {
+               return new SlotIterator<>() {
+                  @Override
+                  FileEntry element(int slot) {
+                     return entryAt(slot);
+                  }
+               };
+            }
+
+            @Override
+            public int size() {
+               return size;
+            }
+         };
+      }
+
+      private int find(byte[] keyBytes, int hash) {
+         int slot = hash & mask;
+         while (true) {
+            int base = slot * STRIDE;
+            long offset = table[base + OFFSET];
+            if (offset == EMPTY)
+               return -1;
+
+            if (offset != DELETED && (int) (table[base + HASH_SIZE] >>> 32) == hash) {
+               int keyLen = (int) (table[base + KEY_DATA_LEN] >>> 32);
+               int keyPos = (int) table[base + KEY_POS];
+               if (Arrays.equals(keys, keyPos, keyPos + keyLen, keyBytes, 0, keyBytes.length))
+                  return slot;
+            }
+            slot = (slot + 1) & mask;
+         }
+      }
+
+      private void setEntry(int base, int hash, FileEntry fe) {
+         table[base + OFFSET] = fe.offset;
+         table[base + EXPIRY] = fe.expiryTime;
+         table[base + HASH_SIZE] = pack(hash, fe.size);
+         table[base + KEY_DATA_LEN] = pack(fe.keyLen, fe.dataLen);
+         table[base + METADATA_LEN] = pack(fe.metadataLen, fe.internalMetadataLen);
+      }
+
+      private static long pack(int high, int low) {
+         return ((long) high << 32) | (low & 0xFFFFFFFFL);
+      }
+
+      private void delete(int slot) {
+         int base = slot * STRIDE;
+         table[base + OFFSET] = DELETED;
+         keysGarbage += (int) (table[base + KEY_DATA_LEN] >>> 32);
+         size--;
+         deleted++;
+      }
+
+      /**
+       * Returns the entry in the slot, creating it if a reader is not already holding it.
+       */
+      private FileEntry entryAt(int slot) {
+         int base = slot * STRIDE;
+         long offset = table[base + OFFSET];
+         FileEntry fe = retained.get(offset);
+         if (fe == null) {
+            if (retained.size() >= retainedSweep) {
+               // Readers lock the entry while holding the index monitor, so the unlocked entries can be dropped
+               retained.values().removeIf(retainedEntry -> !retainedEntry.isLocked());
+               retainedSweep = Math.max(MIN_RETAINED_SWEEP, retained.size() * 2);
+            }
+            fe = newEntry(base);
+            retained.put(offset, fe);
+         }
+         return fe;
+      }
+
+      /**
+       * Returns the entry in the slot before it is replaced or removed.
+       */
+      private FileEntry release(int slot) {
+         int base = slot * STRIDE;
+         FileEntry fe = retained.remove(table[base + OFFSET]);
+         return fe != null ? fe : newEntry(base);
+      }
+
+      private FileEntry newEntry(int base) {
+         long sizes = table[base + HASH_SIZE];
+         long keyDataLen = table[base + KEY_DATA_LEN];
+         long metadataLen = table[base + METADATA_LEN];
+         return new FileEntry(table[base + OFFSET], (int) sizes, (int) (keyDataLen >>> 32), (int) keyDataLen,
+               (int) (metadataLen >>> 32), (int) metadataLen, table[base + EXPIRY]);
+      }
+
+      private void ensureCapacity(int keyLength) {
+         int capacity = mask + 1;
+         boolean rehash = false;
+         if ((size + deleted + 1) * 4L > capacity * 3L) {
+            // Grow if the table is half full, otherwise just purge the deleted slots
+            if ((size + 1) * 2L > capacity) {
+               capacity *= 2;
+            }
+            rehash = true;
+         }
+         if (keysLength + keyLength > keys.length && keysGarbage > keysLength / 2) {
+            rehash = true;
+         }
+         if (rehash) {
+            rehash(capacity);
+         }
+         if (keysLength + keyLength > keys.length) {
+            long newLength = Math.max((long) keysLength + keyLength, keys.length * 2L);
+            if (keysLength + keyLength > MAX_KEYS_LENGTH)
+               throw new PersistenceException("The serialized keys of the segment do not fit in the compact index");
+
+            keys = Arrays.copyOf(keys, (int) Math.min(newLength, MAX_KEYS_LENGTH));
+         }
+      }
+
+      private void rehash(int capacity) {
+         long[] oldTable = table;
+         byte[] oldKeys = keys;
+         int liveKeysLength = keysLength - keysGarbage;
+         table = new long[capacity * STRIDE];
+         mask = capacity - 1;
+         keys = new byte[Math.max(INITIAL_KEYS_LENGTH, liveKeysLength + (liveKeysLength >> 1))];
+         keysLength = 0;
+         keysGarbage = 0;
+         deleted = 0;
+         for (int oldBase = 0; oldBase < oldTable.length; oldBase += STRIDE) {
+            if (oldTable[oldBase + OFFSET] <= 0)
+               continue;
+
+            int slot = (int) (oldTable[oldBase + HASH_SIZE] >>> 32) & mask;
+            while (table[slot * STRIDE + OFFSET] != EMPTY) {
+               slot = (slot + 1) & mask;
+            }
+            int base = slot * STRIDE;
+            System.arraycopy(oldTable, oldBase, table, base, STRIDE);
+            int keyLen = (int) (oldTable[oldBase + KEY_DATA_LEN] >>> 32);
+            System.arraycopy(oldKeys, (int) oldTable[oldBase + KEY_POS], keys, keysLength, keyLen);
+            table[base + KEY_POS] = keysLength;
+            keysLength += keyLen;
+         }
+      }
+
+      private byte[] marshall(Object key) {
+         try {
+            return marshaller.objectToByteBuffer(key);
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException(e);
+         }
+      }
+
+      @SuppressWarnings("unchecked")
+      private K unmarshallKey(int slot) {
+         int base = slot * STRIDE;
+         try {
+            return (K) marshaller.objectFromByteBuffer(keys, (int) table[base + KEY_POS], (int) (table[base + KEY_DATA_LEN] >>> 32));
+         } catch (IOException | ClassNotFoundException e) {
+            throw new PersistenceException(e);
+         }
+      }
+
+      private abstract class SlotIterator<T> implements Iterator<T> {
+         private int nextSlot = -1;
+         private int lastSlot = -1;
+
+         SlotIterator() {
+            advance();
+         }
+
+         private void advance() {
+            int capacity = mask + 1;
+            do {
+               nextSlot++;
+            } while (nextSlot < capacity && table[nextSlot * STRIDE + OFFSET] <= 0);
+         }
+
+         abstract T element(int slot);
+
+         @Override
+         public boolean hasNext() {
+            return nextSlot <= mask;
+         }
+
+         @Override
+         public T next() {
+            if (!hasNext())
+               throw new NoSuchElementException();
+
+            lastSlot = nextSlot;
+            advance();
+            return element(lastSlot);
+         }
+
+         @Override
+         public void remove() {
+            if (lastSlot < 0)
+               throw new IllegalStateException();
+
+            // Deleted slots are only purged when adding new keys, so the iteration is not affected
+            release(lastSlot);
+            delete(lastSlot);
+            lastSlot = -1;
+         }
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
         * The format of a FileEntry on disk is as follows:
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.file;
 
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.COMPACT_INDEX;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.LOCATION;
 
@@ -55,6 +56,17 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * If true, the in-memory index keeps the serialized keys and the file positions in a compact hash table made of
+    * primitive arrays, instead of a map of key objects and file entries. This reduces the memory used by the index and
+    * the GC overhead of large stores, at the cost of marshalling the key on every access to the index.
+    * Defaults to false.
+    */
+   public SingleFileStoreConfigurationBuilder compactIndex(boolean compactIndex) {
+      attributes.attribute(COMPACT_INDEX).set(compactIndex);
+      return this;
+   }
+
    @Override
    public void validate(GlobalConfiguration globalConfig) {
       PersistenceUtil.validateGlobalStateStoreLocation(globalConfig, SingleFileStore.class.getSimpleName(), attributes.attribute(LOCATION));
@@ -1,8 +1,10 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
@@ -10,11 +12,14 @@
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.container.entries.MVCCEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.persistence.async.AsyncStoreStatistics;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.persistence.spi.PersistenceException;
@@ -85,6 +90,11 @@ interface StoreChangeListener {
 
    Collection<String> getStoresAsString();
 
+   /**
+    * @return the statistics shared by all the stores with write-behind enabled
+    */
+   AsyncStoreStatistics getAsyncStoreStatistics();
+
    /**
     * Removes the expired entries from all the existing storage.
     */
@@ -195,6 +205,32 @@ default <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return loadFromAllStores(key, localInvocation, includeStores);
    }
 
+   /**
+    * Loads the entries of many keys from the persistence stores. The stores are queried in order, each one only for
+    * the keys that were not found in the previous stores. Stores with
+    * {@link org.infinispan.persistence.spi.NonBlockingStore.Characteristic#BULK_LOAD} load all these keys with a single
+    * operation. The returned entries are guaranteed to not be expired when they were returned.
+    * @param keys the keys to read the entries from, mapped to their segment
+    * @param localInvocation whether this invocation is a local invocation. Some loaders may be ignored if it is not local
+    * @param includeStores if a loader that is also a store can be loaded from
+    * @return the entries that were found, keys which are not present in any store are not included
+    * default implementation invokes {@link #loadFromAllStores(Object, int, boolean, boolean)} for each key
+    */
+   default <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Object, Integer> keys,
+         boolean localInvocation, boolean includeStores) {
+      Map<Object, MarshallableEntry<K, V>> entries = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Map<Object, MarshallableEntry<K, V>>> stage = CompletionStages.aggregateCompletionStage(entries);
+      for (Map.Entry<Object, Integer> entry : keys.entrySet()) {
+         stage.dependsOn(this.<K, V>loadFromAllStores(entry.getKey(), entry.getValue(), localInvocation, includeStores)
+               .thenAccept(me -> {
+                  if (me != null) {
+                     entries.put(entry.getKey(), me);
+                  }
+               }));
+      }
+      return stage.freeze();
+   }
+
    /**
     * Returns an approximate count of how many entries are persisted in the given segments.
     * If no store can handle the request for the given mode, a value of <b>-1</b> is returned instead.
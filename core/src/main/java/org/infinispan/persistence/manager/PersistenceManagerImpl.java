@@ -9,13 +9,16 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
@@ -77,6 +80,7 @@
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.InitializationContextImpl;
 import org.infinispan.persistence.async.AsyncNonBlockingStore;
+import org.infinispan.persistence.async.AsyncStoreStatistics;
 import org.infinispan.persistence.internal.PersistenceUtil;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
@@ -156,6 +160,7 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private List<StoreStatus> stores = null;
 
    private final List<StoreChangeListener> listeners = new CopyOnWriteArrayList<>();
+   private final AsyncStoreStatistics asyncStoreStatistics = new AsyncStoreStatistics();
 
    private <K, V> NonBlockingStore<K, V> getStore(Predicate<StoreStatus> predicate) {
       // We almost always will be doing reads, so optimistic should be faster
@@ -268,7 +273,7 @@ private Completable startStoresOnly(Iterable<StoreConfiguration> storeConfigurat
                NonBlockingStore<?, ?> actualStore = PersistenceUtil.storeFromConfiguration(storeConfiguration);
                NonBlockingStore<?, ?> nonBlockingStore;
                if (storeConfiguration.async().enabled()) {
-                  nonBlockingStore = new AsyncNonBlockingStore<>(actualStore);
+                  nonBlockingStore = new AsyncNonBlockingStore<>(actualStore, asyncStoreStatistics);
                } else {
                   nonBlockingStore = actualStore;
                }
@@ -691,6 +696,11 @@ public <T> Set<T> getStores(Class<T> storeClass) {
       }
    }
 
+   @Override
+   public AsyncStoreStatistics getAsyncStoreStatistics() {
+      return asyncStoreStatistics;
+   }
+
    @Override
    public Collection<String> getStoresAsString() {
       long stamp = acquireReadLock();
@@ -969,13 +979,7 @@ private <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromStoresIterator(O
          CompletionStage<MarshallableEntry<K, V>> loadStage = store.load(segmentOrZero(storeStatus, segment), key);
          return loadStage.thenCompose(e -> {
             if (e != null) {
-               // Read-only we apply lifespan expiration to the entry, so it can be reread later
-               // Max Idle is only allowed when the store has passivation, so it can't be read-only
-               if (storeStatus.hasCharacteristic(Characteristic.READ_ONLY) && configuration.expiration().lifespan() > 0) {
-                  e = marshallableEntryFactory.cloneWithExpiration((MarshallableEntry) e, timeService.wallClockTime(),
-                        configuration.expiration().lifespan());
-               }
-               return CompletableFuture.completedFuture(e);
+               return CompletableFuture.completedFuture(applyReadOnlyExpiration(storeStatus, e));
             } else {
                return loadFromStoresIterator(key, segment, iterator, includeStores);
             }
@@ -984,6 +988,89 @@ private <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromStoresIterator(O
       return CompletableFutures.completedNull();
    }
 
+   private <K, V> MarshallableEntry<K, V> applyReadOnlyExpiration(StoreStatus storeStatus, MarshallableEntry<K, V> e) {
+      // Read-only we apply lifespan expiration to the entry, so it can be reread later
+      // Max Idle is only allowed when the store has passivation, so it can't be read-only
+      if (storeStatus.hasCharacteristic(Characteristic.READ_ONLY) && configuration.expiration().lifespan() > 0) {
+         return marshallableEntryFactory.cloneWithExpiration((MarshallableEntry) e, timeService.wallClockTime(),
+               configuration.expiration().lifespan());
+      }
+      return e;
+   }
+
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Object, Integer> keys,
+         boolean localInvocation, boolean includeStores) {
+      long stamp = acquireReadLock();
+      boolean release = true;
+      try {
+         if (!checkStoreAvailability()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loading entries for %d keys", keys.size());
+         }
+         Iterator<StoreStatus> iterator = stores.iterator();
+         CompletionStage<Map<Object, MarshallableEntry<K, V>>> stage =
+               loadAllFromStoresIterator(keys, new ConcurrentHashMap<>(), iterator, includeStores);
+         if (CompletionStages.isCompletedSuccessfully(stage)) {
+            return stage;
+         }
+         release = false;
+         return deferReadLockRelease(stage, stamp);
+      } finally {
+         if (release) {
+            releaseReadLock(stamp);
+         }
+      }
+   }
+
+   private <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromStoresIterator(Map<Object, Integer> keys,
+         Map<Object, MarshallableEntry<K, V>> entries, Iterator<StoreStatus> iterator, boolean includeStores) {
+      while (iterator.hasNext()) {
+         StoreStatus storeStatus = iterator.next();
+         NonBlockingStore<K, V> store = storeStatus.store();
+         if (!allowLoad(storeStatus, includeStores)) {
+            continue;
+         }
+         CompletionStage<Void> loadStage;
+         if (storeStatus.hasCharacteristic(Characteristic.BULK_LOAD)) {
+            IntSet segments = IntSets.mutableEmptySet(segmentCount);
+            for (Integer segment : keys.values()) {
+               segments.set(segmentOrZero(storeStatus, segment));
+            }
+            loadStage = Flowable.fromPublisher(store.loadAll(segments, keys.keySet()))
+                  .doOnNext(e -> entries.put(e.getKey(), applyReadOnlyExpiration(storeStatus, e)))
+                  .ignoreElements()
+                  .toCompletionStage(null);
+         } else {
+            AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
+            for (Map.Entry<Object, Integer> key : keys.entrySet()) {
+               aggregateStage.dependsOn(store.load(segmentOrZero(storeStatus, key.getValue()), key.getKey())
+                     .thenAccept(e -> {
+                        if (e != null) {
+                           entries.put(key.getKey(), applyReadOnlyExpiration(storeStatus, e));
+                        }
+                     }));
+            }
+            loadStage = aggregateStage.freeze();
+         }
+         return loadStage.thenCompose(ignore -> {
+            Map<Object, Integer> missing = new HashMap<>();
+            for (Map.Entry<Object, Integer> key : keys.entrySet()) {
+               if (!entries.containsKey(key.getKey())) {
+                  missing.put(key.getKey(), key.getValue());
+               }
+            }
+            if (missing.isEmpty()) {
+               return CompletableFuture.completedFuture(entries);
+            }
+            return loadAllFromStoresIterator(missing, entries, iterator, includeStores);
+         });
+      }
+      return CompletableFuture.completedFuture(entries);
+   }
+
    private boolean allowLoad(StoreStatus storeStatus, boolean includeStores) {
       return !storeStatus.hasCharacteristic(Characteristic.WRITE_ONLY) &&
             (includeStores || storeStatus.hasCharacteristic(Characteristic.READ_ONLY) ||
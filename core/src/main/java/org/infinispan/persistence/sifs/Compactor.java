@@ -26,6 +26,7 @@
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.sifs.configuration.CompressionType;
 import org.infinispan.util.concurrent.NonBlockingManager;
 
 import io.reactivex.rxjava3.core.Completable;
@@ -53,6 +54,8 @@ class Compactor {
    private final KeyPartitioner keyPartitioner;
    private final int maxFileSize;
    private final double compactionThreshold;
+   private final CompressionType compression;
+   private final boolean checksum;
    private final Executor blockingExecutor;
 
    // Initialize so we can enqueue operations until start begins
@@ -77,7 +80,7 @@ class Compactor {
 
    public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
          Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
-         double compactionThreshold, Executor blockingExecutor) {
+         double compactionThreshold, CompressionType compression, boolean checksum, Executor blockingExecutor) {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
@@ -86,6 +89,8 @@ public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvide
       this.keyPartitioner = keyPartitioner;
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
+      this.compression = compression;
+      this.checksum = checksum;
       this.blockingExecutor = blockingExecutor;
    }
 
@@ -658,7 +663,40 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                }
                index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
             } else {
-               if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
+               byte[] serializedValue = null;
+               EntryMetadata metadata = null;
+               byte[] serializedInternalMetadata = null;
+               byte flags = checksum ? EntryHeader.CHECKSUM : 0;
+               boolean hasValue = header.valueLength() > 0 && !truncate;
+               if (hasValue) {
+                  if (header.metadataLength() > 0) {
+                     metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
+                  }
+                  if (header.isCompressed() && compression != CompressionType.NONE) {
+                     // No need to decompress the value just to compress it again
+                     serializedValue = EntryRecord.readStoredValue(handle, header, scheduledOffset);
+                     flags |= EntryHeader.COMPRESSED;
+                  } else {
+                     // Entries written before the compression was enabled are compressed here
+                     serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
+                     byte[] compressed = compression != CompressionType.NONE ? EntryCompression.compress(serializedValue) : null;
+                     if (compressed != null) {
+                        serializedValue = compressed;
+                        flags |= EntryHeader.COMPRESSED;
+                     }
+                  }
+                  if (header.internalMetadataLength() > 0) {
+                     serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
+                  }
+               }
+               // The entry may not have the same length as before if the compression or checksum was changed
+               int writtenLength = EntryHeader.HEADER_SIZE_11_0 + serializedKey.length
+                     + (metadata != null ? metadata.length() : 0)
+                     + (serializedValue != null ? serializedValue.length : 0)
+                     + (serializedInternalMetadata != null ? serializedInternalMetadata.length : 0)
+                     + (checksum ? EntryHeader.CHECKSUM_SIZE : 0);
+
+               if (logFile == null || currentOffset + writtenLength > maxFileSize) {
                   if (logFile != null) {
                      logFile.close();
                      completeFile(logFile.fileId, currentOffset, nextExpirationTime);
@@ -669,28 +707,17 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                   log.debugf("Compacting to %d", (Object) logFile.fileId);
                }
 
-               byte[] serializedValue = null;
-               EntryMetadata metadata = null;
-               byte[] serializedInternalMetadata = null;
                int entryOffset;
-               int writtenLength;
-               if (header.valueLength() > 0 && !truncate) {
-                  if (header.metadataLength() > 0) {
-                     metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
-                  }
-                  serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
-                  if (header.internalMetadataLength() > 0) {
-                     serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
-                  }
+               if (hasValue) {
                   entryOffset = currentOffset;
-                  writtenLength = header.totalLength();
                   // Update the next expiration time only for entries that are not removed
                   nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
                } else {
                   entryOffset = ~currentOffset;
-                  writtenLength = header.getHeaderLength() + header.keyLength();
                }
-               EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
+               int written = EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, flags, serializedKey, metadata,
+                     serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
+               assert written == writtenLength;
                TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
                if (lockedEntry == null) {
                   if (log.isTraceEnabled()) {
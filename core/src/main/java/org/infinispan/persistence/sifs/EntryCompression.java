@@ -0,0 +1,85 @@
+package org.infinispan.persistence.sifs;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the values written to the data files. A compressed value is stored as its uncompressed length
+ * (4 bytes) followed by the deflate stream.
+ *
+ * @since 16.3
+ */
+final class EntryCompression {
+   // Values smaller than this rarely compress enough to pay for the length prefix and the decompression
+   static final int MIN_COMPRESSED_LENGTH = 64;
+
+   private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+   private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+   private EntryCompression() { }
+
+   /**
+    * Compresses the remaining bytes of the buffer, without modifying its position.
+    * @return the compressed value, or null if the value does not get smaller
+    */
+   static ByteBuffer compress(ByteBuffer value) {
+      int length = value.remaining();
+      if (length < MIN_COMPRESSED_LENGTH) {
+         return null;
+      }
+      Deflater deflater = DEFLATER.get();
+      try {
+         deflater.setInput(value.duplicate());
+         deflater.finish();
+         // The compressed value is only kept if it is smaller than the original
+         ByteBuffer compressed = ByteBuffer.allocate(length);
+         compressed.putInt(length);
+         while (!deflater.finished() && compressed.hasRemaining()) {
+            deflater.deflate(compressed);
+         }
+         if (!deflater.finished()) {
+            return null;
+         }
+         return compressed.flip();
+      } finally {
+         deflater.reset();
+      }
+   }
+
+   static byte[] compress(byte[] value) {
+      ByteBuffer compressed = compress(ByteBuffer.wrap(value));
+      if (compressed == null) {
+         return null;
+      }
+      byte[] bytes = new byte[compressed.remaining()];
+      compressed.get(bytes);
+      return bytes;
+   }
+
+   static byte[] decompress(byte[] stored) {
+      ByteBuffer input = ByteBuffer.wrap(stored);
+      byte[] value = new byte[input.getInt()];
+      Inflater inflater = INFLATER.get();
+      try {
+         inflater.setInput(input);
+         int length = 0;
+         while (length < value.length) {
+            int inflated = inflater.inflate(value, length, value.length - length);
+            if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+               break;
+            }
+            length += inflated;
+         }
+         if (length != value.length) {
+            throw new IllegalStateException("Compressed value is truncated, expected " + value.length + " bytes but got " + length);
+         }
+         return value;
+      } catch (DataFormatException e) {
+         throw new IllegalStateException("Compressed value is corrupted", e);
+      } finally {
+         inflater.reset();
+      }
+   }
+}
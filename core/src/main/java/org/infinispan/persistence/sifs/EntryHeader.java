@@ -7,6 +7,16 @@
  */
 public class EntryHeader {
    private static final byte MAGIC = 0x01;
+   /**
+    * Flag stored in the magic byte when the value is compressed, see {@link EntryCompression}.
+    */
+   static final byte COMPRESSED = 0x02;
+   /**
+    * Flag stored in the magic byte when the entry is followed by a CRC32C checksum of all its bytes.
+    */
+   static final byte CHECKSUM = 0x04;
+   private static final byte FLAGS = COMPRESSED | CHECKSUM;
+   static final int CHECKSUM_SIZE = 4;
    /* 1 byte  - magic key
     * 2 bytes - key length
     * 2 bytes - metadata length
@@ -15,10 +25,10 @@ public class EntryHeader {
     * 8 bytes - expiration time
     */
    static final int HEADER_SIZE_10_1 = 24;
-   /* 1 byte  - magic key
+   /* 1 byte  - magic key and flags
     * 2 bytes - key length
     * 2 bytes - metadata length
-    * 4 bytes - value length
+    * 4 bytes - value length, compressed length if the value is compressed
     * 2 bytes - internal metadata length
     * 8 bytes - seq id
     * 8 bytes - expiration time
@@ -32,16 +42,18 @@ public class EntryHeader {
    private final long expiration;
    private final int internalMetadataLength;
    private final int headerLength;
+   private final byte flags;
 
    public EntryHeader(ByteBuffer buffer) {
       this(buffer, false);
    }
 
    public EntryHeader(ByteBuffer buffer, boolean oldFormat) {
-      byte magicByte;
-      if (!oldFormat && (magicByte = buffer.get()) != MAGIC) {
+      byte magicByte = oldFormat ? MAGIC : buffer.get();
+      if ((magicByte & ~FLAGS) != MAGIC) {
          throw new IllegalStateException("Magic byte was: " + magicByte);
       }
+      this.flags = (byte) (magicByte & FLAGS);
       this.keyLength = buffer.getShort();
       this.metadataLength = buffer.getShort();
       this.valueLength = buffer.getInt();
@@ -79,17 +91,34 @@ public int getHeaderLength() {
       return headerLength;
    }
 
+   public boolean isCompressed() {
+      return (flags & COMPRESSED) != 0;
+   }
+
+   public boolean hasChecksum() {
+      return (flags & CHECKSUM) != 0;
+   }
+
+   byte flags() {
+      return flags;
+   }
+
    @Override
    public String toString() {
-      return String.format("[keyLength=%d, valueLength=%d, metadataLength=%d, internalMetadataLength=%d,seqId=%d, expiration=%d]", keyLength, valueLength, metadataLength, internalMetadataLength, seqId, expiration);
+      return String.format("[keyLength=%d, valueLength=%d, metadataLength=%d, internalMetadataLength=%d,seqId=%d, expiration=%d, flags=%d]", keyLength, valueLength, metadataLength, internalMetadataLength, seqId, expiration, flags);
    }
 
    public int totalLength() {
-      return keyLength + metadataLength + internalMetadataLength + valueLength + headerLength;
+      return keyLength + metadataLength + internalMetadataLength + valueLength + headerLength
+            + (hasChecksum() ? CHECKSUM_SIZE : 0);
    }
 
    public static void writeHeader(ByteBuffer buf, short keyLength, short metadataLength, int valueLength, short internalMetadataLength, long seqId, long expiration) {
-      buf.put(EntryHeader.MAGIC);
+      writeHeader(buf, (byte) 0, keyLength, metadataLength, valueLength, internalMetadataLength, seqId, expiration);
+   }
+
+   static void writeHeader(ByteBuffer buf, byte flags, short keyLength, short metadataLength, int valueLength, short internalMetadataLength, long seqId, long expiration) {
+      buf.put((byte) (EntryHeader.MAGIC | flags));
       buf.putShort(keyLength);
       buf.putShort(metadataLength);
       buf.putInt(valueLength);
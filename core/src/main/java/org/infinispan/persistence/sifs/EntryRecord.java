@@ -3,6 +3,7 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.zip.CRC32C;
 
 import org.infinispan.commons.util.Util;
 
@@ -12,6 +13,7 @@
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class EntryRecord {
+   private static final Log log = Log.getLog(EntryRecord.class);
 
    private final EntryHeader header;
    private final byte[] key;
@@ -161,10 +163,43 @@ public static byte[] readInternalMetadata(FileProvider.Handle handle, EntryHeade
       return metadata;
    }
 
+   /**
+    * Reads the value of the entry, decompressing it if needed.
+    */
    public static byte[] readValue(FileProvider.Handle handle, EntryHeader header, long offset) throws IOException {
+      byte[] value = readStoredValue(handle, header, offset);
+      return header.isCompressed() ? EntryCompression.decompress(value) : value;
+   }
+
+   /**
+    * Reads the value of the entry as it is stored in the file, verifying the checksum of the entry if present.
+    */
+   static byte[] readStoredValue(FileProvider.Handle handle, EntryHeader header, long offset) throws IOException {
       assert header.valueLength() > 0;
+      int valueOffset = header.getHeaderLength() + header.keyLength() + header.metadataLength();
+      if (header.hasChecksum()) {
+         // The checksum covers the whole entry, which is read at once unless the file is mapped in memory
+         int totalLength = header.totalLength();
+         ByteBuffer entry = handle.slice(offset, totalLength);
+         if (entry == null) {
+            entry = ByteBuffer.allocate(totalLength);
+            if (read(handle, entry, offset, totalLength) < 0) {
+               throw new IllegalStateException("Concurrent update to compacting file when reading entry on "
+                     + handle.getFileId() + ": " + offset + ": " + header + "|" + handle.getFileSize());
+            }
+         }
+         int checksumOffset = totalLength - EntryHeader.CHECKSUM_SIZE;
+         CRC32C crc = new CRC32C();
+         crc.update(entry.duplicate().position(0).limit(checksumOffset));
+         if ((int) crc.getValue() != entry.getInt(checksumOffset)) {
+            throw log.checksumMismatch(handle.getFileId(), offset);
+         }
+         byte[] value = new byte[header.valueLength()];
+         entry.get(valueOffset, value);
+         return value;
+      }
       byte[] value = new byte[header.valueLength()];
-      if (read(handle, ByteBuffer.wrap(value), offset + header.getHeaderLength() + header.keyLength() + header.metadataLength(), header.valueLength()) < 0) {
+      if (read(handle, ByteBuffer.wrap(value), offset + valueOffset, header.valueLength()) < 0) {
          throw new IllegalStateException("Concurrent update to compacting file when reading metadata on "
                + handle.getFileId() + ": " + offset + ": " + header + "|" + handle.getFileSize());
       }
@@ -183,72 +218,80 @@ private static int read(FileProvider.Handle handle, ByteBuffer buffer, long posi
       return read;
    }
 
-   public static void writeEntry(FileChannel fileChannel, ByteBuffer reusedBuffer, byte[] serializedKey, EntryMetadata metadata, byte[] serializedValue,
-                                 byte[] serializedInternalMetadata, long seqId, long expiration) throws IOException {
-      assert reusedBuffer.limit() == EntryHeader.HEADER_SIZE_11_0;
-      assert reusedBuffer.position() == 0;
-      EntryHeader.writeHeader(reusedBuffer, (short) serializedKey.length, metadata == null ? 0 : (short) metadata.length(),
-            serializedValue == null ? 0 : serializedValue.length,
-            serializedInternalMetadata == null ? 0 : (short) serializedInternalMetadata.length,
-            seqId, expiration);
-      reusedBuffer.flip();
-      write(fileChannel, reusedBuffer);
-      reusedBuffer.position(0);
-      write(fileChannel, ByteBuffer.wrap(serializedKey));
-      if (metadata != null) {
-         write(fileChannel, ByteBuffer.wrap(metadata.getBytes()));
-         writeTimestamps(fileChannel, reusedBuffer, metadata.getCreated(), metadata.getLastUsed());
-      }
-      if (serializedValue != null) {
-         write(fileChannel, ByteBuffer.wrap(serializedValue));
-      }
-      if (serializedInternalMetadata != null) {
-         write(fileChannel, ByteBuffer.wrap(serializedInternalMetadata));
-      }
+   /**
+    * Writes the entry, the value must already be compressed if the flags contain {@link EntryHeader#COMPRESSED}.
+    * @return the number of bytes written
+    */
+   static int writeEntry(FileChannel fileChannel, ByteBuffer reusedBuffer, byte flags, byte[] serializedKey, EntryMetadata metadata,
+                         byte[] serializedValue, byte[] serializedInternalMetadata, long seqId, long expiration) throws IOException {
+      return writeEntry(fileChannel, reusedBuffer, flags, ByteBuffer.wrap(serializedKey),
+            metadata == null ? null : ByteBuffer.wrap(metadata.getBytes()),
+            serializedInternalMetadata == null ? null : ByteBuffer.wrap(serializedInternalMetadata),
+            serializedValue == null ? null : ByteBuffer.wrap(serializedValue),
+            seqId, expiration, metadata == null ? -1 : metadata.getCreated(), metadata == null ? -1 : metadata.getLastUsed());
    }
 
-   static void writeEntry(FileChannel fileChannel, ByteBuffer reusedBuffer, ByteBuffer serializedKey,
+   /**
+    * Writes the entry, the value must already be compressed if the flags contain {@link EntryHeader#COMPRESSED}.
+    * @return the number of bytes written
+    */
+   static int writeEntry(FileChannel fileChannel, ByteBuffer reusedBuffer, byte flags, ByteBuffer serializedKey,
                                  ByteBuffer serializedMetadata,
                                  ByteBuffer serializedInternalMetadata,
                                  ByteBuffer serializedValue,
                                  long seqId, long expiration, long created, long lastUsed) throws IOException {
       assert reusedBuffer.limit() == EntryHeader.HEADER_SIZE_11_0;
       assert reusedBuffer.position() == 0;
-      EntryHeader.writeHeader(reusedBuffer, (short) serializedKey.remaining(), EntryMetadata.size(serializedMetadata),
+      CRC32C crc = (flags & EntryHeader.CHECKSUM) != 0 ? new CRC32C() : null;
+      EntryHeader.writeHeader(reusedBuffer, flags, (short) serializedKey.remaining(), EntryMetadata.size(serializedMetadata),
             serializedValue == null ? 0 : serializedValue.remaining(),
             serializedInternalMetadata == null ? 0 : (short) serializedInternalMetadata.remaining(),
             seqId, expiration);
       reusedBuffer.flip();
-      write(fileChannel, reusedBuffer);
+      int written = write(fileChannel, reusedBuffer, crc);
       reusedBuffer.position(0);
-      write(fileChannel, serializedKey);
+      written += write(fileChannel, serializedKey, crc);
       if (serializedMetadata != null) {
-         write(fileChannel, serializedMetadata);
-         writeTimestamps(fileChannel, reusedBuffer, created, lastUsed);
+         written += write(fileChannel, serializedMetadata, crc);
+         written += writeTimestamps(fileChannel, reusedBuffer, created, lastUsed, crc);
       }
       if (serializedValue != null) {
-         write(fileChannel, serializedValue);
+         written += write(fileChannel, serializedValue, crc);
       }
       if (serializedInternalMetadata != null) {
-         write(fileChannel, serializedInternalMetadata);
+         written += write(fileChannel, serializedInternalMetadata, crc);
       }
+      if (crc != null) {
+         reusedBuffer.putInt((int) crc.getValue());
+         reusedBuffer.flip();
+         written += write(fileChannel, reusedBuffer, null);
+         reusedBuffer.position(0);
+         reusedBuffer.limit(EntryHeader.HEADER_SIZE_11_0);
+      }
+      return written;
    }
 
-   private static void writeTimestamps(FileChannel fileChannel, ByteBuffer reusedBuffer, long created, long lastUsed) throws IOException {
+   private static int writeTimestamps(FileChannel fileChannel, ByteBuffer reusedBuffer, long created, long lastUsed, CRC32C crc) throws IOException {
       assert reusedBuffer.position() == 0;
       int previousLimit = reusedBuffer.limit();
       assert previousLimit >= EntryMetadata.TIMESTAMP_BYTES;
       reusedBuffer.putLong(created);
       reusedBuffer.putLong(lastUsed);
       reusedBuffer.flip();
-      write(fileChannel, reusedBuffer);
+      int written = write(fileChannel, reusedBuffer, crc);
 
       // Reset the buffer to what it was before
       reusedBuffer.position(0);
       reusedBuffer.limit(previousLimit);
+      return written;
    }
 
-   private static void write(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+   private static int write(FileChannel fileChannel, ByteBuffer buffer, CRC32C crc) throws IOException {
+      if (crc != null) {
+         crc.update(buffer.duplicate());
+      }
+      int written = buffer.remaining();
       while (buffer.hasRemaining()) fileChannel.write(buffer);
+      return written;
    }
 }
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -21,9 +22,11 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.commons.jdkspecific.MappedBuffers;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.ProgressTracker;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
@@ -51,6 +54,8 @@ public class FileProvider {
    private final String prefix;
    private final int maxFileSize;
    private final boolean isIndex;
+   private final boolean memoryMapped;
+   private final LongAdder mappedBytes = new LongAdder();
 
    private boolean canTryPmem = true;
 
@@ -70,12 +75,23 @@ public class FileProvider {
 
    public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize,
                        boolean isIndex) {
+      this(fileDirectory, openFileLimit, prefix, maxFileSize, isIndex, false);
+   }
+
+   /**
+    * @param memoryMapped whether the files that are not log files are mapped in memory when opened, so that
+    *                     {@link Handle#read(ByteBuffer, long)} copies from the mapped memory instead of reading from
+    *                     the channel
+    */
+   public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize,
+                       boolean isIndex, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.directoryFile = fileDirectory.toFile();
       this.prefix = prefix;
       this.maxFileSize = maxFileSize;
       this.isIndex = isIndex;
+      this.memoryMapped = memoryMapped && !isIndex;
       try {
          Files.createDirectories(fileDirectory);
       } catch (IOException e) {
@@ -137,10 +153,10 @@ public Handle getFile(int fileId) throws IOException {
                      log.debugf(e, "File %d was not found", fileId);
                      return null;
                   }
-                  Record newRecord = new Record(fileChannel, fileId);
+                  Record newRecord = new Record(fileChannel, fileId, map(fileChannel, fileId));
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
-                     fileChannel.close();
+                     newRecord.close();
                      synchronized (other) {
                         if (other.isOpen()) {
                            // we have allocated opening a new file but then we use an old one
@@ -177,6 +193,36 @@ public Handle getFile(int fileId) throws IOException {
       }
    }
 
+   /**
+    * Maps the whole file if memory mapping is enabled and the file is no longer appended to, as the mapping would not
+    * see the entries appended after it was created. Must be invoked while holding the read lock.
+    */
+   private MappedByteBuffer map(FileChannel fileChannel, int fileId) throws IOException {
+      if (!memoryMapped || logFiles.contains(fileId)) {
+         return null;
+      }
+      long size = fileChannel.size();
+      if (size == 0 || size > Integer.MAX_VALUE) {
+         return null;
+      }
+      try {
+         MappedByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+         mappedBytes.add(size);
+         return mapped;
+      } catch (UnsupportedOperationException | IOException e) {
+         // Persistent memory channels cannot be mapped, the file can still be read through the channel
+         log.debugf(e, "Cannot map file %d, reading it through the channel", fileId);
+         return null;
+      }
+   }
+
+   /**
+    * Returns how many bytes of the files are currently mapped in memory. A file is unmapped when it is closed.
+    */
+   public long getMappedBytes() {
+      return mappedBytes.sum();
+   }
+
    public long getFileSize(int file) {
       lock.readLock().lock();
       try {
@@ -338,7 +384,7 @@ public void deleteFile(int fileId) {
       lock.readLock().lock();
       try {
          for (;;) {
-            Record newRecord = new Record(null, fileId);
+            Record newRecord = new Record(null, fileId, null);
             Record record = openFiles.putIfAbsent(fileId, newRecord);
             if (record == null) {
                try {
@@ -418,7 +464,32 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         ByteBuffer mapped = record.mapped;
+         if (mapped == null) {
+            return record.getFileChannel().read(buffer, offset);
+         }
+         if (offset >= mapped.limit()) {
+            return -1;
+         }
+         int length = (int) Math.min(buffer.remaining(), mapped.limit() - offset);
+         // Absolute bulk put, the mapped buffer is shared by all the handles and its position must not be changed
+         buffer.put(buffer.position(), mapped, (int) offset, length);
+         buffer.position(buffer.position() + length);
+         return length;
+      }
+
+      /**
+       * Returns a read-only view of the given range of the file if it is mapped in memory, which lets the caller read
+       * the bytes without copying them. The view must not be used after the handle is closed.
+       * @return the view, or null if the file is not mapped or the range is past the end of the file
+       */
+      public ByteBuffer slice(long offset, int length) {
+         if (!usable) throw new IllegalStateException();
+         ByteBuffer mapped = record.mapped;
+         if (mapped == null || offset + length > mapped.limit()) {
+            return null;
+         }
+         return mapped.slice((int) offset, length).asReadOnlyBuffer();
       }
 
       @Override
@@ -456,12 +527,15 @@ public void force(boolean metaData) throws IOException {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // The mapped content of the file, immutable once the file is no longer a log file
+      private volatile MappedByteBuffer mapped;
       private int handleCount;
       private boolean deleteOnClose = false;
 
-      private Record(FileChannel fileChannel, int fileId) {
+      private Record(FileChannel fileChannel, int fileId, MappedByteBuffer mapped) {
          this.fileChannel = fileChannel;
          this.fileId = fileId;
+         this.mapped = mapped;
       }
 
       FileChannel getFileChannel() {
@@ -477,8 +551,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
-            fileChannel.close();
-            fileChannel = null;
+            closeChannel();
             openFiles.remove(fileId, this);
             delete();
          }
@@ -497,13 +570,25 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
-         fileChannel.close();
-         fileChannel = null;
+         closeChannel();
          if (deleteOnClose) {
             delete();
          }
       }
 
+      private void closeChannel() throws IOException {
+         fileChannel.close();
+         fileChannel = null;
+         MappedByteBuffer mapped = this.mapped;
+         if (mapped != null) {
+            this.mapped = null;
+            // The file has no open handle, and the views returned by Handle.slice are not used after their handle is
+            // closed, so nothing reads the mapping anymore
+            MappedBuffers.unmap(mapped);
+            mappedBytes.add(-mapped.capacity());
+         }
+      }
+
       public void delete() throws IOException {
          log.debugf("Deleting file %s", fileIdToString(fileId));
          //noinspection ResultOfMethodCallIgnored
@@ -513,8 +598,7 @@ public void delete() throws IOException {
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
             if (fileChannel != null) {
-               fileChannel.close();
-               fileChannel = null;
+               closeChannel();
             }
             openFiles.remove(fileId, this);
             delete();
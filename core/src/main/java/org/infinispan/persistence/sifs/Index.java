@@ -52,7 +52,10 @@
  */
 class Index {
    private static final Log log = Log.getLog(Index.class);
-   private static final int GRACEFULLY = 0x512ACEF3;
+   // The leaves have key fingerprints, which older versions cannot read, so they rebuild the index on this magic
+   static final int GRACEFULLY = 0x512ACEF4;
+   // Written by the versions whose leaves did not have key fingerprints, those leaves are still read
+   static final int GRACEFULLY_WITHOUT_FINGERPRINTS = 0x512ACEF3;
    private static final int DIRTY = 0xD112770C;
    // magic(4) + segmentMax(4) + rootOffset(8) + rootOccupied(2) + freeBlocksOffset(8)
    private static final int INDEX_FILE_HEADER_SIZE = 26;
@@ -800,7 +803,7 @@ private Segment(Index index, int id, TemporaryTable temporaryTable) {
          this.nodeStore = new IndexFileNodeStore(index.indexFileProvider, id);
          this.keyLoader = value -> (value).loadKey(index.dataFileProvider);
          this.tree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
-               INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+               INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE, true);
       }
 
       public int getId() {
@@ -818,10 +821,11 @@ boolean load() throws IOException {
             if (!read(handle, header, 0)) {
                return handle.getFileSize() == 0 && index.sizePerSegment.get(id) == 0;
             }
-            if (header.getInt(0) != GRACEFULLY || header.getInt(4) != segmentMax) {
+            int magic = header.getInt(0);
+            if ((magic != GRACEFULLY && magic != GRACEFULLY_WITHOUT_FINGERPRINTS) || header.getInt(4) != segmentMax) {
                handle.truncate(0);
                tree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
-                     INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+                     INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE, true);
                return false;
             }
             long rootOffset = header.getLong(8);
@@ -835,7 +839,7 @@ boolean load() throws IOException {
                return true;
             }
             SoftBPlusTree<IndexEntry> softTree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize,
-                  nodeStore, INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+                  nodeStore, INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE, true);
             softTree.setStoreSize(freeBlocksOffset);
             // Restore free-block state from freeBlocksOffset
             int freeBlocksLen = (int) (handle.getFileSize() - freeBlocksOffset);
@@ -107,4 +107,7 @@ static Log getLog(Class<?> clazz) {
 
    @Message(value = "Failed acquiring lock '%s' for SIFS", id = 29025)
    PersistenceException failedAcquiringLockFile(@Cause Throwable cause, FileSystemLock lock);
+
+   @Message(value = "Checksum mismatch for the entry at %d:%d, the data file is corrupted", id = 29026)
+   PersistenceException checksumMismatch(int file, long offset);
 }
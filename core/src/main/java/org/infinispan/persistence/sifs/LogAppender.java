@@ -12,6 +12,7 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.persistence.sifs.configuration.CompressionType;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.util.concurrent.NonBlockingManager;
 
@@ -30,6 +31,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private final FileProvider fileProvider;
    private final boolean syncWrites;
    private final int maxFileSize;
+   private final CompressionType compression;
+   private final boolean checksum;
    // Used to keep track of how many log requests have been submitted. This way if the blocking thread has consumed
    // the same number of log requests it can immediately flush.
    private final AtomicInteger submittedCount = new AtomicInteger();
@@ -61,7 +64,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
 
    public LogAppender(NonBlockingManager nonBlockingManager, Index index,
                       TemporaryTable temporaryTable, Compactor compactor,
-                      FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+                      FileProvider fileProvider, boolean syncWrites, int maxFileSize,
+                      CompressionType compression, boolean checksum) {
       this.nonBlockingManager = nonBlockingManager;
       this.index = index;
       this.temporaryTable = temporaryTable;
@@ -69,6 +73,8 @@ public LogAppender(NonBlockingManager nonBlockingManager, Index index,
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.compression = compression;
+      this.checksum = checksum;
 
       this.toSyncLogRequests = syncWrites ? new ArrayList<>() : null;
    }
@@ -190,13 +196,13 @@ public CompletionStage<Void> resume() {
    }
 
    public <K, V> CompletionStage<Void> storeRequest(int segment, MarshallableEntry<K, V> entry) {
-      LogRequest storeRequest = LogRequest.storeRequest(segment, entry);
+      LogRequest storeRequest = LogRequest.storeRequest(segment, entry, compression, checksum);
       requestProcessor.onNext(storeRequest);
       return storeRequest;
    }
 
    public CompletionStage<Boolean> deleteRequest(int segment, Object key, ByteBuffer serializedKey) {
-      LogRequest deleteRequest = LogRequest.deleteRequest(segment, key, serializedKey);
+      LogRequest deleteRequest = LogRequest.deleteRequest(segment, key, serializedKey, checksum);
       requestProcessor.onNext(deleteRequest);
       return deleteRequest.thenCompose(v -> cast(deleteRequest.getIndexRequest()));
    }
@@ -288,7 +294,7 @@ public void accept(WriteOperation writeOperation) {
          long seqId = nextSeqId();
          log.tracef("Appending record to %s:%s", logFile.fileId, currentOffset);
          nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, actualRequest.getExpiration());
-         EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, writeOperation.serializedKey,
+         EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, actualRequest.getFlags(), writeOperation.serializedKey,
                writeOperation.serializedMetadata, writeOperation.serializedInternalMetadata,
                writeOperation.serializedValue, seqId, actualRequest.getExpiration(), actualRequest.getCreated(),
                actualRequest.getLastUsed());
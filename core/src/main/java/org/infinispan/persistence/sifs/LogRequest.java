@@ -3,6 +3,8 @@
 import java.util.concurrent.CompletableFuture;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.persistence.sifs.configuration.CompressionType;
 import org.infinispan.persistence.spi.MarshallableEntry;
 
 /**
@@ -31,12 +33,14 @@ enum Type {
    private final ByteBuffer serializedInternalMetadata;
    private final long created;
    private final long lastUsed;
+   private final byte flags;
    private volatile int file;
    private volatile int fileOffset;
    private volatile IndexRequest indexRequest;
 
    private LogRequest(Type type, int segment, Object key, long expirationTime, ByteBuffer serializedKey, ByteBuffer serializedMetadata,
-                      ByteBuffer serializedInternalMetadata, ByteBuffer serializedValue, long created, long lastUsed) {
+                      ByteBuffer serializedInternalMetadata, ByteBuffer serializedValue, long created, long lastUsed,
+                      byte flags) {
       this.segment = segment;
       this.key = key;
       this.expirationTime = expirationTime;
@@ -46,20 +50,36 @@ private LogRequest(Type type, int segment, Object key, long expirationTime, Byte
       this.serializedValue = serializedValue;
       this.created = created;
       this.lastUsed = lastUsed;
+      this.flags = flags;
       this.type = type;
    }
 
    private LogRequest(Type type) {
-      this(type, -1, null, 0, null, null, null, null, -1, -1);
-   }
-
-   public static LogRequest storeRequest(int segment, MarshallableEntry entry) {
+      this(type, -1, null, 0, null, null, null, null, -1, -1, (byte) 0);
+   }
+
+   /**
+    * Creates a request to store the entry, the value is compressed by the invoking thread so that the log appender
+    * only has to write it.
+    */
+   public static LogRequest storeRequest(int segment, MarshallableEntry entry, CompressionType compression, boolean checksum) {
+      ByteBuffer value = entry.getValueBytes();
+      byte flags = checksum ? EntryHeader.CHECKSUM : 0;
+      if (compression != CompressionType.NONE && value != null) {
+         java.nio.ByteBuffer compressed = EntryCompression.compress(
+               java.nio.ByteBuffer.wrap(value.getBuf(), value.getOffset(), value.getLength()));
+         if (compressed != null) {
+            value = ByteBufferImpl.create(compressed.array(), 0, compressed.remaining());
+            flags |= EntryHeader.COMPRESSED;
+         }
+      }
       return new LogRequest(Type.STORE, segment, entry.getKey(), entry.expiryTime(), entry.getKeyBytes(), entry.getMetadataBytes(),
-            entry.getInternalMetadataBytes(), entry.getValueBytes(), entry.created(), entry.lastUsed());
+            entry.getInternalMetadataBytes(), value, entry.created(), entry.lastUsed(), flags);
    }
 
-   public static LogRequest deleteRequest(int segment, Object key, ByteBuffer serializedKey) {
-      return new LogRequest(Type.DELETE, segment, key, -1, serializedKey, null, null, null, -1, -1);
+   public static LogRequest deleteRequest(int segment, Object key, ByteBuffer serializedKey, boolean checksum) {
+      return new LogRequest(Type.DELETE, segment, key, -1, serializedKey, null, null, null, -1, -1,
+            checksum ? EntryHeader.CHECKSUM : 0);
    }
 
    public static LogRequest clearRequest() {
@@ -78,7 +98,12 @@ public int length() {
       return EntryHeader.HEADER_SIZE_11_0 + serializedKey.getLength()
             + (serializedValue != null ? serializedValue.getLength() : 0)
             + EntryMetadata.size(serializedMetadata)
-            + (serializedInternalMetadata != null ? serializedInternalMetadata.getLength() : 0);
+            + (serializedInternalMetadata != null ? serializedInternalMetadata.getLength() : 0)
+            + ((flags & EntryHeader.CHECKSUM) != 0 ? EntryHeader.CHECKSUM_SIZE : 0);
+   }
+
+   public byte getFlags() {
+      return flags;
    }
 
    public Object getKey() {
@@ -232,10 +232,10 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
 
       fileProvider = new FileProvider(getDataLocation(), maxOpenDataFiles, PREFIX_LATEST,
-            configuration.maxFileSize(), false);
+            configuration.maxFileSize(), false, configuration.memoryMapped());
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
-            blockingManager.asExecutor("sifs-compactor"));
+            configuration.compression(), configuration.checksum(), blockingManager.asExecutor("sifs-compactor"));
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), cacheSegments,
                configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
@@ -246,7 +246,8 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
       compactor.setIndex(index);
       logAppender = new LogAppender(ctx.getNonBlockingManager(), index, temporaryTable, compactor, fileProvider,
-            configuration.syncWrites(), configuration.maxFileSize());
+            configuration.syncWrites(), configuration.maxFileSize(), configuration.compression(),
+            configuration.checksum());
       logAppender.start(blockingManager.asExecutor("sifs-log-processor"));
       startIndex(segments);
       final AtomicLong maxSeqId = new AtomicLong(0);
@@ -545,6 +546,14 @@ public CompletionStage<Boolean> isAvailable() {
             getIndexLocation().toFile().exists());
    }
 
+   /**
+    * Returns how many bytes of the data files are currently mapped in memory, which is always 0 unless
+    * {@link SoftIndexFileStoreConfiguration#memoryMapped()} is enabled.
+    */
+   public long getMappedBytes() {
+      return fileProvider.getMappedBytes();
+   }
+
    @Override
    public CompletionStage<Void> clear() {
       return sizeAndClearSequencer.orderOnKey(this, () -> {
@@ -0,0 +1,18 @@
+package org.infinispan.persistence.sifs.configuration;
+
+/**
+ * Compression applied to the values written to the data files of the soft-index file store.
+ *
+ * @since 16.3
+ */
+public enum CompressionType {
+   /**
+    * Values are written as they were serialized.
+    */
+   NONE,
+   /**
+    * Values are compressed with the zlib (deflate) codec of the JDK. Values that do not get smaller are written
+    * uncompressed.
+    */
+   ZLIB
+}
@@ -10,9 +10,12 @@ public class DataConfiguration extends ConfigurationElement<DataConfiguration> {
    public static final AttributeDefinition<String> DATA_LOCATION = AttributeDefinition.builder(Attribute.PATH, null, String.class).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_FILE_SIZE = AttributeDefinition.builder(Attribute.MAX_FILE_SIZE, 16 * 1024 * 1024).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder(Attribute.SYNC_WRITES, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<CompressionType> COMPRESSION = AttributeDefinition.builder(Attribute.COMPRESSION, CompressionType.NONE).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> CHECKSUM = AttributeDefinition.builder(Attribute.CHECKSUM, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED = AttributeDefinition.builder(Attribute.MEMORY_MAPPED, false).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES);
+      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES, COMPRESSION, CHECKSUM, MEMORY_MAPPED);
    }
 
    DataConfiguration(AttributeSet attributes) {
@@ -27,6 +30,18 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   public CompressionType compression() {
+      return attributes.attribute(COMPRESSION).get();
+   }
+
+   public boolean checksum() {
+      return attributes.attribute(CHECKSUM).get();
+   }
+
+   public boolean memoryMapped() {
+      return attributes.attribute(MEMORY_MAPPED).get();
+   }
+
    public String dataLocation() {
       return attributes.attribute(DATA_LOCATION).get();
    }
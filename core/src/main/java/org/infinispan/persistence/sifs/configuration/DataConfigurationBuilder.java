@@ -1,7 +1,10 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.CHECKSUM;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.COMPRESSION;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.DATA_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_FILE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES;
 
 import org.infinispan.commons.configuration.Builder;
@@ -35,6 +38,21 @@ public DataConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   public DataConfigurationBuilder compression(CompressionType compression) {
+      attributes.attribute(COMPRESSION).set(compression);
+      return this;
+   }
+
+   public DataConfigurationBuilder checksum(boolean checksum) {
+      attributes.attribute(CHECKSUM).set(checksum);
+      return this;
+   }
+
+   public DataConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
    @Override
    public DataConfiguration create() {
       return new DataConfiguration(attributes.protect());
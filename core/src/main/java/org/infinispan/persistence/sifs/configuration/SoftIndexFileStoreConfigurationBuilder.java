@@ -117,6 +117,39 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets the compression of the values written to the data files. Entries written before the compression was
+    * enabled are compressed when their data file is compacted.
+    * <p>
+    * Defaults to {@link CompressionType#NONE}.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compression(CompressionType compression) {
+      data.compression(compression);
+      return this;
+   }
+
+   /**
+    * Sets whether a CRC32C checksum is written with every entry and verified when the value of the entry is read.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder checksum(boolean checksum) {
+      data.checksum(checksum);
+      return this;
+   }
+
+   /**
+    * Sets whether the data files that are no longer written to are mapped in memory, so that loads copy the entries
+    * directly from the page cache instead of reading them with a system call. The file that is being written to is
+    * always read through its channel.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      data.memoryMapped(memoryMapped);
+      return this;
+   }
+
    /**
     * Sets the maximum number of open files.
     * <p>
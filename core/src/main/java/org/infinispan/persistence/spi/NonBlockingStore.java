@@ -154,7 +154,17 @@ enum Characteristic {
        * <p>
        * Stores that have this characteristic must override the {@link #purgeExpired()} method.
        */
-      EXPIRATION
+      EXPIRATION,
+      /**
+       * If this store can load many keys with a single operation, such as a single query or a single round-trip to
+       * a remote server. Without this characteristic, operations such as {@link Cache#getAll(Set)} load the missing
+       * keys one at a time with {@link #load(int, Object)}.
+       * <p>
+       * Stores that have this characteristic must override the {@link #loadAll(IntSet, Set)} method.
+       * <p>
+       * This characteristic is ignored if the store also contains {@link #WRITE_ONLY}.
+       */
+      BULK_LOAD
    }
 
    /**
@@ -315,6 +325,48 @@ default CompletionStage<Boolean> containsKey(int segment, Object key) {
             .thenApply(Objects::nonNull);
    }
 
+   /**
+    * Publishes the entries of the given keys which are present in the store. Keys which are not present are
+    * not published, and the entries may be published in any order. This is the multi-key equivalent of
+    * {@link #load(int, Object)} and is used to load the keys missing from memory when reading many keys at once.
+    * <p>
+    * Subscribing to the returned {@link Publisher} should not block the invoking thread. It is the responsibility of
+    * the store implementation to ensure this occurs. If however the store must block to perform an operation it
+    * is recommended to wrap your Publisher before returning with the
+    * {@link org.infinispan.util.concurrent.BlockingManager#blockingPublisher(Publisher)} method and it will handle
+    * subscription and observation on the blocking and non-blocking executors respectively.
+    * <h4>Summary of Characteristics Effects</h4>
+    * <table border="1" ><caption>Summary of Characteristics Effects</caption>
+    *    <tr>
+    *       <th>Characteristic</th>
+    *       <th>Effect</th>
+    *    </tr>
+    *    <tr>
+    *       <td>{@link Characteristic#BULK_LOAD}</td>
+    *       <td>This method is only invoked if the store has this characteristic.</td>
+    *    </tr>
+    *    <tr>
+    *       <td>{@link Characteristic#EXPIRATION}</td>
+    *       <td>When set the returned publisher must not return expired entries.</td>
+    *    </tr>
+    *    <tr>
+    *       <td>{@link Characteristic#SEGMENTABLE}</td>
+    *       <td>When this is not set or segmentation is disabled in the
+    *       {@link StoreConfiguration#segmented() configuration},
+    *       the {@code segments} parameter may be ignored.</td>
+    *    </tr>
+    * </table>
+    * <p>
+    * If a problem is encountered, it is recommended to wrap any created/caught Throwable in a
+    * {@link PersistenceException} and the publisher be completed exceptionally.
+    * @param segments the segments the keys map to if segmentation is enabled. This will always be non-null.
+    * @param keys the keys of the entries to load.
+    * @return a publisher that provides the entries found in the store.
+    */
+   default Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      throw new UnsupportedOperationException("Store characteristic included " + Characteristic.BULK_LOAD + ", but it does not implement loadAll");
+   }
+
    /**
     * Writes the entry to the store for the given segment returning a stage that completes normally when it is finished.
     * <h4>Summary of Characteristics Effects</h4>
@@ -45,6 +45,11 @@ public CompletionStage<Boolean> containsKey(int segment, Object key) {
       return delegate().containsKey(segment, key);
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      return delegate().loadAll(segments, keys);
+   }
+
    @Override
    public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
       return delegate().write(segment, entry);
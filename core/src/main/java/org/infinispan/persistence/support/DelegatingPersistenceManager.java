@@ -1,6 +1,7 @@
 package org.infinispan.persistence.support;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiPredicate;
@@ -20,6 +21,7 @@
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.persistence.async.AsyncStoreStatistics;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.PersistenceException;
@@ -109,6 +111,11 @@ public Collection<String> getStoresAsString() {
       return persistenceManager.getStoresAsString();
    }
 
+   @Override
+   public AsyncStoreStatistics getAsyncStoreStatistics() {
+      return persistenceManager.getAsyncStoreStatistics();
+   }
+
    @Override
    public CompletionStage<Void> purgeExpired() {
       return persistenceManager.purgeExpired();
@@ -228,6 +235,13 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return persistenceManager.loadFromAllStores(key, segment, localInvocation, includeStores);
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Object, Integer> keys,
+                                                                                          boolean localInvocation,
+                                                                                          boolean includeStores) {
+      return persistenceManager.loadAllFromAllStores(keys, localInvocation, includeStores);
+   }
+
    @Override
    public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguration> predicate, IntSet segments) {
       return persistenceManager.approximateSize(predicate, segments);
@@ -183,6 +183,20 @@ public final boolean isTracking(Flag trackFlag) {
       return false;
    }
 
+   /**
+    * @return {@code true} if the key was committed by an operation other than state transfer since the tracking
+    * started, so that the state received for it is discarded, {@code false} otherwise.
+    * @since 16.3
+    */
+   public final boolean isDiscardingStateTransfer(Object key, int segment) {
+      Map<Object, DiscardPolicy> entries = tracker.get(segment);
+      if (entries == null) {
+         return false;
+      }
+      DiscardPolicy discardPolicy = entries.get(key);
+      return discardPolicy != null && discardPolicy.ignore(Flag.PUT_FOR_STATE_TRANSFER);
+   }
+
    /**
     * @return {@code true} if no keys are tracked, {@code false} otherwise.
     */
@@ -2,9 +2,16 @@
 
 import static org.infinispan.commons.util.concurrent.CompletionStages.handleAndCompose;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -13,6 +20,7 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
 import org.infinispan.remoting.responses.Response;
@@ -68,12 +76,51 @@ public class InboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final Map<Integer, SegmentDigest> digests;
+
+   private final IntSet buckets;
+
+   // The keys received so far for the segments requested with a digest
+   private final Map<Integer, Set<Object>> receivedKeys = new ConcurrentHashMap<>();
+
    public InboundTransferTask(IntSet segments, Address source) {
       this(segments, source, -1, null, null, -1, null, true);
    }
 
    public InboundTransferTask(IntSet segments, Address source, int topologyId, RpcManager rpcManager,
                               CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState) {
+      this(segments, source, topologyId, rpcManager, commandsFactory, timeout, cacheName, applyState,
+           Collections.emptyMap());
+   }
+
+   /**
+    * @param digests the digests of the local entries, by segment, sent to the source so that it only sends the
+    *                entries that differ
+    * @since 16.3
+    */
+   public InboundTransferTask(IntSet segments, Address source, int topologyId, RpcManager rpcManager,
+                              CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState,
+                              Map<Integer, SegmentDigest> digests) {
+      this(segments, source, topologyId, rpcManager, commandsFactory, timeout, cacheName, applyState, digests, null);
+   }
+
+   /**
+    * Creates a task that requests the entries of the given digest buckets for conflict resolution. The entries are
+    * processed by a {@link org.infinispan.conflict.impl.StateReceiver} and are not applied to the local cache.
+    *
+    * @param buckets the {@link SegmentDigest} buckets of the entries to request, or {@code null} to request all
+    *                the entries of the segments
+    * @since 16.3
+    */
+   public InboundTransferTask(IntSet segments, Address source, int topologyId, RpcManager rpcManager,
+                              CommandsFactory commandsFactory, long timeout, String cacheName, IntSet buckets) {
+      this(segments, source, topologyId, rpcManager, commandsFactory, timeout, cacheName, false,
+           Collections.emptyMap(), buckets);
+   }
+
+   private InboundTransferTask(IntSet segments, Address source, int topologyId, RpcManager rpcManager,
+                               CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState,
+                               Map<Integer, SegmentDigest> digests, IntSet buckets) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("segments must not be null or empty");
       }
@@ -91,6 +138,8 @@ public InboundTransferTask(IntSet segments, Address source, int topologyId, RpcM
       this.cacheName = cacheName;
       this.applyState = applyState;
       this.rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
+      this.digests = digests;
+      this.buckets = buckets;
    }
 
    /**
@@ -123,8 +172,29 @@ public Address getSource() {
     */
    public CompletionStage<Void> requestSegments() {
       return startTransfer(applyState ?
-            segments -> commandsFactory.buildStateTransferStartCommand(topologyId, segments) :
-            segments -> commandsFactory.buildConflictResolutionStartCommand(topologyId, segments));
+            this::buildStateTransferStartCommand :
+            this::buildConflictResolutionStartCommand);
+   }
+
+   private CacheRpcCommand buildConflictResolutionStartCommand(IntSet segments) {
+      if (buckets == null)
+         return commandsFactory.buildConflictResolutionStartCommand(topologyId, segments);
+
+      return commandsFactory.buildConflictResolutionStartCommand(topologyId, segments, buckets);
+   }
+
+   private CacheRpcCommand buildStateTransferStartCommand(IntSet segments) {
+      if (digests.isEmpty())
+         return commandsFactory.buildStateTransferStartCommand(topologyId, segments);
+
+      Collection<SegmentDigest> segmentDigests = new ArrayList<>();
+      for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+         SegmentDigest digest = digests.get(iter.nextInt());
+         if (digest != null) {
+            segmentDigests.add(digest);
+         }
+      }
+      return commandsFactory.buildStateTransferStartCommand(topologyId, segments, segmentDigests);
    }
 
    /**
@@ -242,6 +312,36 @@ protected void sendCancelCommand(IntSet cancelledSegments) {
       }
    }
 
+   /**
+    * @return {@code true} if the segment was requested with a digest of the local entries
+    * @since 16.3
+    */
+   public boolean hasDigest(int segmentId) {
+      return digests.containsKey(segmentId);
+   }
+
+   /**
+    * Records the keys received for a segment requested with a digest, so that the local entries the source did not
+    * send can be removed once the segment is complete.
+    *
+    * @since 16.3
+    */
+   public void onEntriesReceived(int segmentId, Collection<InternalCacheEntry<?, ?>> entries) {
+      Set<Object> keys = receivedKeys.computeIfAbsent(segmentId, s -> ConcurrentHashMap.newKeySet());
+      for (InternalCacheEntry<?, ?> entry : entries) {
+         keys.add(entry.getKey());
+      }
+   }
+
+   /**
+    * @return the keys received for a segment requested with a digest, and stops tracking them
+    * @since 16.3
+    */
+   public Set<Object> removeReceivedKeys(int segmentId) {
+      Set<Object> keys = receivedKeys.remove(segmentId);
+      return keys != null ? keys : Collections.emptySet();
+   }
+
    public boolean onStateReceived(int segmentId, boolean isLastChunk) {
       boolean isCompleted = false;
       if (!isCancelled && isLastChunk) {
@@ -63,11 +63,24 @@ public class OutboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final StateTransferThrottle throttle;
+
    private volatile boolean cancelled;
 
    public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
                                Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
                                CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState) {
+      this(destination, segments, segmentCount, chunkSize, topologyId, onChunkReplicated, rpcManager, commandsFactory,
+            timeout, cacheName, applyState, null);
+   }
+
+   /**
+    * @param throttle limits the rate at which the chunks are sent, or {@code null} to send them as fast as possible
+    */
+   public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
+                               Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
+                               CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState,
+                               StateTransferThrottle throttle) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -87,6 +100,7 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       this.timeout = timeout;
       this.cacheName = cacheName;
       this.applyState = applyState;
+      this.throttle = throttle;
 
       this.rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
    }
@@ -111,6 +125,20 @@ public int getTopologyId() {
     * @param notifications a {@code Flowable} with all the entries that need to be sent
     */
    public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> notifications) {
+      return execute(notifications, Collections.emptyMap());
+   }
+
+   /**
+    * Starts sending entries to the target node, when only some of the {@link SegmentDigest} buckets of a segment are
+    * sent. The last chunk of such a segment tells the target which buckets were sent in full.
+    *
+    * @param notifications a {@code Flowable} with all the entries that need to be sent
+    * @param sentBuckets the buckets sent for each segment, filled before the first entry is published
+    * @return a completion stage that completes when all the entries have been sent.
+    * @since 16.3
+    */
+   public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> notifications,
+                                        Map<Integer, IntSet> sentBuckets) {
       return notifications
             .buffer(chunkSize)
             .takeUntil(batch -> cancelled)
@@ -121,23 +149,31 @@ public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notificat
             // This could be improved.
             .concatMapCompletable(batch -> {
                Map<Integer, StateChunk> chunks = new HashMap<>();
+               long bytes = 0;
                for(SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>> notification: batch) {
                   if (notification.isValue()) {
                      StateChunk chunk = chunks.computeIfAbsent(
                            notification.valueSegment(), segment -> new StateChunk(segment, new ArrayList<>(), false));
-                     chunk.getCacheEntries().add(notification.value());
+                     InternalCacheEntry<?, ?> entry = notification.value();
+                     chunk.getCacheEntries().add(entry);
+                     if (throttle != null) {
+                        bytes += throttle.estimateSize(entry.getKey(), entry.getValue());
+                     }
                   }
 
                   // If the notification identify the segment is completed we mark a chunk as a last chunk.
                   if (notification.isSegmentComplete()) {
                      int segment = notification.completedSegment();
                      chunks.compute(segment, (s, previous) -> previous == null
-                           ? new StateChunk(s, Collections.emptyList(), true)
-                           : new StateChunk(segment, previous.getCacheEntries(), true));
+                           ? new StateChunk(s, Collections.emptyList(), true, sentBuckets.get(s))
+                           : new StateChunk(segment, previous.getCacheEntries(), true, sentBuckets.get(s)));
                   }
                }
 
-               return Completable.fromCompletionStage(sendChunks(chunks));
+               if (throttle == null) {
+                  return Completable.fromCompletionStage(sendChunks(chunks));
+               }
+               return Completable.fromCompletionStage(throttle.acquire(bytes).thenCompose(ignore -> sendChunks(chunks)));
             }, 1)
             .toCompletionStage(null);
    }
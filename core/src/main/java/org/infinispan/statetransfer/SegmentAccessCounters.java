@@ -0,0 +1,102 @@
+package org.infinispan.statetransfer;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+
+/**
+ * Counts the reads and writes handled by this node for every segment, so that state transfer can request the most
+ * accessed segments first.
+ * <p>
+ * Accesses are sampled: only one access in {@code sampleRate} is counted, and it adds {@code sampleRate} to the
+ * counter, so most operations do not write to the shared counters.
+ * <p>
+ * A joining node has not handled any access to the segments it does not own yet, so it requests the counts of the
+ * current owners with {@link org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand} and adds
+ * them to its own. The counters are halved by {@link #decay()} at the start of every rebalance, so recent accesses
+ * weigh more than old ones.
+ *
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class SegmentAccessCounters {
+   static final int DEFAULT_SAMPLE_RATE = 16;
+
+   private final AtomicLongArray counters;
+   private final int sampleRate;
+
+   public SegmentAccessCounters(int numSegments) {
+      this(numSegments, DEFAULT_SAMPLE_RATE);
+   }
+
+   SegmentAccessCounters(int numSegments, int sampleRate) {
+      this.counters = new AtomicLongArray(numSegments);
+      this.sampleRate = sampleRate;
+   }
+
+   public void recordAccess(int segment) {
+      if (segment >= 0 && segment < counters.length() &&
+            (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0)) {
+         counters.addAndGet(segment, sampleRate);
+      }
+   }
+
+   public long accessCount(int segment) {
+      return counters.get(segment);
+   }
+
+   /**
+    * @return the access counts of the given segments
+    */
+   public SegmentAccessCounts accessCounts(IntSet segments) {
+      SegmentAccessCounts counts = new SegmentAccessCounts(segments.size());
+      for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+         int segment = iter.nextInt();
+         if (segment >= 0 && segment < counters.length()) {
+            counts.add(segment, counters.get(segment));
+         }
+      }
+      return counts;
+   }
+
+   /**
+    * Halves all the counters.
+    */
+   public void decay() {
+      for (int i = 0; i < counters.length(); i++) {
+         // Races with recordAccess only lose a few accesses
+         counters.set(i, counters.get(i) >>> 1);
+      }
+   }
+
+   /**
+    * @param remoteCounts the access counts of the current owners, indexed by segment, added to the local counts
+    * @return the segments, sorted by access count with the most accessed segment first
+    */
+   public int[] sortByAccessCount(IntSet segments, long[] remoteCounts) {
+      // Sort the access count and the segment together, the count in the high bits, so a single array is enough
+      long[] keys = new long[segments.size()];
+      int i = 0;
+      for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext() && i < keys.length; ) {
+         int segment = iter.nextInt();
+         long count = counters.get(segment);
+         if (remoteCounts != null && segment < remoteCounts.length) {
+            count += remoteCounts[segment];
+         }
+         count = Math.min(count, Integer.MAX_VALUE);
+         keys[i++] = (count << 32) | (Integer.MAX_VALUE - segment);
+      }
+      Arrays.sort(keys, 0, i);
+
+      int[] sorted = new int[i];
+      for (int j = 0; j < i; j++) {
+         sorted[j] = Integer.MAX_VALUE - (int) keys[i - 1 - j];
+      }
+      return sorted;
+   }
+}
@@ -0,0 +1,55 @@
+package org.infinispan.statetransfer;
+
+import java.nio.ByteBuffer;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * The access counts of some segments on a node, sent to a joining node so that it requests the segments most
+ * accessed on their current owners first.
+ *
+ * @see SegmentAccessCounters
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.SEGMENT_ACCESS_COUNTS)
+public class SegmentAccessCounts {
+   private static final int ENTRY_BYTES = Integer.BYTES + Long.BYTES;
+
+   private final ByteBuffer buffer;
+
+   @ProtoFactory
+   SegmentAccessCounts(byte[] countBytes) {
+      this.buffer = ByteBuffer.wrap(countBytes != null ? countBytes : new byte[0]);
+      buffer.position(buffer.limit() - buffer.limit() % ENTRY_BYTES);
+   }
+
+   SegmentAccessCounts(int numSegments) {
+      this.buffer = ByteBuffer.allocate(numSegments * ENTRY_BYTES);
+   }
+
+   void add(int segment, long count) {
+      buffer.putInt(segment).putLong(count);
+   }
+
+   @ProtoField(1)
+   byte[] getCountBytes() {
+      byte[] bytes = new byte[buffer.position()];
+      buffer.get(0, bytes);
+      return bytes;
+   }
+
+   /**
+    * Adds the counts to {@code counts}, indexed by segment.
+    */
+   public void addTo(long[] counts) {
+      for (int offset = 0; offset < buffer.position(); offset += ENTRY_BYTES) {
+         int segment = buffer.getInt(offset);
+         if (segment >= 0 && segment < counts.length) {
+            counts[segment] += buffer.getLong(offset + Integer.BYTES);
+         }
+      }
+   }
+}
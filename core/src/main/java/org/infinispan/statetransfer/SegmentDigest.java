@@ -0,0 +1,123 @@
+package org.infinispan.statetransfer;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * A digest of the entries of a segment, used to skip the transfer of entries the requester already has.
+ * <p>
+ * The entries are split in {@link #BUCKETS} buckets by the hash of their key, and each bucket holds the sum of the
+ * hashes of its entries. Two nodes holding the same entries in a bucket compute the same sum, so when the digests of
+ * a bucket match the provider does not need to send its entries.
+ * <p>
+ * Conflict resolution compares the digests of all the owners of a segment in the same way, and only fetches the
+ * entries of the buckets where the owners differ.
+ *
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.SEGMENT_DIGEST)
+public class SegmentDigest {
+   /**
+    * The number of buckets in each segment digest.
+    */
+   public static final int BUCKETS = 256;
+
+   @ProtoField(1)
+   final int segmentId;
+
+   private final long[] buckets;
+
+   @ProtoFactory
+   SegmentDigest(int segmentId, byte[] bucketBytes) {
+      this.segmentId = segmentId;
+      this.buckets = new long[BUCKETS];
+      if (bucketBytes != null) {
+         ByteBuffer buffer = ByteBuffer.wrap(bucketBytes);
+         for (int i = 0; i < BUCKETS && buffer.remaining() >= Long.BYTES; i++) {
+            buckets[i] = buffer.getLong();
+         }
+      }
+   }
+
+   SegmentDigest(int segmentId, long[] buckets) {
+      if (buckets.length != BUCKETS) {
+         throw new IllegalArgumentException("A segment digest must have " + BUCKETS + " buckets");
+      }
+      this.segmentId = segmentId;
+      this.buckets = buckets;
+   }
+
+   @ProtoField(2)
+   byte[] getBucketBytes() {
+      ByteBuffer buffer = ByteBuffer.allocate(BUCKETS * Long.BYTES);
+      for (long bucket : buckets) {
+         buffer.putLong(bucket);
+      }
+      return buffer.array();
+   }
+
+   public int getSegmentId() {
+      return segmentId;
+   }
+
+   /**
+    * @return {@code true} if the given bucket holds the same entries in this digest and in the other digest
+    */
+   public boolean bucketMatches(int bucket, SegmentDigest other) {
+      return buckets[bucket] == other.buckets[bucket];
+   }
+
+   /**
+    * @return the buckets in which at least two of the given digests differ
+    */
+   public static IntSet differingBuckets(Collection<SegmentDigest> digests) {
+      IntSet buckets = IntSets.mutableEmptySet(BUCKETS);
+      Iterator<SegmentDigest> iter = digests.iterator();
+      if (!iter.hasNext())
+         return buckets;
+
+      SegmentDigest first = iter.next();
+      while (iter.hasNext()) {
+         SegmentDigest other = iter.next();
+         for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (!first.bucketMatches(bucket, other)) {
+               buckets.set(bucket);
+            }
+         }
+      }
+      return buckets;
+   }
+
+   /**
+    * @return the bucket of a key
+    * @throws Exception if the key cannot be marshalled
+    */
+   public static int bucketOf(Marshaller marshaller, Object key) throws Exception {
+      return StateDigestCollector.bucketOf(marshaller, key);
+   }
+
+   /**
+    * @return the bucket of a key, given the hash of its marshalled form
+    */
+   static int bucketOf(long keyHash) {
+      return (int) (keyHash >>> 56);
+   }
+
+   long[] buckets() {
+      return buckets;
+   }
+
+   @Override
+   public String toString() {
+      return "SegmentDigest{segmentId=" + segmentId + '}';
+   }
+}
@@ -3,8 +3,11 @@
 import java.util.List;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.marshall.protostream.impl.MarshallableList;
+import org.infinispan.marshall.protostream.impl.WrappedMessages;
+import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
@@ -36,18 +39,35 @@ public class StateChunk {
     */
    final List<InternalCacheEntry<?, ?>> cacheEntries;
 
+   /**
+    * The {@link SegmentDigest} buckets sent in full, only set in the last chunk of a segment requested with a digest.
+    */
+   final IntSet sentBuckets;
 
    @ProtoFactory
-   StateChunk(int segmentId, boolean isLastChunk, MarshallableList<InternalCacheEntry<?, ?>> entries) {
+   StateChunk(int segmentId, boolean isLastChunk, MarshallableList<InternalCacheEntry<?, ?>> entries,
+              WrappedMessage wrappedSentBuckets) {
       this.segmentId = segmentId;
       this.isLastChunk = isLastChunk;
       this.cacheEntries = MarshallableList.unwrap(entries);
+      this.sentBuckets = WrappedMessages.unwrap(wrappedSentBuckets);
    }
 
    public StateChunk(int segmentId, List<InternalCacheEntry<?, ?>> cacheEntries, boolean isLastChunk) {
+      this(segmentId, cacheEntries, isLastChunk, null);
+   }
+
+   /**
+    * @param sentBuckets the digest buckets of the segment sent in full, so that the receiver can remove its entries in
+    *                    these buckets that were not sent, or {@code null}
+    * @since 16.3
+    */
+   public StateChunk(int segmentId, List<InternalCacheEntry<?, ?>> cacheEntries, boolean isLastChunk,
+                     IntSet sentBuckets) {
       this.segmentId = segmentId;
       this.cacheEntries = cacheEntries;
       this.isLastChunk = isLastChunk;
+      this.sentBuckets = sentBuckets;
    }
 
    public int getSegmentId() {
@@ -62,11 +82,24 @@ public boolean isLastChunk() {
       return isLastChunk;
    }
 
+   /**
+    * @return the {@link SegmentDigest} buckets of the segment the sender sent in full, or {@code null} if the segment
+    * was not requested with a digest or this is not the last chunk
+    */
+   public IntSet getSentBuckets() {
+      return sentBuckets;
+   }
+
    @ProtoField(3)
    MarshallableList<InternalCacheEntry<?, ?>> getEntries() {
       return MarshallableList.create(cacheEntries);
    }
 
+   @ProtoField(4)
+   WrappedMessage getWrappedSentBuckets() {
+      return WrappedMessages.orElseNull(sentBuckets);
+   }
+
    @Override
    public String toString() {
       return "StateChunk{" +
@@ -13,6 +13,7 @@
 import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
 import static org.infinispan.factories.KnownComponentNames.NON_BLOCKING_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_MARSHALLER;
 import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 import static org.infinispan.util.logging.Log.PERSISTENCE;
@@ -43,11 +44,13 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.IllegalLifecycleStateException;
+import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.EnumUtil;
@@ -102,6 +105,7 @@
 import org.infinispan.remoting.transport.impl.PassthroughSingleResponseCollector;
 import org.infinispan.remoting.transport.impl.SingleResponseCollector;
 import org.infinispan.topology.CacheTopology;
+import org.infinispan.topology.LocalTopologyManager;
 import org.infinispan.transaction.LockingMode;
 import org.infinispan.transaction.TransactionMode;
 import org.infinispan.transaction.impl.FakeJTATransaction;
@@ -174,6 +178,10 @@ public class StateConsumerImpl implements StateConsumer {
    @Inject ClusterPublisherManager<Object, Object> clusterPublisherManager;
    @Inject Transport transport;
    @Inject StateTransferTracker stateTracker;
+   @Inject @ComponentName(PERSISTENCE_MARSHALLER)
+   Marshaller persistenceMarshaller;
+   @Inject SegmentAccessCounters segmentAccessCounters;
+   @Inject LocalTopologyManager localTopologyManager;
 
    protected String cacheName;
    protected long timeout;
@@ -240,6 +248,10 @@ public class StateConsumerImpl implements StateConsumer {
    protected RpcOptions rpcOptions;
    private volatile boolean running;
    private int numSegments;
+   // The maximum number of segments requested at the same time, or -1 to request all the segments at once
+   private int maxConcurrentSegments;
+   // Limits the rate of the entries pulled from other nodes, null if the bandwidth is unlimited
+   private StateTransferThrottle throttle;
 
    public StateConsumerImpl() {
    }
@@ -708,7 +720,16 @@ private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, Stat
          transferMapsLock.unlock();
       }
       if (inboundTransfer != null) {
-         return doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries())
+         int segmentId = stateChunk.getSegmentId();
+         boolean hasDigest = inboundTransfer.hasDigest(segmentId);
+         if (hasDigest) {
+            inboundTransfer.onEntriesReceived(segmentId, stateChunk.getCacheEntries());
+         }
+         return doApplyState(sender, segmentId, stateChunk.getCacheEntries())
+                   .thenCompose(v -> hasDigest && stateChunk.isLastChunk() ?
+                         removeEntriesNotSent(segmentId, stateChunk.getSentBuckets(),
+                                              inboundTransfer.removeReceivedKeys(segmentId)) :
+                         CompletableFutures.completedNull())
                    .thenAccept(v -> {
                       boolean lastChunk = stateChunk.isLastChunk();
                       inboundTransfer.onStateReceived(stateChunk.getSegmentId(), lastChunk);
@@ -724,6 +745,55 @@ private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, Stat
       return CompletableFutures.completedNull();
    }
 
+   /**
+    * Removes the entries of a segment requested with a digest from the private stores, if they are in a bucket the
+    * source sent in full but the source did not send them, because they were removed while this node was away.
+    * <p>
+    * This must run before the segment is complete, while the keys written by other operations during the state
+    * transfer are still tracked: those keys are kept.
+    */
+   private CompletionStage<Void> removeEntriesNotSent(int segmentId, IntSet sentBuckets, Set<Object> receivedKeys) {
+      // Sources running an older version do not send the buckets, and no buckets means no bucket changed
+      if (sentBuckets == null || sentBuckets.isEmpty())
+         return CompletableFutures.completedNull();
+
+      AtomicLong removedEntriesCounter = new AtomicLong();
+      Predicate<Object> filter = key -> !receivedKeys.contains(key) && isInBuckets(key, sentBuckets);
+      Publisher<Object> publisher = persistenceManager.publishKeys(IntSets.immutableSet(segmentId), filter, PRIVATE);
+      return Flowable.fromPublisher(publisher)
+                     .onErrorResumeNext(throwable -> {
+                        PERSISTENCE.failedLoadingKeysFromCacheStore(throwable);
+                        return Flowable.empty();
+                     })
+                     .concatMapCompletable(key -> {
+                        // Other writes only update the store after they are committed, so the removal is issued
+                        // right after the check, and before any write committed after the check updates the store
+                        if (commitManager.isDiscardingStateTransfer(key, segmentId))
+                           return Completable.complete();
+
+                        removedEntriesCounter.incrementAndGet();
+                        return Completable.fromCompletionStage(persistenceManager.deleteFromAllStores(key, segmentId, PRIVATE))
+                              .onErrorComplete(t -> {
+                                 log.failedToInvalidateKeys(t);
+                                 return true;
+                              });
+                     })
+                     .toCompletionStage(null)
+                     .thenRun(() -> {
+                        if (log.isTraceEnabled()) log.tracef("Removed %d keys of segment %d that were removed while away",
+                                                             removedEntriesCounter.get(), segmentId);
+                     });
+   }
+
+   private boolean isInBuckets(Object key, IntSet buckets) {
+      try {
+         return buckets.contains(StateDigestCollector.bucketOf(persistenceMarshaller, key));
+      } catch (Exception e) {
+         // Keep the entry if it cannot be assigned to a bucket
+         return false;
+      }
+   }
+
    private void onCompletedSegment(int segmentId, InboundTransferTask inboundTransfer) {
       transferMapsLock.lock();
       try {
@@ -922,6 +992,11 @@ public void start() {
       timeout = configuration.clustering().stateTransfer().timeout();
       numSegments = configuration.clustering().hash().numSegments();
       chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      maxConcurrentSegments = configuration.clustering().stateTransfer().maxConcurrentSegments();
+      long maxBandwidth = configuration.clustering().stateTransfer().maxBandwidthBytes();
+      throttle = maxBandwidth > 0 ?
+            new StateTransferThrottle(maxBandwidth, persistenceMarshaller, timeService, timeoutExecutor, nonBlockingExecutor) :
+            null;
 
       isFetchEnabled = isFetchEnabled();
 
@@ -981,6 +1056,10 @@ protected CompletionStage<Void> handleSegments(int topologyId, IntSet addedSegme
 
       // add transfers for new or restarted segments
       log.debugf("Adding inbound state transfer for segments %s", addedSegments);
+      if (segmentAccessCounters != null) {
+         // Favour the segments accessed since the previous transfer when choosing which segments to request first
+         segmentAccessCounters.decay();
+      }
 
       // the set of nodes that reported errors when fetching data from them - these will not be retried in this topology
       Set<Address> excludedSources = new HashSet<>();
@@ -996,10 +1075,18 @@ protected CompletionStage<Void> handleSegments(int topologyId, IntSet addedSegme
       if (isFetchEnabled) {
          // As of 16.2 we use the new method of ST to use pull based ClusterPublisherManager. If at least one
          // node is before this version we have to use the old method
-         if (FORCE_PUSH_STATE_TRANSFER || transport.getOldestMember().compareTo(NODE_VERSION_16_2) < 0) {
-            stage = stage.thenRun(() -> {
+         // The pull based state transfer does not support digests, so incremental rejoins use the old method
+         if (isIncrementalRejoin()) {
+            stage = stage.thenCompose(ignored -> computeLocalDigests(addedSegments))
+                  .thenCompose(digests -> {
+                     log.tracef("Using incremental state transfer for cache %s, %d segments have local entries",
+                                cacheName, digests.size());
+                     return requestSegments(topologyId, addedSegments, sources, excludedSources, digests);
+                  });
+         } else if (FORCE_PUSH_STATE_TRANSFER || transport.getOldestMember().compareTo(NODE_VERSION_16_2) < 0) {
+            stage = stage.thenCompose(ignored -> {
                log.tracef("Using old state transfer method as a version before 16.2 was encountered");
-               requestSegments(addedSegments, sources, excludedSources);
+               return requestSegments(topologyId, addedSegments, sources, excludedSources, Collections.emptyMap());
             });
          } else {
             stage = stage.thenRun(() -> {
@@ -1113,8 +1200,113 @@ protected void sendCancelCommand(IntSet cancelledSegments) {
       }
 
       log.tracef("Starting state transfer iteration for segments %s", segmentsToProcess);
+      IntSet remaining = IntSets.mutableEmptySet(numSegments);
+      for (IntSet segments : sources.values()) {
+         remaining.addAll(segments);
+      }
+      if (maxConcurrentSegments < 0 || remaining.size() <= maxConcurrentSegments) {
+         return applyEntries(topologyId, sources);
+      }
+
+      // Only request the next batch of segments after the previous batch was applied, most accessed segments first
+      return Maybe.fromCompletionStage(fetchAccessCounts(topologyId, sources))
+            .flatMapPublisher(accessCounts -> Flowable.defer(() -> {
+                     Map<Address, IntSet> batch = nextSegmentBatch(remaining, sources, accessCounts, true);
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Requesting segments %s of cache %s", batch, cacheName);
+                     }
+                     return batch.isEmpty() ? Flowable.<Integer>empty() : applyEntries(topologyId, batch);
+                  })
+                  .repeatUntil(remaining::isEmpty));
+   }
+
+   /**
+    * Requests the access counts of the segments from the sources they will be transferred from.
+    * <p>
+    * This node did not handle the accesses to the segments it does not own yet, so its own counters are mostly empty
+    * when it joins the cluster. A source that does not reply, or that is too old to count accesses, does not
+    * contribute any access.
+    *
+    * @return a stage completed with the access counts of the sources, indexed by segment
+    */
+   private CompletionStage<long[]> fetchAccessCounts(int topologyId, Map<Address, IntSet> sources) {
+      long[] accessCounts = new long[numSegments];
+      if (segmentAccessCounters == null ||
+            transport.getOldestMember().compareTo(StateTransferGetAccessCountsCommand.SUPPORTED_SINCE) < 0) {
+         return CompletableFuture.completedFuture(accessCounts);
+      }
+
+      AggregateCompletionStage<long[]> stage = CompletionStages.aggregateCompletionStage(accessCounts);
+      for (Map.Entry<Address, IntSet> e : sources.entrySet()) {
+         Address source = e.getKey();
+         CacheRpcCommand cmd = commandsFactory.buildStateTransferGetAccessCountsCommand(topologyId, e.getValue());
+         stage.dependsOn(rpcManager.invokeCommand(source, cmd, SingleResponseCollector.validOnly(), rpcOptions)
+               .handle((response, throwable) -> {
+                  if (response instanceof SuccessfulResponse && response.getResponseValue() instanceof SegmentAccessCounts counts) {
+                     // The responses are received concurrently
+                     synchronized (accessCounts) {
+                        counts.addTo(accessCounts);
+                     }
+                  } else {
+                     log.debugf(throwable, "Could not get the access counts of cache %s from %s, response %s",
+                                cacheName, source, response);
+                  }
+                  return null;
+               }));
+      }
+      return stage.freeze();
+   }
+
+   /**
+    * Removes the most accessed segments from {@code remaining}, up to {@code maxConcurrentSegments}, and groups them
+    * by the source they must be requested from.
+    *
+    * @param accessCounts the access counts of the sources, added to the access counts of this node
+    */
+   private Map<Address, IntSet> nextSegmentBatch(IntSet remaining, Map<Address, IntSet> sources, long[] accessCounts,
+                                                 boolean onlyInProgress) {
+      int[] ordered = segmentAccessCounters != null ?
+            segmentAccessCounters.sortByAccessCount(remaining, accessCounts) :
+            remaining.toIntArray();
+      Map<Address, IntSet> batch = new HashMap<>();
+      int count = 0;
+      for (int i = 0; i < ordered.length && count < maxConcurrentSegments; i++) {
+         int segment = ordered[i];
+         remaining.remove(segment);
+         // The transfer may have been cancelled by a topology update in the meantime
+         if (onlyInProgress && !isTransferInProgress(segment))
+            continue;
+
+         for (Map.Entry<Address, IntSet> e : sources.entrySet()) {
+            if (e.getValue().contains(segment)) {
+               batch.computeIfAbsent(e.getKey(), a -> IntSets.mutableEmptySet(numSegments)).set(segment);
+               count++;
+               break;
+            }
+         }
+      }
+      return batch;
+   }
+
+   private boolean isTransferInProgress(int segment) {
+      transferMapsLock.lock();
+      try {
+         return transfersBySegment.containsKey(segment);
+      } finally {
+         transferMapsLock.unlock();
+      }
+   }
+
+   private Flowable<Integer> applyEntries(int topologyId, Map<Address, IntSet> sources) {
       Flowable<SegmentPublisherSupplier.Notification<CacheEntry<Object, Object>>> notificationFlowable =
             Flowable.fromPublisher(clusterPublisherManager.entryPublisherForTopology(topologyId, chunkSize, sources));
+      if (throttle != null) {
+         // Delaying the consumption of the entries delays the requests for more entries to the sources
+         notificationFlowable = notificationFlowable
+               .buffer(chunkSize)
+               .concatMap(batch -> Completable.fromCompletionStage(throttle.acquire(estimateSize(batch)))
+                     .andThen(Flowable.fromIterable(batch)));
+      }
 
       int concurrency = 20;
       if (transactionManager == null) {
@@ -1173,6 +1365,17 @@ protected void sendCancelCommand(IntSet cancelledSegments) {
             }).concatWith(Flowable.defer(() -> Flowable.fromIterable(commitSegmentsRef.get())));
    }
 
+   private long estimateSize(List<SegmentPublisherSupplier.Notification<CacheEntry<Object, Object>>> notifications) {
+      long bytes = 0;
+      for (SegmentPublisherSupplier.Notification<CacheEntry<Object, Object>> notification : notifications) {
+         if (notification.isValue()) {
+            CacheEntry<Object, Object> entry = notification.value();
+            bytes += throttle.estimateSize(entry.getKey(), entry.getValue());
+         }
+      }
+      return bytes;
+   }
+
    private void findSources(IntSet segments, Map<Address, IntSet> sources, Set<Address> excludedSources,
                             boolean ignoreOwnedSegments) {
       if (cache.wired().getStatus().isTerminated())
@@ -1344,15 +1547,76 @@ private CompletionStage<Response> getTransactions(Address source, IntSet segment
       return rpcManager.invokeCommand(source, cmd, PassthroughSingleResponseCollector.INSTANCE, rpcOptions);
    }
 
-   private void requestSegments(IntSet segments, Map<Address, IntSet> sources, Set<Address> excludedSources) {
+   private boolean isIncrementalRejoin() {
+      return configuration.clustering().stateTransfer().incrementalRejoin() &&
+            persistenceManager.hasStore(storeConfiguration -> !storeConfiguration.shared());
+   }
+
+   /**
+    * Computes the digests of the entries in the private stores for the given segments, so that the state providers
+    * only send the entries that differ.
+    * <p>
+    * The digests are computed after the private stores were cleared by the {@link LocalTopologyManager}, if the node
+    * did not recover its topology from the persistent state: otherwise the providers would skip entries that are
+    * about to be removed. If the stable topology is not installed yet, the stores may still be cleared later, so no
+    * digests are sent.
+    * <p>
+    * Segments without local entries do not have a digest, and a failure to compute the digests only means the
+    * segments are transferred in full.
+    */
+   private CompletionStage<Map<Integer, SegmentDigest>> computeLocalDigests(IntSet segments) {
+      if (segments.isEmpty())
+         return CompletableFuture.completedFuture(Collections.emptyMap());
+
+      CompletionStage<Void> storesCleared = localTopologyManager.storesClearedCompletion(cacheName);
+      if (storesCleared == null) {
+         log.debugf("Cache %s does not have a stable topology yet, requesting all entries", cacheName);
+         return CompletableFuture.completedFuture(Collections.emptyMap());
+      }
+
+      StateDigestCollector collector = new StateDigestCollector(persistenceMarshaller);
+      return Completable.fromCompletionStage(storesCleared)
+            .andThen(Flowable.fromPublisher(persistenceManager.<Object, Object>publishEntries(segments, null, true, true, PRIVATE)))
+            .doOnNext(entry -> collector.add(getSegment(entry.getKey()), entry.getKey(), entry.getValue(),
+                                             entry.getMetadata()))
+            .ignoreElements()
+            .toSingle(collector::digests)
+            .onErrorReturn(t -> {
+               log.debugf(t, "Failed to compute the digests of segments %s for cache %s, requesting all entries",
+                          segments, cacheName);
+               return Collections.emptyMap();
+            })
+            .toCompletionStage();
+   }
+
+   private CompletionStage<Void> requestSegments(int topologyId, IntSet segments, Map<Address, IntSet> sources,
+                                                 Set<Address> excludedSources, Map<Integer, SegmentDigest> digests) {
       if (sources.isEmpty()) {
          findSources(segments, sources, excludedSources, true);
       }
 
-      for (Map.Entry<Address, IntSet> e : sources.entrySet()) {
-         addTransfer(e.getKey(), e.getValue());
+      IntSet remaining = IntSets.mutableEmptySet(numSegments);
+      for (IntSet segmentsFromSource : sources.values()) {
+         remaining.addAll(segmentsFromSource);
+      }
+      if (maxConcurrentSegments < 0 || remaining.size() <= maxConcurrentSegments) {
+         for (Map.Entry<Address, IntSet> e : sources.entrySet()) {
+            addTransfer(e.getKey(), e.getValue(), digests);
+         }
+         if (log.isTraceEnabled()) log.tracef("Finished adding inbound state transfer for segments %s of cache %s", segments, cacheName);
+         return CompletableFutures.completedNull();
       }
-      if (log.isTraceEnabled()) log.tracef("Finished adding inbound state transfer for segments %s of cache %s", segments, cacheName);
+
+      return fetchAccessCounts(topologyId, sources).thenAccept(accessCounts -> {
+         // The state requests are executed one at a time, so at most maxConcurrentSegments segments are transferred
+         // concurrently, most accessed segments first
+         while (!remaining.isEmpty()) {
+            for (Map.Entry<Address, IntSet> e : nextSegmentBatch(remaining, sources, accessCounts, false).entrySet()) {
+               addTransfer(e.getKey(), e.getValue(), digests);
+            }
+         }
+         if (log.isTraceEnabled()) log.tracef("Finished adding inbound state transfer for segments %s of cache %s", segments, cacheName);
+      });
    }
 
    /**
@@ -1506,7 +1770,7 @@ private int getSegment(Object key) {
       return keyPartitioner.getSegment(key);
    }
 
-   private void addTransfer(Address source, IntSet segmentsFromSource) {
+   private void addTransfer(Address source, IntSet segmentsFromSource, Map<Integer, SegmentDigest> digests) {
       final InboundTransferTask inboundTransfer;
 
       transferMapsLock.lock();
@@ -1523,7 +1787,7 @@ private void addTransfer(Address source, IntSet segmentsFromSource) {
          }
 
          inboundTransfer = new InboundTransferTask(segmentsFromSource, source, cacheTopology.getTopologyId(),
-                                                   rpcManager, commandsFactory, timeout, cacheName, true);
+                                                   rpcManager, commandsFactory, timeout, cacheName, true, digests);
          addTransfer(inboundTransfer, segmentsFromSource, stateTransferTopologyId.get());
       } finally {
          transferMapsLock.unlock();
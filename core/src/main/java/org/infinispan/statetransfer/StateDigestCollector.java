@@ -0,0 +1,87 @@
+package org.infinispan.statetransfer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Computes the {@link SegmentDigest}s of a set of entries.
+ * <p>
+ * Keys and values are hashed in their marshalled form, so that the requester and the provider compute the same hashes
+ * for the same entries. The hash of an entry also covers its version, lifespan and max idle, with missing or empty
+ * metadata hashed as no version and no expiration.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @since 16.3
+ */
+final class StateDigestCollector {
+   private static final int SEED = 9001;
+
+   private final Marshaller marshaller;
+   private final Map<Integer, long[]> segments = new HashMap<>();
+
+   StateDigestCollector(Marshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   /**
+    * Adds an entry to the digest of its segment.
+    *
+    * @throws Exception if the key or the value cannot be marshalled
+    */
+   void add(int segment, Object key, Object value, Metadata metadata) throws Exception {
+      long keyHash = keyHash(marshaller, key);
+      long hash = keyHash;
+      hash = 31 * hash + MurmurHash3.MurmurHash3_x64_64(marshaller.objectToByteBuffer(value), SEED);
+      // Stores keep empty metadata as null while the data container has an empty instance, so hash both the same way
+      EntryVersion version = null;
+      long lifespan = -1;
+      long maxIdle = -1;
+      if (metadata != null && !metadata.isEmpty()) {
+         version = metadata.version();
+         lifespan = metadata.lifespan();
+         maxIdle = metadata.maxIdle();
+      }
+      hash = 31 * hash + (version != null ? version.hashCode() : 0);
+      hash = 31 * hash + lifespan;
+      hash = 31 * hash + maxIdle;
+      long[] buckets = segments.computeIfAbsent(segment, s -> new long[SegmentDigest.BUCKETS]);
+      buckets[SegmentDigest.bucketOf(keyHash)] += mix(hash);
+   }
+
+   /**
+    * @return the digests of the segments with at least one entry
+    */
+   Map<Integer, SegmentDigest> digests() {
+      Map<Integer, SegmentDigest> digests = new HashMap<>(segments.size());
+      segments.forEach((segment, buckets) -> digests.put(segment, new SegmentDigest(segment, buckets)));
+      return digests;
+   }
+
+   /**
+    * @return the digest bucket of a key
+    * @throws Exception if the key cannot be marshalled
+    */
+   static int bucketOf(Marshaller marshaller, Object key) throws Exception {
+      return SegmentDigest.bucketOf(keyHash(marshaller, key));
+   }
+
+   private static long keyHash(Marshaller marshaller, Object key) throws Exception {
+      return MurmurHash3.MurmurHash3_x64_64(marshaller.objectToByteBuffer(key), SEED);
+   }
+
+   // The bucket sums the entry hashes, so spread the bits to keep similar entries from cancelling each other out
+   private static long mix(long hash) {
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= hash >>> 33;
+      return hash;
+   }
+}
@@ -58,6 +58,62 @@ public interface StateProvider {
     */
    void startOutboundTransfer(Address destination, int topologyId, IntSet segments, boolean applyState);
 
+   /**
+    * Start to send the cache entries that belong to the given set of segments, skipping the entries the requester
+    * already has according to the given digests.
+    * <p>
+    * Segments without a digest are sent in full.
+    *
+    * @param destination the address of the requester
+    * @param topologyId  the topology id of the request
+    * @param segments    the segments to send
+    * @param applyState  whether the requester applies the cache entries to the local cache
+    * @param digests     the digests of the entries the requester already has
+    * @since 16.3
+    */
+   void startOutboundTransfer(Address destination, int topologyId, IntSet segments, boolean applyState,
+                              Collection<SegmentDigest> digests);
+
+   /**
+    * Start to send the cache entries that belong to the given set of segments and digest buckets, for conflict
+    * resolution. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.ConflictResolutionStartCommand} with a set of buckets.
+    *
+    * @param destination the address of the requester
+    * @param topologyId  the topology id of the request
+    * @param segments    the segments to send
+    * @param buckets     only send the entries in these {@link SegmentDigest} buckets
+    * @since 16.3
+    */
+   void startConflictResolutionTransfer(Address destination, int topologyId, IntSet segments, IntSet buckets);
+
+   /**
+    * Computes the digests of the local entries of the given segments. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.StateTransferGetDigestsCommand}.
+    * <p>
+    * Segments without entries have an empty digest, and segments with entries that cannot be hashed do not have a
+    * digest.
+    *
+    * @param destination the address of the requester
+    * @param topologyId  the topology id of the request
+    * @param segments    the segments to compute the digests of
+    * @return a {@code CompletionStage} that completes with the digests of the segments
+    * @since 16.3
+    */
+   CompletionStage<Collection<SegmentDigest>> getSegmentDigests(Address destination, int topologyId, IntSet segments);
+
+   /**
+    * Reads the access counts of the given segments on this node. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.StateTransferGetAccessCountsCommand}.
+    *
+    * @param destination the address of the requester
+    * @param topologyId  the topology id of the request
+    * @param segments    the segments to read the access counts of
+    * @return the access counts of the segments, empty if the accesses are not counted
+    * @since 16.3
+    */
+   SegmentAccessCounts getSegmentAccessCounts(Address destination, int topologyId, IntSet segments);
+
    /**
     * Cancel sending of cache entries that belong to the given set of segments. This is invoked in response to a
     * {@link org.infinispan.commands.statetransfer.StateTransferCancelCommand}.
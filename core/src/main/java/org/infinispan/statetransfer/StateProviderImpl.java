@@ -11,14 +11,19 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
@@ -57,6 +62,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
 
 /**
  * {@link StateProvider} implementation.
@@ -87,9 +93,17 @@ public class StateProviderImpl implements StateProvider {
    @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    @Inject ScheduledExecutorService timeoutExecutor;
    @Inject StateTransferTracker stateTracker;
+   @ComponentName(KnownComponentNames.PERSISTENCE_MARSHALLER)
+   @Inject Marshaller persistenceMarshaller;
+   @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
+   @Inject Executor nonBlockingExecutor;
+   @Inject TimeService timeService;
+   @Inject SegmentAccessCounters segmentAccessCounters;   // optional
 
    protected long timeout;
    protected int chunkSize;
+   // Limits the rate of the entries pushed to other nodes, null if the bandwidth is unlimited
+   private StateTransferThrottle throttle;
 
    /**
     * A map that keeps track of current outbound state transfers by destination address. There could be multiple transfers
@@ -145,6 +159,10 @@ public CompletableFuture<Void> onTopologyUpdate(CacheTopology cacheTopology, boo
    public void start() {
       timeout = configuration.clustering().stateTransfer().timeout();
       chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      long maxBandwidth = configuration.clustering().stateTransfer().maxBandwidthBytes();
+      throttle = maxBandwidth > 0 ?
+            new StateTransferThrottle(maxBandwidth, persistenceMarshaller, timeService, timeoutExecutor, nonBlockingExecutor) :
+            null;
    }
 
    @Stop
@@ -289,18 +307,51 @@ private void collectTransactionsToTransfer(Address destination,
 
    @Override
    public void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState) {
+      startOutboundTransfer(destination, requestTopologyId, segments, applyState, Collections.emptyList());
+   }
+
+   @Override
+   public void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState,
+                                     Collection<SegmentDigest> digests) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Starting outbound transfer to node %s for cache %s, topology id %d, segments %s, %d digests",
+                    destination, cacheName, requestTopologyId, segments, digests.size());
+      }
+
+      if (digests.isEmpty()) {
+         startOutboundTransfer(destination, requestTopologyId, segments, applyState, readEntries(segments),
+                               Collections.emptyMap());
+      } else {
+         Map<Integer, IntSet> sentBuckets = new ConcurrentHashMap<>();
+         startOutboundTransfer(destination, requestTopologyId, segments, applyState,
+                               readChangedEntries(destination, segments, digests, sentBuckets), sentBuckets);
+      }
+   }
+
+   @Override
+   public void startConflictResolutionTransfer(Address destination, int requestTopologyId, IntSet segments,
+                                               IntSet buckets) {
       if (log.isTraceEnabled()) {
-         log.tracef("Starting outbound transfer to node %s for cache %s, topology id %d, segments %s", destination,
-                    cacheName, requestTopologyId, segments);
+         log.tracef("Starting conflict resolution transfer to node %s for cache %s, topology id %d, segments %s, buckets %s",
+                    destination, cacheName, requestTopologyId, segments, buckets);
       }
 
+      Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries =
+            readEntries(segments).filter(notification -> !notification.isValue() ||
+                  isInBuckets(notification.value().getKey(), buckets));
+      startOutboundTransfer(destination, requestTopologyId, segments, false, entries, Collections.emptyMap());
+   }
+
+   private void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState,
+                                      Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries,
+                                      Map<Integer, IntSet> sentBuckets) {
       // the destination node must already have an InboundTransferTask waiting for these segments
       OutboundTransferTask outboundTransfer =
          new OutboundTransferTask(destination, segments, this.configuration.clustering().hash().numSegments(),
                                   chunkSize, requestTopologyId, chunks -> {}, rpcManager,
-                                  commandsFactory, timeout, cacheName, applyState);
+                                  commandsFactory, timeout, cacheName, applyState, throttle);
       addTransfer(outboundTransfer);
-      outboundTransfer.execute(readEntries(segments))
+      outboundTransfer.execute(entries, sentBuckets)
                       .whenComplete((ignored, throwable) -> {
                          if (throwable != null) {
                             logError(outboundTransfer, throwable);
@@ -309,6 +360,40 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, In
                       });
    }
 
+   @Override
+   public SegmentAccessCounts getSegmentAccessCounts(Address destination, int requestTopologyId, IntSet segments) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Received request for access counts from node %s for cache %s, topology id %d, segments %s",
+                    destination, cacheName, requestTopologyId, segments);
+      }
+      return segmentAccessCounters != null ? segmentAccessCounters.accessCounts(segments) : new SegmentAccessCounts(0);
+   }
+
+   @Override
+   public CompletionStage<Collection<SegmentDigest>> getSegmentDigests(Address destination, int requestTopologyId,
+                                                                       IntSet segments) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Received request for digests from node %s for cache %s, topology id %d, segments %s",
+                    destination, cacheName, requestTopologyId, segments);
+      }
+
+      IntSet failedSegments = IntSets.mutableEmptySet();
+      return computeDigests(segments, failedSegments)
+            .<Collection<SegmentDigest>>map(localDigests -> {
+               List<SegmentDigest> digests = new ArrayList<>(segments.size());
+               for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+                  int segment = iter.nextInt();
+                  if (failedSegments.contains(segment))
+                     continue;
+
+                  SegmentDigest digest = localDigests.get(segment);
+                  digests.add(digest != null ? digest : new SegmentDigest(segment, new long[SegmentDigest.BUCKETS]));
+               }
+               return digests;
+            })
+            .toCompletionStage();
+   }
+
    protected Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> readEntries(IntSet segments) {
       SegmentAwarePublisherSupplier<?> publisher =
             localPublisherManager.entryPublisher(segments, null, null,
@@ -317,6 +402,120 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, In
             .map(notification -> (SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>) notification);
    }
 
+   /**
+    * Reads the entries of the given segments, except those in the digest buckets where the requester already has the
+    * same entries.
+    * <p>
+    * The local entries of the segments with a digest are read twice: once to compute the local digests, and once to
+    * send the entries in the buckets that differ. The buckets sent in full are added to {@code sentBuckets} before the
+    * first entry is published, so that the requester can remove the entries it has in those buckets and that were not
+    * sent, because they were removed while it was away.
+    */
+   protected Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> readChangedEntries(
+         Address destination, IntSet segments, Collection<SegmentDigest> digests, Map<Integer, IntSet> sentBuckets) {
+      Map<Integer, SegmentDigest> remoteDigests = new HashMap<>();
+      for (SegmentDigest digest : digests) {
+         if (segments.contains(digest.getSegmentId())) {
+            remoteDigests.put(digest.getSegmentId(), digest);
+         }
+      }
+      if (remoteDigests.isEmpty())
+         return readEntries(segments);
+
+      return Single.defer(() -> {
+         // Segments with entries that could not be hashed are sent in full
+         IntSet failedSegments = IntSets.mutableEmptySet();
+         return computeDigests(IntSets.from(remoteDigests.keySet()), failedSegments)
+               .map(localDigests -> {
+                  Map<Integer, boolean[]> unchangedBuckets =
+                        unchangedBuckets(destination, remoteDigests, localDigests, failedSegments);
+                  for (Integer segment : remoteDigests.keySet()) {
+                     sentBuckets.put(segment, sentBuckets(unchangedBuckets.get(segment)));
+                  }
+                  return unchangedBuckets;
+               });
+      }).flatMapPublisher(unchangedBuckets -> readEntries(segments).filter(notification -> {
+         if (!notification.isValue())
+            return true;
+         boolean[] unchanged = unchangedBuckets.get(notification.valueSegment());
+         if (unchanged == null)
+            return true;
+         try {
+            return !unchanged[StateDigestCollector.bucketOf(persistenceMarshaller, notification.value().getKey())];
+         } catch (Exception e) {
+            return true;
+         }
+      }));
+   }
+
+   /**
+    * Computes the digests of the local entries of the given segments, adding the segments with entries that cannot be
+    * hashed to {@code failedSegments}.
+    */
+   private Single<Map<Integer, SegmentDigest>> computeDigests(IntSet segments, IntSet failedSegments) {
+      StateDigestCollector collector = new StateDigestCollector(persistenceMarshaller);
+      return readEntries(segments)
+            .filter(SegmentPublisherSupplier.Notification::isValue)
+            .doOnNext(notification -> {
+               InternalCacheEntry<?, ?> entry = notification.value();
+               try {
+                  collector.add(notification.valueSegment(), entry.getKey(), entry.getValue(), entry.getMetadata());
+               } catch (Exception e) {
+                  failedSegments.set(notification.valueSegment());
+               }
+            })
+            .ignoreElements()
+            .toSingle(collector::digests);
+   }
+
+   private static IntSet sentBuckets(boolean[] unchanged) {
+      if (unchanged == null)
+         return IntSets.immutableRangeSet(SegmentDigest.BUCKETS);
+
+      IntSet buckets = IntSets.mutableEmptySet(SegmentDigest.BUCKETS);
+      for (int bucket = 0; bucket < SegmentDigest.BUCKETS; bucket++) {
+         if (!unchanged[bucket]) {
+            buckets.set(bucket);
+         }
+      }
+      return buckets;
+   }
+
+   private boolean isInBuckets(Object key, IntSet buckets) {
+      try {
+         return buckets.contains(StateDigestCollector.bucketOf(persistenceMarshaller, key));
+      } catch (Exception e) {
+         return true;
+      }
+   }
+
+   private Map<Integer, boolean[]> unchangedBuckets(Address destination, Map<Integer, SegmentDigest> remoteDigests,
+                                                    Map<Integer, SegmentDigest> localDigests, IntSet failedSegments) {
+      Map<Integer, boolean[]> unchangedBuckets = new HashMap<>();
+      int unchangedCount = 0;
+      for (SegmentDigest remoteDigest : remoteDigests.values()) {
+         int segment = remoteDigest.getSegmentId();
+         if (failedSegments.contains(segment))
+            continue;
+
+         SegmentDigest localDigest = localDigests.get(segment);
+         if (localDigest == null) {
+            localDigest = new SegmentDigest(segment, new long[SegmentDigest.BUCKETS]);
+         }
+         boolean[] unchanged = new boolean[SegmentDigest.BUCKETS];
+         for (int bucket = 0; bucket < SegmentDigest.BUCKETS; bucket++) {
+            if (localDigest.bucketMatches(bucket, remoteDigest)) {
+               unchanged[bucket] = true;
+               unchangedCount++;
+            }
+         }
+         unchangedBuckets.put(segment, unchanged);
+      }
+      log.debugf("Node %s already has the entries of %d out of %d digest buckets of cache %s", destination,
+                 unchangedCount, remoteDigests.size() * SegmentDigest.BUCKETS, cacheName);
+      return unchangedBuckets;
+   }
+
    protected void addTransfer(OutboundTransferTask transferTask) {
       if (log.isTraceEnabled()) {
          log.tracef("Adding outbound transfer to %s for segments %s", transferTask.getDestination(),
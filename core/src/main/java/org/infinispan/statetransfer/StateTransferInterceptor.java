@@ -250,6 +250,7 @@ private Object handleTxReturn(InvocationContext ctx, TransactionBoundaryCommand
    }
 
    private Object handleWriteCommand(InvocationContext ctx, WriteCommand command) {
+      recordSegmentAccess(command);
       if (ctx.isInTxScope()) {
          return handleTxWriteCommand(ctx, command);
       } else {
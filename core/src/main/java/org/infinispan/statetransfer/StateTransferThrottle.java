@@ -0,0 +1,102 @@
+package org.infinispan.statetransfer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Limits the rate at which the entries of a cache are transferred to the configured
+ * {@link org.infinispan.configuration.cache.StateTransferConfiguration#maxBandwidth() maximum bandwidth}.
+ * <p>
+ * Bandwidth is reserved for a batch of entries before the batch is transferred, and {@link #acquire(long)} returns a
+ * stage that completes once the reservations made before it have used their share of the bandwidth, so no thread is
+ * ever blocked. The size of an entry is estimated before it is marshalled, see {@link #estimateSize(Object, Object)}.
+ *
+ * @since 16.3
+ */
+public class StateTransferThrottle {
+   // Don't bother scheduling delays shorter than this
+   private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+   private final long bytesPerSecond;
+   private final Marshaller marshaller;
+   private final TimeService timeService;
+   private final ScheduledExecutorService timeoutExecutor;
+   private final Executor executor;
+
+   // The time when the bandwidth reserved so far has been used
+   @GuardedBy("this")
+   private long nextFreeNanos;
+
+   public StateTransferThrottle(long bytesPerSecond, Marshaller marshaller, TimeService timeService,
+                                ScheduledExecutorService timeoutExecutor, Executor executor) {
+      if (bytesPerSecond <= 0)
+         throw new IllegalArgumentException("bytesPerSecond must be positive");
+      this.bytesPerSecond = bytesPerSecond;
+      this.marshaller = marshaller;
+      this.timeService = timeService;
+      this.timeoutExecutor = timeoutExecutor;
+      this.executor = executor;
+      // System.nanoTime() may be negative
+      this.nextFreeNanos = timeService.time();
+   }
+
+   /**
+    * @return a stage that completes, on the executor, when {@code bytes} can be transferred
+    */
+   public CompletionStage<Void> acquire(long bytes) {
+      long delayNanos = reserve(bytes);
+      if (delayNanos < MIN_DELAY_NANOS)
+         return CompletableFutures.completedNull();
+
+      CompletableFuture<Void> stage = new CompletableFuture<>();
+      try {
+         timeoutExecutor.schedule(() -> stage.completeAsync(() -> null, executor), delayNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+         // The cache is stopping, the transfer will be cancelled anyway
+         stage.complete(null);
+      }
+      return stage;
+   }
+
+   /**
+    * Reserves the bandwidth for {@code bytes}.
+    *
+    * @return the time to wait, in nanoseconds, before the bytes can be transferred
+    */
+   synchronized long reserve(long bytes) {
+      long now = timeService.time();
+      long start = Math.max(now, nextFreeNanos);
+      nextFreeNanos = start + (long) (bytes * 1_000_000_000d / bytesPerSecond);
+      return start - now;
+   }
+
+   /**
+    * @return the estimated number of bytes needed to transfer an entry
+    */
+   public long estimateSize(Object key, Object value) {
+      return estimateSize(key) + estimateSize(value);
+   }
+
+   private long estimateSize(Object o) {
+      if (o == null)
+         return 0;
+      if (o instanceof WrappedBytes)
+         return ((WrappedBytes) o).getLength();
+      if (o instanceof byte[])
+         return ((byte[]) o).length;
+      if (o instanceof String)
+         return ((String) o).length();
+      return marshaller.getBufferSizePredictor(o).nextSize(o);
+   }
+}
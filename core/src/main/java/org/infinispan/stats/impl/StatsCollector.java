@@ -355,6 +355,14 @@ public long getOffHeapMemoryUsed() {
       return allocator.getAllocatedAmount();
    }
 
+   @ManagedAttribute(
+         description = "Amount of off-heap memory held by this cache, including the memory kept for reuse (bytes)",
+         displayName = "Off-Heap memory reserved"
+   )
+   public long getOffHeapMemoryReserved() {
+      return allocator.getReservedAmount();
+   }
+
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
          displayName = "Reset Statistics (Statistics)"
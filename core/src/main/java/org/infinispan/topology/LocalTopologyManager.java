@@ -140,6 +140,18 @@ CompletionStage<Void> handleStableTopologyUpdate(String cacheName, CacheTopology
     */
    CompletionStage<Void> stableTopologyCompletion(String cacheName);
 
+   /**
+    * Returns a {@link CompletionStage} that completes once the private stores of the cache with the name
+    * {@code cacheName} hold the entries kept after joining: the stores are cleared once the stable topology is
+    * installed if the node did not recover its topology from the persistent state. Returns null if the cache does not
+    * exist or if it does not have a stable topology yet.
+    *
+    * @since 16.3
+    */
+   default CompletionStage<Void> storesClearedCompletion(String cacheName) {
+      return stableTopologyCompletion(cacheName);
+   }
+
    /**
     * Asserts the cache with the given name has a stable topology installed.
     *
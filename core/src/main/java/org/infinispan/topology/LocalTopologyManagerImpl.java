@@ -991,6 +991,14 @@ public void assertTopologyStable(String cacheName) {
       }
    }
 
+   @Override
+   public CompletionStage<Void> storesClearedCompletion(String cacheName) {
+      LocalCacheStatus cacheStatus = runningCaches.get(cacheName);
+      return cacheStatus == null || !cacheStatus.hasStableTopology()
+            ? null
+            : cacheStatus.getStoresClearedCompletion();
+   }
+
    @Override
    public boolean isCacheRecoveringShutdown(String cacheName) {
       LocalCacheStatus cacheStatus = runningCaches.get(cacheName);
@@ -1069,6 +1077,8 @@ class LocalCacheStatus {
    private volatile CacheTopology currentTopology;
    private volatile CacheTopology stableTopology;
    private volatile boolean waitingRecovery;
+   // Completes after the private stores were cleared, if needed, once the stable topology is installed
+   private final CompletionStage<Void> storesCleared;
 
    LocalCacheStatus(CacheJoinInfo joinInfo,
                     CacheTopologyHandler handler,
@@ -1087,7 +1097,7 @@ class LocalCacheStatus {
       // In cases where it was not safely recovered, we need to clear the stores.
       // We only proceed in case the CR is available to retrieve the persistence manager.
       if (cr != null) {
-         this.stable.thenCompose(recovered -> {
+         this.storesCleared = this.stable.thenCompose(recovered -> {
             // If the topology didn't need recovery or it was manually put to run.
             if (!recovered) {
                PersistenceManager pm;
@@ -1107,6 +1117,8 @@ class LocalCacheStatus {
 
             return CompletableFutures.completedNull();
          });
+      } else {
+         this.storesCleared = this.stable.thenApply(CompletableFutures.toNullFunction());
       }
    }
 
@@ -1157,6 +1169,14 @@ CompletionStage<Void> getStableTopologyCompletion() {
       return stable.thenApply(CompletableFutures.toNullFunction());
    }
 
+   CompletionStage<Void> getStoresClearedCompletion() {
+      return storesCleared;
+   }
+
+   boolean hasStableTopology() {
+      return stable.isDone();
+   }
+
    boolean isTopologyRestored() {
       return stableMembersSize < 0 || stable.isDone();
    }
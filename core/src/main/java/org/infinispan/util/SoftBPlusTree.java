@@ -11,6 +11,7 @@
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.reactive.FlowableCreate;
 
@@ -32,6 +33,12 @@
  * external data source via the {@link KeyLoader} callback. This matches the
  * old {@code IndexNode} disk format exactly.
  * <p>
+ * Optionally, leaves also store a 4-byte fingerprint of every key. A {@link #get}
+ * that reaches a leaf which is not in memory then reads only the leaf and loads
+ * the key of the entries whose fingerprint matches, instead of loading the keys of
+ * all the entries of the leaf. Leaves written without fingerprints are still read,
+ * and gain them the next time they are written.
+ * <p>
  * Disk space is managed internally using a block-aligned free list. Freed
  * blocks are pooled by size and reused for future allocations to avoid
  * unbounded index file growth.
@@ -41,6 +48,8 @@
 public class SoftBPlusTree<V> extends BPlusTree<V> {
    static final byte HAS_LEAVES = 1;
    static final byte HAS_NODES = 2;
+   static final byte HAS_FINGERPRINTED_LEAVES = 3;
+   static final int FINGERPRINT_SIZE = 4;
    private static final int MAX_OUTDATED_RETRIES = 10;
 
    private final NodeStore store;
@@ -50,6 +59,7 @@
    private final ByteBuffer serializeBuffer;
    private final short blockAlignment;
    private final long initialStoreSize;
+   private final boolean fingerprints;
    private long storeSize;
    @SuppressWarnings("unchecked")
    private List<NodeSpace>[] freeBlocks = new List[0];
@@ -64,11 +74,15 @@
     * @param keyLoader       reconstructs keys from values during deserialization
     * @param blockAlignment  disk block alignment in bytes (freed blocks are pooled by aligned size)
     * @param initialStoreSize starting byte offset for new allocations (typically the header size)
+    * @param fingerprints    whether leaves store the fingerprints of their keys
     */
    public SoftBPlusTree(int minNodeSize, int maxNodeSize, NodeStore store,
                         ValueSerializer<V> serializer, KeyLoader<V> keyLoader,
-                        short blockAlignment, long initialStoreSize) {
-      super(minNodeSize, maxNodeSize);
+                        short blockAlignment, long initialStoreSize, boolean fingerprints) {
+      // The fingerprints are not part of the node length, so the limits are reduced to leave room for them
+      super(fingerprints ? withoutFingerprints(minNodeSize) : minNodeSize,
+            fingerprints ? withoutFingerprints(maxNodeSize) : maxNodeSize);
+      this.fingerprints = fingerprints;
       this.store = store;
       this.serializer = serializer;
       this.keyLoader = keyLoader;
@@ -80,6 +94,17 @@ public SoftBPlusTree(int minNodeSize, int maxNodeSize, NodeStore store,
       this.storeSize = initialStoreSize;
    }
 
+   /**
+    * Creates a disk-backed B+ tree whose leaves do not store key fingerprints.
+    *
+    * @see #SoftBPlusTree(int, int, NodeStore, ValueSerializer, KeyLoader, short, long, boolean)
+    */
+   public SoftBPlusTree(int minNodeSize, int maxNodeSize, NodeStore store,
+                        ValueSerializer<V> serializer, KeyLoader<V> keyLoader,
+                        short blockAlignment, long initialStoreSize) {
+      this(minNodeSize, maxNodeSize, store, serializer, keyLoader, blockAlignment, initialStoreSize, false);
+   }
+
    /**
     * Creates a disk-backed B+ tree with no block alignment (alignment of 1) and an
     * initial store size of 0.
@@ -91,6 +116,22 @@ public SoftBPlusTree(int minNodeSize, int maxNodeSize, NodeStore store,
       this(minNodeSize, maxNodeSize, store, serializer, keyLoader, (short) 1, 0);
    }
 
+   /**
+    * Returns the node size that a leaf can have in memory so that, once a fingerprint is added for every
+    * entry, it is not larger than the given size on disk.
+    */
+   private static int withoutFingerprints(int nodeSize) {
+      if (nodeSize <= INNER_NODE_HEADER_SIZE) {
+         return nodeSize;
+      }
+      return INNER_NODE_HEADER_SIZE + (nodeSize - INNER_NODE_HEADER_SIZE) * LEAF_NODE_REFERENCE_SIZE
+            / (LEAF_NODE_REFERENCE_SIZE + FINGERPRINT_SIZE);
+   }
+
+   static int fingerprint(byte[] key) {
+      return MurmurHash3.getInstance().hash(key);
+   }
+
    // --- Space management ---
 
    private short alignBlock(short length) {
@@ -246,6 +287,7 @@ protected void onValueOverwritten(Deque<PathEntry<V>> stack, LeafNode<V> leaf,
       } catch (IOException e) {
          throw new UncheckedIOException(e);
       }
+      softNode.modified();
    }
 
    @Override
@@ -312,7 +354,7 @@ protected boolean tryInPlaceLeafUpdate(Deque<PathEntry<V>> stack, LeafNode<V> ol
    public V get(byte[] key) {
       for (int attempts = 0; ; attempts++) {
          try {
-            return super.get(key);
+            return fingerprints ? getUsingFingerprints(key) : super.get(key);
          } catch (IndexNodeOutdatedException e) {
             if (attempts >= MAX_OUTDATED_RETRIES) {
                throw e;
@@ -321,6 +363,87 @@ public V get(byte[] key) {
       }
    }
 
+   private V getUsingFingerprints(byte[] key) {
+      Node<V> node = getRoot();
+      while (node instanceof InnerNode<V> inner) {
+         Node<V> child = inner.children[inner.getInsertionPoint(key)];
+         if (child instanceof SoftNode<V> soft) {
+            node = soft.cachedNode();
+            if (node == null) {
+               FingerprintLeaf<V> leaf = soft.cachedFingerprintLeaf();
+               if (leaf != null) {
+                  try {
+                     return findByFingerprint(leaf, key);
+                  } catch (IndexNodeOutdatedException e) {
+                     // The retry reads the leaf from the store again
+                     soft.modified();
+                     throw e;
+                  }
+               }
+               int modifications = soft.modifications();
+               ByteBuffer data;
+               try {
+                  data = store.read(soft.diskOffset, soft.occupiedSpace);
+               } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+               }
+               int flagsPosition = data.position() + 2 + data.getShort(data.position());
+               if (data.get(flagsPosition) != HAS_FINGERPRINTED_LEAVES) {
+                  node = soft.resolve(data);
+                  continue;
+               }
+               // Only the values and the fingerprints of the leaf are cached, the keys are loaded when they match
+               leaf = readFingerprintLeaf(data);
+               soft.cacheFingerprintLeaf(leaf, modifications);
+               return findByFingerprint(leaf, key);
+            }
+         } else {
+            node = child.resolve();
+         }
+      }
+      LeafNode<V> leaf = (LeafNode<V>) node;
+      int idx = leaf.getInsertionPoint(key);
+      return idx >= 0 ? leaf.values[idx] : null;
+   }
+
+   @SuppressWarnings("unchecked")
+   private FingerprintLeaf<V> readFingerprintLeaf(ByteBuffer data) {
+      int start = data.position();
+      short count = data.getShort(start + 3);
+      V[] values = (V[]) new Object[count];
+      data.position(start + INNER_NODE_HEADER_SIZE);
+      for (int i = 0; i < count; i++) {
+         values[i] = serializer.read(data);
+      }
+      // The fingerprints follow the values
+      int[] fingerprints = new int[count];
+      for (int i = 0; i < count; i++) {
+         fingerprints[i] = data.getInt();
+      }
+      return new FingerprintLeaf<>(values, fingerprints);
+   }
+
+   private V findByFingerprint(FingerprintLeaf<V> leaf, byte[] key) {
+      int fingerprint = fingerprint(key);
+      for (int i = 0; i < leaf.fingerprints.length; i++) {
+         if (leaf.fingerprints[i] == fingerprint) {
+            V value = leaf.values[i];
+            try {
+               byte[] loadedKey = keyLoader.loadKey(value);
+               if (loadedKey == null) {
+                  throw new IndexNodeOutdatedException("KeyLoader returned null for value at index " + i);
+               }
+               if (Arrays.equals(key, loadedKey)) {
+                  return value;
+               }
+            } catch (IOException e) {
+               throw new UncheckedIOException(e);
+            }
+         }
+      }
+      return null;
+   }
+
    @Override
    public V put(byte[] key, V value) {
       try {
@@ -618,7 +741,7 @@ public record NodeSpace(long offset, short occupiedSpace) { }
 
    private NodeSpace writeNodeToStore(Node<V> node) throws IOException {
       serializeBuffer.clear();
-      writeNode(node, serializer, serializeBuffer);
+      writeNode(node, serializer, serializeBuffer, fingerprints);
       serializeBuffer.flip();
       NodeSpace space = allocate((short) serializeBuffer.remaining());
       // Write the full aligned block so the file extends to cover occupiedSpace.
@@ -630,26 +753,40 @@ private NodeSpace writeNodeToStore(Node<V> node) throws IOException {
    }
 
    static <V> ByteBuffer serializeNode(Node<V> node, ValueSerializer<V> serializer) {
+      return serializeNode(node, serializer, false);
+   }
+
+   static <V> ByteBuffer serializeNode(Node<V> node, ValueSerializer<V> serializer, boolean fingerprints) {
       int size;
       if (node instanceof LeafNode<V> leaf) {
          size = leafSerializedSize(serializer, leaf.values);
+         if (fingerprints) {
+            size += FINGERPRINT_SIZE * leaf.values.length;
+         }
       } else {
          size = innerNodeSerializedSize((InnerNode<V>) node);
       }
       ByteBuffer buffer = ByteBuffer.allocate(size);
-      writeNode(node, serializer, buffer);
+      writeNode(node, serializer, buffer, fingerprints);
       buffer.flip();
       return buffer;
    }
 
-   private static <V> void writeNode(Node<V> node, ValueSerializer<V> serializer, ByteBuffer buffer) {
+   private static <V> void writeNode(Node<V> node, ValueSerializer<V> serializer, ByteBuffer buffer,
+                                     boolean fingerprints) {
       if (node instanceof LeafNode<V> leaf) {
          buffer.putShort((short) 0);
-         buffer.put(HAS_LEAVES);
+         buffer.put(fingerprints ? HAS_FINGERPRINTED_LEAVES : HAS_LEAVES);
          buffer.putShort((short) leaf.values.length);
          for (int i = 0; i < leaf.values.length; i++) {
             serializer.write(leaf.values[i], buffer);
          }
+         // The fingerprints follow the values, so that the values keep the offsets used by in-place updates
+         if (fingerprints) {
+            for (byte[] key : leaf.keys) {
+               buffer.putInt(fingerprint(key));
+            }
+         }
       } else if (node instanceof InnerNode<V> inner) {
          buffer.putShort((short) inner.prefix.length);
          buffer.put(inner.prefix);
@@ -694,7 +831,8 @@ Node<V> deserializeNode(ByteBuffer buffer) {
       buffer.get(prefix);
       byte flags = buffer.get();
       short count = buffer.getShort();
-      if (flags == HAS_LEAVES) {
+      if (flags == HAS_LEAVES || flags == HAS_FINGERPRINTED_LEAVES) {
+         // The keys of a leaf that is resolved are always loaded, the fingerprints are ignored
          try {
             V[] values = (V[]) new Object[count];
             byte[][] keys = new byte[count][];
@@ -729,8 +867,18 @@ Node<V> deserializeNode(ByteBuffer buffer) {
 
    // --- SoftNode ---
 
+   /**
+    * The values and the key fingerprints of a leaf stored with fingerprints. It is cached instead of the leaf when the
+    * leaf is only read, since resolving the leaf loads the keys of all its values.
+    */
+   record FingerprintLeaf<V>(V[] values, int[] fingerprints) { }
+
    static final class SoftNode<V> extends Node<V> {
       private volatile SoftReference<Node<V>> reference;
+      // Only set while the node itself is not in memory
+      private volatile SoftReference<FingerprintLeaf<V>> fingerprintLeaf;
+      // Incremented when a value of the leaf is overwritten in the store
+      private volatile int modifications;
       final long diskOffset;
       final short occupiedSpace;
       private final SoftBPlusTree<V> tree;
@@ -756,6 +904,14 @@ int getInsertionPoint(byte[] key) {
 
       @Override
       Node<V> resolve() {
+         return resolve(null);
+      }
+
+      /**
+       * Same as {@link #resolve()}, but uses the given node data instead of reading it from the store if the node
+       * is not in memory.
+       */
+      Node<V> resolve(ByteBuffer data) {
          Node<V> node;
          SoftReference<Node<V>> ref = this.reference;
          if (ref == null || (node = ref.get()) == null) {
@@ -763,9 +919,13 @@ Node<V> resolve() {
             try {
                ref = this.reference;
                if (ref == null || (node = ref.get()) == null) {
-                  ByteBuffer data = tree.store.read(diskOffset, occupiedSpace);
+                  if (data == null) {
+                     data = tree.store.read(diskOffset, occupiedSpace);
+                  }
                   node = tree.deserializeNode(data);
                   this.reference = new SoftReference<>(node);
+                  // The node may be modified from now on, the fingerprint leaf would not see it
+                  this.fingerprintLeaf = null;
                }
             } catch (IOException e) {
                throw new UncheckedIOException(e);
@@ -776,6 +936,14 @@ Node<V> resolve() {
          return node;
       }
 
+      /**
+       * Returns the node if it is in memory, without loading it.
+       */
+      Node<V> cachedNode() {
+         SoftReference<Node<V>> ref = this.reference;
+         return ref == null ? null : ref.get();
+      }
+
       @Override
       int length() {
          return resolve().length();
@@ -791,8 +959,49 @@ byte[] rightmostKey() {
          return resolve().rightmostKey();
       }
 
+      /**
+       * Returns the values and fingerprints of the leaf if they are in memory and the leaf itself is not.
+       */
+      FingerprintLeaf<V> cachedFingerprintLeaf() {
+         SoftReference<FingerprintLeaf<V>> ref = this.fingerprintLeaf;
+         return ref == null ? null : ref.get();
+      }
+
+      int modifications() {
+         return modifications;
+      }
+
+      /**
+       * Caches the values and fingerprints read from the store, unless the leaf was resolved or a value was
+       * overwritten since {@code modifications} was read, as they may be outdated.
+       */
+      void cacheFingerprintLeaf(FingerprintLeaf<V> leaf, int modifications) {
+         lock.lock();
+         try {
+            if (this.modifications == modifications && cachedNode() == null) {
+               this.fingerprintLeaf = new SoftReference<>(leaf);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      /**
+       * Invoked after a value of the leaf was overwritten in the store.
+       */
+      void modified() {
+         lock.lock();
+         try {
+            modifications++;
+            fingerprintLeaf = null;
+         } finally {
+            lock.unlock();
+         }
+      }
+
       void clearReference() {
          this.reference = null;
+         this.fingerprintLeaf = null;
       }
 
       @Override
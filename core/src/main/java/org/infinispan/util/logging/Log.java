@@ -2474,4 +2474,14 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
          "When the container shrinks under memory pressure, evicted entries must be persisted to the " +
          "store, which may increase memory churn and reduce the effectiveness of the resize.", id = 725)
    void dynamicResizeWithPassivation(String containerName);
+
+   @Message(value = "The off-heap tier requires HEAP storage, a max-count or max-size, and when-full REMOVE. " +
+         "It cannot be used with an eviction-container.", id = 726)
+   CacheConfigurationException offHeapTierRequiresBoundedHeap();
+
+   @Message(value = "State transfer max-concurrent-segments must be positive or -1, got %d", id = 727)
+   CacheConfigurationException invalidMaxConcurrentSegments(int maxConcurrentSegments);
+
+   @Message(value = "State transfer max-bandwidth must be positive, got '%s'", id = 728)
+   CacheConfigurationException invalidStateTransferBandwidth(String maxBandwidth);
 }
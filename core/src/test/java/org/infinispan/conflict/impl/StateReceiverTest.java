@@ -45,6 +45,8 @@
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.remoting.transport.Transport;
 import org.infinispan.statetransfer.InboundTransferTask;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.test.AbstractInfinispanTest;
@@ -117,7 +119,7 @@ public void testRequestCanBeCancelledDuringTransfer() throws Exception {
          TestingUtil.sleepThread(1000);
          return CompletableFuture.completedFuture(new HashMap<>());
       });
-      doReturn(task).when(stateReceiver).createTransferTask(any(Integer.class), any(Address.class), any(CacheTopology.class), any(Long.class));
+      doReturn(task).when(stateReceiver).createTransferTask(any(Integer.class), any(Address.class), any(CacheTopology.class), any(Long.class), any());
 
       CompletableFuture<List<Map<Address, CacheEntry<Object, Object>>>> future = stateReceiver.getAllReplicasForSegment(0, localizedCacheTopology, 10000);
       future.whenComplete((result, throwable) -> {
@@ -146,6 +148,11 @@ private void createAndInitStateReceiver() {
       when(rpcManager.invokeCommand(any(Collection.class), any(ConflictResolutionStartCommand.class), any(), any())).thenAnswer(answer);
       when(rpcManager.invokeCommand(any(Collection.class), any(StateTransferCancelCommand.class), any(), any())).thenAnswer(answer);
 
+      // Nodes older than 16.3 do not support the digest requests, so the replicas send all their entries
+      Transport transport = mock(Transport.class);
+      when(transport.getOldestMember()).thenReturn(NodeVersion.SIXTEEN);
+      when(rpcManager.getTransport()).thenReturn(transport);
+
       when(rpcManager.getSyncRpcOptions()).thenAnswer(invocation -> new RpcOptions(DeliverOrder.PER_SENDER, 10000, TimeUnit.MILLISECONDS));
 
       StateReceiverImpl<Object, Object> stateReceiver = new StateReceiverImpl<>();
@@ -164,7 +171,7 @@ public void stopExecutor() {
    private void initTransferTaskMock(CompletableFuture<Void> completableFuture) {
       InboundTransferTask task = mock(InboundTransferTask.class);
       when(task.requestSegments()).thenReturn(completableFuture);
-      doReturn(task).when(stateReceiver).createTransferTask(any(Integer.class), any(Address.class), any(CacheTopology.class), any(Long.class));
+      doReturn(task).when(stateReceiver).createTransferTask(any(Integer.class), any(Address.class), any(CacheTopology.class), any(Long.class), any());
    }
 
    private Collection<StateChunk> createStateChunks(Object key, Object value) {
@@ -0,0 +1,89 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.impl.TieredDataContainerTest")
+public class TieredDataContainerTest extends SingleCacheManagerTest {
+   private static final int HEAP_COUNT = 10;
+   private static final String PASSIVATION_CACHE = "passivation";
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.memory().maxCount(HEAP_COUNT).offHeapMaxSize("1MB");
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+
+      ConfigurationBuilder passivation = getDefaultStandaloneCacheConfig(false);
+      passivation.memory().maxCount(HEAP_COUNT).offHeapMaxSize("16KB")
+            .persistence().passivation(true).addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      cm.defineConfiguration(PASSIVATION_CACHE, passivation.build());
+      return cm;
+   }
+
+   public void testEntriesMoveBetweenTiers() {
+      InternalDataContainer<Object, Object> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      assertTrue(container instanceof TieredDataContainer);
+
+      int numKeys = 100;
+      for (int i = 0; i < numKeys; i++) {
+         cache.put("key" + i, "value" + i);
+      }
+      container.cleanUp();
+
+      assertEquals(HEAP_COUNT, container.evictionSize());
+      assertEquals(numKeys, container.sizeIncludingExpired());
+      assertEquals(numKeys, cache.size());
+      assertTrue(((TieredDataContainer<?, ?>) container).offHeapEvictionSize() > 0);
+
+      // Peeking does not move the entry back to the heap
+      assertNotNull(container.peek("key0"));
+      for (int i = 0; i < numKeys; i++) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+      container.cleanUp();
+      assertEquals(HEAP_COUNT, container.evictionSize());
+      assertEquals(numKeys, container.sizeIncludingExpired());
+
+      cache.put("key0", "other");
+      cache.remove("key1");
+      assertEquals("other", cache.get("key0"));
+      assertEquals(numKeys - 1, cache.size());
+      assertEquals(numKeys - 1, cache.keySet().size());
+
+      cache.clear();
+      assertEquals(0, container.sizeIncludingExpired());
+   }
+
+   public void testOffHeapEvictionPassivates() {
+      Cache<String, String> passivationCache = cacheManager.getCache(PASSIVATION_CACHE);
+      DummyInMemoryStore store = TestingUtil.getFirstStore(passivationCache);
+      InternalDataContainer<Object, Object> container =
+            TestingUtil.extractComponent(passivationCache, InternalDataContainer.class);
+
+      int numKeys = 1000;
+      for (int i = 0; i < numKeys; i++) {
+         passivationCache.put("key" + i, "value" + i);
+      }
+      container.cleanUp();
+
+      // Entries evicted from the heap stay in memory, only the ones evicted from the off-heap tier are passivated
+      long passivated = store.size();
+      assertTrue(passivated > 0);
+      assertTrue(container.sizeIncludingExpired() > HEAP_COUNT);
+      for (int i = 0; i < numKeys; i++) {
+         assertEquals("value" + i, passivationCache.get("key" + i));
+      }
+   }
+}
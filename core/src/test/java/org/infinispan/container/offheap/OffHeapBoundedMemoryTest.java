@@ -2,6 +2,7 @@
 
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 
 import java.util.concurrent.TimeUnit;
 
@@ -16,6 +17,7 @@
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.Test;
 
@@ -39,6 +41,62 @@ public void testTooSmallToInsert() {
       assertEquals(0, smallHeapCache.size());
    }
 
+   /**
+    * Test that the memory held by the pooled allocator counts against the maximum size, and that the slabs of the
+    * evicted entries are released when the size of the entries changes instead of evicting all the entries
+    */
+   public void testReservedAmountBounded() {
+      long maxSize = ByteQuantity.Unit.MB.toBytes(4);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory()
+            .maxSize(maxSize)
+            .storage(StorageType.OFF_HEAP);
+      EmbeddedCacheManager manager = TestCacheManagerFactory.createCacheManager(builder);
+      try {
+         AdvancedCache<Object, Object> cache = manager.getCache().getAdvancedCache();
+         OffHeapMemoryAllocator allocator = ComponentRegistry.componentOf(cache, OffHeapMemoryAllocator.class);
+         BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
+         assertTrue(allocator instanceof PooledOffHeapMemoryAllocator);
+
+         for (int i = 0; i < 50_000; i++) {
+            cache.put(i, new byte[100]);
+            assertTrue(allocator.getReservedAmount() <= maxSize + maxSize / 2);
+         }
+         // The blocks of the evicted entries are too small for the larger entries
+         for (int i = 50_000; i < 60_000; i++) {
+            cache.put(i, new byte[1000]);
+            assertTrue(allocator.getReservedAmount() <= maxSize + maxSize / 2);
+         }
+         assertTrue(container.currentSize > maxSize / 4);
+      } finally {
+         TestingUtil.killCacheManagers(manager);
+      }
+   }
+
+   /**
+    * Test that only the memory bounded caches pool the off-heap memory, since the other caches never release the
+    * free slabs
+    */
+   public void testPooledOnlyWhenMemoryBounded() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory()
+            .maxCount(1000)
+            .storage(StorageType.OFF_HEAP);
+      EmbeddedCacheManager manager = TestCacheManagerFactory.createCacheManager(builder);
+      try {
+         AdvancedCache<Object, Object> cache = manager.getCache().getAdvancedCache();
+         assertTrue(ComponentRegistry.componentOf(cache, OffHeapMemoryAllocator.class) instanceof UnpooledOffHeapMemoryAllocator);
+
+         ConfigurationBuilder unbounded = new ConfigurationBuilder();
+         unbounded.memory().storage(StorageType.OFF_HEAP);
+         manager.defineConfiguration("unbounded", unbounded.build());
+         AdvancedCache<Object, Object> unboundedCache = manager.getCache("unbounded").getAdvancedCache();
+         assertTrue(ComponentRegistry.componentOf(unboundedCache, OffHeapMemoryAllocator.class) instanceof UnpooledOffHeapMemoryAllocator);
+      } finally {
+         TestingUtil.killCacheManagers(manager);
+      }
+   }
+
    private static DataContainer getContainer(AdvancedCache cache) {
       return cache.getDataContainer();
    }
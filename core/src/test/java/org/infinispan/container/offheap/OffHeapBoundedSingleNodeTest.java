@@ -1,6 +1,7 @@
 package org.infinispan.container.offheap;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.util.ArrayList;
@@ -48,6 +49,24 @@ public void testMoreWriteThanSize() {
       assertEquals(COUNT, cache.size());
    }
 
+   public void testReadHitsDelayEviction() {
+      Cache<String, String> cache = cache(0);
+      cache.clear();
+
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      // Filling the read buffer stripe of this thread moves the entry to the end of the LRU list
+      for (int i = 0; i < OffHeapReadBuffer.STRIPE_SIZE; ++i) {
+         assertEquals("value0", cache.get("key0"));
+      }
+      cache.put("key" + COUNT, "value" + COUNT);
+
+      assertEquals(COUNT, cache.size());
+      assertTrue(cache.containsKey("key0"));
+      assertFalse(cache.containsKey("key1"));
+   }
+
    public void testMultiThreaded() throws ExecutionException, InterruptedException, TimeoutException {
       Cache<String, String> cache = cache(0);
 
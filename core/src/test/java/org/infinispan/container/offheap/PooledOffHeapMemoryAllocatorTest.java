@@ -0,0 +1,121 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+   private PooledOffHeapMemoryAllocator allocator;
+
+   @BeforeMethod
+   void createAllocator() {
+      allocator = new PooledOffHeapMemoryAllocator();
+   }
+
+   @AfterMethod
+   void stopAllocator() {
+      allocator.stop();
+   }
+
+   public void testFreedBlocksAreReused() {
+      long first = allocator.allocate(100);
+      assertEquals(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(100), allocator.getAllocatedAmount());
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+
+      allocator.deallocate(first, 100);
+      assertEquals(0, allocator.getAllocatedAmount());
+      // Same size class
+      assertEquals(first, allocator.allocate(104));
+      // Different size class
+      long second = allocator.allocate(200);
+      assertTrue(second != first);
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+   }
+
+   public void testSlabsAreFilled() {
+      long blockSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(1000);
+      long blocksPerSlab = PooledOffHeapMemoryAllocator.SLAB_SIZE / blockSize;
+      for (int i = 0; i <= blocksPerSlab; i++) {
+         allocator.allocate(1000);
+      }
+      assertEquals(2L * PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+      assertEquals((blocksPerSlab + 1) * blockSize, allocator.getAllocatedAmount());
+
+      // The end of the first slab is used by the smaller blocks
+      long remaining = PooledOffHeapMemoryAllocator.SLAB_SIZE - blocksPerSlab * blockSize;
+      allocator.allocate(remaining - 8);
+      assertEquals(2L * PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+   }
+
+   public void testLargerFreeBlocksAreSplit() {
+      long large = allocator.allocate(1000);
+      allocator.deallocate(large, 1000);
+      long reserved = allocator.getReservedAmount();
+
+      // There is no free block of the size class, so the larger one is split
+      assertEquals(large, allocator.allocate(100));
+      // And the rest of it is reused by the next allocation
+      assertEquals(large + UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(100), allocator.allocate(200));
+      assertEquals(reserved, allocator.getReservedAmount());
+   }
+
+   public void testFreeSlabsAreReleased() {
+      OffHeapMemoryAllocator arena = allocator.newArena();
+      long blockSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(1000);
+      long blocksPerSlab = PooledOffHeapMemoryAllocator.SLAB_SIZE / blockSize;
+      long[] addresses = new long[(int) (2 * blocksPerSlab)];
+      for (int i = 0; i < addresses.length; i++) {
+         addresses[i] = arena.allocate(1000);
+      }
+      assertEquals(2L * PooledOffHeapMemoryAllocator.SLAB_SIZE, arena.getReservedAmount());
+
+      // Only the first slab is free, the rest of the second one was never allocated
+      for (int i = 0; i < blocksPerSlab; i++) {
+         arena.deallocate(addresses[i], 1000);
+      }
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.releaseFreeMemory());
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, arena.getReservedAmount());
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+      arena.close();
+   }
+
+   public void testBoundedAllocatorSlabSize() {
+      // Even the smallest slabs of all the segments would take too much of the memory
+      assertTrue(PooledOffHeapMemoryAllocator.boundedAllocator(1024 * 1024, 256)
+            instanceof UnpooledOffHeapMemoryAllocator);
+
+      PooledOffHeapMemoryAllocator bounded =
+            (PooledOffHeapMemoryAllocator) PooledOffHeapMemoryAllocator.boundedAllocator(20 * 1024 * 1024, 256);
+      try {
+         bounded.allocate(100);
+         assertEquals(8 * 1024, bounded.getReservedAmount());
+      } finally {
+         bounded.stop();
+      }
+   }
+
+   public void testCloseArenaReleasesAllMemory() {
+      long sharedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(64);
+      allocator.allocate(64);
+
+      OffHeapMemoryAllocator arena = allocator.newArena();
+      for (int i = 0; i < 1000; i++) {
+         arena.allocate(i);
+      }
+      long large = PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE * 4;
+      arena.allocate(large);
+      assertEquals(arena.getAllocatedAmount() + sharedSize, allocator.getAllocatedAmount());
+      assertTrue(allocator.getReservedAmount() > PooledOffHeapMemoryAllocator.SLAB_SIZE);
+
+      arena.close();
+      assertEquals(sharedSize, allocator.getAllocatedAmount());
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+   }
+}
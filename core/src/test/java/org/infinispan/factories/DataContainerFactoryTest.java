@@ -7,6 +7,7 @@
 import static org.mockito.Mockito.spy;
 import static org.testng.AssertJUnit.assertEquals;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -19,6 +20,7 @@
 import org.infinispan.container.impl.SharedBoundedContainer;
 import org.infinispan.container.impl.SharedCaffeineMap;
 import org.infinispan.container.impl.SharedContainerMaps;
+import org.infinispan.container.impl.TieredDataContainer;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
 import org.infinispan.container.offheap.OffHeapConcurrentMap;
 import org.infinispan.container.offheap.OffHeapDataContainer;
@@ -149,6 +151,23 @@ public void testEvictionRemoveSegmentedOffHeap() {
       assertEquals(SegmentedBoundedOffHeapDataContainer.class, component.getClass());
    }
 
+   @Test
+   public void testTiered() {
+      dataContainerFactory.configuration = new ConfigurationBuilder().clustering()
+            .memory().maxCount(1000).offHeapMaxSize("10MB")
+            .clustering().cacheMode(CacheMode.DIST_ASYNC).build();
+
+      Object component = dataContainerFactory.construct(COMPONENT_NAME);
+      assertEquals(TieredDataContainer.class, component.getClass());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testTieredRequiresHeapStorage() {
+      new ConfigurationBuilder()
+            .memory().storage(StorageType.OFF_HEAP).maxCount(1000).offHeapMaxSize("10MB")
+            .build();
+   }
+
    @Test(expectedExceptions = IllegalStateException.class)
    public void testEvictionShareContainerNotPresent() {
       String containerName = "container";
@@ -0,0 +1,116 @@
+package org.infinispan.globalstate;
+
+import static org.infinispan.testing.Testing.tmpDirectory;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node with incremental rejoin enabled does not lose entries when its private stores are cleared because
+ * it joins a cluster that did not recover its topology.
+ *
+ * @since 16.3
+ */
+@Test(testName = "globalstate.IncrementalRejoinGlobalStateTest", groups = "functional")
+public class IncrementalRejoinGlobalStateTest extends AbstractGlobalStateRestartTest {
+   private static final int NUM_CHANGED_KEYS = 10;
+
+   @Override
+   protected int getClusterSize() {
+      return 3;
+   }
+
+   @Override
+   protected void applyCacheManagerClusteringConfiguration(ConfigurationBuilder config) {
+      config.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(2);
+      config.clustering().stateTransfer().incrementalRejoin(true);
+   }
+
+   @Override
+   protected void applyCacheManagerClusteringConfiguration(String id, ConfigurationBuilder config) {
+      applyCacheManagerClusteringConfiguration(config);
+
+      config.persistence().addSoftIndexFileStore()
+            .dataLocation(tmpDirectory(this.getClass().getSimpleName(), id, "data"))
+            .indexLocation(tmpDirectory(this.getClass().getSimpleName(), id, "index"));
+   }
+
+   public void testRejoinAfterTopologyReinstall() {
+      createInitialCluster();
+
+      // Shutdown the cache cluster-wide
+      cache(0, CACHE_NAME).shutdown();
+      TestingUtil.killCacheManagers(this.cacheManagers);
+      this.cacheManagers.clear();
+
+      // Restart two of the nodes and install their topology without the third node
+      createStatefulCacheManager("A", false);
+      createStatefulCacheManager("B", false);
+      TestingUtil.blockUntilViewsReceived(15000, getCaches(CACHE_NAME));
+      for (EmbeddedCacheManager ecm : managers()) {
+         if (ecm.isCoordinator()) {
+            assertTrue(TestingUtil.extractGlobalComponentRegistry(ecm)
+                  .getClusterTopologyManager()
+                  .useCurrentTopologyAsStable(CACHE_NAME, false));
+            break;
+         }
+      }
+      waitForClusterToForm(CACHE_NAME);
+
+      AggregateCompletionStage<Void> topologyInstall = CompletionStages.aggregateCompletionStage();
+      for (EmbeddedCacheManager ecm : managers()) {
+         GlobalComponentRegistry gcr = TestingUtil.extractGlobalComponentRegistry(ecm);
+         topologyInstall.dependsOn(gcr.getLocalTopologyManager().stableTopologyCompletion(CACHE_NAME));
+      }
+      CompletableFutures.uncheckedAwait(topologyInstall.freeze().toCompletableFuture(), 30, TimeUnit.SECONDS);
+
+      for (int i = 0; i < NUM_CHANGED_KEYS; i++) {
+         cache(0, CACHE_NAME).remove(String.valueOf(i));
+         cache(0, CACHE_NAME).put(String.valueOf(NUM_CHANGED_KEYS + i), "updated");
+      }
+
+      // The third node still has the state and the entries from before the shutdown, but the cluster did not recover
+      // its topology, so its private stores are cleared and it must receive all its entries
+      createStatefulCacheManager("C", false);
+      waitForClusterToForm(CACHE_NAME);
+
+      for (int j = 0; j < cacheManagers.size(); j++) {
+         Cache<Object, Object> cache = cache(j, CACHE_NAME);
+         for (int i = 0; i < DATA_SIZE; i++) {
+            assertEquals(expectedValue(i), cache.get(String.valueOf(i)));
+         }
+      }
+
+      // The entries owned by the third node are loaded from its own store
+      AdvancedCache<Object, Object> joiner = advancedCache(2, CACHE_NAME).withFlags(Flag.CACHE_MODE_LOCAL);
+      LocalizedCacheTopology topology = joiner.getDistributionManager().getCacheTopology();
+      for (int i = 0; i < DATA_SIZE; i++) {
+         String key = String.valueOf(i);
+         if (topology.isReadOwner(key)) {
+            assertEquals(key, expectedValue(i), joiner.get(key));
+         }
+      }
+   }
+
+   private static String expectedValue(int i) {
+      if (i < NUM_CHANGED_KEYS)
+         return null;
+
+      return i < 2 * NUM_CHANGED_KEYS ? "updated" : String.valueOf(i);
+   }
+}
@@ -0,0 +1,77 @@
+package org.infinispan.interceptors.distribution;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+
+import org.infinispan.configuration.cache.ReadRouting;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Test the owner selection of {@link ReadOwnerSelector}
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "interceptors.distribution.ReadOwnerSelectorTest")
+public class ReadOwnerSelectorTest extends AbstractInfinispanTest {
+   private static final Address LOCAL = Address.random("local", "s1", "r1", "m1");
+   private static final Address SAME_MACHINE = Address.random("A", "s1", "r1", "m1");
+   private static final Address SAME_RACK = Address.random("B", "s1", "r1", "m2");
+   private static final Address OTHER_SITE = Address.random("C", "s2", "r1", "m1");
+
+   public void testPrimaryKeepsOrder() {
+      ReadOwnerSelector selector = new ReadOwnerSelector(ReadRouting.PRIMARY);
+      List<Address> owners = List.of(OTHER_SITE, SAME_MACHINE);
+
+      assertFalse(selector.tracksLoad());
+      assertSame(owners, selector.order(LOCAL, owners));
+      assertEquals(OTHER_SITE, selector.select(LOCAL, owners));
+   }
+
+   public void testAnyOwnerPrefersClosestOwner() {
+      ReadOwnerSelector selector = new ReadOwnerSelector(ReadRouting.ANY_OWNER);
+
+      assertEquals(List.of(SAME_RACK, OTHER_SITE), selector.order(LOCAL, List.of(OTHER_SITE, SAME_RACK)));
+      for (int i = 0; i < 10; i++) {
+         assertEquals(SAME_MACHINE, selector.select(LOCAL, List.of(OTHER_SITE, SAME_RACK, SAME_MACHINE)));
+      }
+   }
+
+   public void testLeastLoadedPrefersFastestOwner() {
+      ReadOwnerSelector selector = new ReadOwnerSelector(ReadRouting.LEAST_LOADED);
+      List<Address> owners = List.of(SAME_MACHINE, SAME_RACK);
+      assertTrue(selector.tracksLoad());
+
+      recordRead(selector, SAME_MACHINE, 5_000_000);
+      recordRead(selector, SAME_RACK, 1_000_000);
+      assertEquals(List.of(SAME_RACK, SAME_MACHINE), selector.order(LOCAL, owners));
+
+      // Pending reads make the fastest owner look busier
+      for (int i = 0; i < 5; i++) {
+         selector.readStarted(SAME_RACK);
+      }
+      assertEquals(SAME_MACHINE, selector.select(LOCAL, owners));
+
+      for (int i = 0; i < 5; i++) {
+         selector.readCompleted(SAME_RACK, -1);
+      }
+      assertEquals(SAME_RACK, selector.select(LOCAL, owners));
+   }
+
+   public void testLeastLoadedSamplesUnknownOwners() {
+      ReadOwnerSelector selector = new ReadOwnerSelector(ReadRouting.LEAST_LOADED);
+      recordRead(selector, SAME_MACHINE, 1_000_000);
+
+      assertEquals(SAME_RACK, selector.select(LOCAL, List.of(SAME_MACHINE, SAME_RACK)));
+   }
+
+   private static void recordRead(ReadOwnerSelector selector, Address target, long durationNanos) {
+      selector.readStarted(target);
+      selector.readCompleted(target, durationNanos);
+   }
+}
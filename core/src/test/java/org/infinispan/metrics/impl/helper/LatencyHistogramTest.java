@@ -0,0 +1,102 @@
+package org.infinispan.metrics.impl.helper;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "metrics.impl.helper.LatencyHistogramTest")
+public class LatencyHistogramTest extends AbstractInfinispanTest {
+
+   public void testBucketBoundaries() {
+      int previousIndex = 0;
+      for (long value = 0; value < 1_000_000; value++) {
+         int index = LatencyHistogram.bucketIndex(value);
+         long highest = LatencyHistogram.highestEquivalentValue(index);
+         assertTrue(highest >= value);
+         // The relative error is at most 1/16
+         assertTrue(highest - value <= value / 16);
+         // Consecutive values are either in the same bucket or in consecutive buckets
+         assertTrue(index == previousIndex || index == previousIndex + 1);
+         previousIndex = index;
+      }
+      long max = LatencyHistogram.MAX_VALUE;
+      assertEquals(max, LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(max)));
+   }
+
+   public void testPercentiles() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      assertEquals(0, histogram.valueAtPercentile(99));
+
+      for (int i = 1; i <= 1000; i++) {
+         histogram.record(i * 1000L);
+      }
+      histogram.record(Long.MAX_VALUE);
+      assertEquals(1001, histogram.count());
+
+      assertWithinError(501_000, histogram.valueAtPercentile(50));
+      assertWithinError(991_000, histogram.valueAtPercentile(99));
+      assertWithinError(1_000_000, histogram.valueAtPercentile(99.9));
+      assertEquals(LatencyHistogram.MAX_VALUE, histogram.valueAtPercentile(100));
+
+      histogram.reset();
+      assertEquals(0, histogram.count());
+      assertEquals(0, histogram.valueAtPercentile(99));
+   }
+
+   public void testOnlyRecentValues() {
+      AtomicLong now = new AtomicLong();
+      long window = TimeUnit.MINUTES.toNanos(1);
+      LatencyHistogram histogram = new LatencyHistogram(window, now::get);
+      for (int i = 0; i < 100; i++) {
+         histogram.record(1_000_000);
+      }
+      assertWithinError(1_000_000, histogram.valueAtPercentile(99));
+
+      // The values of the previous half window are still reported
+      now.addAndGet(window / 2);
+      histogram.record(1_000);
+      assertEquals(101, histogram.count());
+      assertWithinError(1_000_000, histogram.valueAtPercentile(99));
+
+      // The slow values are older than the window now
+      now.addAndGet(window / 2);
+      for (int i = 0; i < 100; i++) {
+         histogram.record(1_000);
+      }
+      assertEquals(101, histogram.count());
+      assertWithinError(1_000, histogram.valueAtPercentile(99));
+
+      // Nothing was recorded during the whole window
+      now.addAndGet(window * 3);
+      assertEquals(0, histogram.count());
+      assertEquals(0, histogram.valueAtPercentile(99));
+   }
+
+   public void testConcurrentRecording() throws Exception {
+      LatencyHistogram histogram = new LatencyHistogram();
+      int threads = 4;
+      int values = 10_000;
+      Future<?>[] futures = new Future[threads];
+      for (int i = 0; i < threads; i++) {
+         futures[i] = fork(() -> {
+            for (int j = 0; j < values; j++) {
+               histogram.record(j);
+            }
+         });
+      }
+      for (Future<?> future : futures) {
+         future.get();
+      }
+      assertEquals(threads * values, histogram.count());
+   }
+
+   private static void assertWithinError(long expected, long actual) {
+      assertTrue("Expected " + expected + " but was " + actual, actual >= expected && actual - expected <= expected / 16);
+   }
+}
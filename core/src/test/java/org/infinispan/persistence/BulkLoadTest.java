@@ -0,0 +1,81 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the keys of a getAll missing from memory are loaded with a single bulk load when the store supports it.
+ *
+ * @since 16.3
+ */
+@Test(testName = "persistence.BulkLoadTest", groups = "functional")
+@CleanupAfterMethod
+public class BulkLoadTest extends SingleCacheManagerTest {
+   private DummyInMemoryStore<Object, Object> bulkStore;
+   private DummyInMemoryStore<Object, Object> store;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class).bulkLoad(true)
+            .persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      bulkStore = TestingUtil.getStore(cache, 0, false);
+      store = TestingUtil.getStore(cache, 1, false);
+   }
+
+   public void testGetAllLoadsMissingKeysTogether() {
+      for (int i = 0; i < 10; i++) {
+         bulkStore.write(MarshalledEntryUtil.create("k" + i, "v" + i, cache));
+      }
+      cache.put("k0", "v0");
+      bulkStore.clearStats();
+      store.clearStats();
+
+      Map<Object, Object> values = cache.getAll(Set.of("k0", "k1", "k2", "k3", "k4"));
+      assertEquals(Map.of("k0", "v0", "k1", "v1", "k2", "v2", "k3", "v3", "k4", "v4"), values);
+      assertEquals(1, (int) bulkStore.stats().get("loadAll"));
+      assertEquals(0, (int) bulkStore.stats().get("load"));
+      // Every key was found in the first store
+      assertEquals(0, (int) store.stats().get("load"));
+
+      // The loaded keys are now in memory
+      cache.getAll(Set.of("k1", "k2", "k3", "k4"));
+      assertEquals(1, (int) bulkStore.stats().get("loadAll"));
+   }
+
+   public void testGetAllFallsBackToNextStore() {
+      bulkStore.write(MarshalledEntryUtil.create("k1", "v1", cache));
+      store.write(MarshalledEntryUtil.create("k2", "v2", cache));
+      store.write(MarshalledEntryUtil.create("k3", "v3", cache));
+      bulkStore.clearStats();
+      store.clearStats();
+
+      Map<Object, Object> values = cache.getAll(Set.of("k1", "k2", "k3", "missing"));
+      assertEquals(Map.of("k1", "v1", "k2", "v2", "k3", "v3"), values);
+      assertEquals(1, (int) bulkStore.stats().get("loadAll"));
+      // Only the keys missing from the first store are loaded from the second one, one at a time
+      assertEquals(0, (int) store.stats().get("loadAll"));
+      assertEquals(3, (int) store.stats().get("load"));
+   }
+}
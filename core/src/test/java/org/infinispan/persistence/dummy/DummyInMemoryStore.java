@@ -7,6 +7,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -185,8 +186,12 @@ private Map<Object, byte[]> mapForSegment(int segment) {
 
    @Override
    public Set<Characteristic> characteristics() {
-      return EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION, Characteristic.SHAREABLE,
-            Characteristic.SEGMENTABLE);
+      EnumSet<Characteristic> characteristics = EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION,
+            Characteristic.SHAREABLE, Characteristic.SEGMENTABLE);
+      if (configuration != null && configuration.bulkLoad()) {
+         characteristics.add(Characteristic.BULK_LOAD);
+      }
+      return characteristics;
    }
 
    @Override
@@ -287,6 +292,21 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return CompletableFuture.completedFuture(entry);
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      assertRunning();
+      record("loadAll");
+      return Flowable.defer(() -> {
+         long now = timeService.wallClockTime();
+         return Flowable.fromIterable(keys)
+               .mapOptional(key -> {
+                  Map<Object, byte[]> map = mapForSegment(keyPartitioner.getSegment(key));
+                  MarshallableEntry<K, V> me = deserialize(key, map.get(key));
+                  return me == null || isExpired(me, now) ? Optional.empty() : Optional.of(me);
+               });
+      });
+   }
+
    private MarshallableEntry actualLoad(int segment, Object key) {
       record("load");
       if (key == null) return null;
@@ -14,8 +14,9 @@ public class DummyInMemoryStoreConfiguration extends AbstractStoreConfiguration<
    static final AttributeDefinition<Boolean> ASYNC_OPERATION = AttributeDefinition.builder("async-operation", false).immutable().build();
    static final AttributeDefinition<String> STORE_NAME = AttributeDefinition.builder("store-name", null, String.class).immutable().build();
    static final AttributeDefinition<Integer> START_FAILURES = AttributeDefinition.builder("start-failures", 0).immutable().build();
+   static final AttributeDefinition<Boolean> BULK_LOAD = AttributeDefinition.builder("bulk-load", false).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(DummyInMemoryStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), SLOW, ASYNC_OPERATION, STORE_NAME, START_FAILURES);
+      return new AttributeSet(DummyInMemoryStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), SLOW, ASYNC_OPERATION, STORE_NAME, START_FAILURES, BULK_LOAD);
    }
 
    public DummyInMemoryStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async) {
@@ -37,4 +38,8 @@ public String storeName() {
    public int startFailures() {
       return attributes.attribute(START_FAILURES).get();
    }
+
+   public boolean bulkLoad() {
+      return attributes.attribute(BULK_LOAD).get();
+   }
 }
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.dummy;
 
 import static org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration.ASYNC_OPERATION;
+import static org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration.BULK_LOAD;
 import static org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration.SLOW;
 import static org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration.START_FAILURES;
 import static org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration.STORE_NAME;
@@ -56,6 +57,15 @@ public DummyInMemoryStoreConfigurationBuilder startFailures(int failures) {
       return this;
    }
 
+   /**
+    * If true, then the store has the {@link org.infinispan.persistence.spi.NonBlockingStore.Characteristic#BULK_LOAD}
+    * characteristic and loads many keys with a single invocation.
+    */
+   public DummyInMemoryStoreConfigurationBuilder bulkLoad(boolean bulkLoad) {
+      attributes.attribute(BULK_LOAD).set(bulkLoad);
+      return this;
+   }
+
    @Override
    public DummyInMemoryStoreConfiguration create() {
       return new DummyInMemoryStoreConfiguration(attributes.protect(), async.create());
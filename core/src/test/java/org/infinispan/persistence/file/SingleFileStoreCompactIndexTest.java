@@ -0,0 +1,67 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the single file store tests with the compact in-memory index.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "persistence.SingleFile.SingleFileStoreCompactIndexTest")
+public class SingleFileStoreCompactIndexTest extends SingleFileStoreTest {
+
+   @Factory
+   @Override
+   public Object[] factory() {
+      return new Object[] {
+            new SingleFileStoreCompactIndexTest().segmented(false),
+            new SingleFileStoreCompactIndexTest().segmented(true),
+      };
+   }
+
+   @Override
+   protected SingleFileStoreConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder lcb) {
+      return super.createCacheStoreConfig(lcb).compactIndex(true);
+   }
+
+   public void testIndexGrowsAndSurvivesRestart() {
+      int numKeys = 1000;
+      for (int i = 0; i < numKeys; i++) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      // Overwrite and remove some keys, leaving deleted slots and garbage in the keys array
+      for (int i = 0; i < numKeys; i += 2) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "other" + i, -1)));
+      }
+      for (int i = 0; i < numKeys; i += 3) {
+         store.delete(keyToStorage("key" + i));
+      }
+      for (int i = numKeys; i < 2 * numKeys; i++) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+
+      store.stopAndWait();
+      startStore(store);
+
+      long size = store.sizeWait(IntSets.immutableRangeSet(segmentCount));
+      assertEquals(2 * numKeys - (numKeys + 2) / 3, size);
+      for (int i = 0; i < 2 * numKeys; i++) {
+         MarshallableEntry<Object, Object> entry = store.loadEntry(keyToStorage("key" + i));
+         if (i < numKeys && i % 3 == 0) {
+            assertNull(entry);
+            assertFalse(store.contains(keyToStorage("key" + i)));
+         } else {
+            String prefix = i < numKeys && i % 2 == 0 ? "other" : "value";
+            assertEquals(valueToStorage(prefix + i), entry.getValue());
+         }
+      }
+   }
+}
@@ -0,0 +1,57 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.sifs.configuration.CompressionType;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with compressed values and checksums.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreCompressionTest")
+public class SoftIndexFileStoreCompressionTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      configurationBuilder.clustering().hash().numSegments(2);
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .compression(CompressionType.ZLIB)
+            .checksum(true)
+            .build();
+   }
+
+   public void testValuesAreCompressed() throws IOException {
+      String value = "compressible-value".repeat(1000);
+      long sizeBefore = dataSize();
+      store.write(marshalledEntry(internalCacheEntry("compressed", value, -1)));
+      assertTrue(dataSize() - sizeBefore < value.length() / 10);
+
+      store.stop();
+      startStore(store);
+      MarshallableEntry<Object, Object> entry = store.loadEntry(keyToStorage("compressed"));
+      assertEquals(valueToStorage(value), entry.getValue());
+   }
+
+   private long dataSize() throws IOException {
+      try (Stream<Path> files = Files.walk(Paths.get(tmpDirectory, "data"))) {
+         return files.map(Path::toFile).filter(File::isFile).mapToLong(File::length).sum();
+      }
+   }
+}
@@ -1,13 +1,16 @@
 package org.infinispan.persistence.sifs;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletionStages;
@@ -195,4 +198,53 @@ public void testRestartWithOnlyHeaderWritten(boolean deleteIndex) throws Throwab
 
       assertEquals(1, cache(0, cacheName).size());
    }
+
+   public void testRestartWithIndexWithoutFingerprints() throws Throwable {
+      cache(0, cacheName).put("some-value", "1");
+
+      killMember(0, cacheName);
+
+      File[] indexFiles = indexFiles();
+      assertTrue(indexFiles.length > 0);
+      for (File file : indexFiles) {
+         assertEquals(Index.GRACEFULLY, readMagic(file));
+         // Pretend the index was written by a version whose leaves do not have key fingerprints
+         writeMagic(file, Index.GRACEFULLY_WITHOUT_FINGERPRINTS);
+      }
+
+      createCacheManagers();
+
+      assertEquals("1", cache(0, cacheName).get("some-value"));
+
+      killMember(0, cacheName);
+
+      for (File file : indexFiles()) {
+         assertEquals(Index.GRACEFULLY, readMagic(file));
+      }
+
+      createCacheManagers();
+   }
+
+   private File[] indexFiles() {
+      File[] files = Paths.get(tmpDirectory, "index", cacheName, "index").toFile()
+            .listFiles(file -> file.getName().matches("index\\.\\d+") && file.length() > 0);
+      assertTrue(files != null);
+      return files;
+   }
+
+   private static int readMagic(File file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         ByteBuffer magic = ByteBuffer.allocate(4);
+         assertEquals(4, channel.read(magic, 0));
+         return magic.getInt(0);
+      }
+   }
+
+   private static void writeMagic(File file, int value) throws IOException {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+         ByteBuffer magic = ByteBuffer.allocate(4);
+         magic.putInt(0, value);
+         assertEquals(4, channel.write(magic, 0));
+      }
+   }
 }
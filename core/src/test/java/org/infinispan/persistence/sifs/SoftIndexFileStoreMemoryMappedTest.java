@@ -0,0 +1,49 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.file.Paths;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with the completed data files mapped in memory.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreMemoryMappedTest")
+public class SoftIndexFileStoreMemoryMappedTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      configurationBuilder.clustering().hash().numSegments(2);
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .memoryMapped(true)
+            .checksum(true)
+            .build();
+   }
+
+   public void testLoadFromMappedFiles() {
+      for (int i = 0; i < 100; i++) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      // All the files are completed after the restart
+      store.stop();
+      startStore(store);
+
+      NonBlockingSoftIndexFileStore<?, ?> sifs = (NonBlockingSoftIndexFileStore<?, ?>) store.delegate();
+      for (int i = 0; i < 100; i++) {
+         MarshallableEntry<Object, Object> entry = store.loadEntry(keyToStorage("key" + i));
+         assertEquals(valueToStorage("value" + i), entry.getValue());
+      }
+      assertTrue(sifs.getMappedBytes() > 0);
+   }
+}
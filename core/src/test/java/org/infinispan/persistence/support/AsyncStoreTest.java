@@ -26,6 +26,7 @@
 import org.infinispan.marshall.TestObjectStreamMarshaller;
 import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
 import org.infinispan.persistence.async.AsyncNonBlockingStore;
+import org.infinispan.persistence.async.AsyncStoreStatistics;
 import org.infinispan.persistence.dummy.DummyInMemoryStore;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.InitializationContext;
@@ -301,6 +302,47 @@ public void testModificationQueueSize(final Method m) throws Exception {
       }
    }
 
+   public void testStatistics(final Method m) throws Exception {
+      DelayStore underlying = new DelayStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      builder.persistence()
+            .addStore(DelayStore.ConfigurationBuilder.class)
+            .async()
+            .modificationQueueSize(10);
+
+      AsyncStoreStatistics statistics = new AsyncStoreStatistics();
+      store = new AsyncNonBlockingStore<>(underlying, statistics);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass(), builder.build(), marshaller);
+      CompletionStages.join(store.start(ctx));
+      // Block the first batch, so that the next writes are coalesced while they are pending
+      underlying.delayAfterModification(1);
+      try {
+         CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 0), v(m, 0), marshaller)));
+         for (int i = 0; i < 3; i++) {
+            CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 1), v(m, i), marshaller)));
+         }
+
+         assertEquals(2, statistics.getQueueSize());
+         assertEquals(4, statistics.getSubmittedWrites());
+         assertEquals(2, statistics.getCoalescedWrites());
+         assertEquals(0.5, statistics.getCoalescingRatio(), 0.001);
+         assertEquals(0, statistics.getFlushes());
+
+         underlying.endDelay();
+
+         eventuallyEquals(2L, statistics::getFlushes);
+         assertEquals(2, statistics.getFlushedModifications());
+         assertEquals(0, statistics.getQueueSize());
+         assertEquals(2, underlying.size());
+         assertEquals(v(m, 2), CompletionStages.join(store.load(0, k(m, 1))).getValue());
+      } finally {
+         underlying.endDelay();
+         CompletionStages.join(store.stop());
+      }
+      assertEquals(0, statistics.getQueueSize());
+   }
+
    private abstract static class OneEntryCacheManagerCallable extends CacheManagerCallable {
       protected final Cache<String, String> cache;
       protected final DelayStore store;
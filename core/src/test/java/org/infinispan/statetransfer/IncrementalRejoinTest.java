@@ -0,0 +1,99 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node rejoining with a persistent store only receives the entries that changed while it was away.
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "statetransfer.IncrementalRejoinTest")
+public class IncrementalRejoinTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 100;
+   private static final int NUM_UPDATED_KEYS = 5;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      addClusterEnabledCacheManager(configuration(0));
+      addClusterEnabledCacheManager(configuration(1));
+      waitForClusterToForm();
+   }
+
+   private ConfigurationBuilder configuration(int index) {
+      ConfigurationBuilder cfg = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC);
+      cfg.clustering().hash().numOwners(2);
+      cfg.clustering().stateTransfer().incrementalRejoin(true);
+      cfg.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getSimpleName() + "-" + index);
+      return cfg;
+   }
+
+   public void testOnlyChangedEntriesAreTransferred() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+      int writesBeforeLeave = writes(cache(1));
+
+      killMember(1);
+      for (int i = 0; i < NUM_UPDATED_KEYS; i++) {
+         cache(0).put("k" + i, "updated" + i);
+      }
+
+      addClusterEnabledCacheManager(configuration(1));
+      waitForClusterToForm();
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String expected = i < NUM_UPDATED_KEYS ? "updated" + i : "v" + i;
+         assertEquals(expected, cache(1).get("k" + i));
+      }
+
+      // The store data and stats survive the restart, so the new writes are the entries received via state transfer
+      int transferred = writes(cache(1)) - writesBeforeLeave;
+      log.debugf("Transferred %d entries", transferred);
+      assertTrue("Transferred " + transferred + " entries", transferred >= NUM_UPDATED_KEYS);
+      assertTrue("Transferred " + transferred + " entries", transferred < NUM_KEYS / 2);
+   }
+
+   public void testEntriesRemovedWhileAwayAreRemoved() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("r" + i, "v" + i);
+      }
+
+      killMember(1);
+      for (int i = 0; i < NUM_UPDATED_KEYS; i++) {
+         cache(0).remove("r" + i);
+      }
+
+      addClusterEnabledCacheManager(configuration(1));
+      waitForClusterToForm();
+
+      DummyInMemoryStore<Object, Object> store = TestingUtil.getFirstStore(cache(1));
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "r" + i;
+         if (i < NUM_UPDATED_KEYS) {
+            assertFalse(key, store.contains(key));
+            assertNull(key, cache(1).get(key));
+         } else {
+            assertTrue(key, store.contains(key));
+            assertEquals("v" + i, cache(1).get(key));
+         }
+      }
+   }
+
+   private static int writes(Cache<Object, Object> cache) {
+      DummyInMemoryStore<Object, Object> store = TestingUtil.getFirstStore(cache);
+      return store.stats().get("write");
+   }
+}
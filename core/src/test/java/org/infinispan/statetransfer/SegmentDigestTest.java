@@ -0,0 +1,63 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.JavaSerializationMarshaller;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "statetransfer.SegmentDigestTest")
+public class SegmentDigestTest extends AbstractInfinispanTest {
+
+   public void testDifferingBuckets() {
+      SegmentDigest first = digest(0, 1, 2, 3);
+      SegmentDigest same = digest(0, 1, 2, 3);
+      SegmentDigest other = digest(5, 1, 2, 7);
+
+      assertTrue(SegmentDigest.differingBuckets(List.of()).isEmpty());
+      assertTrue(SegmentDigest.differingBuckets(List.of(first)).isEmpty());
+      assertTrue(SegmentDigest.differingBuckets(List.of(first, same)).isEmpty());
+
+      IntSet expected = IntSets.mutableEmptySet();
+      expected.set(0);
+      expected.set(3);
+      assertEquals(expected, SegmentDigest.differingBuckets(List.of(first, other)));
+      assertEquals(expected, SegmentDigest.differingBuckets(List.of(first, same, other)));
+   }
+
+   public void testMarshalledBuckets() {
+      SegmentDigest digest = digest(Long.MIN_VALUE, -1, 0, Long.MAX_VALUE);
+      SegmentDigest copy = new SegmentDigest(digest.getSegmentId(), digest.getBucketBytes());
+
+      assertEquals(digest.getSegmentId(), copy.getSegmentId());
+      assertTrue(SegmentDigest.differingBuckets(List.of(digest, copy)).isEmpty());
+   }
+
+   public void testMissingAndEmptyMetadata() throws Exception {
+      JavaSerializationMarshaller marshaller = new JavaSerializationMarshaller();
+      StateDigestCollector stored = new StateDigestCollector(marshaller);
+      StateDigestCollector inMemory = new StateDigestCollector(marshaller);
+      StateDigestCollector expiring = new StateDigestCollector(marshaller);
+
+      stored.add(0, "k", "v", null);
+      inMemory.add(0, "k", "v", EmbeddedMetadata.EMPTY);
+      expiring.add(0, "k", "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MINUTES).build());
+
+      SegmentDigest storedDigest = stored.digests().get(0);
+      assertTrue(SegmentDigest.differingBuckets(List.of(storedDigest, inMemory.digests().get(0))).isEmpty());
+      assertEquals(1, SegmentDigest.differingBuckets(List.of(storedDigest, expiring.digests().get(0))).size());
+   }
+
+   private static SegmentDigest digest(long... firstBuckets) {
+      long[] buckets = new long[SegmentDigest.BUCKETS];
+      System.arraycopy(firstBuckets, 0, buckets, 0, firstBuckets.length);
+      return new SegmentDigest(42, buckets);
+   }
+}
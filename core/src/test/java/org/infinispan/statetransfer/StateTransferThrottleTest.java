@@ -0,0 +1,86 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertArrayEquals;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Test the bandwidth reservations of {@link StateTransferThrottle} and the segment order of
+ * {@link SegmentAccessCounters}, including the access counts received from the owners.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "statetransfer.StateTransferThrottleTest")
+public class StateTransferThrottleTest extends AbstractInfinispanTest {
+
+   public void testReservationsAreQueued() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      StateTransferThrottle throttle = new StateTransferThrottle(1000, null, timeService, null, null);
+
+      assertEquals(0, throttle.reserve(500));
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(500), throttle.reserve(1000));
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), throttle.reserve(1000));
+
+      timeService.advance(2, TimeUnit.SECONDS);
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(500), throttle.reserve(100));
+
+      // Unused bandwidth is not saved for later
+      timeService.advance(10, TimeUnit.SECONDS);
+      assertEquals(0, throttle.reserve(1000));
+      assertEquals(TimeUnit.SECONDS.toNanos(1), throttle.reserve(1000));
+   }
+
+   public void testMostAccessedSegmentsFirst() {
+      SegmentAccessCounters counters = new SegmentAccessCounters(8, 1);
+      for (int i = 0; i < 3; i++) {
+         counters.recordAccess(5);
+      }
+      counters.recordAccess(2);
+      counters.recordAccess(-1);
+
+      assertArrayEquals(new int[]{5, 2, 0, 1, 7}, counters.sortByAccessCount(IntSets.from(Set.of(0, 1, 2, 5, 7)), null));
+
+      counters.decay();
+      assertEquals(1, counters.accessCount(5));
+      assertEquals(0, counters.accessCount(2));
+      assertArrayEquals(new int[]{5, 0, 2}, counters.sortByAccessCount(IntSets.from(Set.of(0, 2, 5)), null));
+   }
+
+   public void testAccessCountsOfOwners() {
+      SegmentAccessCounters owner = new SegmentAccessCounters(8, 1);
+      for (int i = 0; i < 4; i++) {
+         owner.recordAccess(3);
+      }
+      owner.recordAccess(6);
+
+      // The counts are marshalled as bytes
+      SegmentAccessCounts counts = new SegmentAccessCounts(owner.accessCounts(IntSets.from(Set.of(3, 6, 7))).getCountBytes());
+      long[] ownerCounts = new long[8];
+      counts.addTo(ownerCounts);
+      assertArrayEquals(new long[]{0, 0, 0, 4, 0, 0, 1, 0}, ownerCounts);
+
+      // A joiner that did not access the segments requests the segments most accessed on their owners first
+      SegmentAccessCounters joiner = new SegmentAccessCounters(8, 1);
+      joiner.recordAccess(7);
+      joiner.recordAccess(7);
+      assertArrayEquals(new int[]{3, 7, 6, 0}, joiner.sortByAccessCount(IntSets.from(Set.of(0, 3, 6, 7)), ownerCounts));
+   }
+
+   public void testSampledAccesses() {
+      SegmentAccessCounters counters = new SegmentAccessCounters(1);
+      for (int i = 0; i < 100_000; i++) {
+         counters.recordAccess(0);
+      }
+      long count = counters.accessCount(0);
+      assertEquals(0, count % SegmentAccessCounters.DEFAULT_SAMPLE_RATE);
+      assertTrue(String.valueOf(count), count > 80_000 && count < 120_000);
+   }
+}
@@ -978,4 +978,101 @@ public void testAlignmentPaddingWrittenToStore() throws IOException {
                Integer.valueOf(i), tree.get(key(String.format("key-%05d", i))));
       }
    }
+
+   public void testGetLoadsOnlyKeysWithMatchingFingerprint() throws IOException {
+      InMemoryNodeStore store = new InMemoryNodeStore();
+      SoftBPlusTree<Integer> tree = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader,
+            (short) 1, 0, true);
+      int count = 200;
+      for (int i = 0; i < count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), i);
+      }
+      SoftBPlusTree.NodeSpace rootSpace = tree.saveTree();
+
+      AtomicInteger loadedKeys = new AtomicInteger();
+      SoftBPlusTree<Integer> loaded = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER,
+            value -> {
+               loadedKeys.incrementAndGet();
+               return keysByValue.get(value);
+            }, (short) 1, 0, true);
+      loaded.loadTree(rootSpace);
+
+      for (int i = 0; i < count; i++) {
+         loadedKeys.set(0);
+         assertEquals(Integer.valueOf(i), loaded.get(key(String.format("key-%05d", i))));
+         assertEquals(1, loadedKeys.get());
+      }
+      assertNull(loaded.get(key("key-00100-missing")));
+
+      // Modifications load the whole leaf
+      loaded.put(key("key-00100"), 1000);
+      assertEquals(Integer.valueOf(1000), loaded.get(key("key-00100")));
+      assertEquals(count, loaded.<Integer>publish((k, v) -> v).toList().blockingGet().size());
+   }
+
+   public void testFingerprintLeafCached() throws IOException {
+      AtomicInteger reads = new AtomicInteger();
+      InMemoryNodeStore store = new InMemoryNodeStore() {
+         @Override
+         public ByteBuffer read(long offset, int length) {
+            reads.incrementAndGet();
+            return super.read(offset, length);
+         }
+      };
+      SoftBPlusTree<Integer> tree = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader,
+            (short) 1, 0, true);
+      int count = 200;
+      for (int i = 0; i < count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), i);
+      }
+      SoftBPlusTree.NodeSpace rootSpace = tree.saveTree();
+
+      SoftBPlusTree<Integer> loaded = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader,
+            (short) 1, 0, true);
+      loaded.setStoreSize(tree.getStoreSize());
+      loaded.loadTree(rootSpace);
+      for (int i = 0; i < count; i++) {
+         assertEquals(Integer.valueOf(i), loaded.get(key(String.format("key-%05d", i))));
+      }
+
+      // The leaves found through the fingerprints are not read from the store again
+      reads.set(0);
+      for (int i = 0; i < count; i++) {
+         assertEquals(Integer.valueOf(i), loaded.get(key(String.format("key-%05d", i))));
+      }
+      assertEquals(0, reads.get());
+
+      // A modification resolves the whole leaf, the cached fingerprints are not used anymore
+      loaded.put(key("key-00100"), 1000);
+      assertEquals(Integer.valueOf(1000), loaded.get(key("key-00100")));
+   }
+
+   public void testFingerprintsAddedToExistingLeaves() throws IOException {
+      InMemoryNodeStore store = new InMemoryNodeStore();
+      SoftBPlusTree<Integer> tree = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader);
+      int count = 200;
+      for (int i = 0; i < count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), i);
+      }
+      SoftBPlusTree.NodeSpace rootSpace = tree.saveTree();
+
+      SoftBPlusTree<Integer> loaded = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader,
+            (short) 1, 0, true);
+      loaded.setStoreSize(tree.getStoreSize());
+      loaded.loadTree(rootSpace);
+      // Leaves without fingerprints are loaded entirely
+      for (int i = 0; i < count; i++) {
+         assertEquals(Integer.valueOf(i), loaded.get(key(String.format("key-%05d", i))));
+      }
+
+      // Every leaf is written again with fingerprints
+      for (int i = 0; i < count; i++) {
+         putTracked(loaded, key(String.format("key-%05d-new", i)), count + i);
+      }
+      loaded.clearSoftReferences();
+      for (int i = 0; i < count; i++) {
+         assertEquals(Integer.valueOf(i), loaded.get(key(String.format("key-%05d", i))));
+         assertEquals(Integer.valueOf(count + i), loaded.get(key(String.format("key-%05d-new", i))));
+      }
+   }
 }
@@ -11,26 +11,40 @@
 import java.util.stream.Collectors;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
-import org.infinispan.commons.util.ByRef;
 import org.infinispan.marshall.protostream.impl.MarshallableUserObject;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+import org.infinispan.multimap.impl.internal.PersistentHashMap;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
 
+/**
+ * Bucket used to store the fields of a hash.
+ * <p>
+ * The fields are kept in a {@link PersistentHashMap}, every update creates a new bucket which shares most of its
+ * structure with the previous one. This keeps the copy-on-write semantics the functional commands rely on without
+ * copying the complete hash for every update.
+ *
+ * @param <K>: Type of the hash fields.
+ * @param <V>: Type of the hash values.
+ * @since 15.0
+ */
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_HASH_MAP_BUCKET)
 public class HashMapBucket<K, V> {
 
-   final Map<MultimapObjectWrapper<K>, V> values;
+   final PersistentHashMap<MultimapObjectWrapper<K>, V> values;
 
-   private HashMapBucket(Map<MultimapObjectWrapper<K>, V> values) {
+   private HashMapBucket(PersistentHashMap<MultimapObjectWrapper<K>, V> values) {
       this.values = values;
    }
 
    @ProtoFactory
    HashMapBucket(Collection<BucketEntry<K, V>> wrappedValues) {
-      this.values = wrappedValues.stream()
-            .collect(Collectors.toMap(e -> new MultimapObjectWrapper<>(e.getKey()), BucketEntry::getValue));
+      PersistentHashMap.Builder<MultimapObjectWrapper<K>, V> builder = PersistentHashMap.<MultimapObjectWrapper<K>, V>empty().toBuilder();
+      for (BucketEntry<K, V> entry : wrappedValues) {
+         builder.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
+      }
+      this.values = builder.build();
    }
 
    public static <K, V> HashMapBucket<K, V> create(Map<K, V> values) {
@@ -43,26 +57,26 @@ Collection<BucketEntry<K, V>> getWrappedValues() {
    }
 
    public HashMapBucketResponse<Integer, K, V> putAll(Map<K, V> map) {
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
+      PersistentHashMap.Builder<MultimapObjectWrapper<K>, V> builder = values.toBuilder();
       int res = 0;
       for (Map.Entry<K, V> entry : map.entrySet()) {
-         V prev = copied.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
-         if (prev == null) res++;
+         if (builder.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue())) res++;
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(res, new HashMapBucket<>(builder.build()));
    }
 
    public HashMapBucketResponse<Integer, K, V> putIfAbsent(Map<K, V> map) {
-      ByRef.Integer created = new ByRef.Integer(0);
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
+      PersistentHashMap.Builder<MultimapObjectWrapper<K>, V> builder = values.toBuilder();
+      int created = 0;
       for (Map.Entry<K, V> entry : map.entrySet()) {
-         // The `values` map can have null values, we use compute instead of putIfAbsent.
-         copied.computeIfAbsent(new MultimapObjectWrapper<>(entry.getKey()), ignore -> {
-            created.inc();
-            return entry.getValue();
-         });
+         // The `values` map can have null values, we check the key instead of the previous value.
+         MultimapObjectWrapper<K> key = new MultimapObjectWrapper<>(entry.getKey());
+         if (!builder.containsKey(key)) {
+            builder.put(key, entry.getValue());
+            created++;
+         }
       }
-      return new HashMapBucketResponse<>(created.get(), new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(created, new HashMapBucket<>(builder.build()));
    }
 
    public Map<K, V> getAll(Set<K> keys) {
@@ -83,17 +97,14 @@ public boolean isEmpty() {
    }
 
    public HashMapBucketResponse<Integer, K, V> removeAll(Collection<K> keys) {
+      PersistentHashMap.Builder<MultimapObjectWrapper<K>, V> builder = values.toBuilder();
       int res = 0;
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values.size());
-      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : values.entrySet()) {
-         if (containsKey(keys, entry.getKey())) {
-            res++;
-            continue;
-         }
-
-         copied.put(entry.getKey(), entry.getValue());
+      for (K key : keys) {
+         if (builder.remove(new MultimapObjectWrapper<>(key))) res++;
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      return res == 0
+            ? new HashMapBucketResponse<>(0, this)
+            : new HashMapBucketResponse<>(res, new HashMapBucket<>(builder.build()));
    }
 
    public V get(K k) {
@@ -130,19 +141,10 @@ public HashMapBucket<K, V> replace(K key, V expected, V replacement) {
       if (!equalValues(current, expected)) return null;
       if (equalValues(current, replacement)) return this;
 
-      if (values.isEmpty()) {
-         Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>();
-         copied.put(storeKey, replacement);
-         return new HashMapBucket<>(copied);
-      }
-
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
       if (replacement == null) {
-         copied.remove(storeKey, expected);
-      } else {
-         copied.put(storeKey, replacement);
+         return new HashMapBucket<>(values.without(storeKey));
       }
-      return new HashMapBucket<>(copied);
+      return new HashMapBucket<>(values.with(storeKey, replacement));
    }
 
    private boolean equalValues(V one, Object other) {
@@ -155,30 +157,20 @@ private boolean equalValues(V one, Object other) {
       return eq;
    }
 
-   private static <K, V> Map<MultimapObjectWrapper<K>, V> toStore(Map<K, V> raw) {
-      Map<MultimapObjectWrapper<K>, V> converted = new HashMap<>();
+   private static <K, V> PersistentHashMap<MultimapObjectWrapper<K>, V> toStore(Map<K, V> raw) {
+      PersistentHashMap.Builder<MultimapObjectWrapper<K>, V> builder = PersistentHashMap.<MultimapObjectWrapper<K>, V>empty().toBuilder();
       for (Map.Entry<K, V> entry : raw.entrySet()) {
-         converted.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
+         builder.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
       }
-      return converted;
+      return builder.build();
    }
 
    private Map<K, V> fromStore() {
-      Map<K, V> converted = new HashMap<>();
-      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : values.entrySet()) {
-         converted.put(entry.getKey().get(), entry.getValue());
-      }
+      Map<K, V> converted = new HashMap<>(values.size());
+      values.forEach((k, v) -> converted.put(k.get(), v));
       return converted;
    }
 
-   private boolean containsKey(Collection<K> keys, MultimapObjectWrapper<K> entry) {
-      for (K key : keys) {
-         if (MultimapObjectWrapper.wrappedEquals(entry.get(), key))
-            return true;
-      }
-      return false;
-   }
-
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
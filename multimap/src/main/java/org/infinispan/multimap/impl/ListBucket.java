@@ -14,6 +14,7 @@
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.commons.util.Util;
 import org.infinispan.marshall.protostream.impl.MarshallableUserObject;
+import org.infinispan.multimap.impl.internal.ChunkedDeque;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -21,6 +22,9 @@
 
 /**
  * Bucket used to store ListMultimap values.
+ * <p>
+ * The values are kept in a {@link ChunkedDeque}, so operations at the head or the tail of the list, positional
+ * access and trimming only copy the chunks they modify instead of the whole list.
  *
  * @author Katia Aresti
  * @since 15.0
@@ -28,35 +32,32 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_LIST_BUCKET)
 public class ListBucket<V> implements SortableBucket<V> {
 
-   final Deque<V> values;
+   final ChunkedDeque<V> values;
 
    public ListBucket() {
-      this.values = new ArrayDeque<>(0);
+      this.values = ChunkedDeque.empty();
    }
 
    public ListBucket(V value) {
-      Deque<V> deque = new ArrayDeque<>(1);
-      deque.add(value);
-      this.values = deque;
+      this.values = ChunkedDeque.from(Collections.singletonList(value));
    }
 
-   private ListBucket(Deque<V> values) {
+   private ListBucket(ChunkedDeque<V> values) {
       this.values = values;
    }
 
    public static <V> ListBucket<V> create(Collection<V> value) {
-      return new ListBucket<>(new ArrayDeque<V>(value));
+      return new ListBucket<>(ChunkedDeque.from(value));
    }
 
    @ProtoFactory
    ListBucket(Collection<MarshallableUserObject<V>> wrappedValues) {
-      this((Deque<V>) wrappedValues.stream().map(MarshallableUserObject::get)
-            .collect(Collectors.toCollection(ArrayDeque::new)));
+      this(ChunkedDeque.from(wrappedValues.stream().map(MarshallableUserObject::get).collect(Collectors.toList())));
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<MarshallableUserObject<V>> getWrappedValues() {
-      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayDeque::new));
+      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(() -> new ArrayList<>(values.size())));
    }
 
    public boolean contains(V value) {
@@ -89,51 +90,14 @@ public String toString() {
    }
 
    public ListBucket<V> offer(Collection<V> value, boolean first) {
-      Deque<V> newItems = new ArrayDeque<>(values);
-      if (first) {
-         for (V v : value) {
-            newItems.offerFirst(v);
-         }
-      } else {
-         for (V v : value) {
-            newItems.offerLast(v);
-         }
-      }
-      return new ListBucket<>(newItems);
+      return new ListBucket<>(first ? values.offerFirst(value) : values.offerLast(value));
    }
 
    public ListBucket<V> set(long index, V value) {
       if ((index >= 0 && (values.size() - 1 < index)) || (index < 0 && (values.size() + index < 0))) {
          return null;
       }
-
-      ArrayDeque<V> newBucket = new ArrayDeque<>(values.size());
-      if (index >= 0) {
-         Iterator<V> ite = values.iterator();
-         int currentIndex = 0;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerLast(value);
-            } else {
-               newBucket.offerLast(element);
-            }
-            currentIndex++;
-         }
-      } else {
-         Iterator<V> ite = values.descendingIterator();
-         int currentIndex = -1;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerFirst(value);
-            } else {
-               newBucket.offerFirst(element);
-            }
-            currentIndex--;
-         }
-      }
-      return new ListBucket<>(newBucket);
+      return new ListBucket<>(values.set((int) (index >= 0 ? index : values.size() + index), value));
    }
 
    public Collection<V> sublist(long from, long to) {
@@ -154,24 +118,12 @@ public Collection<V> sublist(long from, long to) {
          return Collections.emptyList();
       }
 
-      List<V> result = new ArrayList<>();
-      long fromIte = from < 0 ? values.size() + from : from;
-      long toIte = to < 0 ? values.size() + to : to;
+      long fromIte = Math.max(from < 0 ? values.size() + from : from, 0);
+      long toIte = Math.min(to < 0 ? values.size() + to : to, values.size() - 1);
 
-      Iterator<V> ite = values.iterator();
-      int offset = 0;
-      while (ite.hasNext()) {
-         V element = ite.next();
-         if (offset < fromIte) {
-            offset++;
-            continue;
-         }
-         if (offset > toIte) {
-            break;
-         }
-
-         result.add(element);
-         offset++;
+      List<V> result = new ArrayList<>();
+      for (long i = fromIte; i <= toIte; i++) {
+         result.add(values.get((int) i));
       }
       return result;
    }
@@ -196,27 +148,9 @@ public ListBucket<V> trim(long from, long to) {
       long startRemoveCount = from < 0 ? values.size() + from : from;
       long keepCount = (to < 0 ? values.size() + to : to) - startRemoveCount;
 
-      Deque<V> newValues = new ArrayDeque<>(values);
-      Iterator<V> ite = newValues.iterator();
-      while (ite.hasNext() && startRemoveCount > 0) {
-         ite.next();
-         ite.remove();
-         startRemoveCount--;
-      }
-
-      // keep elements
-      while (ite.hasNext() && keepCount >= 0) {
-         ite.next();
-         keepCount--;
-      }
-
-      // remove remaining elements
-      while (ite.hasNext()) {
-         ite.next();
-         ite.remove();
-      }
-
-      return new ListBucket<>(newValues);
+      int start = (int) Math.min(Math.max(startRemoveCount, 0), values.size());
+      int end = keepCount < 0 ? start : (int) Math.min(start + keepCount + 1, values.size());
+      return new ListBucket<>(values.slice(start, end));
    }
 
    public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
@@ -254,7 +188,7 @@ public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
    }
 
    public ListBucket<V> insert(boolean before, V pivot, V element) {
-      Deque<V> newValues = new ArrayDeque<>(values.size() + 1);
+      List<V> newValues = new ArrayList<>(values.size() + 1);
 
       Iterator<V> iterator = values.iterator();
       boolean found = false;
@@ -280,7 +214,7 @@ public ListBucket<V> insert(boolean before, V pivot, V element) {
       if (!found) {
          return null;
       }
-      return new ListBucket<>(newValues);
+      return new ListBucket<>(ChunkedDeque.from(newValues));
    }
 
    public ListBucketResult<Long, V> remove(long count, V element) {
@@ -308,20 +242,23 @@ public ListBucketResult<Long, V> remove(long count, V element) {
          }
       }
 
-      return new ListBucketResult<>(removedElements, new ListBucket<>(newItems));
+      return new ListBucketResult<>(removedElements, new ListBucket<>(ChunkedDeque.from(newItems)));
    }
 
    public ListBucketResult<V, V> rotate(boolean rotateRight) {
-      Deque<V> newItems = new ArrayDeque<>(values);
+      if (values.isEmpty()) {
+         return new ListBucketResult<>(null, this);
+      }
       V element;
+      ChunkedDeque<V> newItems;
       if (rotateRight) {
          // from head to tail
-         element = newItems.pollFirst();
-         newItems.offerLast(element);
+         element = values.getFirst();
+         newItems = values.removeFirst(1).offerLast(Collections.singletonList(element));
       } else {
          // from tail to head
-         element = newItems.pollLast();
-         newItems.offerFirst(element);
+         element = values.getLast();
+         newItems = values.removeLast(1).offerFirst(Collections.singletonList(element));
       }
       return new ListBucketResult<>(element, new ListBucket<>(newItems));
    }
@@ -351,7 +288,7 @@ public List<ScoredValue<V>> sort(SortOptions sortOptions) {
 
    public ListBucket<V> replace(Deque<V> list) {
       if (list != null && !list.isEmpty()) {
-         return new ListBucket<>(list);
+         return new ListBucket<>(ChunkedDeque.from(list));
       }
 
       return new ListBucket<>();
@@ -373,48 +310,20 @@ public ListBucketResult<Collection<V>, V> poll(boolean first, long count) {
          return new ListBucketResult<>(polledValues, new ListBucket<>());
       }
 
-      Deque<V> newItems = new ArrayDeque<>(values);
+      int size = values.size();
       for (int i = 0; i < count; i++) {
-         if (first) {
-            polledValues.add(newItems.pollFirst());
-         } else {
-            polledValues.add(newItems.pollLast());
-         }
+         polledValues.add(values.get(first ? i : size - 1 - i));
       }
+      ChunkedDeque<V> newItems = first ? values.removeFirst((int) count) : values.removeLast((int) count);
       return new ListBucketResult<>(polledValues, new ListBucket<>(newItems));
    }
 
    public V index(long index) {
-      if (index == 0) {
-         return values.element();
-      }
-      if (index == values.size() - 1 || index == -1) {
-         return values.getLast();
-      }
-      V result = null;
-      if (index > 0) {
-         if (index >= values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.iterator();
-         int currentIndex = 0;
-         while (currentIndex++ <= index) {
-            result = iterator.next();
-         }
-      } else {
-         long currentIndex = Math.abs(index);
-         if (currentIndex > values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.descendingIterator();
-         while (currentIndex-- > 0) {
-            result = iterator.next();
-         }
+      long position = index < 0 ? values.size() + index : index;
+      if (position < 0 || position >= values.size()) {
+         return null;
       }
-
-      return result;
+      return values.get((int) position);
    }
 
    @Override
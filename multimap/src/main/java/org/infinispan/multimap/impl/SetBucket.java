@@ -121,27 +121,14 @@ public SetBucketResult<Boolean, V> addAll(Collection<V> values) {
    }
 
    public SetBucketResult<Boolean, V> removeAll(Collection<V> values) {
-      Boolean changed = Boolean.FALSE;
-      Set<MultimapObjectWrapper<V>> existing = new HashSet<>(this.values.size());
-      for (MultimapObjectWrapper<V> value : this.values) {
-         if (contains(values, value)) {
-            changed = Boolean.TRUE;
-            continue;
-         }
-
-         existing.add(value);
+      Set<MultimapObjectWrapper<V>> existing = new HashSet<>(this.values);
+      boolean changed = false;
+      for (V value : values) {
+         changed |= existing.remove(new MultimapObjectWrapper<>(value));
       }
       return new SetBucketResult<>(changed, new SetBucket<>(existing));
    }
 
-   private boolean contains(Collection<V> collection, MultimapObjectWrapper<V> wrapped) {
-      for (V v : collection) {
-         if (wrapped.wrappedEquals(v))
-            return true;
-      }
-      return false;
-   }
-
    @Override
    public Stream<MultimapObjectWrapper<V>> stream() {
       return values.stream();
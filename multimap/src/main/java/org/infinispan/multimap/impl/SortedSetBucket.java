@@ -5,11 +5,9 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
@@ -20,6 +18,8 @@
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+import org.infinispan.multimap.impl.internal.PersistentHashMap;
+import org.infinispan.multimap.impl.internal.PersistentRankedSet;
 import org.infinispan.protostream.annotations.Proto;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -27,14 +27,19 @@
 
 /**
  * Bucket used to store Sorted Set data type.
+ * <p>
+ * Entries are kept in a {@link PersistentRankedSet}, so rank based operations, like finding the index of a member or
+ * reading a range by index, are O(log n). Updates create a new bucket which shares most of its structure with the
+ * previous one, instead of copying all the entries.
  *
  * @author Katia Aresti
  * @since 15.0
  */
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET)
 public class SortedSetBucket<V> implements SortableBucket<V>, BaseSetBucket<V> {
-   private final TreeSet<ScoredValue<V>> scoredEntries;
-   private final Map<MultimapObjectWrapper<V>, Double> entries;
+   // Only modified while building a new bucket, before it is published.
+   private PersistentRankedSet<ScoredValue<V>> scoredEntries;
+   private PersistentHashMap<MultimapObjectWrapper<V>, Double> entries;
 
    @Proto
    @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET_AGGREGATE_FUNCTION)
@@ -98,35 +103,42 @@ public List<ScoredValue<V>> randomMembers(int count) {
          // we allow duplicates and returns count size random entries
          int totalCount = Math.abs(count);
          List<ScoredValue<V>> randomEntries = new ArrayList<>(totalCount);
-         ThreadLocalRandom.current().ints(totalCount, 0, entries.size())
-               .forEach(randomPos -> randomEntries.add(this.subsetByIndex(randomPos, randomPos, false).get(0)));
+         ThreadLocalRandom.current().ints(totalCount, 0, scoredEntries.size())
+               .forEach(randomPos -> randomEntries.add(scoredEntries.get(randomPos)));
          return randomEntries;
       }
 
       // duplicates are not allowed.
-      List<Integer> positions = new ArrayList<>(entries.size());
-      while (positions.size() < entries.size()) {
-         positions.add(positions.size());
+      if (count >= scoredEntries.size()) {
+         List<ScoredValue<V>> randomEntries = new ArrayList<>(scoredEntries);
+         Collections.shuffle(randomEntries);
+         return randomEntries;
       }
-      Collections.shuffle(positions);
 
-      List<ScoredValue<V>> randomEntries = new ArrayList<>();
-      Iterator<Integer> ite = positions.iterator();
-      while (randomEntries.size() < count && randomEntries.size() < entries.size()) {
-         Integer pos = ite.next();
-         randomEntries.add(this.subsetByIndex(pos, pos, false).get(0));
+      Set<Integer> positions = new LinkedHashSet<>();
+      while (positions.size() < count) {
+         positions.add(ThreadLocalRandom.current().nextInt(scoredEntries.size()));
+      }
+      List<ScoredValue<V>> randomEntries = new ArrayList<>(count);
+      for (int pos : positions) {
+         randomEntries.add(scoredEntries.get(pos));
       }
-
       return randomEntries;
    }
 
 
    @ProtoFactory
    SortedSetBucket(Collection<ScoredValue<V>> wrappedValues) {
-      scoredEntries = new TreeSet<>();
-      scoredEntries.addAll(wrappedValues);
-      entries = new HashMap<>();
-      wrappedValues.forEach(e -> entries.put(e.wrappedValue(), e.score()));
+      scoredEntries = PersistentRankedSet.from(wrappedValues);
+      PersistentHashMap.Builder<MultimapObjectWrapper<V>, Double> builder = PersistentHashMap.<MultimapObjectWrapper<V>, Double>empty().toBuilder();
+      wrappedValues.forEach(e -> builder.put(e.wrappedValue(), e.score()));
+      entries = builder.build();
+   }
+
+   private SortedSetBucket(PersistentRankedSet<ScoredValue<V>> scoredEntries,
+                           PersistentHashMap<MultimapObjectWrapper<V>, Double> entries) {
+      this.scoredEntries = scoredEntries;
+      this.entries = entries;
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
@@ -151,8 +163,8 @@ public List<ScoredValue<V>> getScoredEntriesAsList() {
    }
 
    public SortedSetBucket() {
-      this.scoredEntries = new TreeSet<>();
-      this.entries = new HashMap<>();
+      this.scoredEntries = PersistentRankedSet.empty();
+      this.entries = PersistentHashMap.empty();
    }
 
    public SortedSetResult<Collection<ScoredValue<V>>, V> pop(boolean min, long count) {
@@ -160,18 +172,14 @@ public SortedSetResult<Collection<ScoredValue<V>>, V> pop(boolean min, long coun
             ? scoredEntries.iterator()
             : scoredEntries.descendingIterator();
 
-      int i = 0;
       List<ScoredValue<V>> popped = new ArrayList<>();
-      List<ScoredValue<V>> remaining = new ArrayList<>();
-      while (it.hasNext()) {
-         ScoredValue<V> sv = it.next();
-         if (++i > count) {
-            remaining.add(sv);
-         } else {
-            popped.add(sv);
-         }
+      while (popped.size() < count && it.hasNext()) {
+         popped.add(it.next());
+      }
+      if (popped.size() == scoredEntries.size()) {
+         return new SortedSetResult<>(popped, new SortedSetBucket<>());
       }
-      return new SortedSetResult<>(popped, new SortedSetBucket<>(remaining));
+      return new SortedSetResult<>(popped, copy().removeScoredValues(popped));
    }
 
    public List<Double> scores(List<V> members) {
@@ -184,9 +192,9 @@ public IndexValue indexOf(V member, boolean isRev) {
       if (score == null) {
          return null;
       }
-      SortedSet<ScoredValue<V>> tailedHead = scoredEntries.headSet(new ScoredValue<>(score, wrapMember));
-      return isRev? IndexValue.of(score, scoredEntries.size() - tailedHead.size() - 1)
-            : IndexValue.of(score, tailedHead.size());
+      int rank = scoredEntries.countLess(new ScoredValue<>(score, wrapMember));
+      return isRev? IndexValue.of(score, scoredEntries.size() - rank - 1)
+            : IndexValue.of(score, rank);
    }
 
    public SortedSetBucket<V> replace(Collection<ScoredValue<V>> scoredValues) {
@@ -206,7 +214,7 @@ public SortedSetResult<AddOrUpdatesCounters, V> addMany(Collection<ScoredValue<V
                                        boolean updateGreaterScoresOnly) {
 
       AddOrUpdatesCounters addResult = new AddOrUpdatesCounters();
-      SortedSetBucket<V> next = new SortedSetBucket<>(scoredEntries);
+      SortedSetBucket<V> next = copy();
       long startSize = next.size();
 
       for (ScoredValue<V> scoredValue : scoredValues) {
@@ -245,7 +253,7 @@ public SortedSetResult<Double, V> incrScore(double incr, V member, boolean addOn
             throw new IllegalStateException("resulting score is not a number (NaN)");
       }
 
-      SortedSetBucket<V> next = new SortedSetBucket<>(scoredEntries);
+      SortedSetBucket<V> next = copy();
       next.addOrUpdate(new AddOrUpdatesCounters(), new ScoredValue<>(newScore, wrappedValue));
       return new SortedSetResult<>(newScore, next);
    }
@@ -298,14 +306,28 @@ private void addOrUpdate(AddOrUpdatesCounters addResult, ScoredValue<V> scoredVa
 
    private void updateScoredValue(ScoredValue<V> newScoredValue, Double existingScore) {
       ScoredValue<V> oldScoredValue = new ScoredValue<>(existingScore, newScoredValue.wrappedValue());
-      scoredEntries.remove(oldScoredValue);
-      scoredEntries.add(newScoredValue);
-      entries.put(newScoredValue.wrappedValue(), newScoredValue.score());
+      scoredEntries = scoredEntries.without(oldScoredValue).with(newScoredValue);
+      entries = entries.with(newScoredValue.wrappedValue(), newScoredValue.score());
    }
 
    private void addScoredValue(ScoredValue<V> scoredValue) {
-      scoredEntries.add(scoredValue);
-      entries.put(scoredValue.wrappedValue(), scoredValue.score());
+      scoredEntries = scoredEntries.with(scoredValue);
+      entries = entries.with(scoredValue.wrappedValue(), scoredValue.score());
+   }
+
+   private SortedSetBucket<V> removeScoredValues(Collection<ScoredValue<V>> scoredValues) {
+      for (ScoredValue<V> scoredValue : scoredValues) {
+         scoredEntries = scoredEntries.without(scoredValue);
+         entries = entries.without(scoredValue.wrappedValue());
+      }
+      return this;
+   }
+
+   /**
+    * @return a bucket sharing the entries of this one, which can be modified before being published.
+    */
+   private SortedSetBucket<V> copy() {
+      return new SortedSetBucket<>(scoredEntries, entries);
    }
 
    public SortedSetResult<Long, V> removeAll(Collection<V> values) {
@@ -338,12 +360,9 @@ private SortedSetResult<Long, V> removeAllInternal(Collection<ScoredValue<V>> su
       if (subset.isEmpty())
          return new SortedSetResult<>(0L, this);
 
-      List<ScoredValue<V>> remaining = new ArrayList<>(scoredEntries.size());
-      for (ScoredValue<V> sv : scoredEntries) {
-         if (!subset.contains(sv)) remaining.add(sv);
-      }
-      long size = subset.size();
-      return new SortedSetResult<>(size, new SortedSetBucket<>(remaining));
+      SortedSetBucket<V> next = copy().removeScoredValues(subset);
+      long size = scoredEntries.size() - next.scoredEntries.size();
+      return new SortedSetResult<>(size, next);
    }
 
    public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
@@ -355,36 +374,26 @@ public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
          return Collections.emptyList();
       }
 
-      long fromIte = from < 0 ? scoredEntries.size() + from : from;
-      long toIte = to < 0 ? scoredEntries.size() + to : to;
+      int size = scoredEntries.size();
+      long fromIte = Math.max(from < 0 ? size + from : from, 0);
+      long toIte = Math.min(to < 0 ? size + to : to, size - 1);
 
       if (fromIte > toIte) {
          return Collections.emptyList();
       }
 
-      List<ScoredValue<V>> results = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite;
-      if (rev) {
-         ite = scoredEntries.descendingIterator();
-      } else {
-         ite = scoredEntries.iterator();
-      }
-
-      long pos = 0;
-      while ((pos < fromIte) && ite.hasNext()) {
-         ite.next();
-         pos++;
-      }
+      List<ScoredValue<V>> results = new ArrayList<>((int) (toIte - fromIte + 1));
+      Iterator<ScoredValue<V>> ite = rev
+            ? scoredEntries.descendingIterator((int) (size - 1 - fromIte))
+            : scoredEntries.iterator((int) fromIte);
 
-      while ((pos <= toIte) && ite.hasNext()) {
+      for (long pos = fromIte; pos <= toIte; pos++) {
          results.add(ite.next());
-         pos++;
       }
 
       return results;
    }
 
-   @SuppressWarnings({ "unchecked", "rawtypes" })
    public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Double stopScore, boolean includeStop, boolean isRev, Long offset, Long count) {
       if ((stopScore != null && stopScore.equals(startScore) && (!includeStart || !includeStop)) || (count != null && count == 0) || (offset != null && offset.equals(entries.size()))) {
          return Collections.emptyList();
@@ -398,7 +407,7 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
       boolean unboundedMax = max == null || max == Double.MAX_VALUE;
 
       if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+         return applyLimit(0, scoredEntries.size(), offset, count, isRev);
       }
 
       ScoredValue<V> startSv;
@@ -407,12 +416,12 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
          startSv = scoredEntries.first();
       } else {
          if (includeMin) {
-            startSv = scoredEntries.lower(ScoredValue.of(min));
+            startSv = lower(ScoredValue.of(min));
             if (startSv == null) {
                startSv = scoredEntries.first();
             }
          } else {
-            startSv = scoredEntries.higher(ScoredValue.of(min));
+            startSv = higher(ScoredValue.of(min));
             if (startSv == null) {
                startSv = scoredEntries.last();
             }
@@ -423,9 +432,9 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
          stopSv = scoredEntries.last();
       } else {
          if (includeMax) {
-            stopSv = scoredEntries.higher(ScoredValue.of(max));
+            stopSv = higher(ScoredValue.of(max));
          } else {
-            stopSv = scoredEntries.lower(ScoredValue.of(max));
+            stopSv = lower(ScoredValue.of(max));
          }
 
          if (stopSv == null) {
@@ -437,13 +446,13 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
          return Collections.emptyList();
       }
 
-      NavigableSet<ScoredValue<V>> subset = scoredEntries.subSet(
-            startSv,
-            unboundedMin || (startSv.score() > min || (includeMin && startSv.score().equals(min))),
-            stopSv,
-            unboundedMax || (stopSv.score() < max || (includeMax && stopSv.score().equals(max))));
+      boolean includeStartSv = unboundedMin || (startSv.score() > min || (includeMin && startSv.score().equals(min)));
+      boolean includeStopSv = unboundedMax || (stopSv.score() < max || (includeMax && stopSv.score().equals(max)));
+      int startRank = scoredEntries.countLess(startSv);
+      int stopRank = scoredEntries.countLess(stopSv);
 
-      return applyLimit(subset, offset, count, isRev);
+      return applyLimit(includeStartSv ? startRank : startRank + 1, includeStopSv ? stopRank + 1 : stopRank,
+            offset, count, isRev);
    }
 
    public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopValue, boolean includeStop, boolean isRev, Long offset, Long count) {
@@ -459,7 +468,7 @@ public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopVal
       boolean unboundedMax = maxValue == null;
 
       if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+         return applyLimit(0, scoredEntries.size(), offset, count, isRev);
       }
       // if all the scoredEntries have the same score, then we can pick up first score for lex
       // when all the entries don't have the same score, this method can't work. This is the expected behaviour.
@@ -468,56 +477,48 @@ public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopVal
       ScoredValue<V> minScoredValue = ScoredValue.of(score, minValue);
       ScoredValue<V> maxScoredValue = ScoredValue.of(score, maxValue);
 
-      if (unboundedMin) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.headSet(maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      }
+      int fromRank = unboundedMin ? 0
+            : includeMin ? scoredEntries.countLess(minScoredValue) : scoredEntries.countLessOrEqual(minScoredValue);
+      int toRank = unboundedMax ? scoredEntries.size()
+            : includeMax ? scoredEntries.countLessOrEqual(maxScoredValue) : scoredEntries.countLess(maxScoredValue);
+      return applyLimit(fromRank, toRank, offset, count, isRev);
+   }
 
-      if (unboundedMax) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.tailSet(minScoredValue, includeMin);
-         return applyLimit(entries, offset, count, isRev);
-      }
+   private ScoredValue<V> lower(ScoredValue<V> probe) {
+      int rank = scoredEntries.countLess(probe);
+      return rank > 0 ? scoredEntries.get(rank - 1) : null;
+   }
 
-      try {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.subSet(minScoredValue, includeMin, maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      } catch (IllegalArgumentException e) {
-         return Collections.emptyList();
-      }
+   private ScoredValue<V> higher(ScoredValue<V> probe) {
+      int rank = scoredEntries.countLessOrEqual(probe);
+      return rank < scoredEntries.size() ? scoredEntries.get(rank) : null;
    }
 
-   private List<ScoredValue<V>> applyLimit(NavigableSet<ScoredValue<V>> subset, final Long offset, final Long count, boolean isRev) {
-      if (!isLimited(offset, count)) {
-         List<ScoredValue<V>> result = new ArrayList<>(entries.size());
-         Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-         while (ite.hasNext()) {
-            result.add(ite.next());
+   /**
+    * Reads the entries with rank from {@code fromRank}, inclusive, to {@code toRank}, exclusive, applying the offset
+    * and count in the iteration order.
+    */
+   private List<ScoredValue<V>> applyLimit(int fromRank, int toRank, final Long offset, final Long count, boolean isRev) {
+      long length = toRank - fromRank;
+      if (isLimited(offset, count)) {
+         length -= Math.max(offset, 0);
+         if (count >= 0) {
+            length = Math.min(length, count);
          }
-         return result;
       }
-
-      List<ScoredValue<V>> result = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-      if (count < 0) {
-         skipOffset(offset, ite);
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-      } else {
-         skipOffset(offset, ite);
-         long localCount = 0;
-         while (ite.hasNext() && localCount++ < count) {
-            result.add(ite.next());
-         }
+      if (length <= 0) {
+         return Collections.emptyList();
       }
-      return result;
-   }
 
-   private void skipOffset(Long offset, Iterator<ScoredValue<V>> ite) {
-      long localOffset = 0;
-      while (localOffset++ < offset && ite.hasNext()) {
-         ite.next();
+      long skip = isLimited(offset, count) ? Math.max(offset, 0) : 0;
+      Iterator<ScoredValue<V>> ite = isRev
+            ? scoredEntries.descendingIterator((int) (toRank - 1 - skip))
+            : scoredEntries.iterator((int) (fromRank + skip));
+      List<ScoredValue<V>> result = new ArrayList<>((int) length);
+      for (long i = 0; i < length; i++) {
+         result.add(ite.next());
       }
+      return result;
    }
 
    private static boolean isLimited(Long offset, Long count) {
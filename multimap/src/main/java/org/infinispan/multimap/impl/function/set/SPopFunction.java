@@ -9,6 +9,7 @@
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.functional.EntryView;
+import org.infinispan.marshall.protostream.impl.MarshallableCollection;
 import org.infinispan.multimap.impl.SetBucket;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -18,6 +19,10 @@
  * Serializable function used by
  * {@link org.infinispan.multimap.impl.EmbeddedSetCache#remove}
  * to remove elements to a Set.
+ * <p>
+ * The elements to remove are chosen randomly by the first owner applying the function. They are then recorded in
+ * the function, so the backup owners, which receive this function instance, remove the same elements instead of
+ * choosing their own.
  *
  * @author Vittorio Rigamonti
  * @see <a href="https://infinispan.org/documentation/">Marshalling of
@@ -33,12 +38,24 @@
    @ProtoField(2)
    final boolean remove;
 
-   @ProtoFactory
+   private Collection<V> popped;
+
    public SPopFunction(long count, boolean remove) {
       this.count = count;
       this.remove = remove;
    }
 
+   @ProtoFactory
+   SPopFunction(long count, boolean remove, MarshallableCollection<V> popped) {
+      this(count, remove);
+      this.popped = MarshallableCollection.unwrap(popped);
+   }
+
+   @ProtoField(3)
+   MarshallableCollection<V> getPopped() {
+      return MarshallableCollection.create(popped);
+   }
+
    @Override
    public Collection<V> apply(EntryView.ReadWriteEntryView<K, SetBucket<V>> entryView) {
       Optional<SetBucket<V>> existing = entryView.peek();
@@ -47,7 +64,9 @@ public Collection<V> apply(EntryView.ReadWriteEntryView<K, SetBucket<V>> entryVi
       }
       var s = existing.get();
       if (count > 0) {
-         var popped = getRandomSubset(s.toList(), count);
+         if (popped == null) {
+            popped = getRandomSubset(s.toList(), count);
+         }
          if (remove) {
             var result = s.removeAll(popped);
             s = result.bucket();
@@ -0,0 +1,234 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable deque stored as a sequence of fixed size chunks.
+ * <p>
+ * Every update returns a new deque which shares the untouched chunks with the previous version. Only the first and
+ * the last chunks can be partially filled, so positional access is O(1). Adding or removing elements at either end
+ * copies at most the chunk being modified plus the chunk index, which is {@link #CHUNK_SIZE} times smaller than the
+ * deque itself. Slicing never copies any chunk.
+ * <p>
+ * Chunks are never modified after being published. Slots outside the range of a deque may still hold references
+ * to elements removed from it, until the chunk itself is dropped.
+ *
+ * @param <V>: Type of the elements.
+ * @since 16.3
+ */
+public final class ChunkedDeque<V> extends AbstractCollection<V> {
+
+   static final int CHUNK_SIZE = 64;
+
+   @SuppressWarnings("rawtypes")
+   private static final ChunkedDeque EMPTY = new ChunkedDeque<>(new Object[0][], 0, 0);
+
+   private final Object[][] chunks;
+   // Position of the first element in the first chunk.
+   private final int head;
+   private final int size;
+
+   private ChunkedDeque(Object[][] chunks, int head, int size) {
+      this.chunks = chunks;
+      this.head = head;
+      this.size = size;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <V> ChunkedDeque<V> empty() {
+      return EMPTY;
+   }
+
+   public static <V> ChunkedDeque<V> from(Collection<? extends V> values) {
+      return ChunkedDeque.<V>empty().offerLast(values);
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * @return the element at the given position, from 0 to {@code size() - 1}.
+    */
+   @SuppressWarnings("unchecked")
+   public V get(int index) {
+      checkIndex(index);
+      int position = head + index;
+      return (V) chunks[position / CHUNK_SIZE][position % CHUNK_SIZE];
+   }
+
+   public V getFirst() {
+      if (size == 0) throw new NoSuchElementException();
+      return get(0);
+   }
+
+   public V getLast() {
+      if (size == 0) throw new NoSuchElementException();
+      return get(size - 1);
+   }
+
+   /**
+    * @return a deque with the element at the given position replaced.
+    */
+   public ChunkedDeque<V> set(int index, V value) {
+      checkIndex(index);
+      int position = head + index;
+      Object[][] newChunks = chunks.clone();
+      Object[] chunk = newChunks[position / CHUNK_SIZE].clone();
+      chunk[position % CHUNK_SIZE] = value;
+      newChunks[position / CHUNK_SIZE] = chunk;
+      return new ChunkedDeque<>(newChunks, head, size);
+   }
+
+   /**
+    * Adds the values at the head of the deque, one after the other, so the last value becomes the first element.
+    */
+   public ChunkedDeque<V> offerFirst(Collection<? extends V> values) {
+      int count = values.size();
+      if (count == 0) return this;
+
+      int newHead = head - count;
+      int extra = newHead < 0 ? ceilDiv(-newHead, CHUNK_SIZE) : 0;
+      Object[][] newChunks = new Object[extra + chunks.length][];
+      System.arraycopy(chunks, 0, newChunks, extra, chunks.length);
+
+      ChunkWriter writer = new ChunkWriter(newChunks);
+      int position = head + extra * CHUNK_SIZE;
+      for (V value : values) {
+         writer.write(--position, value);
+      }
+      return new ChunkedDeque<>(newChunks, position, size + count);
+   }
+
+   /**
+    * Adds the values at the tail of the deque, keeping their iteration order.
+    */
+   public ChunkedDeque<V> offerLast(Collection<? extends V> values) {
+      int count = values.size();
+      if (count == 0) return this;
+
+      int end = head + size;
+      Object[][] newChunks = Arrays.copyOf(chunks, ceilDiv(end + count, CHUNK_SIZE));
+
+      ChunkWriter writer = new ChunkWriter(newChunks);
+      int position = end;
+      for (V value : values) {
+         writer.write(position++, value);
+      }
+      return new ChunkedDeque<>(newChunks, head, size + count);
+   }
+
+   /**
+    * @return a deque without the first {@code count} elements.
+    */
+   public ChunkedDeque<V> removeFirst(int count) {
+      return slice(Math.min(count, size), size);
+   }
+
+   /**
+    * @return a deque without the last {@code count} elements.
+    */
+   public ChunkedDeque<V> removeLast(int count) {
+      return slice(0, Math.max(size - count, 0));
+   }
+
+   /**
+    * @return a deque with the elements from position {@code from}, inclusive, to {@code to}, exclusive.
+    */
+   public ChunkedDeque<V> slice(int from, int to) {
+      if (from < 0 || to > size || from > to) {
+         throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+      }
+      if (from == to) return empty();
+      if (from == 0 && to == size) return this;
+
+      int start = head + from;
+      int end = head + to;
+      Object[][] newChunks = Arrays.copyOfRange(chunks, start / CHUNK_SIZE, ceilDiv(end, CHUNK_SIZE));
+      return new ChunkedDeque<>(newChunks, start % CHUNK_SIZE, to - from);
+   }
+
+   @Override
+   public Iterator<V> iterator() {
+      return new Iterator<>() {
+         private int index;
+
+         @Override
+         public boolean hasNext() {
+            return index < size;
+         }
+
+         @Override
+         public V next() {
+            if (index >= size) throw new NoSuchElementException();
+            return get(index++);
+         }
+      };
+   }
+
+   public Iterator<V> descendingIterator() {
+      return new Iterator<>() {
+         private int index = size - 1;
+
+         @Override
+         public boolean hasNext() {
+            return index >= 0;
+         }
+
+         @Override
+         public V next() {
+            if (index < 0) throw new NoSuchElementException();
+            return get(index--);
+         }
+      };
+   }
+
+   private void checkIndex(int index) {
+      if (index < 0 || index >= size) {
+         throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+      }
+   }
+
+   private static int ceilDiv(int x, int y) {
+      return -Math.floorDiv(-x, y);
+   }
+
+   /**
+    * Writes elements into a new chunk index. Missing chunks are allocated and chunks shared with other deques are
+    * copied the first time they are written.
+    */
+   private static final class ChunkWriter {
+      private final Object[][] chunks;
+      private final boolean[] owned;
+
+      ChunkWriter(Object[][] chunks) {
+         this.chunks = chunks;
+         this.owned = new boolean[chunks.length];
+      }
+
+      void write(int position, Object value) {
+         int index = position / CHUNK_SIZE;
+         Object[] chunk = chunks[index];
+         if (chunk == null) {
+            chunk = new Object[CHUNK_SIZE];
+            chunks[index] = chunk;
+            owned[index] = true;
+         } else if (!owned[index]) {
+            chunk = chunk.clone();
+            chunks[index] = chunk;
+            owned[index] = true;
+         }
+         chunk[position % CHUNK_SIZE] = value;
+      }
+   }
+}
@@ -0,0 +1,615 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash map with structural sharing.
+ * <p>
+ * The map is a compressed hash-array mapped prefix tree (CHAMP). Every update returns a new map which shares all the
+ * untouched nodes with the previous version, so an update costs O(log<sub>32</sub> n) allocations instead of copying
+ * the whole map. Previous versions are never modified, which makes the map a good fit for the copy-on-write semantics
+ * of the multimap buckets.
+ * <p>
+ * Bulk updates should go through a {@link Builder}, which mutates the nodes it has created in place and only copies
+ * the nodes shared with the source map.
+ * <p>
+ * Keys must not be {@code null}, values can be {@code null}. The {@link Map} mutators inherited from
+ * {@link AbstractMap} throw {@link UnsupportedOperationException}.
+ *
+ * @param <K>: Type of the keys.
+ * @param <V>: Type of the values.
+ * @since 16.3
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+   private static final int BITS_PER_LEVEL = 5;
+   private static final int HASH_BITS = 32;
+   private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+   private static final Object NOT_FOUND = new Object();
+
+   @SuppressWarnings("rawtypes")
+   private static final PersistentHashMap EMPTY = new PersistentHashMap<>(new BitmapNode<>(null, 0, 0, new Object[0]), 0);
+
+   private final Node<K, V> root;
+   private final int size;
+   private Set<Entry<K, V>> entrySet;
+
+   private PersistentHashMap(Node<K, V> root, int size) {
+      this.root = root;
+      this.size = size;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <K, V> PersistentHashMap<K, V> empty() {
+      return EMPTY;
+   }
+
+   public static <K, V> PersistentHashMap<K, V> from(Map<? extends K, ? extends V> map) {
+      Builder<K, V> builder = PersistentHashMap.<K, V>empty().toBuilder();
+      for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+         builder.put(entry.getKey(), entry.getValue());
+      }
+      return builder.build();
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public V get(Object key) {
+      Object value = root.find(key, hash(key), 0);
+      return value == NOT_FOUND ? null : (V) value;
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return root.find(key, hash(key), 0) != NOT_FOUND;
+   }
+
+   /**
+    * @return a map with the given mapping added or replaced. Returns this instance if the key is already mapped to
+    * the same value instance.
+    */
+   public PersistentHashMap<K, V> with(K key, V value) {
+      Change change = new Change();
+      Node<K, V> newRoot = root.put(null, key, value, hash(key), 0, change);
+      if (!change.modified) return this;
+      return new PersistentHashMap<>(newRoot, change.added ? size + 1 : size);
+   }
+
+   /**
+    * @return a map without the mapping for the given key. Returns this instance if the key is not present.
+    */
+   public PersistentHashMap<K, V> without(Object key) {
+      Change change = new Change();
+      Node<K, V> newRoot = root.remove(null, key, hash(key), 0, change);
+      if (!change.modified) return this;
+      return new PersistentHashMap<>(newRoot, size - 1);
+   }
+
+   /**
+    * @return a builder initialized with the contents of this map. The map itself is not affected by the builder.
+    */
+   public Builder<K, V> toBuilder() {
+      return new Builder<>(root, size);
+   }
+
+   @Override
+   public void forEach(BiConsumer<? super K, ? super V> action) {
+      root.forEach(action);
+   }
+
+   @Override
+   public Set<Entry<K, V>> entrySet() {
+      Set<Entry<K, V>> es = entrySet;
+      if (es == null) {
+         es = new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+               return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+               return size;
+            }
+         };
+         entrySet = es;
+      }
+      return es;
+   }
+
+   private static int hash(Object key) {
+      return Objects.hashCode(key);
+   }
+
+   private static int mask(int hash, int shift) {
+      return (hash >>> shift) & LEVEL_MASK;
+   }
+
+   private static int bitpos(int hash, int shift) {
+      return 1 << mask(hash, shift);
+   }
+
+   /**
+    * Mutable view used to apply several updates before creating a new {@link PersistentHashMap}.
+    * <p>
+    * The builder is not thread-safe and must not be used after {@link #build()} is invoked.
+    */
+   public static final class Builder<K, V> {
+      private Object owner = new Object();
+      private Node<K, V> root;
+      private int size;
+
+      private Builder(Node<K, V> root, int size) {
+         this.root = root;
+         this.size = size;
+      }
+
+      /**
+       * @return {@code true} if the key was not mapped before, {@code false} if its value was replaced.
+       */
+      public boolean put(K key, V value) {
+         Change change = new Change();
+         root = root.put(ensureOwner(), key, value, hash(key), 0, change);
+         if (change.added) size++;
+         return change.added;
+      }
+
+      /**
+       * @return {@code true} if the key was present and has been removed.
+       */
+      public boolean remove(Object key) {
+         Change change = new Change();
+         root = root.remove(ensureOwner(), key, hash(key), 0, change);
+         if (change.modified) size--;
+         return change.modified;
+      }
+
+      public boolean containsKey(Object key) {
+         return root.find(key, hash(key), 0) != NOT_FOUND;
+      }
+
+      public int size() {
+         return size;
+      }
+
+      public PersistentHashMap<K, V> build() {
+         ensureOwner();
+         owner = null;
+         return size == 0 ? empty() : new PersistentHashMap<>(root, size);
+      }
+
+      private Object ensureOwner() {
+         if (owner == null) throw new IllegalStateException("Builder already used");
+         return owner;
+      }
+   }
+
+   private static final class Change {
+      boolean modified;
+      boolean added;
+   }
+
+   private abstract static class Node<K, V> {
+      abstract Object find(Object key, int hash, int shift);
+
+      abstract Node<K, V> put(Object owner, K key, V value, int hash, int shift, Change change);
+
+      abstract Node<K, V> remove(Object owner, Object key, int hash, int shift, Change change);
+
+      abstract int payloadArity();
+
+      abstract K keyAt(int index);
+
+      abstract V valueAt(int index);
+
+      abstract int nodeArity();
+
+      abstract Node<K, V> nodeAt(int index);
+
+      abstract void forEach(BiConsumer<? super K, ? super V> action);
+
+      final boolean isSingleton() {
+         return payloadArity() == 1 && nodeArity() == 0;
+      }
+   }
+
+   /**
+    * Node with the inline entries first, as key-value pairs, followed by the sub-nodes. The positions of both are
+    * defined by the {@link #dataMap} and {@link #nodeMap} bitmaps.
+    * <p>
+    * Nodes with an {@link #owner} can be mutated in place by the {@link Builder} holding the same owner instance.
+    */
+   private static final class BitmapNode<K, V> extends Node<K, V> {
+      private final Object owner;
+      private int dataMap;
+      private int nodeMap;
+      private Object[] content;
+
+      BitmapNode(Object owner, int dataMap, int nodeMap, Object[] content) {
+         this.owner = owner;
+         this.dataMap = dataMap;
+         this.nodeMap = nodeMap;
+         this.content = content;
+      }
+
+      @Override
+      Object find(Object key, int hash, int shift) {
+         int bit = bitpos(hash, shift);
+         if ((dataMap & bit) != 0) {
+            int index = dataIndex(bit);
+            return Objects.equals(key, content[2 * index]) ? content[2 * index + 1] : NOT_FOUND;
+         }
+         if ((nodeMap & bit) != 0) {
+            return nodeFor(bit).find(key, hash, shift + BITS_PER_LEVEL);
+         }
+         return NOT_FOUND;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      Node<K, V> put(Object owner, K key, V value, int hash, int shift, Change change) {
+         int bit = bitpos(hash, shift);
+         if ((dataMap & bit) != 0) {
+            int index = dataIndex(bit);
+            K currentKey = (K) content[2 * index];
+            if (Objects.equals(currentKey, key)) {
+               if (content[2 * index + 1] == value) return this;
+               change.modified = true;
+               return copyAndSetValue(owner, index, value);
+            }
+            V currentValue = (V) content[2 * index + 1];
+            Node<K, V> sub = mergeTwo(owner, currentKey, currentValue, hash(currentKey), key, value, hash, shift + BITS_PER_LEVEL);
+            change.modified = true;
+            change.added = true;
+            return copyAndMigrateFromInlineToNode(owner, bit, sub);
+         }
+         if ((nodeMap & bit) != 0) {
+            Node<K, V> sub = nodeFor(bit);
+            Node<K, V> newSub = sub.put(owner, key, value, hash, shift + BITS_PER_LEVEL, change);
+            if (!change.modified) return this;
+            return copyAndSetNode(owner, bit, newSub);
+         }
+         change.modified = true;
+         change.added = true;
+         return copyAndInsertValue(owner, bit, key, value);
+      }
+
+      @Override
+      Node<K, V> remove(Object owner, Object key, int hash, int shift, Change change) {
+         int bit = bitpos(hash, shift);
+         if ((dataMap & bit) != 0) {
+            int index = dataIndex(bit);
+            if (!Objects.equals(content[2 * index], key)) return this;
+            change.modified = true;
+            if (payloadArity() == 2 && nodeArity() == 0) {
+               // The remaining entry is either inlined by the parent or this node becomes the root.
+               int remaining = index == 0 ? 1 : 0;
+               Object remainingKey = content[2 * remaining];
+               int newDataMap = shift == 0 ? dataMap ^ bit : bitpos(hash(remainingKey), 0);
+               return new BitmapNode<>(owner, newDataMap, 0, new Object[]{remainingKey, content[2 * remaining + 1]});
+            }
+            return copyAndRemoveValue(owner, bit, index);
+         }
+         if ((nodeMap & bit) != 0) {
+            Node<K, V> sub = nodeFor(bit);
+            Node<K, V> newSub = sub.remove(owner, key, hash, shift + BITS_PER_LEVEL, change);
+            if (!change.modified) return this;
+            if (newSub.isSingleton()) {
+               if (payloadArity() == 0 && nodeArity() == 1) {
+                  // Propagate the single entry upwards.
+                  return newSub;
+               }
+               return copyAndMigrateFromNodeToInline(owner, bit, newSub);
+            }
+            return copyAndSetNode(owner, bit, newSub);
+         }
+         return this;
+      }
+
+      @Override
+      int payloadArity() {
+         return Integer.bitCount(dataMap);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      K keyAt(int index) {
+         return (K) content[2 * index];
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      V valueAt(int index) {
+         return (V) content[2 * index + 1];
+      }
+
+      @Override
+      int nodeArity() {
+         return Integer.bitCount(nodeMap);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      Node<K, V> nodeAt(int index) {
+         return (Node<K, V>) content[2 * payloadArity() + index];
+      }
+
+      @Override
+      void forEach(BiConsumer<? super K, ? super V> action) {
+         int payload = payloadArity();
+         for (int i = 0; i < payload; i++) {
+            action.accept(keyAt(i), valueAt(i));
+         }
+         int nodes = nodeArity();
+         for (int i = 0; i < nodes; i++) {
+            nodeAt(i).forEach(action);
+         }
+      }
+
+      private int dataIndex(int bit) {
+         return Integer.bitCount(dataMap & (bit - 1));
+      }
+
+      private int nodeIndex(int bit) {
+         return Integer.bitCount(nodeMap & (bit - 1));
+      }
+
+      private Node<K, V> nodeFor(int bit) {
+         return nodeAt(nodeIndex(bit));
+      }
+
+      private boolean isEditable(Object owner) {
+         return owner != null && owner == this.owner;
+      }
+
+      private Node<K, V> update(Object owner, int dataMap, int nodeMap, Object[] content) {
+         if (isEditable(owner)) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+            return this;
+         }
+         return new BitmapNode<>(owner, dataMap, nodeMap, content);
+      }
+
+      private Node<K, V> copyAndSetValue(Object owner, int index, V value) {
+         if (isEditable(owner)) {
+            content[2 * index + 1] = value;
+            return this;
+         }
+         Object[] dst = content.clone();
+         dst[2 * index + 1] = value;
+         return new BitmapNode<>(owner, dataMap, nodeMap, dst);
+      }
+
+      private Node<K, V> copyAndSetNode(Object owner, int bit, Node<K, V> node) {
+         int index = 2 * payloadArity() + nodeIndex(bit);
+         if (isEditable(owner)) {
+            content[index] = node;
+            return this;
+         }
+         if (content[index] == node) return this;
+         Object[] dst = content.clone();
+         dst[index] = node;
+         return new BitmapNode<>(owner, dataMap, nodeMap, dst);
+      }
+
+      private Node<K, V> copyAndInsertValue(Object owner, int bit, K key, V value) {
+         int index = 2 * dataIndex(bit);
+         Object[] dst = new Object[content.length + 2];
+         System.arraycopy(content, 0, dst, 0, index);
+         dst[index] = key;
+         dst[index + 1] = value;
+         System.arraycopy(content, index, dst, index + 2, content.length - index);
+         return update(owner, dataMap | bit, nodeMap, dst);
+      }
+
+      private Node<K, V> copyAndRemoveValue(Object owner, int bit, int index) {
+         int offset = 2 * index;
+         Object[] dst = new Object[content.length - 2];
+         System.arraycopy(content, 0, dst, 0, offset);
+         System.arraycopy(content, offset + 2, dst, offset, content.length - offset - 2);
+         return update(owner, dataMap ^ bit, nodeMap, dst);
+      }
+
+      private Node<K, V> copyAndMigrateFromInlineToNode(Object owner, int bit, Node<K, V> node) {
+         int oldIndex = 2 * dataIndex(bit);
+         // Index of the node once the pair is removed from the payload section.
+         int newIndex = 2 * (payloadArity() - 1) + nodeIndex(bit);
+         Object[] dst = new Object[content.length - 1];
+         System.arraycopy(content, 0, dst, 0, oldIndex);
+         System.arraycopy(content, oldIndex + 2, dst, oldIndex, newIndex - oldIndex);
+         dst[newIndex] = node;
+         System.arraycopy(content, newIndex + 2, dst, newIndex + 1, content.length - newIndex - 2);
+         return update(owner, dataMap ^ bit, nodeMap | bit, dst);
+      }
+
+      private Node<K, V> copyAndMigrateFromNodeToInline(Object owner, int bit, Node<K, V> node) {
+         int oldIndex = 2 * payloadArity() + nodeIndex(bit);
+         int newIndex = 2 * dataIndex(bit);
+         Object[] dst = new Object[content.length + 1];
+         System.arraycopy(content, 0, dst, 0, newIndex);
+         dst[newIndex] = node.keyAt(0);
+         dst[newIndex + 1] = node.valueAt(0);
+         System.arraycopy(content, newIndex, dst, newIndex + 2, oldIndex - newIndex);
+         System.arraycopy(content, oldIndex + 1, dst, oldIndex + 2, content.length - oldIndex - 1);
+         return update(owner, dataMap | bit, nodeMap ^ bit, dst);
+      }
+   }
+
+   /**
+    * Node for keys with the same 32-bit hash code, only present below the last level of {@link BitmapNode}s.
+    */
+   private static final class CollisionNode<K, V> extends Node<K, V> {
+      private final Object owner;
+      private final int hash;
+      private Object[] content;
+
+      CollisionNode(Object owner, int hash, Object[] content) {
+         this.owner = owner;
+         this.hash = hash;
+         this.content = content;
+      }
+
+      @Override
+      Object find(Object key, int hash, int shift) {
+         int index = indexOf(key);
+         return index < 0 ? NOT_FOUND : content[index + 1];
+      }
+
+      @Override
+      Node<K, V> put(Object owner, K key, V value, int hash, int shift, Change change) {
+         int index = indexOf(key);
+         if (index >= 0) {
+            if (content[index + 1] == value) return this;
+            change.modified = true;
+            Object[] dst = isEditable(owner) ? content : content.clone();
+            dst[index + 1] = value;
+            return update(owner, dst);
+         }
+         change.modified = true;
+         change.added = true;
+         Object[] dst = new Object[content.length + 2];
+         System.arraycopy(content, 0, dst, 0, content.length);
+         dst[content.length] = key;
+         dst[content.length + 1] = value;
+         return update(owner, dst);
+      }
+
+      @Override
+      Node<K, V> remove(Object owner, Object key, int hash, int shift, Change change) {
+         int index = indexOf(key);
+         if (index < 0) return this;
+         change.modified = true;
+         if (content.length == 4) {
+            int remaining = index == 0 ? 2 : 0;
+            return new BitmapNode<>(owner, bitpos(this.hash, 0), 0, new Object[]{content[remaining], content[remaining + 1]});
+         }
+         Object[] dst = new Object[content.length - 2];
+         System.arraycopy(content, 0, dst, 0, index);
+         System.arraycopy(content, index + 2, dst, index, content.length - index - 2);
+         return update(owner, dst);
+      }
+
+      @Override
+      int payloadArity() {
+         return content.length / 2;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      K keyAt(int index) {
+         return (K) content[2 * index];
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      V valueAt(int index) {
+         return (V) content[2 * index + 1];
+      }
+
+      @Override
+      int nodeArity() {
+         return 0;
+      }
+
+      @Override
+      Node<K, V> nodeAt(int index) {
+         throw new IndexOutOfBoundsException(index);
+      }
+
+      @Override
+      void forEach(BiConsumer<? super K, ? super V> action) {
+         for (int i = 0; i < content.length; i += 2) {
+            action.accept(keyAt(i / 2), valueAt(i / 2));
+         }
+      }
+
+      private int indexOf(Object key) {
+         for (int i = 0; i < content.length; i += 2) {
+            if (Objects.equals(key, content[i])) return i;
+         }
+         return -1;
+      }
+
+      private boolean isEditable(Object owner) {
+         return owner != null && owner == this.owner;
+      }
+
+      private Node<K, V> update(Object owner, Object[] content) {
+         if (isEditable(owner)) {
+            this.content = content;
+            return this;
+         }
+         return new CollisionNode<>(owner, hash, content);
+      }
+   }
+
+   private static <K, V> Node<K, V> mergeTwo(Object owner, K k0, V v0, int h0, K k1, V v1, int h1, int shift) {
+      if (shift >= HASH_BITS) {
+         return new CollisionNode<>(owner, h0, new Object[]{k0, v0, k1, v1});
+      }
+      int m0 = mask(h0, shift);
+      int m1 = mask(h1, shift);
+      if (m0 != m1) {
+         Object[] content = m0 < m1
+               ? new Object[]{k0, v0, k1, v1}
+               : new Object[]{k1, v1, k0, v0};
+         return new BitmapNode<>(owner, (1 << m0) | (1 << m1), 0, content);
+      }
+      Node<K, V> sub = mergeTwo(owner, k0, v0, h0, k1, v1, h1, shift + BITS_PER_LEVEL);
+      return new BitmapNode<>(owner, 0, 1 << m0, new Object[]{sub});
+   }
+
+   private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+      private final ArrayDeque<Node<K, V>> pending = new ArrayDeque<>();
+      private Node<K, V> current;
+      private int index;
+
+      EntryIterator(Node<K, V> root) {
+         advanceTo(root);
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (index >= current.payloadArity()) {
+            if (pending.isEmpty()) return false;
+            advanceTo(pending.pop());
+         }
+         return true;
+      }
+
+      @Override
+      public Entry<K, V> next() {
+         if (!hasNext()) throw new NoSuchElementException();
+         int i = index++;
+         return new SimpleImmutableEntry<>(current.keyAt(i), current.valueAt(i));
+      }
+
+      private void advanceTo(Node<K, V> node) {
+         current = node;
+         index = 0;
+         for (int i = node.nodeArity() - 1; i >= 0; i--) {
+            pending.push(node.nodeAt(i));
+         }
+      }
+   }
+}
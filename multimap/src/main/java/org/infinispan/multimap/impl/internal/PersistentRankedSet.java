@@ -0,0 +1,348 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable sorted set with positional access.
+ * <p>
+ * The set is an AVL tree where every node also stores the size of its subtree. This allows finding the rank of an
+ * element, the element at a given rank, and starting an iteration at any rank in O(log n). Every update returns a new
+ * set which shares all the untouched nodes with the previous version.
+ * <p>
+ * Elements are ordered by their natural ordering. Lookups accept probes that compare equal to several elements, as
+ * long as the ordering stays consistent, so {@link #countLess(Comparable)} and {@link #countLessOrEqual(Comparable)}
+ * can be used to find the bounds of a range.
+ *
+ * @param <E>: Type of the elements.
+ * @since 16.3
+ */
+public final class PersistentRankedSet<E extends Comparable<? super E>> extends AbstractSet<E> {
+
+   @SuppressWarnings("rawtypes")
+   private static final PersistentRankedSet EMPTY = new PersistentRankedSet<>(null);
+
+   private final Node<E> root;
+
+   private PersistentRankedSet(Node<E> root) {
+      this.root = root;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <E extends Comparable<? super E>> PersistentRankedSet<E> empty() {
+      return EMPTY;
+   }
+
+   /**
+    * Creates a set with the given elements. When several elements compare equal, only the first one is kept.
+    */
+   public static <E extends Comparable<? super E>> PersistentRankedSet<E> from(Collection<? extends E> elements) {
+      if (elements.isEmpty()) return empty();
+
+      List<E> sorted = new ArrayList<>(elements);
+      Collections.sort(sorted);
+      List<E> unique = new ArrayList<>(sorted.size());
+      for (E e : sorted) {
+         if (unique.isEmpty() || unique.get(unique.size() - 1).compareTo(e) != 0) {
+            unique.add(e);
+         }
+      }
+      return new PersistentRankedSet<>(build(unique, 0, unique.size()));
+   }
+
+   @Override
+   public int size() {
+      return size(root);
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return root == null;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean contains(Object o) {
+      if (o == null) return false;
+      try {
+         E e = (E) o;
+         Node<E> node = root;
+         while (node != null) {
+            int c = e.compareTo(node.value);
+            if (c == 0) return Objects.equals(e, node.value);
+            node = c < 0 ? node.left : node.right;
+         }
+      } catch (ClassCastException ignore) {
+         // Not an element of this set.
+      }
+      return false;
+   }
+
+   /**
+    * @return the element at the given position in ascending order.
+    */
+   public E get(int index) {
+      if (index < 0 || index >= size()) {
+         throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+      }
+      Node<E> node = root;
+      while (true) {
+         int leftSize = size(node.left);
+         if (index < leftSize) {
+            node = node.left;
+         } else if (index == leftSize) {
+            return node.value;
+         } else {
+            index -= leftSize + 1;
+            node = node.right;
+         }
+      }
+   }
+
+   public E first() {
+      if (root == null) throw new NoSuchElementException();
+      return get(0);
+   }
+
+   public E last() {
+      if (root == null) throw new NoSuchElementException();
+      return get(size() - 1);
+   }
+
+   /**
+    * @return the number of elements strictly lower than the probe. For an element of the set, this is its rank.
+    */
+   public int countLess(E probe) {
+      int count = 0;
+      Node<E> node = root;
+      while (node != null) {
+         if (node.value.compareTo(probe) < 0) {
+            count += size(node.left) + 1;
+            node = node.right;
+         } else {
+            node = node.left;
+         }
+      }
+      return count;
+   }
+
+   /**
+    * @return the number of elements lower than or equal to the probe.
+    */
+   public int countLessOrEqual(E probe) {
+      int count = 0;
+      Node<E> node = root;
+      while (node != null) {
+         if (node.value.compareTo(probe) <= 0) {
+            count += size(node.left) + 1;
+            node = node.right;
+         } else {
+            node = node.left;
+         }
+      }
+      return count;
+   }
+
+   /**
+    * @return a set with the element added, or this instance if an equal element is already present.
+    */
+   public PersistentRankedSet<E> with(E element) {
+      Node<E> newRoot = insert(root, Objects.requireNonNull(element));
+      return newRoot == root ? this : new PersistentRankedSet<>(newRoot);
+   }
+
+   /**
+    * @return a set without the element, or this instance if it is not present.
+    */
+   public PersistentRankedSet<E> without(E element) {
+      Node<E> newRoot = remove(root, element);
+      if (newRoot == root) return this;
+      return newRoot == null ? empty() : new PersistentRankedSet<>(newRoot);
+   }
+
+   @Override
+   public Iterator<E> iterator() {
+      return iterator(0);
+   }
+
+   /**
+    * @return an iterator in ascending order, starting with the element at the given position.
+    */
+   public Iterator<E> iterator(int from) {
+      ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+      Node<E> node = root;
+      int index = from;
+      while (node != null) {
+         int leftSize = size(node.left);
+         if (index < leftSize) {
+            stack.push(node);
+            node = node.left;
+         } else if (index == leftSize) {
+            stack.push(node);
+            break;
+         } else {
+            index -= leftSize + 1;
+            node = node.right;
+         }
+      }
+      return new NodeIterator<>(stack, true);
+   }
+
+   public Iterator<E> descendingIterator() {
+      return descendingIterator(size() - 1);
+   }
+
+   /**
+    * @return an iterator in descending order, starting with the element at the given position in ascending order.
+    */
+   public Iterator<E> descendingIterator(int from) {
+      ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+      Node<E> node = from < 0 ? null : root;
+      int index = from;
+      while (node != null) {
+         int leftSize = size(node.left);
+         if (index < leftSize) {
+            node = node.left;
+         } else if (index == leftSize) {
+            stack.push(node);
+            break;
+         } else {
+            stack.push(node);
+            index -= leftSize + 1;
+            node = node.right;
+         }
+      }
+      return new NodeIterator<>(stack, false);
+   }
+
+   private static final class Node<E> {
+      final E value;
+      final Node<E> left;
+      final Node<E> right;
+      final int height;
+      final int size;
+
+      Node(E value, Node<E> left, Node<E> right) {
+         this.value = value;
+         this.left = left;
+         this.right = right;
+         this.height = Math.max(height(left), height(right)) + 1;
+         this.size = size(left) + size(right) + 1;
+      }
+   }
+
+   private static int height(Node<?> node) {
+      return node == null ? 0 : node.height;
+   }
+
+   private static int size(Node<?> node) {
+      return node == null ? 0 : node.size;
+   }
+
+   private static <E> Node<E> build(List<E> sorted, int from, int to) {
+      if (from >= to) return null;
+      int mid = (from + to) >>> 1;
+      return new Node<>(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+   }
+
+   private static <E extends Comparable<? super E>> Node<E> insert(Node<E> node, E element) {
+      if (node == null) return new Node<>(element, null, null);
+
+      int c = element.compareTo(node.value);
+      if (c < 0) {
+         Node<E> left = insert(node.left, element);
+         return left == node.left ? node : balance(node.value, left, node.right);
+      }
+      if (c > 0) {
+         Node<E> right = insert(node.right, element);
+         return right == node.right ? node : balance(node.value, node.left, right);
+      }
+      return node;
+   }
+
+   private static <E extends Comparable<? super E>> Node<E> remove(Node<E> node, E element) {
+      if (node == null) return null;
+
+      int c = element.compareTo(node.value);
+      if (c < 0) {
+         Node<E> left = remove(node.left, element);
+         return left == node.left ? node : balance(node.value, left, node.right);
+      }
+      if (c > 0) {
+         Node<E> right = remove(node.right, element);
+         return right == node.right ? node : balance(node.value, node.left, right);
+      }
+      if (node.left == null) return node.right;
+      if (node.right == null) return node.left;
+
+      Node<E> successor = node.right;
+      while (successor.left != null) {
+         successor = successor.left;
+      }
+      return balance(successor.value, node.left, removeFirst(node.right));
+   }
+
+   private static <E> Node<E> removeFirst(Node<E> node) {
+      if (node.left == null) return node.right;
+      return balance(node.value, removeFirst(node.left), node.right);
+   }
+
+   private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+      int leftHeight = height(left);
+      int rightHeight = height(right);
+      if (leftHeight > rightHeight + 1) {
+         if (height(left.left) >= height(left.right)) {
+            return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+         }
+         return new Node<>(left.right.value,
+               new Node<>(left.value, left.left, left.right.left),
+               new Node<>(value, left.right.right, right));
+      }
+      if (rightHeight > leftHeight + 1) {
+         if (height(right.right) >= height(right.left)) {
+            return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+         }
+         return new Node<>(right.left.value,
+               new Node<>(value, left, right.left.left),
+               new Node<>(right.value, right.left.right, right.right));
+      }
+      return new Node<>(value, left, right);
+   }
+
+   /**
+    * Iterates the nodes in the stack, pushing the next nodes of the traversal after each one is returned.
+    */
+   private static final class NodeIterator<E> implements Iterator<E> {
+      private final ArrayDeque<Node<E>> stack;
+      private final boolean ascending;
+
+      NodeIterator(ArrayDeque<Node<E>> stack, boolean ascending) {
+         this.stack = stack;
+         this.ascending = ascending;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return !stack.isEmpty();
+      }
+
+      @Override
+      public E next() {
+         if (stack.isEmpty()) throw new NoSuchElementException();
+         Node<E> node = stack.pop();
+         Node<E> next = ascending ? node.right : node.left;
+         while (next != null) {
+            stack.push(next);
+            next = ascending ? next.left : next.right;
+         }
+         return node.value;
+      }
+   }
+}
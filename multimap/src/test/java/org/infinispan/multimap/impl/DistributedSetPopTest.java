@@ -0,0 +1,50 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.infinispan.functional.FunctionalTestUtils.await;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.multimap.api.embedded.EmbeddedMultimapCacheManagerFactory;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "multimap.DistributedSetPopTest")
+public class DistributedSetPopTest extends MultipleCacheManagersTest {
+
+   private static final String CACHE_NAME = "sets";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(3);
+      createClusteredCaches(3, CACHE_NAME, MultimapSCI.INSTANCE, builder);
+   }
+
+   public void testPopRemovesSameMembersOnAllOwners() {
+      EmbeddedMultimapCacheManager<String, String> multimapManager =
+            (EmbeddedMultimapCacheManager<String, String>) EmbeddedMultimapCacheManagerFactory.from(manager(0));
+      EmbeddedSetCache<String, String> set = multimapManager.getMultimapSet(CACHE_NAME);
+
+      String key = getStringKeyForCache(cache(1, CACHE_NAME));
+      List<String> members = IntStream.range(0, 100).mapToObj(i -> "member-" + i).collect(Collectors.toList());
+      await(set.add(key, members));
+
+      Collection<String> popped = await(set.pop(key, 10L, true));
+      assertThat(popped).hasSize(10);
+
+      for (int i = 0; i < 3; i++) {
+         SetBucket<String> bucket = this.<String, SetBucket<String>>cache(i, CACHE_NAME).getAdvancedCache()
+               .withFlags(Flag.CACHE_MODE_LOCAL).get(key);
+         Set<String> local = bucket.toSet();
+         assertThat(local).hasSize(90).doesNotContainAnyElementsOf(popped);
+      }
+   }
+}
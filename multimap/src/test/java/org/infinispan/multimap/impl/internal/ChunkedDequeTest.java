@@ -0,0 +1,113 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.ChunkedDequeTest")
+public class ChunkedDequeTest extends AbstractInfinispanTest {
+
+   public void testOfferAndRemove() {
+      ChunkedDeque<Integer> deque = ChunkedDeque.<Integer>empty()
+            .offerLast(List.of(1, 2, 3))
+            .offerFirst(List.of(0, -1));
+
+      assertThat(deque).containsExactly(-1, 0, 1, 2, 3);
+      assertThat(deque.getFirst()).isEqualTo(-1);
+      assertThat(deque.getLast()).isEqualTo(3);
+      assertThat(deque.removeFirst(2)).containsExactly(1, 2, 3);
+      assertThat(deque.removeLast(4)).containsExactly(-1);
+      assertThat(deque.removeLast(10)).isEmpty();
+      assertThat(deque).hasSize(5);
+   }
+
+   public void testPositionalAccessAcrossChunks() {
+      List<Integer> values = range(0, ChunkedDeque.CHUNK_SIZE * 5);
+      ChunkedDeque<Integer> deque = ChunkedDeque.<Integer>from(values).offerFirst(List.of(-1));
+
+      for (int i = 0; i < values.size(); i++) {
+         assertThat(deque.get(i + 1)).isEqualTo(values.get(i));
+      }
+      ChunkedDeque<Integer> updated = deque.set(ChunkedDeque.CHUNK_SIZE * 2, 42);
+      assertThat(updated.get(ChunkedDeque.CHUNK_SIZE * 2)).isEqualTo(42);
+      assertThat(deque.get(ChunkedDeque.CHUNK_SIZE * 2)).isEqualTo(ChunkedDeque.CHUNK_SIZE * 2 - 1);
+      assertThatThrownBy(() -> deque.get(deque.size())).isInstanceOf(IndexOutOfBoundsException.class);
+   }
+
+   public void testSlice() {
+      ChunkedDeque<Integer> deque = ChunkedDeque.from(range(0, 1000));
+      assertThat(deque.slice(100, 900)).containsExactlyElementsOf(range(100, 900));
+      assertThat(deque.slice(500, 500)).isEmpty();
+      assertThat(deque.slice(0, 1000)).isSameAs(deque);
+   }
+
+   public void testDescendingIterator() {
+      ChunkedDeque<Integer> deque = ChunkedDeque.from(range(0, 200));
+      List<Integer> descending = new ArrayList<>();
+      deque.descendingIterator().forEachRemaining(descending::add);
+      List<Integer> expected = range(0, 200);
+      Collections.reverse(expected);
+      assertThat(descending).isEqualTo(expected);
+   }
+
+   public void testRandomOperationsAgainstList() {
+      Random random = new Random(11);
+      ChunkedDeque<Integer> deque = ChunkedDeque.empty();
+      List<Integer> expected = new ArrayList<>();
+      List<ChunkedDeque<Integer>> versions = new ArrayList<>();
+      List<List<Integer>> expectedVersions = new ArrayList<>();
+
+      for (int i = 0; i < 2_000; i++) {
+         int count = random.nextInt(150);
+         List<Integer> values = range(i * 1_000, i * 1_000 + count);
+         switch (random.nextInt(5)) {
+            case 0 -> {
+               deque = deque.offerFirst(values);
+               values.forEach(v -> expected.add(0, v));
+            }
+            case 1 -> {
+               deque = deque.offerLast(values);
+               expected.addAll(values);
+            }
+            case 2 -> {
+               deque = deque.removeFirst(count);
+               expected.subList(0, Math.min(count, expected.size())).clear();
+            }
+            case 3 -> {
+               deque = deque.removeLast(count);
+               expected.subList(Math.max(expected.size() - count, 0), expected.size()).clear();
+            }
+            default -> {
+               if (!expected.isEmpty()) {
+                  int index = random.nextInt(expected.size());
+                  deque = deque.set(index, -i);
+                  expected.set(index, -i);
+               }
+            }
+         }
+
+         if (i % 100 == 0) {
+            versions.add(deque);
+            expectedVersions.add(new ArrayList<>(expected));
+         }
+      }
+
+      assertThat(deque).containsExactlyElementsOf(expected);
+      for (int i = 0; i < versions.size(); i++) {
+         assertThat(versions.get(i)).containsExactlyElementsOf(expectedVersions.get(i));
+      }
+   }
+
+   private static List<Integer> range(int from, int to) {
+      return IntStream.range(from, to).boxed().collect(Collectors.toList());
+   }
+}
@@ -0,0 +1,115 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.PersistentHashMapTest")
+public class PersistentHashMapTest extends AbstractInfinispanTest {
+
+   public void testPutAndRemove() {
+      PersistentHashMap<String, String> empty = PersistentHashMap.empty();
+      PersistentHashMap<String, String> one = empty.with("k1", "v1");
+      PersistentHashMap<String, String> two = one.with("k2", "v2");
+
+      assertThat(empty).isEmpty();
+      assertThat(one).containsExactly(Map.entry("k1", "v1"));
+      assertThat(two).hasSize(2).containsEntry("k1", "v1").containsEntry("k2", "v2");
+
+      PersistentHashMap<String, String> removed = two.without("k1");
+      assertThat(removed).containsExactly(Map.entry("k2", "v2"));
+      assertThat(two).hasSize(2);
+      assertThat(removed.without("unknown")).isSameAs(removed);
+   }
+
+   public void testNullValues() {
+      PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().with("k1", null);
+      assertThat(map.containsKey("k1")).isTrue();
+      assertThat(map.get("k1")).isNull();
+      assertThat(map.containsKey("k2")).isFalse();
+   }
+
+   public void testCollisions() {
+      PersistentHashMap<Collision, Integer> map = PersistentHashMap.empty();
+      for (int i = 0; i < 10; i++) {
+         map = map.with(new Collision(i), i);
+      }
+      assertThat(map).hasSize(10);
+      for (int i = 0; i < 10; i++) {
+         assertThat(map.get(new Collision(i))).isEqualTo(i);
+      }
+      for (int i = 0; i < 9; i++) {
+         map = map.without(new Collision(i));
+      }
+      assertThat(map).containsExactly(Map.entry(new Collision(9), 9));
+   }
+
+   public void testBuilderDoesNotModifySource() {
+      PersistentHashMap<Integer, Integer> source = PersistentHashMap.empty();
+      for (int i = 0; i < 1000; i++) {
+         source = source.with(i, i);
+      }
+
+      PersistentHashMap.Builder<Integer, Integer> builder = source.toBuilder();
+      for (int i = 0; i < 1000; i += 2) {
+         assertThat(builder.remove(i)).isTrue();
+      }
+      assertThat(builder.put(1, -1)).isFalse();
+      assertThat(builder.put(1000, 1000)).isTrue();
+      PersistentHashMap<Integer, Integer> built = builder.build();
+
+      assertThat(source).hasSize(1000);
+      for (int i = 0; i < 1000; i++) {
+         assertThat(source.get(i)).isEqualTo(i);
+      }
+      assertThat(built).hasSize(501).containsEntry(1, -1).containsEntry(1000, 1000).doesNotContainKey(0);
+   }
+
+   public void testRandomOperationsAgainstHashMap() {
+      Random random = new Random(7);
+      PersistentHashMap<Collision, Integer> map = PersistentHashMap.empty();
+      Map<Collision, Integer> expected = new HashMap<>();
+      List<PersistentHashMap<Collision, Integer>> versions = new ArrayList<>();
+      List<Map<Collision, Integer>> expectedVersions = new ArrayList<>();
+
+      for (int i = 0; i < 20_000; i++) {
+         // Few distinct hash codes, so the map creates deep paths and collision nodes.
+         Collision key = new Collision(random.nextInt(5_000), random.nextInt(128));
+         if (random.nextInt(3) == 0) {
+            map = map.without(key);
+            expected.remove(key);
+         } else {
+            map = map.with(key, i);
+            expected.put(key, i);
+         }
+
+         if (i % 1_000 == 0) {
+            versions.add(map);
+            expectedVersions.add(new HashMap<>(expected));
+         }
+      }
+
+      assertThat(map).isEqualTo(expected);
+      for (int i = 0; i < versions.size(); i++) {
+         assertThat(versions.get(i)).isEqualTo(expectedVersions.get(i));
+      }
+   }
+
+   private record Collision(int id, int hash) {
+      Collision(int id) {
+         this(id, 42);
+      }
+
+      @Override
+      public int hashCode() {
+         return hash;
+      }
+   }
+}
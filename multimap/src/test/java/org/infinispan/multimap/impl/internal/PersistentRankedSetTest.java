@@ -0,0 +1,107 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.infinispan.multimap.impl.ScoredValue;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.PersistentRankedSetTest")
+public class PersistentRankedSetTest extends AbstractInfinispanTest {
+
+   public void testAddAndRemove() {
+      PersistentRankedSet<Integer> empty = PersistentRankedSet.empty();
+      PersistentRankedSet<Integer> set = empty.with(3).with(1).with(2);
+
+      assertThat(empty).isEmpty();
+      assertThat(set).containsExactly(1, 2, 3);
+      assertThat(set.with(2)).isSameAs(set);
+      assertThat(set.without(4)).isSameAs(set);
+      assertThat(set.without(2)).containsExactly(1, 3);
+      assertThat(set).containsExactly(1, 2, 3);
+      assertThat(set.first()).isEqualTo(1);
+      assertThat(set.last()).isEqualTo(3);
+   }
+
+   public void testRankAndPositionalAccess() {
+      PersistentRankedSet<Integer> set = PersistentRankedSet.from(List.of(40, 10, 30, 20, 10));
+
+      assertThat(set).containsExactly(10, 20, 30, 40);
+      assertThat(set.get(2)).isEqualTo(30);
+      assertThat(set.countLess(30)).isEqualTo(2);
+      assertThat(set.countLessOrEqual(30)).isEqualTo(3);
+      assertThat(set.countLess(25)).isEqualTo(2);
+      assertThat(set.countLessOrEqual(50)).isEqualTo(4);
+      assertThatThrownBy(() -> set.get(4)).isInstanceOf(IndexOutOfBoundsException.class);
+   }
+
+   public void testIteratorsFromIndex() {
+      PersistentRankedSet<Integer> set = PersistentRankedSet.from(List.of(1, 2, 3, 4, 5));
+
+      assertThat(collect(set.iterator(2))).containsExactly(3, 4, 5);
+      assertThat(collect(set.iterator(5))).isEmpty();
+      assertThat(collect(set.descendingIterator(2))).containsExactly(3, 2, 1);
+      assertThat(collect(set.descendingIterator())).containsExactly(5, 4, 3, 2, 1);
+      assertThat(collect(set.descendingIterator(-1))).isEmpty();
+   }
+
+   public void testScoreProbes() {
+      PersistentRankedSet<ScoredValue<String>> set = PersistentRankedSet.from(List.of(
+            ScoredValue.of(1, "a"), ScoredValue.of(2, "b"), ScoredValue.of(2, "c"), ScoredValue.of(3, "d")));
+
+      // A probe without value compares equal to all the entries with the same score.
+      assertThat(set.countLess(ScoredValue.of(2))).isEqualTo(1);
+      assertThat(set.countLessOrEqual(ScoredValue.of(2))).isEqualTo(3);
+      assertThat(set.contains(ScoredValue.of(2))).isFalse();
+      assertThat(set.contains(ScoredValue.of(2, "c"))).isTrue();
+   }
+
+   public void testRandomOperationsAgainstTreeSet() {
+      Random random = new Random(5);
+      PersistentRankedSet<Integer> set = PersistentRankedSet.empty();
+      TreeSet<Integer> expected = new TreeSet<>();
+      List<PersistentRankedSet<Integer>> versions = new ArrayList<>();
+      List<List<Integer>> expectedVersions = new ArrayList<>();
+
+      for (int i = 0; i < 20_000; i++) {
+         int value = random.nextInt(2_000);
+         if (random.nextInt(3) == 0) {
+            set = set.without(value);
+            expected.remove(value);
+         } else {
+            set = set.with(value);
+            expected.add(value);
+         }
+
+         if (i % 1_000 == 0) {
+            versions.add(set);
+            expectedVersions.add(new ArrayList<>(expected));
+
+            List<Integer> sorted = new ArrayList<>(expected);
+            for (int j = 0; j < sorted.size(); j += 17) {
+               assertThat(set.get(j)).isEqualTo(sorted.get(j));
+               assertThat(set.countLess(sorted.get(j))).isEqualTo(j);
+               assertThat(collect(set.iterator(j))).isEqualTo(sorted.subList(j, sorted.size()));
+            }
+         }
+      }
+
+      assertThat(set).containsExactlyElementsOf(expected);
+      for (int i = 0; i < versions.size(); i++) {
+         assertThat(versions.get(i)).containsExactlyElementsOf(expectedVersions.get(i));
+      }
+   }
+
+   private static <E> List<E> collect(Iterator<E> iterator) {
+      List<E> list = new ArrayList<>();
+      iterator.forEachRemaining(list::add);
+      return list;
+   }
+}
@@ -0,0 +1,92 @@
+package org.infinispan.multimap.impl.profiling;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.multimap.impl.HashMapBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the latency and the garbage per operation of HSET and HDEL style updates on {@link HashMapBucket}.
+ * <p>
+ * The allocation rate per operation is reported by the {@link GCProfiler} as {@code gc.alloc.rate.norm}.
+ */
+public class HashMapBucketBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+   private static final int WARMUP_ITERATIONS_COUNT = 10;
+
+   public static void main(String[] args) throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(HashMapBucketBenchmark.class.getName() + ".State.*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(1)
+            .forks(3)
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Thread)
+   public static class State {
+
+      @Param({"10", "1000", "100000"})
+      int size;
+
+      private HashMapBucket<byte[], byte[]> bucket;
+      private byte[][] fields;
+
+      @Setup(Level.Trial)
+      public void setup() {
+         Map<byte[], byte[]> values = new HashMap<>(size);
+         fields = new byte[size][];
+         for (int i = 0; i < size; i++) {
+            fields[i] = ("field-" + i).getBytes(StandardCharsets.US_ASCII);
+            values.put(fields[i], ("value-" + i).getBytes(StandardCharsets.US_ASCII));
+         }
+         bucket = HashMapBucket.create(values);
+      }
+
+      private byte[] randomField() {
+         return fields[ThreadLocalRandom.current().nextInt(size)];
+      }
+
+      @Benchmark
+      public HashMapBucket<byte[], byte[]> hsetExisting() {
+         return bucket.putAll(Map.of(randomField(), "updated".getBytes(StandardCharsets.US_ASCII))).bucket();
+      }
+
+      @Benchmark
+      public HashMapBucket<byte[], byte[]> hsetNew() {
+         return bucket.putAll(Map.of("new-field".getBytes(StandardCharsets.US_ASCII), "value".getBytes(StandardCharsets.US_ASCII))).bucket();
+      }
+
+      @Benchmark
+      public HashMapBucket<byte[], byte[]> hsetnx() {
+         return bucket.putIfAbsent(Map.of("new-field".getBytes(StandardCharsets.US_ASCII), "value".getBytes(StandardCharsets.US_ASCII))).bucket();
+      }
+
+      @Benchmark
+      public HashMapBucket<byte[], byte[]> hdel() {
+         return bucket.removeAll(List.of(randomField())).bucket();
+      }
+   }
+}
@@ -2,6 +2,8 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -19,6 +21,11 @@
 public interface TableOperations<K, V> {
    MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Object key) throws SQLException;
 
+   /**
+    * Loads the entries of many keys, the keys which are not present are ignored.
+    */
+   List<MarshallableEntry<K, V>> loadEntries(Connection connection, Set<Object> keys) throws SQLException;
+
    default Flowable<K> publishKeys(Supplier<Connection> connectionSupplier, Consumer<Connection> connectionCloser,
          IntSet segments, Predicate<? super K> filter) {
       return publishEntries(connectionSupplier, connectionCloser, segments, filter, false)
@@ -135,6 +135,23 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       }, "jdbcstore-load");
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      return Flowable.defer(() -> Flowable.fromCompletionStage(blockingManager.supplyBlocking(() -> {
+         Connection conn = null;
+         try {
+            conn = connectionFactory.getConnection();
+            return tableOperations.loadEntries(conn, keys);
+         } catch (SQLException e) {
+            PERSISTENCE.sqlFailureReadingKeys(keys.size(), e);
+            throw new PersistenceException(String.format(
+                  "SQL error while fetching stored entries for %d keys", keys.size()), e);
+         } finally {
+            connectionFactory.releaseConnection(conn);
+         }
+      }, "jdbcstore-loadall"))).concatMapIterable(Functions.identity());
+   }
+
    @Override
    public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
       return blockingManager.runBlocking(() -> {
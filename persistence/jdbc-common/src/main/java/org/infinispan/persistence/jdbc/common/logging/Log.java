@@ -287,4 +287,8 @@ CacheConfigurationException deleteAndSelectQueryMismatchArguments(String paramNa
 
    @Message(value = "Both jndiUrl and dataSource must not be set", id = 8074)
    CacheConfigurationException jndiUrlAndDataSourceSet();
+
+   @LogMessage(level = ERROR)
+   @Message(value = "SQL error while fetching stored entries for %d keys", id = 8075)
+   void sqlFailureReadingKeys(int keyCount, @Cause SQLException e);
 }
@@ -7,6 +7,9 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -88,6 +91,19 @@ public MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Obj
       return null;
    }
 
+   @Override
+   public List<MarshallableEntry<K, V>> loadEntries(Connection connection, Set<Object> keys) throws SQLException {
+      List<MarshallableEntry<K, V>> entries = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         // The segment is not used when loading an entry
+         MarshallableEntry<K, V> entry = loadEntry(connection, -1, key);
+         if (entry != null) {
+            entries.add(entry);
+         }
+      }
+      return entries;
+   }
+
    @Override
    public boolean deleteEntry(Connection connection, int segment, Object key) throws SQLException {
       PreparedStatement ps = null;
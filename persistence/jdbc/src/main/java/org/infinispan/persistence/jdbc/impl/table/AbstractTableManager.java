@@ -12,8 +12,13 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PrimitiveIterator;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.infinispan.commons.io.ByteBuffer;
@@ -424,6 +429,32 @@ public String getSelectRowSql() {
       return selectRowSql;
    }
 
+   /**
+    * @return the placeholder of a key in a {@code WHERE} clause, for databases that need to convert the parameter
+    */
+   protected String keyParameter() {
+      return "?";
+   }
+
+   public String getSelectRowsSql(int numKeys) {
+      StringBuilder stringBuilder = new StringBuilder("SELECT ");
+      stringBuilder.append(config.dataColumnName());
+      stringBuilder.append(", ");
+      stringBuilder.append(config.idColumnName());
+      stringBuilder.append(" FROM ");
+      stringBuilder.append(dataTableName);
+      stringBuilder.append(" WHERE ");
+      stringBuilder.append(config.idColumnName());
+      stringBuilder.append(" IN (");
+      stringBuilder.append(keyParameter());
+      for (int i = 1; i < numKeys; ++i) {
+         stringBuilder.append(",");
+         stringBuilder.append(keyParameter());
+      }
+      stringBuilder.append(")");
+      return stringBuilder.toString();
+   }
+
    protected String initSelectIdRowSql() {
       return String.format("SELECT %s FROM %s WHERE %s = ?", config.idColumnName(), dataTableName, config.idColumnName());
    }
@@ -601,6 +632,49 @@ protected String key2Str(Object key) throws PersistenceException {
       return isStringEncodingRequired() ? encodeString(keyStr) : keyStr;
    }
 
+   @Override
+   public List<MarshallableEntry<K, V>> loadEntries(Connection connection, Set<Object> keys) throws SQLException {
+      Map<String, Object> keysByString = new HashMap<>(keys.size());
+      for (Object key : keys) {
+         keysByString.put(key2Str(key), key);
+      }
+      List<String> keyStrings = new ArrayList<>(keysByString.keySet());
+      List<MarshallableEntry<K, V>> entries = new ArrayList<>(keyStrings.size());
+      // Databases limit the number of values in an IN list, so the keys are queried in batches
+      int batchSize = Math.max(1, configuration.maxBatchSize());
+      for (int start = 0; start < keyStrings.size(); start += batchSize) {
+         List<String> batch = keyStrings.subList(start, Math.min(start + batchSize, keyStrings.size()));
+         String selectSql = getSelectRowsSql(batch.size());
+         if (log.isTraceEnabled()) {
+            log.tracef("Running select rows sql '%s'", selectSql);
+         }
+         PreparedStatement ps = null;
+         ResultSet rs = null;
+         try {
+            ps = connection.prepareStatement(selectSql);
+            ps.setQueryTimeout(configuration.readQueryTimeout());
+            for (int i = 0; i < batch.size(); ++i) {
+               ps.setString(i + 1, batch.get(i));
+            }
+            rs = ps.executeQuery();
+            while (rs.next()) {
+               Object key = keysByString.get(rs.getString(2));
+               if (key == null) {
+                  continue;
+               }
+               MarshallableEntry<K, V> entry = entryFromResultSet(rs, key, true, null);
+               if (entry != null) {
+                  entries.add(entry);
+               }
+            }
+         } finally {
+            JdbcUtil.safeClose(rs);
+            JdbcUtil.safeClose(ps);
+         }
+      }
+      return entries;
+   }
+
    @Override
    public String getSelectAllSql(IntSet segments) {
       if (!dbMetadata.isSegmentedDisabled() && segments != null) {
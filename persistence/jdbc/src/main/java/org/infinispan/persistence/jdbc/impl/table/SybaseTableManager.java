@@ -41,6 +41,11 @@ protected String initSelectRowSql() {
                                    config.idColumnName(), config.idColumnType());
    }
 
+   @Override
+   protected String keyParameter() {
+      return String.format("convert(%s,?)", config.idColumnType());
+   }
+
    @Override
    protected String initSelectIdRowSql() {
       return String.format("SELECT %s FROM %s WHERE %s = convert(%s,?)",
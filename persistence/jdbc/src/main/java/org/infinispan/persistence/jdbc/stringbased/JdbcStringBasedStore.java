@@ -94,7 +94,7 @@
    @Override
    public Set<Characteristic> characteristics() {
       return EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION, Characteristic.SEGMENTABLE,
-            Characteristic.TRANSACTIONAL, Characteristic.SHAREABLE);
+            Characteristic.TRANSACTIONAL, Characteristic.SHAREABLE, Characteristic.BULK_LOAD);
    }
 
    @Override
@@ -61,6 +61,7 @@
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 /**
@@ -219,7 +220,7 @@ private boolean isManagedRemoteCacheManager() {
    @Override
    public Set<Characteristic> characteristics() {
       Set<Characteristic> characteristics = EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION,
-            Characteristic.SHAREABLE);
+            Characteristic.SHAREABLE, Characteristic.BULK_LOAD);
       if (supportsSegmentation) {
          characteristics.add(Characteristic.SEGMENTABLE);
       }
@@ -278,6 +279,28 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       }
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      if (migration) {
+         // There is no multi-key read returning the metadata of the entries
+         return Flowable.fromIterable(keys)
+               .flatMapMaybe(key -> Maybe.fromCompletionStage(load(-1, key)));
+      }
+      Set<Object> unwrappedKeys = keys.stream().map(RemoteStore::unwrap).collect(Collectors.toSet());
+      return Flowable.defer(() -> Flowable.fromCompletionStage(remoteCache.getAllAsync(unwrappedKeys)))
+            .observeOn(Schedulers.from(nonBlockingExecutor))
+            .concatMapIterable(Map::entrySet)
+            .filter(e -> e.getValue() != null)
+            .map(e -> {
+               Object key = wrap(e.getKey());
+               Object value = e.getValue();
+               if (value instanceof MarshalledValue) {
+                  return entryFactory.create(key, (MarshalledValue) value);
+               }
+               return entryFactory.create(key, value);
+            });
+   }
+
    @Override
    public CompletionStage<Boolean> containsKey(int segment, Object key) {
       key = unwrap(key);
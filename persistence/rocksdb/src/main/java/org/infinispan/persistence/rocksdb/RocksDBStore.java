@@ -291,7 +291,8 @@ public CompletionStage<Void> stop() {
 
    @Override
    public Set<Characteristic> characteristics() {
-      return EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION, Characteristic.SEGMENTABLE);
+      return EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION, Characteristic.SEGMENTABLE,
+            Characteristic.BULK_LOAD);
    }
 
    @Override
@@ -348,6 +349,11 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return handler.load(segment, key);
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> loadAll(IntSet segments, Set<Object> keys) {
+      return handler.loadAll(keys);
+   }
+
    @Override
    public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublisher<Object>> removePublisher,
                                       Publisher<SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) {
@@ -780,6 +786,47 @@ CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
          }
       }
 
+      Publisher<MarshallableEntry<K, V>> loadAll(Set<Object> keys) {
+         return Flowable.defer(() -> {
+            List<Object> keysToLoad = new ArrayList<>(keys.size());
+            List<ColumnFamilyHandle> handles = new ArrayList<>(keys.size());
+            List<byte[]> marshalledKeys = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+               ColumnFamilyHandle handle = getHandle(key);
+               if (handle == null) {
+                  log.tracef("Ignoring load of key %s as handle is not currently configured", key);
+                  continue;
+               }
+               keysToLoad.add(key);
+               handles.add(handle);
+               marshalledKeys.add(marshall(key));
+            }
+            if (keysToLoad.isEmpty()) {
+               return Flowable.empty();
+            }
+            // A single multi get reads all the keys, sharing the lookups of the same blocks and files
+            CompletionStage<List<byte[]>> entryBytesStage = blockingManager.supplyBlocking(() -> {
+               try {
+                  return db.multiGetAsList(handles, marshalledKeys);
+               } catch (RocksDBException e) {
+                  throw new CompletionException(e);
+               }
+            }, "rocksdb-loadAll");
+            return Flowable.fromCompletionStage(entryBytesStage)
+                  .concatMapIterable(entryBytes -> {
+                     long now = timeService.wallClockTime();
+                     List<MarshallableEntry<K, V>> entries = new ArrayList<>(entryBytes.size());
+                     for (int i = 0; i < entryBytes.size(); i++) {
+                        MarshallableEntry<K, V> me = unmarshallEntry(keysToLoad.get(i), entryBytes.get(i));
+                        if (me != null && !me.isExpired(now)) {
+                           entries.add(me);
+                        }
+                     }
+                     return entries;
+                  });
+         });
+      }
+
       CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> me) {
          ColumnFamilyHandle handle = getHandle(segment);
          if (handle == null) {
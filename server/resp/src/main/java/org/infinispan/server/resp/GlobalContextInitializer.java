@@ -73,6 +73,8 @@
             org.infinispan.server.resp.commands.topk.TopKInfoFunction.class,
             org.infinispan.server.resp.commands.topk.TopKInfoFunction.TopKInfo.class,
             org.infinispan.server.resp.commands.topk.TopKCountFunction.class,
+            org.infinispan.server.resp.search.SearchHit.class,
+            org.infinispan.server.resp.search.SearchHits.class,
       },
       schemaFileName = "global.resp.proto",
       schemaFilePath = "org/infinispan/erver/resp",
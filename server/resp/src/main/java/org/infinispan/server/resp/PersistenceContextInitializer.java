@@ -19,6 +19,11 @@
             org.infinispan.server.resp.commands.countmin.CountMinSketch.class,
             org.infinispan.server.resp.commands.topk.TopK.class,
             org.infinispan.server.resp.commands.topk.TopK.TopKEntry.class,
+            org.infinispan.server.resp.search.SearchIndexKey.class,
+            org.infinispan.server.resp.search.SearchIndexDefinition.class,
+            org.infinispan.server.resp.search.SearchIndex.Source.class,
+            org.infinispan.server.resp.search.SearchField.class,
+            org.infinispan.server.resp.search.SearchField.Type.class,
       },
       schemaFileName = "persistence.resp.proto",
       schemaFilePath = "org/infinispan/server/resp",
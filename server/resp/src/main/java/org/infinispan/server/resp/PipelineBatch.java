@@ -0,0 +1,170 @@
+package org.infinispan.server.resp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.server.resp.commands.string.GET;
+import org.infinispan.server.resp.commands.string.SET;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Coalesces a run of pipelined GET or SET commands, so that they are dispatched to the cache with a single
+ * {@code getAll} or {@code putAll} invocation instead of one invocation, and possibly one RPC, per command.
+ * <p>
+ * Only plain {@code GET key} and {@code SET key value} commands are batched, and a batch never mixes the two, so
+ * that a read is never reordered with a write. The replies are written in the order of the commands. If the batched
+ * invocation fails, or a value is not a string, the commands are executed again one at a time, so that each of them
+ * gets its own reply or error.
+ * <p>
+ * Instances are confined to the event loop of the channel.
+ *
+ * @since 16.3
+ */
+final class PipelineBatch {
+   private final int maxSize;
+   private List<List<byte[]>> requests;
+   private RespCommand command;
+
+   PipelineBatch(int maxSize) {
+      this.maxSize = maxSize;
+      this.requests = new ArrayList<>(maxSize);
+   }
+
+   static boolean isBatchable(RespCommand command, List<byte[]> arguments) {
+      Class<?> type = command.getClass();
+      // Commands with another number of arguments are not plain GET or SET, or must fail their arity check
+      return type == GET.class && arguments.size() == 1 || type == SET.class && arguments.size() == 2;
+   }
+
+   /**
+    * Adds the command to the batch
+    *
+    * @return false if the command cannot be batched, or if the batch holds commands of another type
+    */
+   boolean add(RespCommand command, List<byte[]> arguments) {
+      if (!isBatchable(command, arguments) || this.command != null && this.command.getClass() != command.getClass()) {
+         return false;
+      }
+      this.command = command;
+      // The arguments list is reused by the decoder
+      requests.add(List.copyOf(arguments));
+      return true;
+   }
+
+   boolean isEmpty() {
+      return command == null;
+   }
+
+   boolean isFull() {
+      return requests.size() >= maxSize;
+   }
+
+   /**
+    * Dispatches the batched commands and empties the batch.
+    *
+    * @return a stage completed on the event loop once the replies of all the commands have been written
+    */
+   CompletionStage<Void> dispatch(ChannelHandlerContext ctx, Resp3Handler handler) {
+      RespCommand command = this.command;
+      List<List<byte[]>> requests = this.requests;
+      this.command = null;
+      this.requests = new ArrayList<>(maxSize);
+      if (command instanceof GET) {
+         return getAll(ctx, handler, command, requests);
+      }
+      return putAll(ctx, handler, command, requests);
+   }
+
+   private static CompletionStage<Void> getAll(ChannelHandlerContext ctx, Resp3Handler handler, RespCommand command,
+                                               List<List<byte[]>> requests) {
+      Set<byte[]> keys = new HashSet<>(requests.size());
+      for (List<byte[]> request : requests) {
+         handler.respServer().clientTracking().track(handler.cache(), ctx.channel(), command, request);
+         keys.add(request.get(0));
+      }
+      CompletionStage<Map<byte[], byte[]>> stage;
+      try {
+         stage = handler.cache().getAllAsync(keys);
+      } catch (Throwable t) {
+         stage = CompletableFuture.failedFuture(t);
+      }
+      return complete(ctx, handler, command, requests, stage, entries -> {
+         Map<WrappedByteArray, Object> values = new HashMap<>(entries.size());
+         for (Map.Entry<byte[], ?> entry : entries.entrySet()) {
+            if (!(entry.getValue() instanceof byte[])) {
+               // Let GET report the wrong type
+               return false;
+            }
+            values.put(new WrappedByteArray(entry.getKey()), entry.getValue());
+         }
+         for (List<byte[]> request : requests) {
+            ResponseWriter.BULK_STRING_BYTES.accept((byte[]) values.get(new WrappedByteArray(request.get(0))), handler.writer());
+         }
+         return true;
+      });
+   }
+
+   private static CompletionStage<Void> putAll(ChannelHandlerContext ctx, Resp3Handler handler, RespCommand command,
+                                               List<List<byte[]>> requests) {
+      // The last SET of a key wins
+      Map<WrappedByteArray, byte[]> latest = new LinkedHashMap<>(requests.size());
+      for (List<byte[]> request : requests) {
+         latest.put(new WrappedByteArray(request.get(0)), request.get(1));
+      }
+      Map<byte[], byte[]> entries = new HashMap<>(latest.size());
+      latest.forEach((k, v) -> entries.put(k.getBytes(), v));
+      CompletionStage<Void> stage;
+      try {
+         stage = handler.ignorePreviousValuesCache().putAllAsync(entries);
+      } catch (Throwable t) {
+         stage = CompletableFuture.failedFuture(t);
+      }
+      return complete(ctx, handler, command, requests, stage, ignore -> {
+         for (int i = 0; i < requests.size(); i++) {
+            handler.writer().ok();
+         }
+         return true;
+      });
+   }
+
+   private static <T> CompletionStage<Void> complete(ChannelHandlerContext ctx, Resp3Handler handler,
+                                                     RespCommand command, List<List<byte[]>> requests,
+                                                     CompletionStage<T> stage, Predicate<T> replies) {
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         return replies.test(CompletionStages.join(stage)) ? CompletableFutures.completedNull() : replay(ctx, handler, command, requests);
+      }
+      return stage.handleAsync((result, t) -> t == null && replies.test(result)
+                  ? CompletableFutures.<Void>completedNull()
+                  : replay(ctx, handler, command, requests), ctx.channel().eventLoop())
+            .thenCompose(Function.identity());
+   }
+
+   private static CompletionStage<Void> replay(ChannelHandlerContext ctx, Resp3Handler handler, RespCommand command,
+                                               List<List<byte[]>> requests) {
+      CompletionStage<Void> stage = CompletableFutures.completedNull();
+      for (List<byte[]> arguments : requests) {
+         stage = stage.thenComposeAsync(ignore -> handler.handleRequest(ctx, command, arguments)
+               .<Void>handle((h, t) -> {
+                  if (t != null) {
+                     handler.writer().error(t);
+                  }
+                  return null;
+               }), ctx.channel().eventLoop());
+      }
+      return stage;
+   }
+}
@@ -93,6 +93,7 @@ public BlockingManager getBlockingManager() {
    protected CompletionStage<RespRequestHandler> actualHandleRequest(ChannelHandlerContext ctx, RespCommand type,
          List<byte[]> arguments) {
       if (type instanceof Resp3Command resp3Command) {
+         respServer.clientTracking().track(cache(), ctx.channel(), type, arguments);
          return resp3Command.perform(this, ctx, arguments);
       } else {
          return super.actualHandleRequest(ctx, type, arguments);
@@ -7,6 +7,7 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.server.core.transport.CacheInitializeInboundAdapter;
+import org.infinispan.server.resp.configuration.RespServerConfiguration;
 import org.infinispan.server.resp.logging.AccessLoggerManager;
 import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.logging.RespAccessLogger;
@@ -35,6 +36,8 @@ public class RespHandler extends ChannelInboundHandlerAdapter {
 
    private final boolean traceAccess = RespAccessLogger.isEnabled();
    private AccessLoggerManager accessLogger;
+   // Pending pipelined GET or SET commands, null when batching is disabled
+   private PipelineBatch batch;
 
    static {
       MINIMUM_BUFFER_SIZE = Integer.parseInt(System.getProperty("infinispan.resp.minimum-buffer-size", "4096"));
@@ -106,6 +109,11 @@ private void initializeHandlerState(ChannelHandlerContext ctx) {
             ? new AccessLoggerManager(ctx, requestHandler.respServer().getTimeService())
             : null;
       requestHandler.respServer().metadataRepository().client().incrementConnectedClients();
+      RespServerConfiguration configuration = respServer.getConfiguration();
+      // The access log tracks commands one by one
+      if (configuration != null && configuration.pipelineBatchSize() > 0 && !traceAccess) {
+         batch = new PipelineBatch(configuration.pipelineBatchSize());
+      }
    }
 
    @Override
@@ -135,6 +143,7 @@ public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
       super.channelUnregistered(ctx);
       if (requestHandler != null) {
          requestHandler.handleChannelDisconnect(ctx);
+         requestHandler.respServer().clientTracking().disable(ctx.channel());
          if (traceAccess) accessLogger.close();
          requestHandler.respServer().metadataRepository().client().decrementConnectedClients();
       }
@@ -142,6 +151,10 @@ public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
 
    @Override
    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+      // The batch only spans the commands of a single read
+      if (batch != null && !batch.isEmpty() && ctx.channel().config().isAutoRead()) {
+         dispatchBatch(ctx, null, null);
+      }
       // If we disabled auto read in the middle of a read, that means we are waiting on a pending command to complete
       if (ctx.channel().config().isAutoRead()) {
          flushBufferIfNeeded(ctx, false, null);
@@ -189,6 +202,56 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
          return;
       }
 
+      process(ctx, command, arguments);
+   }
+
+   /**
+    * @return true if reading can continue, false if the command is pending and it will resume reading itself
+    */
+   private boolean process(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments) {
+      if (batch != null && requestHandler instanceof Resp3Handler) {
+         if (batch.add(command, arguments)) {
+            return !batch.isFull() || dispatchBatch(ctx, null, null);
+         }
+         // The replies of the batched commands must be written before the reply of this command
+         if (!batch.isEmpty()) {
+            return dispatchBatch(ctx, command, arguments);
+         }
+      }
+      return executeCommand(ctx, command, arguments);
+   }
+
+   /**
+    * Dispatches the pending batch and then processes the given command, if any. Reading is suspended until the batch
+    * completes.
+    */
+   private boolean dispatchBatch(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments) {
+      requestHandler.initializeIfNecessary(ctx);
+      CompletionStage<Void> stage = batch.dispatch(ctx, (Resp3Handler) requestHandler);
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         return command == null || process(ctx, command, arguments);
+      }
+      log.tracef("Disabling auto read for channel %s until batched commands are complete", ctx.channel());
+      ctx.channel().config().setAutoRead(false);
+      stage.whenCompleteAsync((ignore, t) -> {
+         assert ctx.channel().eventLoop().inEventLoop() : "Batch should complete only in event loop thread, it was " + Thread.currentThread().getName();
+         if (t != null) {
+            log.tracef(t, "Batched commands failed, pass to writer");
+            requestHandler.writer.error(t);
+         }
+         // The arguments were not reused, as nothing was decoded while auto read was disabled.
+         // The command is executed directly: batching it again would leave it pending, as the read that contained
+         // it is already complete and nothing else would dispatch the batch
+         if (command == null || executeCommand(ctx, command, arguments)) {
+            flushBufferIfNeeded(ctx, false, stage);
+            log.tracef("Re-enabling auto read for channel %s as batched commands are complete", ctx.channel());
+            resumeAutoRead(ctx);
+         }
+      }, ctx.executor());
+      return false;
+   }
+
+   private boolean executeCommand(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments) {
       if (traceAccess) accessLogger.track(command, arguments);
 
       CompletionStage<RespRequestHandler> stage = requestHandler.handleRequest(ctx, command, arguments);
@@ -200,11 +263,11 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
             flushBufferIfNeeded(ctx, true, stage);
             ctx.channel().config().setAutoRead(false);
             resumeAutoReadOnWritability = true;
-            return;
+            return false;
          }
          if (traceAccess) accessLogger.register(stage);
 
-         return;
+         return true;
       }
       log.tracef("Disabling auto read for channel %s until previous command is complete", ctx.channel());
       // Disable reading any more from socket - until command is complete
@@ -221,6 +284,7 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
          log.tracef("Re-enabling auto read for channel %s as previous command is complete", ctx.channel());
          resumeAutoRead(ctx);
       }, ctx.executor());
+      return false;
    }
 
    @Override
@@ -35,6 +35,8 @@
 import org.infinispan.server.resp.logging.Messages;
 import org.infinispan.server.resp.meta.MetadataRepository;
 import org.infinispan.server.resp.scripting.LuaTaskEngine;
+import org.infinispan.server.resp.search.SearchIndexes;
+import org.infinispan.server.resp.tracking.ClientTracking;
 import org.infinispan.tasks.manager.TaskManager;
 import org.infinispan.transaction.LockingMode;
 
@@ -61,6 +63,8 @@ public class RespServer extends AbstractProtocolServer<RespServerConfiguration>
    private TimeService timeService;
    private SegmentSlotRelation segmentSlots;
    private LuaTaskEngine luaTaskEngine;
+   private final ClientTracking clientTracking = new ClientTracking();
+   private final SearchIndexes searchIndexes = new SearchIndexes();
    private final Random random = new Random(); // TODO: we should be able to set a cluster-wide seed
 
    public RespServer() {
@@ -80,6 +84,7 @@ protected void internalPostStart() {
       metadataRepository = new MetadataRepository();
       initializeLuaTaskEngine(gcr);
       defineCacheConfiguration();
+      searchIndexes.start(cacheManager, getQualifiedName());
 
       super.internalPostStart();
    }
@@ -200,6 +205,7 @@ public void stop() {
       if (luaTaskEngine != null) {
          luaTaskEngine.shutdown();
       }
+      searchIndexes.stop();
    }
 
    /**
@@ -241,6 +247,14 @@ public SegmentSlotRelation segmentSlotRelation() {
       return segmentSlots;
    }
 
+   public ClientTracking clientTracking() {
+      return clientTracking;
+   }
+
+   public SearchIndexes searchIndexes() {
+      return searchIndexes;
+   }
+
    public MetadataRepository metadataRepository() {
       return metadataRepository;
    }
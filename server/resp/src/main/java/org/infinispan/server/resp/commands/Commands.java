@@ -156,7 +156,11 @@
 import org.infinispan.server.resp.commands.scripting.eval.EVALSHA_RO;
 import org.infinispan.server.resp.commands.scripting.eval.EVAL_RO;
 import org.infinispan.server.resp.commands.scripting.eval.SCRIPT;
+import org.infinispan.server.resp.commands.search.FT_AGGREGATE;
+import org.infinispan.server.resp.commands.search.FT_CREATE;
+import org.infinispan.server.resp.commands.search.FT_DROPINDEX;
 import org.infinispan.server.resp.commands.search.FT_LIST;
+import org.infinispan.server.resp.commands.search.FT_SEARCH;
 import org.infinispan.server.resp.commands.set.SADD;
 import org.infinispan.server.resp.commands.set.SCARD;
 import org.infinispan.server.resp.commands.set.SDIFF;
@@ -264,7 +268,7 @@ public final class Commands {
       // DEL should always be first here
       ALL_COMMANDS[3] = new RespCommand[]{new DEL(), new DECR(), new DECRBY(), new DBSIZE(), new DELEX(), new DIGEST(), new DISCARD()};
       ALL_COMMANDS[4] = new RespCommand[]{new ECHO(), new EXISTS(), new EXPIRE(), new EXPIREAT(), new EXPIRETIME(), new EXEC(), new EVAL(), new EVAL_RO(), new EVALSHA(), new EVALSHA_RO()};
-      ALL_COMMANDS[5] = new RespCommand[]{new FLUSHDB(), new FLUSHALL(), new FT_LIST()};
+      ALL_COMMANDS[5] = new RespCommand[]{new FLUSHDB(), new FLUSHALL(), new FT_SEARCH(), new FT_AGGREGATE(), new FT_CREATE(), new FT_DROPINDEX(), new FT_LIST()};
       // GET should always be first here
       ALL_COMMANDS[6] = new RespCommand[]{new GET(), new GETDEL(), new GETEX(), new GETRANGE(), new GETSET(), new GETBIT(),
             new GEOADD(), new GEODIST(), new GEOHASH(), new GEOPOS(), new GEORADIUS(), new GEORADIUSBYMEMBER(),
@@ -17,7 +17,10 @@
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.connection.MODULE;
+import org.infinispan.server.resp.exception.RespCommandException;
 import org.infinispan.server.resp.meta.ClientMetadata;
+import org.infinispan.server.resp.scripting.LuaScriptStats;
+import org.infinispan.server.resp.scripting.LuaTaskEngine;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -51,6 +54,7 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          }
       }
 
+      LuaTaskEngine luaEngine = luaEngine(handler);
       StringBuilder sb = new StringBuilder();
       if (sections.contains(Section.SERVER)) {
          sb.append("# Server\r\n");
@@ -137,7 +141,7 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          sb.append("used_memory_vm_eval:0\r\n");
          sb.append("used_memory_lua_human:0K\r\n");
          sb.append("used_memory_scripts_eval:0\r\n");
-         sb.append("number_of_cached_scripts:0\r\n");
+         sb.append("number_of_cached_scripts:").append(luaEngine == null ? 0 : luaEngine.cachedScripts()).append(CRLF_STRING);
          sb.append("number_of_functions:0\r\n");
          sb.append("number_of_libraries:0\r\n");
          sb.append("used_memory_vm_functions:0\r\n");
@@ -258,6 +262,14 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          sb.append("io_threaded_writes_processed:0\r\n");
          sb.append("reply_buffer_shrinks:0\r\n");
          sb.append("reply_buffer_expands:0\r\n");
+         if (luaEngine != null) {
+            LuaScriptStats stats = luaEngine.stats();
+            sb.append("lua_scripts_compiled:").append(stats.compilations()).append(CRLF_STRING);
+            sb.append("lua_compile_time_usec:").append(stats.compileTimeMicros()).append(CRLF_STRING);
+            sb.append("lua_scripts_executed:").append(stats.executions()).append(CRLF_STRING);
+            sb.append("lua_execute_time_usec:").append(stats.executeTimeMicros()).append(CRLF_STRING);
+            sb.append("lua_compiled_scripts_evicted:").append(stats.evictions()).append(CRLF_STRING);
+         }
          sb.append(CRLF_STRING);
       }
 
@@ -365,6 +377,15 @@ EnumSet<Section> implies() {
       }
    }
 
+   private static LuaTaskEngine luaEngine(Resp3Handler handler) {
+      try {
+         return handler.respServer().luaEngine();
+      } catch (RespCommandException e) {
+         // The script engine is disabled
+         return null;
+      }
+   }
+
    private void appendClientSection(StringBuilder sb, ClientMetadata metadata) {
       sb.append("# Clients\r\n");
 
@@ -4,7 +4,7 @@
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.regex.Pattern;
@@ -17,7 +17,12 @@
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.RespVersion;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.serialization.Resp3Type;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+import org.infinispan.server.resp.serialization.SerializationHint;
+import org.infinispan.server.resp.tracking.ClientTracking;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.group.ChannelGroup;
@@ -118,15 +123,75 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
             break;
          }
          case "TRACKING":
-            handler.writer().customError("client tracking not supported");
-            break;
+            return tracking(handler, ctx, arguments);
          case "TRACKINGINFO":
-            handler.writer().map(Collections.emptyMap());
+            handler.writer().map(handler.respServer().clientTracking().info(ctx.channel()),
+                  new SerializationHint.KeyValueHint(Resp3Type.BULK_STRING, Resp3Type.AUTO));
             break;
       }
       return handler.myStage();
    }
 
+   private CompletionStage<RespRequestHandler> tracking(Resp3Handler handler, ChannelHandlerContext ctx,
+                                                        List<byte[]> arguments) {
+      if (arguments.size() < 2) {
+         handler.writer().wrongArgumentNumber(this);
+         return handler.myStage();
+      }
+      ClientTracking tracking = handler.respServer().clientTracking();
+      String mode = utf8(arguments.get(1)).toUpperCase();
+      if ("OFF".equals(mode)) {
+         tracking.disable(ctx.channel());
+         handler.writer().ok();
+         return handler.myStage();
+      }
+      if (!"ON".equals(mode)) {
+         handler.writer().syntaxError();
+         return handler.myStage();
+      }
+      boolean bcast = false;
+      List<byte[]> prefixes = new ArrayList<>();
+      for (int i = 2; i < arguments.size(); i++) {
+         String option = utf8(arguments.get(i)).toUpperCase();
+         switch (option) {
+            case "BCAST":
+               bcast = true;
+               break;
+            case "PREFIX":
+               if (++i == arguments.size()) {
+                  handler.writer().syntaxError();
+                  return handler.myStage();
+               }
+               prefixes.add(arguments.get(i));
+               break;
+            case "REDIRECT":
+            case "OPTIN":
+            case "OPTOUT":
+            case "NOLOOP":
+               handler.writer().customError("unsupported option " + option);
+               return handler.myStage();
+            default:
+               handler.writer().syntaxError();
+               return handler.myStage();
+         }
+      }
+      if (!bcast && !prefixes.isEmpty()) {
+         handler.writer().customError("PREFIX option requires BCAST mode to be enabled");
+         return handler.myStage();
+      }
+      // Invalidations are push messages, and there is no redirection to a RESP2 connection
+      if (handler.writer().version() != RespVersion.RESP3) {
+         handler.writer().customError("client tracking requires RESP3");
+         return handler.myStage();
+      }
+      CompletionStage<Void> stage = tracking.enable(handler.cache(), ctx.channel(), bcast, prefixes);
+      if (stage == null) {
+         handler.writer().customError("You can't switch BCAST mode on/off before disabling tracking for this client, and then re-enabling it with a different mode.");
+         return handler.myStage();
+      }
+      return handler.stageToReturn(stage, ctx, ResponseWriter.OK);
+   }
+
    private void addInfo(StringBuilder sb, ConnectionMetadata metadata) {
       sb.append("id=");
       sb.append(metadata.id());
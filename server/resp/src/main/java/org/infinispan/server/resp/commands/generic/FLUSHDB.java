@@ -11,6 +11,7 @@
 import org.infinispan.server.resp.RespUtil;
 import org.infinispan.server.resp.commands.Resp3Command;
 import org.infinispan.server.resp.serialization.ResponseWriter;
+import org.infinispan.server.resp.tracking.ClientTracking;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -35,9 +36,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       if (arguments.size() == 1) {
          byte[] mode = arguments.get(0);
          if (RespUtil.isAsciiBytesEquals(SYNC_BYTES, mode)) {
-            return handler.stageToReturn(handler.cache().clearAsync(), ctx, ResponseWriter.OK);
+            return handler.stageToReturn(clear(handler), ctx, ResponseWriter.OK);
          } else if (RespUtil.isAsciiBytesEquals(ASYNC_BYTES, mode)) {
-            handler.cache().clearAsync();
+            clear(handler);
             handler.writer().ok();
             return handler.myStage();
          } else {
@@ -45,6 +46,14 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             return handler.myStage();
          }
       }
-      return handler.stageToReturn(handler.cache().clearAsync(), ctx, ResponseWriter.OK);
+      return handler.stageToReturn(clear(handler), ctx, ResponseWriter.OK);
+   }
+
+   private static CompletionStage<Void> clear(Resp3Handler handler) {
+      // Clearing the cache does not notify the listeners, so the tracking connections of every node are told to drop
+      // everything
+      String serverName = handler.respServer().getQualifiedName();
+      return handler.cache().clearAsync()
+            .thenCompose(ignore -> ClientTracking.invalidateAll(handler.cache(), serverName));
    }
 }
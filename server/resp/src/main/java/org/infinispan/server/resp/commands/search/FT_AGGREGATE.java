@@ -0,0 +1,338 @@
+package org.infinispan.server.resp.commands.search;
+
+import static org.infinispan.server.resp.RespUtil.utf8;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.search.SearchHit;
+import org.infinispan.server.resp.search.SearchIndex;
+import org.infinispan.server.resp.serialization.Resp3Type;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * FT.AGGREGATE
+ * <p>
+ * Aggregates the indexed attribute values of the matching documents, which are collected from the index of every
+ * node without reading the documents from the cache.
+ * Supports {@code LOAD}, {@code GROUPBY} with the {@code COUNT}, {@code COUNT_DISTINCT}, {@code SUM}, {@code MIN},
+ * {@code MAX} and {@code AVG} reducers, {@code SORTBY} and {@code LIMIT}, applied in this order. Only the attributes
+ * of the index schema can be loaded or grouped.
+ *
+ * @see <a href="https://redis.io/docs/latest/commands/ft.aggregate/">FT.AGGREGATE</a>
+ * @since 16.3
+ */
+public class FT_AGGREGATE extends RespCommand implements Resp3Command {
+   public static final String NAME = "FT.AGGREGATE";
+
+   public FT_AGGREGATE() {
+      super(NAME, -3, 0, 0, 0, AclCategory.SEARCH.mask() | AclCategory.READ.mask() | AclCategory.SLOW.mask());
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      String name = utf8(arguments.get(0));
+      CompletionStage<SearchIndex> stage = handler.respServer().searchIndexes().get(handler.cache(), name);
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         return aggregate(handler, ctx, arguments, name, CompletionStages.join(stage));
+      }
+      // The index is built on this node the first time it is used
+      return handler.stageToReturn(stage.thenComposeAsync(index -> aggregate(handler, ctx, arguments, name, index),
+            ctx.channel().eventLoop()), ctx);
+   }
+
+   private CompletionStage<RespRequestHandler> aggregate(Resp3Handler handler, ChannelHandlerContext ctx,
+                                                         List<byte[]> arguments, String name, SearchIndex index) {
+      ResponseWriter writer = handler.writer();
+      if (index == null) {
+         writer.customError(name + ": no such index");
+         return handler.myStage();
+      }
+
+      List<String> loads = new ArrayList<>();
+      List<String> groupBy = null;
+      List<Reducer> reducers = new ArrayList<>();
+      List<String> sortBy = new ArrayList<>();
+      List<Boolean> sortAscending = new ArrayList<>();
+      int offset = 0;
+      int limit = Integer.MAX_VALUE;
+      for (int i = 2; i < arguments.size(); i++) {
+         String option = utf8(arguments.get(i)).toUpperCase(Locale.ROOT);
+         switch (option) {
+            case "VERBATIM":
+               break;
+            case "DIALECT":
+               i++;
+               break;
+            case "LOAD": {
+               if (i + 1 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               int count = ArgumentUtils.toInt(arguments.get(++i));
+               if (count < 0 || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               for (int j = 0; j < count; j++) {
+                  loads.add(SearchResults.attribute(arguments.get(++i)));
+               }
+               break;
+            }
+            case "GROUPBY": {
+               if (groupBy != null) {
+                  writer.customError("unsupported option multiple GROUPBY");
+                  return handler.myStage();
+               }
+               if (i + 1 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               int count = ArgumentUtils.toInt(arguments.get(++i));
+               if (count < 0 || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               groupBy = new ArrayList<>(count);
+               for (int j = 0; j < count; j++) {
+                  groupBy.add(SearchResults.attribute(arguments.get(++i)));
+               }
+               break;
+            }
+            case "REDUCE": {
+               if (groupBy == null || i + 2 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               String function = utf8(arguments.get(++i)).toUpperCase(Locale.ROOT);
+               int count = ArgumentUtils.toInt(arguments.get(++i));
+               int expected = function.equals("COUNT") ? 0 : 1;
+               if (!Reducer.FUNCTIONS.contains(function)) {
+                  writer.customError("unsupported reducer " + function);
+                  return handler.myStage();
+               }
+               if (count != expected || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               String attribute = count == 0 ? null : SearchResults.attribute(arguments.get(++i));
+               String alias = "__generated_alias" + function.toLowerCase(Locale.ROOT) + (attribute == null ? "" : attribute.toLowerCase(Locale.ROOT));
+               if (i + 2 < arguments.size() && utf8(arguments.get(i + 1)).equalsIgnoreCase("AS")) {
+                  alias = utf8(arguments.get(i + 2));
+                  i += 2;
+               }
+               reducers.add(new Reducer(function, attribute, alias));
+               break;
+            }
+            case "SORTBY": {
+               if (i + 1 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               int count = ArgumentUtils.toInt(arguments.get(++i));
+               if (count < 0 || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               for (int j = 0; j < count; j++) {
+                  String argument = utf8(arguments.get(++i));
+                  if (argument.equalsIgnoreCase("ASC") || argument.equalsIgnoreCase("DESC")) {
+                     if (sortBy.isEmpty()) {
+                        writer.syntaxError();
+                        return handler.myStage();
+                     }
+                     sortAscending.set(sortBy.size() - 1, argument.equalsIgnoreCase("ASC"));
+                  } else {
+                     sortBy.add(SearchResults.attribute(arguments.get(i)));
+                     sortAscending.add(true);
+                  }
+               }
+               if (i + 2 < arguments.size() && utf8(arguments.get(i + 1)).equalsIgnoreCase("MAX")) {
+                  limit = ArgumentUtils.toInt(arguments.get(i + 2));
+                  i += 2;
+               }
+               break;
+            }
+            case "LIMIT":
+               if (i + 2 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               offset = ArgumentUtils.toInt(arguments.get(++i));
+               limit = ArgumentUtils.toInt(arguments.get(++i));
+               if (offset < 0 || limit < 0) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               break;
+            default:
+               writer.customError("unsupported option " + option);
+               return handler.myStage();
+         }
+      }
+
+      CompletionStage<List<SearchHit>> stage;
+      try {
+         stage = handler.respServer().searchIndexes().search(handler.cache(), index, utf8(arguments.get(1)));
+      } catch (IllegalArgumentException e) {
+         writer.customError(e.getMessage());
+         return handler.myStage();
+      }
+
+      Set<String> attributes = new HashSet<>(loads);
+      if (groupBy != null) {
+         attributes.addAll(groupBy);
+         for (Reducer reducer : reducers) {
+            if (reducer.attribute != null) {
+               attributes.add(reducer.attribute);
+            }
+         }
+      }
+      List<String> groups = groupBy;
+      int from = offset;
+      int count = limit;
+      return handler.stageToReturn(stage, ctx, (hits, w) -> {
+         List<Map<String, String>> rows = new ArrayList<>(hits.size());
+         for (SearchHit hit : hits) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+               String value = hit.values().get(attribute);
+               if (value != null) {
+                  row.put(attribute, value);
+               }
+            }
+            rows.add(row);
+         }
+         if (groups != null) {
+            rows = group(rows, groups, reducers);
+         }
+         if (!sortBy.isEmpty()) {
+            rows.sort(order(sortBy, sortAscending));
+         }
+
+         List<Object> reply = new ArrayList<>();
+         reply.add((long) rows.size());
+         int end = (int) Math.min((long) from + count, rows.size());
+         for (int i = Math.min(from, rows.size()); i < end; i++) {
+            List<Object> row = new ArrayList<>();
+            for (Map.Entry<String, String> entry : rows.get(i).entrySet()) {
+               row.add(SearchResults.bytes(entry.getKey()));
+               row.add(SearchResults.bytes(entry.getValue()));
+            }
+            reply.add(row);
+         }
+         w.array(reply, Resp3Type.AUTO);
+      });
+   }
+
+   private static Comparator<Map<String, String>> order(List<String> sortBy, List<Boolean> sortAscending) {
+      Comparator<Map<String, String>> comparator = null;
+      for (int i = 0; i < sortBy.size(); i++) {
+         String attribute = sortBy.get(i);
+         boolean ascending = sortAscending.get(i);
+         Comparator<Map<String, String>> next = (a, b) -> {
+            String va = a.get(attribute);
+            String vb = b.get(attribute);
+            if (va == null || vb == null) {
+               return SearchResults.compare(va, vb);
+            }
+            return ascending ? SearchResults.compare(va, vb) : SearchResults.compare(vb, va);
+         };
+         comparator = comparator == null ? next : comparator.thenComparing(next);
+      }
+      return comparator;
+   }
+
+   private static List<Map<String, String>> group(List<Map<String, String>> rows, List<String> groupBy,
+                                                  List<Reducer> reducers) {
+      Map<List<String>, List<Map<String, String>>> groups = new LinkedHashMap<>();
+      for (Map<String, String> row : rows) {
+         List<String> key = new ArrayList<>(groupBy.size());
+         for (String attribute : groupBy) {
+            key.add(row.get(attribute));
+         }
+         groups.computeIfAbsent(key, ignore -> new ArrayList<>()).add(row);
+      }
+      List<Map<String, String>> result = new ArrayList<>(groups.size());
+      for (Map.Entry<List<String>, List<Map<String, String>>> group : groups.entrySet()) {
+         Map<String, String> row = new LinkedHashMap<>();
+         for (int i = 0; i < groupBy.size(); i++) {
+            String value = group.getKey().get(i);
+            if (value != null) {
+               row.put(groupBy.get(i), value);
+            }
+         }
+         for (Reducer reducer : reducers) {
+            row.put(reducer.alias, reducer.reduce(group.getValue()));
+         }
+         result.add(row);
+      }
+      return result;
+   }
+
+   private record Reducer(String function, String attribute, String alias) {
+      static final Set<String> FUNCTIONS = Set.of("COUNT", "COUNT_DISTINCT", "SUM", "MIN", "MAX", "AVG");
+
+      String reduce(List<Map<String, String>> rows) {
+         if (function.equals("COUNT")) {
+            return Integer.toString(rows.size());
+         }
+         if (function.equals("COUNT_DISTINCT")) {
+            Set<String> distinct = new HashSet<>();
+            for (Map<String, String> row : rows) {
+               String value = row.get(attribute);
+               if (value != null) {
+                  distinct.add(value);
+               }
+            }
+            return Integer.toString(distinct.size());
+         }
+         double result = switch (function) {
+            case "MIN" -> Double.POSITIVE_INFINITY;
+            case "MAX" -> Double.NEGATIVE_INFINITY;
+            default -> 0;
+         };
+         int count = 0;
+         for (Map<String, String> row : rows) {
+            String value = row.get(attribute);
+            if (value == null) {
+               continue;
+            }
+            double v;
+            try {
+               v = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+               continue;
+            }
+            count++;
+            result = switch (function) {
+               case "MIN" -> Math.min(result, v);
+               case "MAX" -> Math.max(result, v);
+               default -> result + v;
+            };
+         }
+         if (function.equals("AVG")) {
+            result = count == 0 ? 0 : result / count;
+         }
+         return SearchIndex.format(result);
+      }
+   }
+}
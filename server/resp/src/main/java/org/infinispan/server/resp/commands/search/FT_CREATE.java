@@ -0,0 +1,146 @@
+package org.infinispan.server.resp.commands.search;
+
+import static org.infinispan.server.resp.RespUtil.utf8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.search.SearchField;
+import org.infinispan.server.resp.search.SearchIndex;
+import org.infinispan.server.resp.search.SearchIndexDefinition;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * FT.CREATE
+ * <p>
+ * Supports indexes {@code ON HASH} and {@code ON JSON}, with {@code PREFIX}, and {@code TEXT}, {@code TAG} and
+ * {@code NUMERIC} attributes.
+ *
+ * @see <a href="https://redis.io/docs/latest/commands/ft.create/">FT.CREATE</a>
+ * @since 16.3
+ */
+public class FT_CREATE extends RespCommand implements Resp3Command {
+   public static final String NAME = "FT.CREATE";
+
+   public FT_CREATE() {
+      super(NAME, -2, 0, 0, 0, AclCategory.SEARCH.mask() | AclCategory.WRITE.mask() | AclCategory.SLOW.mask());
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      ResponseWriter writer = handler.writer();
+      String name = utf8(arguments.get(0));
+      SearchIndex.Source source = SearchIndex.Source.HASH;
+      List<byte[]> prefixes = new ArrayList<>();
+      int i = 1;
+      for (; i < arguments.size(); i++) {
+         String option = utf8(arguments.get(i)).toUpperCase(Locale.ROOT);
+         if (option.equals("SCHEMA")) {
+            break;
+         }
+         switch (option) {
+            case "ON":
+               if (++i == arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               try {
+                  source = SearchIndex.Source.valueOf(utf8(arguments.get(i)).toUpperCase(Locale.ROOT));
+               } catch (IllegalArgumentException e) {
+                  writer.customError("Unknown index type " + utf8(arguments.get(i)));
+                  return handler.myStage();
+               }
+               break;
+            case "PREFIX":
+               if (++i == arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               int count = ArgumentUtils.toInt(arguments.get(i));
+               if (count < 0 || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               for (int j = 0; j < count; j++) {
+                  prefixes.add(arguments.get(++i));
+               }
+               break;
+            default:
+               writer.customError("unsupported option " + option);
+               return handler.myStage();
+         }
+      }
+      if (i >= arguments.size() - 2) {
+         writer.customError("Fields arguments are missing");
+         return handler.myStage();
+      }
+
+      List<SearchField> fields = new ArrayList<>();
+      for (i++; i < arguments.size(); i++) {
+         String path = utf8(arguments.get(i));
+         String alias = path;
+         if (i + 2 < arguments.size() && utf8(arguments.get(i + 1)).equalsIgnoreCase("AS")) {
+            alias = utf8(arguments.get(i + 2));
+            i += 2;
+         }
+         if (++i == arguments.size()) {
+            writer.customError("Field type is missing for " + path);
+            return handler.myStage();
+         }
+         SearchField.Type type;
+         try {
+            type = SearchField.Type.valueOf(utf8(arguments.get(i)).toUpperCase(Locale.ROOT));
+         } catch (IllegalArgumentException e) {
+            writer.customError("unsupported field type " + utf8(arguments.get(i)));
+            return handler.myStage();
+         }
+         String separator = ",";
+         boolean sortable = false;
+         while (i + 1 < arguments.size()) {
+            String modifier = utf8(arguments.get(i + 1)).toUpperCase(Locale.ROOT);
+            if (modifier.equals("SORTABLE")) {
+               sortable = true;
+            } else if (modifier.equals("UNF") || modifier.equals("NOSTEM") && type == SearchField.Type.TEXT) {
+               // Values are never normalized or stemmed
+            } else if (modifier.equals("WEIGHT") && type == SearchField.Type.TEXT && i + 2 < arguments.size()) {
+               // Results are not scored
+               i++;
+            } else if (modifier.equals("SEPARATOR") && type == SearchField.Type.TAG && i + 2 < arguments.size()) {
+               byte[] value = arguments.get(i + 2);
+               if (value.length != 1) {
+                  writer.customError("Tag separator must be a single character");
+                  return handler.myStage();
+               }
+               separator = String.valueOf((char) value[0]);
+               i++;
+            } else {
+               break;
+            }
+            i++;
+         }
+         fields.add(new SearchField(alias, path, type, separator, sortable));
+      }
+
+      SearchIndexDefinition definition = new SearchIndexDefinition(name, source, prefixes, fields);
+      CompletionStage<Boolean> stage = handler.respServer().searchIndexes().create(handler.cache(), definition);
+      return handler.stageToReturn(stage, ctx, (created, w) -> {
+         if (created) {
+            w.ok();
+         } else {
+            w.customError("Index already exists");
+         }
+      });
+   }
+}
@@ -0,0 +1,81 @@
+package org.infinispan.server.resp.commands.search;
+
+import static org.infinispan.server.resp.RespUtil.utf8;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.search.SearchHit;
+import org.infinispan.server.resp.search.SearchIndexes;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * FT.DROPINDEX
+ *
+ * @see <a href="https://redis.io/docs/latest/commands/ft.dropindex/">FT.DROPINDEX</a>
+ * @since 16.3
+ */
+public class FT_DROPINDEX extends RespCommand implements Resp3Command {
+   public static final String NAME = "FT.DROPINDEX";
+   private static final BiConsumer<Boolean, ResponseWriter> DROPPED = (dropped, writer) -> {
+      if (dropped) {
+         writer.ok();
+      } else {
+         writer.customError("Unknown Index name");
+      }
+   };
+
+   public FT_DROPINDEX() {
+      super(NAME, -2, 0, 0, 0, AclCategory.SEARCH.mask() | AclCategory.WRITE.mask() | AclCategory.SLOW.mask());
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      boolean deleteDocuments = false;
+      if (arguments.size() > 1) {
+         if (arguments.size() > 2 || !utf8(arguments.get(1)).equalsIgnoreCase("DD")) {
+            handler.writer().syntaxError();
+            return handler.myStage();
+         }
+         deleteDocuments = true;
+      }
+      String name = utf8(arguments.get(0));
+      SearchIndexes searchIndexes = handler.respServer().searchIndexes();
+      if (!deleteDocuments) {
+         return handler.stageToReturn(searchIndexes.drop(handler.cache(), name), ctx, DROPPED);
+      }
+      // The keys of the documents are collected from the indexes of all the nodes before they are discarded
+      AdvancedCache<byte[], Object> cache = SearchIndexes.typed(handler.cache());
+      CompletionStage<Boolean> stage = searchIndexes.get(handler.cache(), name).thenCompose(index -> {
+         if (index == null) {
+            return CompletableFutures.completedFalse();
+         }
+         return searchIndexes.search(handler.cache(), index, "*").thenCompose(hits ->
+               searchIndexes.drop(handler.cache(), name).thenCompose(dropped -> {
+                  if (!dropped) {
+                     return CompletableFutures.completedFalse();
+                  }
+                  AggregateCompletionStage<Boolean> removals = CompletionStages.aggregateCompletionStage(true);
+                  for (SearchHit hit : hits) {
+                     removals.dependsOn(cache.removeAsync(hit.key()));
+                  }
+                  return removals.freeze();
+               }));
+      });
+      return handler.stageToReturn(stage, ctx, DROPPED);
+   }
+}
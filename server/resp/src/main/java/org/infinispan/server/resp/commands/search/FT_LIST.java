@@ -8,6 +8,7 @@
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.serialization.Resp3Type;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -30,7 +31,7 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       ChannelHandlerContext ctx,
                                                       List<byte[]> arguments) {
       ResponseWriter writer = handler.writer();
-      writer.emptySet();
+      writer.set(handler.respServer().searchIndexes().names(handler.cache()), Resp3Type.BULK_STRING);
       return handler.myStage();
    }
 }
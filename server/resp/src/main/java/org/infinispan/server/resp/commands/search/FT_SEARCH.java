@@ -0,0 +1,251 @@
+package org.infinispan.server.resp.commands.search;
+
+import static org.infinispan.server.resp.RespUtil.utf8;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.multimap.impl.HashMapBucket;
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.json.JSONUtil;
+import org.infinispan.server.resp.json.JsonBucket;
+import org.infinispan.server.resp.search.SearchField;
+import org.infinispan.server.resp.search.SearchHit;
+import org.infinispan.server.resp.search.SearchIndex;
+import org.infinispan.server.resp.search.SearchIndexes;
+import org.infinispan.server.resp.search.SearchQuery;
+import org.infinispan.server.resp.serialization.Resp3Type;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * FT.SEARCH
+ * <p>
+ * The matching documents are found in the index of every node, and only the documents of the requested page are read
+ * from the cache. Supports {@code NOCONTENT}, {@code RETURN}, {@code SORTBY} and {@code LIMIT}. Results are not scored, and
+ * they are ordered by key unless {@code SORTBY} is given. The reply always has the RESP2 layout, a total followed by
+ * the keys and their contents.
+ *
+ * @see <a href="https://redis.io/docs/latest/commands/ft.search/">FT.SEARCH</a>
+ * @see SearchQuery
+ * @since 16.3
+ */
+public class FT_SEARCH extends RespCommand implements Resp3Command {
+   public static final String NAME = "FT.SEARCH";
+
+   public FT_SEARCH() {
+      super(NAME, -3, 0, 0, 0, AclCategory.SEARCH.mask() | AclCategory.READ.mask() | AclCategory.SLOW.mask());
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      String name = utf8(arguments.get(0));
+      CompletionStage<SearchIndex> stage = handler.respServer().searchIndexes().get(handler.cache(), name);
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         return search(handler, ctx, arguments, name, CompletionStages.join(stage));
+      }
+      // The index is built on this node the first time it is used
+      return handler.stageToReturn(stage.thenComposeAsync(index -> search(handler, ctx, arguments, name, index),
+            ctx.channel().eventLoop()), ctx);
+   }
+
+   private CompletionStage<RespRequestHandler> search(Resp3Handler handler, ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments, String name, SearchIndex index) {
+      ResponseWriter writer = handler.writer();
+      if (index == null) {
+         writer.customError(name + ": no such index");
+         return handler.myStage();
+      }
+
+      boolean noContent = false;
+      List<String> returns = null;
+      String sortBy = null;
+      boolean ascending = true;
+      int offset = 0;
+      int limit = 10;
+      for (int i = 2; i < arguments.size(); i++) {
+         String option = utf8(arguments.get(i)).toUpperCase(Locale.ROOT);
+         switch (option) {
+            case "NOCONTENT":
+               noContent = true;
+               break;
+            case "VERBATIM":
+            case "NOSTOPWORDS":
+               break;
+            case "DIALECT":
+               i++;
+               break;
+            case "RETURN": {
+               if (i + 1 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               int count = ArgumentUtils.toInt(arguments.get(++i));
+               if (count < 0 || i + count >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               returns = new ArrayList<>(count);
+               for (int j = 0; j < count; j++) {
+                  returns.add(SearchResults.attribute(arguments.get(++i)));
+               }
+               break;
+            }
+            case "SORTBY":
+               if (i + 1 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               sortBy = SearchResults.attribute(arguments.get(++i));
+               if (i + 1 < arguments.size()) {
+                  String order = utf8(arguments.get(i + 1)).toUpperCase(Locale.ROOT);
+                  if (order.equals("ASC") || order.equals("DESC")) {
+                     ascending = order.equals("ASC");
+                     i++;
+                  }
+               }
+               break;
+            case "LIMIT":
+               if (i + 2 >= arguments.size()) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               offset = ArgumentUtils.toInt(arguments.get(++i));
+               limit = ArgumentUtils.toInt(arguments.get(++i));
+               if (offset < 0 || limit < 0) {
+                  writer.syntaxError();
+                  return handler.myStage();
+               }
+               break;
+            default:
+               writer.customError("unsupported option " + option);
+               return handler.myStage();
+         }
+      }
+
+      CompletionStage<List<SearchHit>> stage;
+      try {
+         stage = handler.respServer().searchIndexes().search(handler.cache(), index, utf8(arguments.get(1)));
+      } catch (IllegalArgumentException e) {
+         writer.customError(e.getMessage());
+         return handler.myStage();
+      }
+      boolean keysOnly = noContent;
+      List<String> attributes = returns;
+      Comparator<SearchHit> order = order(sortBy, ascending);
+      int from = offset;
+      int count = limit;
+      CompletionStage<List<Object>> reply = stage.thenCompose(hits -> {
+         hits.sort(order);
+         List<SearchHit> page = hits.subList(Math.min(from, hits.size()), (int) Math.min((long) from + count, hits.size()));
+         List<Object> result = new ArrayList<>(1 + page.size() * 2);
+         result.add((long) hits.size());
+         if (keysOnly) {
+            for (SearchHit hit : page) {
+               result.add(hit.key());
+            }
+            return CompletableFuture.completedFuture(result);
+         }
+         Set<byte[]> pageKeys = new HashSet<>(page.size());
+         for (SearchHit hit : page) {
+            pageKeys.add(hit.key());
+         }
+         return SearchIndexes.typed(handler.cache()).getAllAsync(pageKeys).thenApply(values -> {
+            Map<WrappedByteArray, Object> stored = new HashMap<>(values.size());
+            for (Map.Entry<byte[], Object> entry : values.entrySet()) {
+               stored.put(new WrappedByteArray(entry.getKey()), entry.getValue());
+            }
+            for (SearchHit hit : page) {
+               result.add(hit.key());
+               result.add(content(index, stored.get(new WrappedByteArray(hit.key())), attributes));
+            }
+            return result;
+         });
+      });
+      return handler.stageToReturn(reply, ctx, (r, w) -> w.array(r, Resp3Type.AUTO));
+   }
+
+   private static Comparator<SearchHit> order(String sortBy, boolean ascending) {
+      Comparator<SearchHit> byKey = (a, b) -> Arrays.compareUnsigned(a.key(), b.key());
+      if (sortBy == null) {
+         return byKey;
+      }
+      Comparator<SearchHit> byValue = (a, b) -> {
+         String va = a.values().get(sortBy);
+         String vb = b.values().get(sortBy);
+         if (va == null || vb == null) {
+            return SearchResults.compare(va, vb);
+         }
+         return ascending ? SearchResults.compare(va, vb) : SearchResults.compare(vb, va);
+      };
+      return byValue.thenComparing(byKey);
+   }
+
+   private static List<Object> content(SearchIndex index, Object value, List<String> attributes) {
+      List<Object> content = new ArrayList<>();
+      if (value instanceof HashMapBucket<?, ?>) {
+         @SuppressWarnings("unchecked")
+         HashMapBucket<byte[], byte[]> bucket = (HashMapBucket<byte[], byte[]>) value;
+         if (attributes == null) {
+            for (Map.Entry<byte[], byte[]> entry : bucket.converted().entrySet()) {
+               content.add(entry.getKey());
+               content.add(entry.getValue());
+            }
+         } else {
+            for (String attribute : attributes) {
+               SearchField field = index.field(attribute);
+               byte[] v = bucket.get((field == null ? attribute : field.path()).getBytes(StandardCharsets.UTF_8));
+               if (v != null) {
+                  content.add(SearchResults.bytes(attribute));
+                  content.add(v);
+               }
+            }
+         }
+      } else if (value instanceof JsonBucket json) {
+         if (attributes == null) {
+            content.add(JSONUtil.JSON_ROOT);
+            content.add(json.value());
+         } else {
+            for (String attribute : attributes) {
+               SearchField field = index.field(attribute);
+               String path = field == null ? attribute : field.path();
+               try {
+                  ArrayNode nodes = JSONUtil.read(json.value(), path);
+                  if (!nodes.isEmpty()) {
+                     JsonNode node = nodes.size() == 1 ? nodes.get(0) : nodes;
+                     content.add(SearchResults.bytes(attribute));
+                     content.add(SearchResults.bytes(node.isTextual() ? node.asText() : node.toString()));
+                  }
+               } catch (IOException e) {
+                  // The document is not valid JSON, there is nothing to return
+               }
+            }
+         }
+      }
+      return content;
+   }
+}
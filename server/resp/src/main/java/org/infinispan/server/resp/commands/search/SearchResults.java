@@ -0,0 +1,39 @@
+package org.infinispan.server.resp.commands.search;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers shared by the search commands to render and order the indexed values of the documents.
+ *
+ * @since 16.3
+ */
+final class SearchResults {
+
+   private SearchResults() { }
+
+   /**
+    * @return the name of an attribute referenced as {@code @name} or {@code name}
+    */
+   static String attribute(byte[] argument) {
+      String name = new String(argument, StandardCharsets.UTF_8);
+      return name.startsWith("@") ? name.substring(1) : name;
+   }
+
+   /**
+    * Compares two values numerically when both are numbers, and as strings otherwise. Missing values are last.
+    */
+   static int compare(String a, String b) {
+      if (a == null || b == null) {
+         return a == null ? (b == null ? 0 : 1) : -1;
+      }
+      try {
+         return Double.compare(Double.parseDouble(a), Double.parseDouble(b));
+      } catch (NumberFormatException e) {
+         return a.compareTo(b);
+      }
+   }
+
+   static byte[] bytes(String value) {
+      return value.getBytes(StandardCharsets.UTF_8);
+   }
+}
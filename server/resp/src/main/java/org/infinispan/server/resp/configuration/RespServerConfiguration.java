@@ -2,6 +2,7 @@
 
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.server.core.configuration.EncryptionConfiguration;
 import org.infinispan.server.core.configuration.IpFilterConfiguration;
@@ -22,9 +23,10 @@ public class RespServerConfiguration extends ProtocolServerConfiguration<RespSer
    public static final int DEFAULT_RESP_PORT = 6379;
    public static final String DEFAULT_RESP_CACHE = "respCache";
    public static final String DEFAULT_RESP_CACHE_ALIAS = "0";
+   public static final AttributeDefinition<Integer> PIPELINE_BATCH_SIZE = AttributeDefinition.builder("pipeline-batch-size", 0).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet());
+      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(), PIPELINE_BATCH_SIZE);
    }
 
    private final RespAuthenticationConfiguration authentication;
@@ -45,4 +47,12 @@ public RespAuthenticationConfiguration authentication() {
    public EncryptionConfiguration encryption() {
       return encryption;
    }
+
+   /**
+    * @return the maximum number of pipelined GET or SET commands dispatched to the cache with a single invocation, or
+    * 0 if batching is disabled
+    */
+   public int pipelineBatchSize() {
+      return attributes.attribute(PIPELINE_BATCH_SIZE).get();
+   }
 }
@@ -1,5 +1,8 @@
 package org.infinispan.server.resp.configuration;
 
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.PIPELINE_BATCH_SIZE;
+import static org.infinispan.server.resp.logging.Log.CONFIG;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -58,6 +61,25 @@ public EncryptionConfigurationBuilder encryption() {
       return encryption;
    }
 
+   /**
+    * Coalesces runs of pipelined GET or SET commands received in the same read into a single getAll or putAll
+    * invocation, up to the given number of commands. Batching is disabled with 0, the default. A size of 1 would not
+    * coalesce anything and is rejected.
+    */
+   public RespServerConfigurationBuilder pipelineBatchSize(int pipelineBatchSize) {
+      attributes.attribute(PIPELINE_BATCH_SIZE).set(pipelineBatchSize);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      int pipelineBatchSize = attributes.attribute(PIPELINE_BATCH_SIZE).get();
+      if (pipelineBatchSize < 0 || pipelineBatchSize == 1) {
+         throw CONFIG.illegalPipelineBatchSize(pipelineBatchSize);
+      }
+   }
+
    @Override
    public RespServerConfiguration create() {
       return new RespServerConfiguration(attributes.protect(), ipFilter.create(), ssl.create(), authentication.create(), encryption.create());
@@ -36,6 +36,13 @@
  * </p>
  *
  * <p>
+ * Register {@code i} occupies the bits {@code [6 * i, 6 * i + 6)} of the store, least-significant bits first. This is
+ * the same layout as the dense representation of Redis, once the longs are written in little-endian order. Since 64
+ * registers fit exactly in 6 longs, the layout repeats every 3 longs, which hold 32 registers. This allows merging
+ * two sets a block at a time, comparing all the registers fully contained in a long with a few bitwise operations.
+ * </p>
+ *
+ * <p>
  * The basic idea is that with a 64-bit hash, the first P bits identify the bucket, and the remaining Q bits we use to
  * count the trailing zeroes, and in case all bits are 0, the count is Q + 1. The next step is to update the bucket value
  * if it is smaller than the current count. From the bucket number and some bit-shifting, we identify the register.
@@ -89,12 +96,27 @@ public class CompactSet implements HLLRepresentation {
    // In total, this will occupy roughly 12Kb.
    static final int STORE_SIZE = ((REGISTER_WIDTH * HLL_BUCKET_TOTAL) + SINGLE_REGISTER_MASK) >>> REGISTER_WIDTH;
 
+   // The bits of the registers fully contained in each long of a 3 longs block, and the highest bit of each of them.
+   // The first long contains registers 0-9, followed by the 4 lower bits of register 10. The second long contains the 2
+   // higher bits of register 10, registers 11-20, and the 2 lower bits of register 21. The third long contains the
+   // 4 higher bits of register 21 and registers 22-31.
+   private static final long[] BLOCK_REGISTERS = { 0x0FFF_FFFF_FFFF_FFFFL, 0x3FFF_FFFF_FFFF_FFFCL, 0xFFFF_FFFF_FFFF_FFF0L };
+   private static final long[] BLOCK_HIGH_BITS = { 0x0820_8208_2082_0820L, 0x2082_0820_8208_2080L, 0x8208_2082_0820_8200L };
+
    @GuardedBy("this")
    private final long[] store;
 
    @GuardedBy("this")
    private final int[] multiplicity;
 
+   // Merges only update the store. The multiplicity and the minimum are computed again before they are needed.
+   @GuardedBy("this")
+   private boolean stale;
+
+   // The last estimated cardinality, or -1 if a register changed since then.
+   @GuardedBy("this")
+   private long cachedCardinality = -1;
+
    private volatile byte minimum;
 
    public CompactSet() {
@@ -139,19 +161,20 @@ public boolean set(byte[] data) {
     * @return The estimate cardinality of the set.
     */
    @Override
-   public long cardinality() {
-      double z;
-      synchronized (this) {
-         z = HLL_BUCKET_TOTAL * tau(1 - (double) multiplicity[HLL_MAX_CONSECUTIVE_ZEROES + 1] / HLL_BUCKET_TOTAL);
+   public synchronized long cardinality() {
+      if (cachedCardinality >= 0) return cachedCardinality;
 
-         for (int k = HLL_MAX_CONSECUTIVE_ZEROES + 1; k >= 1; k--) {
-            z = 0.5 * (z + multiplicity[k]);
-         }
-         z = z + HLL_BUCKET_TOTAL * sigma((double) multiplicity[0] / HLL_BUCKET_TOTAL);
+      updateMultiplicity();
+      double z = HLL_BUCKET_TOTAL * tau(1 - (double) multiplicity[HLL_MAX_CONSECUTIVE_ZEROES + 1] / HLL_BUCKET_TOTAL);
+
+      for (int k = HLL_MAX_CONSECUTIVE_ZEROES + 1; k >= 1; k--) {
+         z = 0.5 * (z + multiplicity[k]);
       }
+      z = z + HLL_BUCKET_TOTAL * sigma((double) multiplicity[0] / HLL_BUCKET_TOTAL);
 
       double v = ALPHA_INF * HLL_BUCKET_TOTAL * HLL_BUCKET_TOTAL / z;
-      return Math.round(v);
+      cachedCardinality = Math.round(v);
+      return cachedCardinality;
    }
 
    /**
@@ -254,6 +277,7 @@ private boolean setRegister(int bucket, byte value) {
       byte stored;
 
       synchronized (this) {
+         updateMultiplicity();
          if (spilled) {
             // The register value spans across two positions.
             // First halve, we use the remainder to skip unnecessary bits.
@@ -267,6 +291,8 @@ private boolean setRegister(int bucket, byte value) {
 
          // We only update in case the sequence of zeroes is greater than seen previously.
          if (value > stored) {
+            cachedCardinality = -1;
+
             // We update the multiplicity to skip the calculation during the cardinality.
             // This comes from Algorithm 7 in [2].
             multiplicity[stored] -= 1;
@@ -300,37 +326,91 @@ private boolean setRegister(int bucket, byte value) {
    }
 
    /**
-    * Read the register value for the given bucket.
+    * Merge another CompactSet into this one by taking the maximum register value for each bucket.
     *
-    * @param bucket the bucket index (0 to HLL_BUCKET_TOTAL - 1).
-    * @return the register value.
+    * @param other the CompactSet to merge from.
     */
-   private byte getRegister(int bucket) {
-      int index = bucket * REGISTER_WIDTH;
-      int first = index >>> REGISTER_WIDTH;
-      int second = (index + REGISTER_WIDTH - 1) >>> REGISTER_WIDTH;
-      int offset = index & SINGLE_REGISTER_MASK;
+   public void merge(CompactSet other) {
+      // Copy the other store instead of holding both locks, two sets could be merging into each other.
+      long[] source;
+      synchronized (other) {
+         source = other.store.clone();
+      }
 
       synchronized (this) {
-         if (first != second) {
-            return (byte) (((store[first] >>> offset) | (store[second] << (MAX_REGISTER_ENTRY - offset))) & SINGLE_REGISTER_MASK);
+         for (int i = 0; i < STORE_SIZE; i += 3) {
+            mergeBlock(store, source, i);
          }
-         return (byte) ((store[first] >>> offset) & SINGLE_REGISTER_MASK);
+         stale = true;
+         cachedCardinality = -1;
       }
    }
 
    /**
-    * Merge another CompactSet into this one by taking the maximum register value for each bucket.
+    * Merges the block of 3 longs starting at {@code i}, which holds 32 registers.
+    * <p>
+    * The registers fully contained in a long are merged at once with {@link #maxRegisters(long, long, long, long)}.
+    * The two registers split between two longs are merged individually.
+    * </p>
+    */
+   private static void mergeBlock(long[] target, long[] source, int i) {
+      long t0 = target[i], t1 = target[i + 1], t2 = target[i + 2];
+      long s0 = source[i], s1 = source[i + 1], s2 = source[i + 2];
+
+      long r10 = Math.max((t0 >>> 60) | ((t1 & 0x3L) << 4), (s0 >>> 60) | ((s1 & 0x3L) << 4));
+      long r21 = Math.max((t1 >>> 62) | ((t2 & 0xFL) << 2), (s1 >>> 62) | ((s2 & 0xFL) << 2));
+
+      target[i] = maxRegisters(t0, s0, BLOCK_REGISTERS[0], BLOCK_HIGH_BITS[0]) | (r10 << 60);
+      target[i + 1] = maxRegisters(t1, s1, BLOCK_REGISTERS[1], BLOCK_HIGH_BITS[1]) | (r10 >>> 4) | (r21 << 62);
+      target[i + 2] = maxRegisters(t2, s2, BLOCK_REGISTERS[2], BLOCK_HIGH_BITS[2]) | (r21 >>> 2);
+   }
+
+   /**
+    * Computes the maximum of each register in two longs at once, without extracting them.
+    * <p>
+    * For each register, setting its highest bit in {@code a} and clearing it in {@code b} before subtracting makes the
+    * result of the lower bits land in the highest bit, without borrowing from the next register. The highest bit is
+    * then set in the result if {@code a >= b}, and it expands into a mask selecting the greater register.
+    * </p>
     *
-    * @param other the CompactSet to merge from.
+    * @param registers: The bits of the registers fully contained in the long.
+    * @param high: The highest bit of each of these registers.
+    * @return a long with only the register bits set to the maximum of each register.
     */
-   public void merge(CompactSet other) {
-      for (int i = 0; i < HLL_BUCKET_TOTAL; i++) {
-         byte val = other.getRegister(i);
-         if (val > 0) {
-            setRegister(i, val);
+   private static long maxRegisters(long a, long b, long registers, long high) {
+      a &= registers;
+      b &= registers;
+      long lower = (a | high) - (b & ~high);
+      long greaterOrEqual = ((a & ~b) | (~(a ^ b) & lower)) & high;
+      long mask = greaterOrEqual | (greaterOrEqual - (greaterOrEqual >>> (REGISTER_WIDTH - 1)));
+      return (a & mask) | (b & ~mask);
+   }
+
+   /**
+    * Computes the {@link #multiplicity} and the {@link #minimum} from the registers, if a merge changed them.
+    */
+   @GuardedBy("this")
+   private void updateMultiplicity() {
+      if (!stale) return;
+
+      Arrays.fill(multiplicity, 0);
+      for (int bucket = 0; bucket < HLL_BUCKET_TOTAL; bucket++) {
+         int index = bucket * REGISTER_WIDTH;
+         int first = index >>> REGISTER_WIDTH;
+         int offset = index & SINGLE_REGISTER_MASK;
+         long value = store[first] >>> offset;
+         if (offset > Long.SIZE - REGISTER_WIDTH) {
+            value |= store[first + 1] << (Long.SIZE - offset);
          }
+         multiplicity[(int) (value & SINGLE_REGISTER_MASK)]++;
+      }
+
+      byte min = 0;
+      while (multiplicity[min] == 0) {
+         min++;
       }
+      minimum = min;
+      stale = false;
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
@@ -341,14 +421,16 @@ List<Long> store() {
    }
 
    @ProtoField(number = 2, collectionImplementation = ArrayList.class, type = Type.UINT32)
-   Collection<Integer> multiplicity() {
+   synchronized Collection<Integer> multiplicity() {
+      updateMultiplicity();
       return IntStream.of(multiplicity)
             .boxed()
             .collect(Collectors.toList());
    }
 
    @ProtoField(number = 3, javaType = byte.class, defaultValue = "0", type = Type.UINT32)
-   byte minimum() {
+   synchronized byte minimum() {
+      updateMultiplicity();
       return minimum;
    }
 
@@ -1,11 +1,13 @@
 package org.infinispan.server.resp.json;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
@@ -245,4 +247,15 @@ public static String convertRedisFilterToJayway(String redisFilter) {
       return sb.toString();
    }
 
+   /**
+    * Reads the values matching a path in a serialized document, resolving simple definite paths without parsing the
+    * whole document.
+    *
+    * @param doc      the serialized JSON document
+    * @param jsonPath a path in JsonPath format
+    * @return the matched values, possibly empty
+    */
+   public static ArrayNode read(byte[] doc, String jsonPath) throws IOException {
+      return new JsonDocument(doc).read(jsonPath);
+   }
 }
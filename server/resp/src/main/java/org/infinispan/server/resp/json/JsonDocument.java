@@ -0,0 +1,188 @@
+package org.infinispan.server.resp.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.jayway.jsonpath.DocumentContext;
+
+/**
+ * Read access to a serialized JSON document.
+ * <p>
+ * Simple definite paths, made only of field names and non-negative array indexes like {@code $.a['b'][2]}, are
+ * resolved by scanning the serialized document with a streaming parser. Siblings of the addressed value are skipped
+ * without being materialized, and only the addressed value is parsed into a tree. Any other path, or a path that does
+ * not match the document, falls back to JsonPath over the whole parsed document, which is parsed at most once.
+ *
+ * @since 16.3
+ */
+final class JsonDocument {
+
+   private final byte[] value;
+   private DocumentContext context;
+
+   JsonDocument(byte[] value) {
+      this.value = value;
+   }
+
+   /**
+    * Reads the nodes matching the path, with the same result as {@link JSONUtil#parserForGet}.
+    */
+   ArrayNode read(String jsonPath) throws IOException {
+      Span span = locate(value, jsonPath);
+      if (span != null) {
+         ArrayNode result = JSONUtil.objectMapper.createArrayNode();
+         result.add(span.read(value));
+         return result;
+      }
+      if (context == null) {
+         context = JSONUtil.parserForGet.parse(JSONUtil.objectMapper.readTree(value));
+      }
+      return context.read(jsonPath);
+   }
+
+   /**
+    * Finds the serialized value addressed by a simple definite path.
+    *
+    * @return the position of the value in the document, or {@code null} if the path is not a simple definite path or
+    * does not match any value.
+    */
+   static Span locate(byte[] doc, String jsonPath) throws IOException {
+      List<Object> segments = segments(jsonPath);
+      if (segments == null) return null;
+
+      Span span = new Span(0, doc.length, null);
+      for (Object segment : segments) {
+         if (span.token != null && !span.token.isStructStart()) return null;
+         span = segment instanceof String name ? field(doc, span.offset, name) : element(doc, span.offset, (Integer) segment);
+         if (span == null) return null;
+      }
+      return span;
+   }
+
+   /**
+    * Splits a path like {@code $.a['b'][2]} into its field names and indexes.
+    *
+    * @return the segments of the path, or {@code null} if it isn't a non-root definite path made only of fields and
+    * non-negative indexes.
+    */
+   static List<Object> segments(String jsonPath) {
+      int length = jsonPath.length();
+      if (length < 2 || jsonPath.charAt(0) != '$') return null;
+
+      List<Object> segments = new ArrayList<>();
+      int i = 1;
+      while (i < length) {
+         char c = jsonPath.charAt(i);
+         if (c == '.') {
+            int start = ++i;
+            while (i < length && isNameChar(jsonPath.charAt(i))) i++;
+            if (i == start) return null;
+            segments.add(jsonPath.substring(start, i));
+         } else if (c == '[' && i + 1 < length) {
+            char first = jsonPath.charAt(i + 1);
+            int end;
+            if (first == '\'' || first == '"') {
+               end = jsonPath.indexOf(first, i + 2);
+               if (end < 0 || end + 1 >= length || jsonPath.charAt(end + 1) != ']') return null;
+               String name = jsonPath.substring(i + 2, end);
+               if (name.indexOf('\\') >= 0) return null;
+               segments.add(name);
+               i = end + 2;
+            } else {
+               end = i + 1;
+               while (end < length && Character.isDigit(jsonPath.charAt(end))) end++;
+               if (end == i + 1 || end - i > 10 || end >= length || jsonPath.charAt(end) != ']') return null;
+               long index = Long.parseLong(jsonPath, i + 1, end, 10);
+               if (index > Integer.MAX_VALUE) return null;
+               segments.add((int) index);
+               i = end + 1;
+            }
+         } else {
+            return null;
+         }
+      }
+      return segments;
+   }
+
+   private static boolean isNameChar(char c) {
+      return c == '_' || Character.isLetterOrDigit(c);
+   }
+
+   private static Span field(byte[] doc, int offset, String name) throws IOException {
+      try (JsonParser parser = parser(doc, offset)) {
+         if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+         // Keep looking after a match, the last value wins when a field is duplicated.
+         Span match = null;
+         while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean matches = name.equals(parser.currentName());
+            parser.nextToken();
+            if (matches) {
+               match = valueSpan(parser, offset);
+            } else {
+               parser.skipChildren();
+            }
+         }
+         return match;
+      }
+   }
+
+   private static Span element(byte[] doc, int offset, int index) throws IOException {
+      try (JsonParser parser = parser(doc, offset)) {
+         if (parser.nextToken() != JsonToken.START_ARRAY) return null;
+
+         for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+            if (i == index) {
+               return valueSpan(parser, offset);
+            }
+            parser.skipChildren();
+         }
+         return null;
+      }
+   }
+
+   private static JsonParser parser(byte[] doc, int offset) throws IOException {
+      return JSONUtil.objectMapper.getFactory().createParser(doc, offset, doc.length - offset);
+   }
+
+   /**
+    * Consumes the current value of the parser, which was created at the given offset of the document.
+    */
+   private static Span valueSpan(JsonParser parser, int offset) throws IOException {
+      JsonToken token = parser.currentToken();
+      int start = offset + (int) parser.currentTokenLocation().getByteOffset();
+      if (token.isStructStart()) {
+         parser.skipChildren();
+      } else {
+         parser.finishToken();
+      }
+      int end = offset + (int) parser.currentLocation().getByteOffset();
+      return new Span(start, end - start, token);
+   }
+
+   /**
+    * Position of a serialized value in a document.
+    */
+   record Span(int offset, int length, JsonToken token) {
+
+      JsonNode read(byte[] doc) throws IOException {
+         return JSONUtil.objectMapper.readTree(doc, offset, length);
+      }
+
+      /**
+       * @return a copy of the document where this value is replaced with the given serialized value.
+       */
+      byte[] replace(byte[] doc, byte[] replacement) {
+         byte[] result = new byte[doc.length - length + replacement.length];
+         System.arraycopy(doc, 0, result, 0, offset);
+         System.arraycopy(replacement, 0, result, offset, replacement.length);
+         System.arraycopy(doc, offset + length, result, offset + replacement.length, doc.length - offset - length);
+         return result;
+      }
+   }
+}
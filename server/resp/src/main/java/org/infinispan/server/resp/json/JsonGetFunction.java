@@ -17,7 +17,6 @@
 import org.infinispan.util.function.SerializableFunction;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter.Indenter;
@@ -72,13 +71,14 @@ public byte[] apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
          rpp.indentArraysWith(ind);
          rpp.indentObjectsWith(ind);
 
-         var rootNode = mapper.readTree(new String(doc, StandardCharsets.UTF_8));
-         var jpCtx = JSONUtil.parserForGet.parse(rootNode);
          // If no path provided return root in legacy format
          if (paths == null || paths.size() == 0) {
+            var rootNode = mapper.readTree(new String(doc, StandardCharsets.UTF_8));
             byte[] resp = mapper.writer(rpp).writeValueAsBytes(rootNode);
             return resp;
          }
+         // Simple paths only parse the addressed node
+         var jsonDoc = new JsonDocument(doc);
          // Convert to jsonpath and set legacy=false if any path is a jsonpath
          List<byte[]> jsonPaths = paths.stream().map((p) -> {
             var jp = JSONUtil.toJsonPath(p);
@@ -89,7 +89,7 @@ public byte[] apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
          // If only 1 path provided, return all the matching nodes as array
          if (jsonPaths.size() == 1) {
             String pathStr = new String(jsonPaths.get(0), StandardCharsets.UTF_8);
-            ArrayNode nodeList = jpCtx.read(pathStr);
+            ArrayNode nodeList = jsonDoc.read(pathStr);
             // If legacy return just the first one
             if (isLegacy) {
                if (nodeList.size()==0) {
@@ -111,7 +111,7 @@ public byte[] apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
             var jsonPathStr = new String(jsonPath, StandardCharsets.UTF_8);
             // Result should contain original paths as keys
             var pathStr = new String(path, StandardCharsets.UTF_8);
-            ArrayNode nodeList = (ArrayNode)jpCtx.read(jsonPathStr);
+            ArrayNode nodeList = jsonDoc.read(jsonPathStr);
             // If legacy return just the first one
             if (isLegacy) {
                if (nodeList.size()==0) {
@@ -124,7 +124,7 @@ public byte[] apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
          }
          byte[] resp = mapper.writer(rpp).writeValueAsBytes(result);
          return resp;
-      } catch (JsonProcessingException e) {
+      } catch (IOException e) {
          throw new RuntimeException(e);
       }
    }
@@ -53,6 +53,19 @@ public List<Number> apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
 
       var pathStr = new String(path, StandardCharsets.UTF_8);
       try {
+         // A simple path to a number is updated in place, without parsing the whole document
+         JsonDocument.Span span = JsonDocument.locate(doc.value(), pathStr);
+         if (span != null && span.token().isNumeric()) {
+            Number incremented = operate(span.read(doc.value()), incrNode);
+            if (!isFinite(incremented)) {
+               return null;
+            }
+            byte[] serialized = JSONUtil.objectMapper.writeValueAsBytes(JSONUtil.objectMapper.valueToTree(incremented));
+            entryView.set(new JsonBucket(span.replace(doc.value(), serialized)));
+            List<Number> resList = new ArrayList<>(1);
+            resList.add(incremented);
+            return resList;
+         }
          JsonNode rootNode = JSONUtil.objectMapper.readTree(doc.value());
          DocumentContext modifiableCtx = JSONUtil.parserForMod.parse(rootNode);
          DocumentContext getForContext = JSONUtil.parserForGet.parse(rootNode);
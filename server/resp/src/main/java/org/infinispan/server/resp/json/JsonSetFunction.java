@@ -15,6 +15,7 @@
 import org.infinispan.server.resp.serialization.RespConstants;
 import org.infinispan.util.function.SerializableFunction;
 
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -74,9 +75,19 @@ public String apply(ReadWriteEntryView<byte[], JsonBucket> entryView) {
          return RespConstants.OK;
       }
       try {
+         var pathStr = new String(jsonPath, StandardCharsets.UTF_8);
+         // An existing value at a simple path is replaced in place, without parsing the whole document
+         JsonDocument.Span span = JsonDocument.locate(doc.value(), pathStr);
+         if (span != null) {
+            boolean isNull = span.token() == JsonToken.VALUE_NULL;
+            if (isNull && xx || !isNull && nx) {
+               return null;
+            }
+            entryView.set(new JsonBucket(span.replace(doc.value(), JSONUtil.objectMapper.writeValueAsBytes(newNode))));
+            return RespConstants.OK;
+         }
          var rootObjectNode = JSONUtil.objectMapper.readTree(doc.value());
          var jpCtx = JSONUtil.parserForSet.parse(rootObjectNode);
-         var pathStr = new String(jsonPath, StandardCharsets.UTF_8);
          JsonNode node = jpCtx.read(pathStr);
          if ((node == null || node.isNull()) && xx || node != null && !node.isNull() && nx) {
             return null;
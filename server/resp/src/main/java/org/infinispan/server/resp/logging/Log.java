@@ -81,4 +81,11 @@ static Log getLog(Class<?> clazz) {
    @LogMessage(level = WARN)
    @Message(value = "Failed to load script engine. Script features disabled for RESP", id = 13012)
    void failedToLoadScriptEngine();
+
+   @Message(value = "The pipeline batch size must be greater than 1, or 0 to disable batching, but it was %d", id = 13013)
+   CacheConfigurationException illegalPipelineBatchSize(int size);
+
+   @LogMessage(level = WARN)
+   @Message(value = "There was an error adding the client tracking listener to cache '%s'", id = 13014)
+   void exceptionWhileRegisteringTrackingListener(@Cause Throwable cause, String cacheName);
 }
@@ -10,7 +10,9 @@
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -72,6 +74,9 @@ public enum Mode {
    }
 
    final Lua lua;
+   private final LuaScriptStats stats;
+   // The SHAs of the functions compiled in the registry, in access order, so that the least recently used are evicted
+   private final Map<String, LuaCode> scripts;
 
    // context variables
    long flags;
@@ -80,7 +85,19 @@ public enum Mode {
    Mode mode = Mode.USER;
    LuaContextPool pool;
 
-   LuaContext() {
+   LuaContext(int maxScripts, LuaScriptStats stats) {
+      this.stats = stats;
+      this.scripts = new LinkedHashMap<>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<String, LuaCode> eldest) {
+            if (size() > maxScripts) {
+               unregisterScript(eldest.getValue());
+               stats.evicted();
+               return true;
+            }
+            return false;
+         }
+      };
       lua = new Lua51();
       for (String lib : LIBRARIES_ALLOW_LIST) {
          lua.openLibrary(lib);
@@ -437,19 +454,25 @@ private void luaSetAllowListProtection() {
       lua.pop(1);
    }
 
+   /**
+    * Compiles the script into a function stored in the registry, unless this context already holds it. When the
+    * maximum number of functions is exceeded, the least recently used one is discarded.
+    */
    void registerScript(LuaCode code) {
-      String name = fName(code.sha());
-      lua.getField(Lua51Consts.LUA_REGISTRYINDEX, name);
-      if (lua.get().type() == Lua.LuaType.NIL) {
-         byte[] bytes = code.code().getBytes(StandardCharsets.US_ASCII);
-         ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
-         buffer.put(bytes);
-         lua.load(buffer, "@user_script");
-         lua.setField(Lua51Consts.LUA_REGISTRYINDEX, name);
+      if (scripts.get(code.sha()) != null) {
+         return;
       }
+      long start = System.nanoTime();
+      byte[] bytes = code.code().getBytes(StandardCharsets.US_ASCII);
+      ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+      buffer.put(bytes);
+      lua.load(buffer, "@user_script");
+      lua.setField(Lua51Consts.LUA_REGISTRYINDEX, fName(code.sha()));
+      scripts.put(code.sha(), code);
+      stats.compiled(System.nanoTime() - start);
    }
 
-   void unregisterScript(LuaCode code) {
+   private void unregisterScript(LuaCode code) {
       lua.pushNil();
       lua.setField(Lua51Consts.LUA_REGISTRYINDEX, fName(code.sha()));
    }
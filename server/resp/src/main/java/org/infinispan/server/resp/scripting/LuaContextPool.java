@@ -1,5 +1,6 @@
 package org.infinispan.server.resp.scripting;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import io.netty.util.internal.shaded.org.jctools.queues.MpmcArrayQueue;
@@ -44,6 +45,27 @@ void returnToPool(LuaContext lua) {
       }
    }
 
+   /**
+    * Applies the consumer to the idle contexts of the pool. Contexts which are borrowed meanwhile are not visited.
+    */
+   void forEachIdle(Consumer<LuaContext> consumer) {
+      for (int i = pool.size(); i > 0; i--) {
+         LuaContext lua = pool.poll();
+         if (lua == null) {
+            return;
+         }
+         try {
+            consumer.accept(lua);
+         } catch (Throwable t) {
+            lua.shutdown();
+            throw t;
+         }
+         if (!pool.offer(lua)) {
+            lua.shutdown();
+         }
+      }
+   }
+
    /**
     * Clears the pool
     */
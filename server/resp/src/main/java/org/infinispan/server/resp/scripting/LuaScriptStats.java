@@ -0,0 +1,67 @@
+package org.infinispan.server.resp.scripting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics for the compilation and the execution of lua scripts, shared by all the contexts of a
+ * {@link LuaTaskEngine}.
+ *
+ * @since 16.3
+ */
+public class LuaScriptStats {
+   private final LongAdder compilations = new LongAdder();
+   private final LongAdder compileTime = new LongAdder();
+   private final LongAdder executions = new LongAdder();
+   private final LongAdder executeTime = new LongAdder();
+   private final LongAdder evictions = new LongAdder();
+
+   void compiled(long nanos) {
+      compilations.increment();
+      compileTime.add(nanos);
+   }
+
+   void executed(long nanos) {
+      executions.increment();
+      executeTime.add(nanos);
+   }
+
+   void evicted() {
+      evictions.increment();
+   }
+
+   /**
+    * @return the number of times a script was compiled into a function of a context
+    */
+   public long compilations() {
+      return compilations.sum();
+   }
+
+   /**
+    * @return the total time spent compiling scripts, in microseconds
+    */
+   public long compileTimeMicros() {
+      return TimeUnit.NANOSECONDS.toMicros(compileTime.sum());
+   }
+
+   /**
+    * @return the number of script executions
+    */
+   public long executions() {
+      return executions.sum();
+   }
+
+   /**
+    * @return the total time spent executing scripts, in microseconds
+    */
+   public long executeTimeMicros() {
+      return TimeUnit.NANOSECONDS.toMicros(executeTime.sum());
+   }
+
+   /**
+    * @return the number of compiled functions discarded from a context to make room for another script
+    */
+   public long evictions() {
+      return evictions.sum();
+   }
+}
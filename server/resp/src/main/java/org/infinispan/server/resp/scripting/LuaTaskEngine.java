@@ -13,7 +13,6 @@
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.scripting.ScriptingManager;
 import org.infinispan.scripting.impl.ScriptMetadata;
-import org.infinispan.scripting.impl.ScriptWithMetadata;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 import org.infinispan.server.resp.serialization.SerializationHint;
@@ -23,6 +22,10 @@
 import org.infinispan.tasks.TaskContext;
 import org.infinispan.tasks.manager.spi.TaskEngine;
 import org.infinispan.util.concurrent.BlockingManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import io.netty.channel.ChannelHandlerContext;
 import party.iroiro.luajava.Lua;
@@ -33,12 +36,57 @@
  * It is therefore not a generic task engine or a scripting engine that can be used from Hot Rod or REST.
  */
 public class LuaTaskEngine implements TaskEngine {
+   // The maximum number of scripts known by the engine and of functions compiled in each context
+   static final int MAX_CACHED_SCRIPTS = 1024;
+
+   private final LuaScriptStats stats = new LuaScriptStats();
+   // The scripts loaded on this node, compiled eagerly in the pooled contexts, keyed by SHA. Only used for the scripts
+   // which are still in the replicated script store
+   private final Cache<String, LuaCode> scripts;
    private final LuaContextPool pool;
    private final ScriptingManager scriptingManager;
 
    public LuaTaskEngine(ScriptingManager scriptingManager) {
       this.scriptingManager = scriptingManager;
-      this.pool = new LuaContextPool(LuaContext::new, 2, 4);
+      this.scripts = Caffeine.newBuilder().maximumSize(MAX_CACHED_SCRIPTS).executor(new WithinThreadExecutor()).build();
+      this.pool = new LuaContextPool(this::newContext, 2, 4);
+   }
+
+   private LuaContext newContext() {
+      LuaContext luaCtx = new LuaContext(MAX_CACHED_SCRIPTS, stats);
+      // Only scripts which have already been compiled successfully are cached
+      for (LuaCode code : scripts.asMap().values()) {
+         luaCtx.registerScript(code);
+      }
+      return luaCtx;
+   }
+
+   /**
+    * Compiles the script in the idle contexts of the pool, so that its first invocations don't pay for it, and caches
+    * it by SHA. A script which doesn't compile is not cached, and it will report the error when it is invoked.
+    */
+   private void preload(LuaCode code) {
+      LuaContext luaCtx = pool.borrow();
+      try {
+         luaCtx.registerScript(code);
+      } catch (Throwable t) {
+         luaCtx.shutdown();
+         return;
+      }
+      pool.returnToPool(luaCtx);
+      scripts.put(code.sha(), code);
+      pool.forEachIdle(idle -> idle.registerScript(code));
+   }
+
+   public LuaScriptStats stats() {
+      return stats;
+   }
+
+   /**
+    * @return the number of scripts cached by the engine
+    */
+   public long cachedScripts() {
+      return scripts.estimatedSize();
    }
 
    public void shutdown() {
@@ -50,9 +98,9 @@ public CompletionStage<Void> eval(Resp3Handler handler, ChannelHandlerContext ct
          LuaContext luaCtx = pool.borrow();
          try {
             LuaCode script = scriptLoad(code, false);
+            // The function stays in the context, so that running the same script again doesn't compile it
             luaCtx.registerScript(script);
             runScript(luaCtx, handler, ctx, script, keys, args, flags);
-            luaCtx.unregisterScript(script);
             return luaCtx;
          } catch (Throwable t) {
             // a throwable here means it was not handled properly by the script execution logic. We discard the lua
@@ -76,16 +124,25 @@ public CompletionStage<Void> eval(Resp3Handler handler, ChannelHandlerContext ct
 
    public CompletionStage<Void> evalSha(Resp3Handler handler, ChannelHandlerContext ctx, String sha, String[] keys, String[] args, long flags) {
       return handler.getBlockingManager().supplyBlocking(() -> {
-         LuaContext luaCtx = pool.borrow();
-         ScriptWithMetadata script;
-         try {
-            script = scriptingManager.getScriptWithMetadata(scriptName(sha.toUpperCase()));
-         } catch (CacheException e) {
-            pool.returnToPool(luaCtx);
+         String upperSha = sha.toUpperCase();
+         String name = scriptName(upperSha);
+         // The script store is replicated, so this is a local lookup which sees a SCRIPT FLUSH issued on any node
+         if (!scriptingManager.containsScript(name)) {
+            scripts.invalidate(upperSha);
             throw new RuntimeException("NOSCRIPT No matching script. Please use EVAL.");
          }
+         LuaCode code = scripts.getIfPresent(upperSha);
+         if (code == null) {
+            try {
+               code = LuaCode.fromScript(scriptingManager.getScriptWithMetadata(name));
+            } catch (CacheException e) {
+               throw new RuntimeException("NOSCRIPT No matching script. Please use EVAL.");
+            }
+            // The script was loaded on another node, or evicted
+            preload(code);
+         }
+         LuaContext luaCtx = pool.borrow();
          try {
-            LuaCode code = LuaCode.fromScript(script);
             luaCtx.registerScript(code);
             runScript(luaCtx, handler, ctx, code, keys, args, flags);
             return luaCtx;
@@ -114,6 +171,7 @@ private void runScript(LuaContext luaCtx, Resp3Handler handler, ChannelHandlerCo
       luaCtx.flags = flags;
       luaCtx.flags |= script.flags();
       ResponseWriter oldWriter = handler.writer(new LuaResponseWriter(luaCtx.lua));
+      long start = System.nanoTime();
       try {
          TransactionContext.startTransactionContext(ctx);
          runScript(luaCtx.lua, script, keys, args);
@@ -122,6 +180,7 @@ private void runScript(LuaContext luaCtx, Resp3Handler handler, ChannelHandlerCo
       } finally {
          TransactionContext.endTransactionContext(ctx);
          handler.writer(oldWriter);
+         stats.executed(System.nanoTime() - start);
       }
    }
 
@@ -305,10 +364,12 @@ public LuaCode scriptLoad(String script, boolean persistent) {
             .language("lua51")
             .properties(properties);
       ScriptMetadata metadata = builder.build();
+      LuaCode code = LuaCode.fromScript(script, metadata);
       if (persistent) {
          scriptingManager.addScript(name, script, metadata);
+         preload(code);
       }
-      return LuaCode.fromScript(script, metadata);
+      return code;
    }
 
    private static String scriptName(String sha) {
@@ -331,6 +392,9 @@ public void scriptFlush() {
             scriptingManager.removeScript(name);
          }
       }
+      // The functions compiled in the contexts are left to be evicted, as they can only be reached through the cache.
+      // The other nodes keep their cached scripts, EVALSHA checks that the script is still stored before using them
+      scripts.invalidateAll();
    }
 
    private static Map<String, String> parseShebang(String script, boolean required) {
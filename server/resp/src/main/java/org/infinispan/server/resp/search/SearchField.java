@@ -0,0 +1,37 @@
+package org.infinispan.server.resp.search;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoEnumValue;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * An attribute of a search index schema.
+ *
+ * @param name      the name of the attribute in queries, which is the alias if one was given
+ * @param path      the hash field or the JSON path the value is read from
+ * @param type      how the value is indexed
+ * @param separator the single character separating the values of a {@link Type#TAG} attribute
+ * @param sortable  whether the attribute was declared {@code SORTABLE}
+ * @since 16.3
+ */
+@Proto
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_FIELD)
+public record SearchField(String name, String path, Type type, String separator, boolean sortable) {
+
+   @ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_FIELD_TYPE)
+   public enum Type {
+      /**
+       * Full text, split into lower case terms.
+       */
+      @ProtoEnumValue(number = 0) TEXT,
+      /**
+       * Exact match of one of the values, which are compared case-insensitively.
+       */
+      @ProtoEnumValue(number = 1) TAG,
+      /**
+       * Double precision numbers, matched by range.
+       */
+      @ProtoEnumValue(number = 2) NUMERIC
+   }
+}
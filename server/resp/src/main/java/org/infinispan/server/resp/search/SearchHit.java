@@ -0,0 +1,19 @@
+package org.infinispan.server.resp.search;
+
+import java.util.Map;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * A document matching a search query, with the indexed values of its attributes.
+ *
+ * @param key    the key of the document
+ * @param values the indexed values of the attributes of the document, by attribute name, formatted as strings
+ * @since 16.3
+ */
+@Proto
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_HIT)
+public record SearchHit(byte[] key, Map<String, String> values) {
+}
@@ -0,0 +1,18 @@
+package org.infinispan.server.resp.search;
+
+import java.util.List;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * The documents matching a search query on a node, sent back to the node which received the query.
+ *
+ * @param hits the matching documents owned by the node
+ * @since 16.3
+ */
+@Proto
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_HITS)
+public record SearchHits(List<SearchHit> hits) {
+}
@@ -0,0 +1,490 @@
+package org.infinispan.server.resp.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.CacheStream;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.encoding.DataConversion;
+import org.infinispan.multimap.impl.HashMapBucket;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.protostream.annotations.ProtoEnumValue;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.resp.json.JSONUtil;
+import org.infinispan.server.resp.json.JsonBucket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A secondary index over the hashes or the JSON documents whose key starts with one of the prefixes of the index.
+ * <p>
+ * The index keeps, for every document, the values of the attributes of its schema, together with inverted indexes
+ * from the terms of the {@link SearchField.Type#TEXT} and {@link SearchField.Type#TAG} attributes, and from the values
+ * of the {@link SearchField.Type#NUMERIC} attributes, to the keys of the documents. A query is answered from these
+ * structures, without iterating over the cache.
+ * <p>
+ * Every node only indexes the documents it stores, and answers a query with the matching documents of the segments it
+ * is the primary owner of, so that the results of all the nodes can be merged. The index is kept up to date by an
+ * asynchronous local listener, which only uses the key of an event and reads the current value of the key from the
+ * local data container, so that writes do not wait for the attributes to be extracted and events processed out of
+ * order cannot leave an old value in the index. The documents stored on the node when the index is created, and the
+ * documents of the segments received by state transfer, which does not notify the listeners, are indexed by
+ * iterating over the local entries.
+ *
+ * @since 16.3
+ */
+public final class SearchIndex {
+
+   @ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_INDEX_SOURCE)
+   public enum Source {
+      @ProtoEnumValue(number = 0) HASH,
+      @ProtoEnumValue(number = 1) JSON
+   }
+
+   private final String name;
+   private final Source source;
+   private final List<byte[]> prefixes;
+   private final Map<String, SearchField> fields;
+   private final AdvancedCache<byte[], Object> localCache;
+   private final DataConversion keyDataConversion;
+   private final boolean distributed;
+   private final IndexListener listener = new IndexListener(this);
+   // Serializes the reads and updates of the same key, so that the last update always reads the latest value
+   private final Object[] stripes = new Object[64];
+
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+   // The attribute values of every document
+   private final Map<WrappedByteArray, Map<String, Object>> documents = new HashMap<>();
+   // The terms of the TEXT and TAG attributes, and the values of the NUMERIC attributes, to the documents holding them
+   private final Map<String, NavigableMap<String, Set<WrappedByteArray>>> terms = new HashMap<>();
+   private final Map<String, NavigableMap<Double, Set<WrappedByteArray>>> numbers = new HashMap<>();
+
+   /**
+    * @param cache a view of the cache which returns the stored values
+    */
+   public SearchIndex(SearchIndexDefinition definition, AdvancedCache<byte[], Object> cache) {
+      this.name = definition.name();
+      this.source = definition.source();
+      this.prefixes = definition.prefixes();
+      this.localCache = cache.withFlags(Flag.CACHE_MODE_LOCAL);
+      this.keyDataConversion = cache.getKeyDataConversion();
+      this.distributed = cache.getCacheConfiguration().clustering().cacheMode().isDistributed();
+      for (int i = 0; i < stripes.length; i++) {
+         stripes[i] = new Object();
+      }
+      this.fields = new LinkedHashMap<>();
+      for (SearchField field : definition.fields()) {
+         this.fields.put(field.name(), field);
+         if (field.type() == SearchField.Type.NUMERIC) {
+            numbers.put(field.name(), new TreeMap<>());
+         } else {
+            terms.put(field.name(), new TreeMap<>());
+         }
+      }
+   }
+
+   public String name() {
+      return name;
+   }
+
+   public Source source() {
+      return source;
+   }
+
+   public SearchField field(String name) {
+      return fields.get(name);
+   }
+
+   public int size() {
+      lock.readLock().lock();
+      try {
+         return documents.size();
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * @return whether the documents are spread over the nodes, so that a query must be sent to all of them
+    */
+   public boolean distributed() {
+      return distributed;
+   }
+
+   Object listener() {
+      return listener;
+   }
+
+   /**
+    * Finds the documents matching the query on this node. When the cache is distributed, only the documents of the
+    * segments this node is the primary owner of are returned.
+    *
+    * @return the matching documents
+    */
+   public List<SearchHit> search(SearchQuery query) {
+      LocalizedCacheTopology topology = null;
+      if (distributed) {
+         DistributionManager distributionManager = localCache.getDistributionManager();
+         topology = distributionManager == null ? null : distributionManager.getCacheTopology();
+      }
+      lock.readLock().lock();
+      try {
+         Set<WrappedByteArray> keys = query.evaluate(this);
+         List<SearchHit> hits = new ArrayList<>(keys.size());
+         for (WrappedByteArray key : keys) {
+            if (topology == null || topology.getDistribution(keyDataConversion.toStorage(key.getBytes())).isPrimary()) {
+               hits.add(new SearchHit(key.getBytes(), format(documents.get(key))));
+            }
+         }
+         return hits;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Indexes the local entries of all the segments. Blocks while iterating over the entries.
+    */
+   void indexLocalEntries() {
+      indexLocalEntries(null);
+   }
+
+   private void indexLocalEntries(IntSet segments) {
+      CacheStream<byte[]> stream = localCache.keySet().stream();
+      try (CacheStream<byte[]> keys = segments == null ? stream : stream.filterKeySegments(segments)) {
+         for (Iterator<byte[]> iterator = keys.iterator(); iterator.hasNext(); ) {
+            reindex(iterator.next());
+         }
+      }
+   }
+
+   private void onTopologyChanged(TopologyChangedEvent<?, ?> event) {
+      DistributionManager distributionManager = localCache.getDistributionManager();
+      if (distributionManager == null) {
+         return;
+      }
+      LocalizedCacheTopology topology = distributionManager.getCacheTopology();
+      ConsistentHash before = event.getReadConsistentHashAtStart();
+      ConsistentHash after = event.getReadConsistentHashAtEnd();
+      if (after != null) {
+         // The entries of the segments received by state transfer were not notified
+         IntSet received = IntSets.mutableCopyFrom(after.getSegmentsForOwner(topology.getLocalAddress()));
+         if (before != null) {
+            received.removeAll(before.getSegmentsForOwner(topology.getLocalAddress()));
+         }
+         if (!received.isEmpty()) {
+            indexLocalEntries(received);
+         }
+      }
+      // The entries of the segments which are not owned anymore are removed without notifications
+      lock.writeLock().lock();
+      try {
+         for (Iterator<Map.Entry<WrappedByteArray, Map<String, Object>>> iterator = documents.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<WrappedByteArray, Map<String, Object>> document = iterator.next();
+            Object storageKey = keyDataConversion.toStorage(document.getKey().getBytes());
+            if (!topology.isSegmentWriteOwner(topology.getSegment(storageKey))) {
+               iterator.remove();
+               update(document.getKey(), document.getValue(), false);
+            }
+         }
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   // The following methods are invoked by the query while holding the read lock
+
+   Set<WrappedByteArray> all() {
+      return documents.keySet();
+   }
+
+   Set<WrappedByteArray> terms(String field, String term, boolean prefix) {
+      NavigableMap<String, Set<WrappedByteArray>> index = terms.get(field);
+      if (index == null) {
+         return Set.of();
+      }
+      if (!prefix) {
+         return index.getOrDefault(term, Set.of());
+      }
+      Set<WrappedByteArray> keys = new HashSet<>();
+      for (Set<WrappedByteArray> matching : index.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+         keys.addAll(matching);
+      }
+      return keys;
+   }
+
+   Set<WrappedByteArray> text(String term, boolean prefix) {
+      Set<WrappedByteArray> keys = new HashSet<>();
+      for (SearchField field : fields.values()) {
+         if (field.type() == SearchField.Type.TEXT) {
+            keys.addAll(terms(field.name(), term, prefix));
+         }
+      }
+      return keys;
+   }
+
+   Set<WrappedByteArray> range(String field, double min, boolean minInclusive, double max, boolean maxInclusive) {
+      NavigableMap<Double, Set<WrappedByteArray>> index = numbers.get(field);
+      if (index == null || min > max) {
+         return Set.of();
+      }
+      Set<WrappedByteArray> keys = new HashSet<>();
+      for (Set<WrappedByteArray> matching : index.subMap(min, minInclusive, max, maxInclusive).values()) {
+         keys.addAll(matching);
+      }
+      return keys;
+   }
+
+   private boolean matches(byte[] key) {
+      if (prefixes.isEmpty()) {
+         return true;
+      }
+      for (byte[] prefix : prefixes) {
+         if (key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Indexes the current local value of a key, or removes the key from the index if it has no value.
+    */
+   private void reindex(byte[] key) {
+      if (!matches(key)) {
+         return;
+      }
+      WrappedByteArray wrapped = new WrappedByteArray(key);
+      synchronized (stripes[(wrapped.hashCode() & Integer.MAX_VALUE) % stripes.length]) {
+         Object value = localCache.get(key);
+         Map<String, Object> values = value == null ? null : values(value);
+         lock.writeLock().lock();
+         try {
+            Map<String, Object> previous = values == null ? documents.remove(wrapped) : documents.put(wrapped, values);
+            if (previous != null) {
+               update(wrapped, previous, false);
+            }
+            if (values != null) {
+               update(wrapped, values, true);
+            }
+         } finally {
+            lock.writeLock().unlock();
+         }
+      }
+   }
+
+   private void update(WrappedByteArray key, Map<String, Object> values, boolean add) {
+      for (Map.Entry<String, Object> entry : values.entrySet()) {
+         SearchField field = fields.get(entry.getKey());
+         switch (field.type()) {
+            case NUMERIC -> update(numbers.get(field.name()), (Double) entry.getValue(), key, add);
+            case TAG -> {
+               @SuppressWarnings("unchecked")
+               List<String> tags = (List<String>) entry.getValue();
+               for (String tag : tags) {
+                  update(terms.get(field.name()), tag.toLowerCase(Locale.ROOT), key, add);
+               }
+            }
+            case TEXT -> {
+               for (String term : tokenize((String) entry.getValue())) {
+                  update(terms.get(field.name()), term, key, add);
+               }
+            }
+         }
+      }
+   }
+
+   private static <T> void update(Map<T, Set<WrappedByteArray>> index, T term, WrappedByteArray key, boolean add) {
+      if (add) {
+         index.computeIfAbsent(term, ignore -> new HashSet<>()).add(key);
+      } else {
+         Set<WrappedByteArray> keys = index.get(term);
+         if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(term);
+         }
+      }
+   }
+
+   /**
+    * @return the attribute values of a document formatted as strings
+    */
+   private Map<String, String> format(Map<String, Object> document) {
+      Map<String, String> formatted = new HashMap<>(document.size());
+      for (Map.Entry<String, Object> entry : document.entrySet()) {
+         Object value = entry.getValue();
+         if (value instanceof Double d) {
+            formatted.put(entry.getKey(), format(d));
+         } else if (value instanceof List<?> tags) {
+            StringBuilder sb = new StringBuilder();
+            for (Object tag : tags) {
+               if (!sb.isEmpty()) {
+                  sb.append(fields.get(entry.getKey()).separator());
+               }
+               sb.append(tag);
+            }
+            formatted.put(entry.getKey(), sb.toString());
+         } else {
+            formatted.put(entry.getKey(), value.toString());
+         }
+      }
+      return formatted;
+   }
+
+   /**
+    * Formats a number without a fractional part when it is integral, as Redis does.
+    */
+   public static String format(double value) {
+      if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+         return Long.toString((long) value);
+      }
+      return Double.toString(value);
+   }
+
+   /**
+    * Splits a text into lower case terms made of letters and digits.
+    */
+   static Set<String> tokenize(String text) {
+      Set<String> tokens = new HashSet<>();
+      int start = -1;
+      for (int i = 0; i <= text.length(); i++) {
+         boolean part = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+         if (part && start < 0) {
+            start = i;
+         } else if (!part && start >= 0) {
+            tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            start = -1;
+         }
+      }
+      return tokens;
+   }
+
+   /**
+    * Reads the attribute values of a stored value.
+    *
+    * @return the values by attribute name, or {@code null} if the value is not of the type of the index
+    */
+   private Map<String, Object> values(Object value) {
+      Map<String, Object> values = new HashMap<>();
+      if (source == Source.HASH) {
+         if (!(value instanceof HashMapBucket<?, ?>)) {
+            return null;
+         }
+         @SuppressWarnings("unchecked")
+         HashMapBucket<byte[], byte[]> bucket = (HashMapBucket<byte[], byte[]>) value;
+         for (SearchField field : fields.values()) {
+            byte[] v = bucket.get(field.path().getBytes(StandardCharsets.UTF_8));
+            if (v != null) {
+               add(values, field, List.of(new String(v, StandardCharsets.UTF_8)));
+            }
+         }
+      } else {
+         if (!(value instanceof JsonBucket json)) {
+            return null;
+         }
+         for (SearchField field : fields.values()) {
+            List<String> raw = new ArrayList<>();
+            try {
+               for (JsonNode node : JSONUtil.read(json.value(), field.path())) {
+                  if (node.isArray()) {
+                     for (JsonNode element : node) {
+                        if (element.isValueNode() && !element.isNull()) {
+                           raw.add(element.asText());
+                        }
+                     }
+                  } else if (node.isValueNode() && !node.isNull()) {
+                     raw.add(node.asText());
+                  }
+               }
+            } catch (IOException e) {
+               // The document is not valid JSON, the attribute is not indexed
+               continue;
+            }
+            if (!raw.isEmpty()) {
+               add(values, field, raw);
+            }
+         }
+      }
+      return values;
+   }
+
+   private static void add(Map<String, Object> values, SearchField field, List<String> raw) {
+      switch (field.type()) {
+         case TEXT -> values.put(field.name(), String.join(" ", raw));
+         case TAG -> {
+            List<String> tags = new ArrayList<>();
+            for (String value : raw) {
+               for (String tag : value.split(Pattern.quote(field.separator()))) {
+                  tag = tag.strip();
+                  if (!tag.isEmpty()) {
+                     tags.add(tag);
+                  }
+               }
+            }
+            values.put(field.name(), tags);
+         }
+         case NUMERIC -> {
+            try {
+               values.put(field.name(), Double.parseDouble(raw.get(0)));
+            } catch (NumberFormatException e) {
+               // Not a number, the attribute is not indexed
+            }
+         }
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST)
+   public static class IndexListener {
+      private final SearchIndex index;
+
+      private IndexListener(SearchIndex index) {
+         this.index = index;
+      }
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      @CacheEntryRemoved
+      @CacheEntryExpired
+      public void onEvent(CacheEntryEvent<Object, Object> event) {
+         index.reindex(unwrap(event.getKey()));
+      }
+
+      @TopologyChanged
+      public void onTopologyChanged(TopologyChangedEvent<Object, Object> event) {
+         index.onTopologyChanged(event);
+      }
+
+      private static byte[] unwrap(Object key) {
+         return key instanceof WrappedByteArray ? ((WrappedByteArray) key).getBytes() : (byte[]) key;
+      }
+   }
+}
@@ -0,0 +1,23 @@
+package org.infinispan.server.resp.search;
+
+import java.util.List;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * The definition of a search index as given to {@code FT.CREATE}, which is stored in the cluster so that every node
+ * can build the index.
+ *
+ * @param name     the name of the index
+ * @param source   the type of the indexed documents
+ * @param prefixes the prefixes of the keys of the indexed documents, all the documents are indexed if it is empty
+ * @param fields   the attributes of the schema
+ * @since 16.3
+ */
+@Proto
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_INDEX_DEFINITION)
+public record SearchIndexDefinition(String name, SearchIndex.Source source, List<byte[]> prefixes,
+                                    List<SearchField> fields) {
+}
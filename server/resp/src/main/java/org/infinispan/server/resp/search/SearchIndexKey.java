@@ -0,0 +1,17 @@
+package org.infinispan.server.resp.search;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * The key of a search index definition, an index name is unique within the cache of a database.
+ *
+ * @param cacheName the name of the cache backing the database the index was created in
+ * @param name      the name of the index
+ * @since 16.3
+ */
+@Proto
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SEARCH_INDEX_KEY)
+public record SearchIndexKey(String cacheName, String name) {
+}
@@ -0,0 +1,259 @@
+package org.infinispan.server.resp.search;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.internal.InternalCacheNames;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.registry.InternalCacheRegistry;
+import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.server.resp.RespServer;
+import org.infinispan.util.concurrent.BlockingManager;
+
+/**
+ * The search indexes created with {@code FT.CREATE} on a server.
+ * <p>
+ * The index definitions are stored in an internal replicated cache, which is persisted when global state is enabled,
+ * so that they are shared by all the nodes and survive restarts. An index name is unique within the cache of a
+ * database, and indexes created in different databases are independent.
+ * <p>
+ * Every node builds its part of an index from the definition the first time the index is used on the node, and each
+ * part only holds the documents stored on the node. When the cache is distributed, a query is sent to all the nodes
+ * and every node returns the matching documents it is the primary owner of. When the definition is removed, every
+ * node stops indexing and discards its part.
+ *
+ * @since 16.3
+ */
+public final class SearchIndexes {
+   private final ConcurrentMap<SearchIndexKey, LocalIndex> indexes = new ConcurrentHashMap<>();
+   private final DefinitionListener definitionListener = new DefinitionListener();
+   private volatile AdvancedCache<SearchIndexKey, SearchIndexDefinition> definitions;
+   private volatile BlockingManager blockingManager;
+   private volatile String serverName;
+
+   /**
+    * Registers the cache of the index definitions and starts listening for their removal.
+    *
+    * @param serverName the qualified name of the server, used to find the indexes of the other nodes
+    */
+   public void start(EmbeddedCacheManager cacheManager, String serverName) {
+      this.serverName = serverName;
+      this.blockingManager = SecurityActions.getGlobalComponentRegistry(cacheManager).getComponent(BlockingManager.class);
+      GlobalConfiguration globalConfiguration = SecurityActions.getCacheManagerConfiguration(cacheManager);
+      InternalCacheRegistry internalCacheRegistry = SecurityActions.getGlobalComponentRegistry(cacheManager)
+            .getComponent(InternalCacheRegistry.class);
+      internalCacheRegistry.registerInternalCache(InternalCacheNames.RESP_SEARCH_INDEXES_CACHE_NAME,
+            getSearchIndexesCacheConfig(globalConfiguration).build(),
+            EnumSet.of(InternalCacheRegistry.Flag.PERSISTENT, InternalCacheRegistry.Flag.GLOBAL));
+      Cache<SearchIndexKey, SearchIndexDefinition> cache =
+            SecurityActions.getCache(cacheManager, InternalCacheNames.RESP_SEARCH_INDEXES_CACHE_NAME);
+      cache.addListener(definitionListener);
+      definitions = cache.getAdvancedCache();
+   }
+
+   /**
+    * Stops indexing on this node, the index definitions are kept.
+    */
+   public void stop() {
+      AdvancedCache<SearchIndexKey, SearchIndexDefinition> cache = definitions;
+      if (cache != null) {
+         cache.removeListener(definitionListener);
+         definitions = null;
+      }
+      for (SearchIndexKey key : indexes.keySet()) {
+         discard(key);
+      }
+   }
+
+   private static ConfigurationBuilder getSearchIndexesCacheConfig(GlobalConfiguration globalConfiguration) {
+      CacheMode cacheMode = globalConfiguration.isClustered() ? CacheMode.REPL_SYNC : CacheMode.LOCAL;
+
+      ConfigurationBuilder cfg = new ConfigurationBuilder();
+      cfg.clustering().cacheMode(cacheMode)
+            .encoding().key().mediaType(MediaType.APPLICATION_OBJECT_TYPE)
+            .encoding().value().mediaType(MediaType.APPLICATION_OBJECT_TYPE);
+      return cfg;
+   }
+
+   /**
+    * Stores the index definition and starts indexing the documents of the cache on this node.
+    *
+    * @return a stage completed with {@code true} once the existing documents have been indexed, or with
+    * {@code false} if the cache already has an index with the same name
+    */
+   public CompletionStage<Boolean> create(AdvancedCache<byte[], byte[]> cache, SearchIndexDefinition definition) {
+      SearchIndexKey key = new SearchIndexKey(cache.getName(), definition.name());
+      return definitions.putIfAbsentAsync(key, definition).thenCompose(previous -> {
+         if (previous != null) {
+            return CompletableFutures.completedFalse();
+         }
+         return start(cache, key, definition).thenApply(ignore -> true);
+      });
+   }
+
+   /**
+    * Finds the index of the cache, and builds it on this node if it was created on another node or before a restart.
+    *
+    * @return a stage completed with the index once its existing documents have been indexed, or with {@code null} if
+    * the cache has no index with the name
+    */
+   public CompletionStage<SearchIndex> get(AdvancedCache<byte[], byte[]> cache, String name) {
+      SearchIndexKey key = new SearchIndexKey(cache.getName(), name);
+      LocalIndex local = indexes.get(key);
+      if (local != null) {
+         return local.index();
+      }
+      return definitions.getAsync(key).thenCompose(definition -> {
+         if (definition == null) {
+            return CompletableFutures.completedNull();
+         }
+         return start(cache, key, definition);
+      });
+   }
+
+   /**
+    * Finds the documents matching a query on all the nodes, or only on this node if the cache is not distributed.
+    *
+    * @return a stage completed with the matching documents, in no particular order
+    * @throws IllegalArgumentException if the query is malformed or refers to an unknown attribute
+    */
+   public CompletionStage<List<SearchHit>> search(AdvancedCache<byte[], byte[]> cache, SearchIndex index,
+                                                  String query) {
+      SearchQuery parsed = SearchQuery.parse(query, index);
+      if (!index.distributed()) {
+         return CompletableFuture.completedFuture(index.search(parsed));
+      }
+      String server = serverName;
+      String cacheName = cache.getName();
+      String name = index.name();
+      List<SearchHit> hits = new ArrayList<>();
+      return SecurityActions.getClusterExecutor(cache)
+            .submitConsumer(ecm -> searchOnNode(ecm, server, cacheName, name, query), (address, result, t) -> {
+               if (t != null) {
+                  throw CompletableFutures.asCompletionException(t);
+               }
+               synchronized (hits) {
+                  hits.addAll(result.hits());
+               }
+            }).thenApply(ignore -> hits);
+   }
+
+   private static SearchHits searchOnNode(EmbeddedCacheManager ecm, String serverName, String cacheName, String name,
+                                          String query) {
+      ComponentRef<RespServer> ref = RespServer.fromCacheManager(ecm, serverName);
+      if (ref == null) {
+         return new SearchHits(List.of());
+      }
+      Cache<byte[], byte[]> data = SecurityActions.getCache(ecm, cacheName);
+      AdvancedCache<byte[], byte[]> cache = data.getAdvancedCache()
+            .withMediaType(MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_OCTET_STREAM);
+      // Runs in a blocking thread, the index is built if the node has not used it yet
+      SearchIndex index = CompletionStages.join(ref.running().searchIndexes().get(cache, name));
+      if (index == null) {
+         return new SearchHits(List.of());
+      }
+      return new SearchHits(index.search(SearchQuery.parse(query, index)));
+   }
+
+   /**
+    * @return the names of the indexes of the cache
+    */
+   public Set<String> names(AdvancedCache<byte[], byte[]> cache) {
+      String cacheName = cache.getName();
+      Set<String> names = new HashSet<>();
+      // The definitions are replicated and preloaded, so the local entries are all the definitions
+      for (SearchIndexKey key : definitions.withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).keySet()) {
+         if (key.cacheName().equals(cacheName)) {
+            names.add(key.name());
+         }
+      }
+      return names;
+   }
+
+   /**
+    * Removes the index definition, which stops indexing on all the nodes.
+    *
+    * @return a stage completed with {@code true} if the index was removed, or with {@code false} if the cache has no
+    * index with the name
+    */
+   public CompletionStage<Boolean> drop(AdvancedCache<byte[], byte[]> cache, String name) {
+      return definitions.removeAsync(new SearchIndexKey(cache.getName(), name)).thenApply(definition -> definition != null);
+   }
+
+   private CompletionStage<SearchIndex> start(AdvancedCache<byte[], byte[]> cache, SearchIndexKey key,
+                                              SearchIndexDefinition definition) {
+      LocalIndex local = indexes.computeIfAbsent(key, k -> {
+         AdvancedCache<byte[], Object> typed = typed(cache);
+         SearchIndex index = new SearchIndex(definition, typed);
+         // The listener is registered first, so that no modification is missed while the local entries are indexed
+         CompletionStage<SearchIndex> stage = typed.addListenerAsync(index.listener())
+               .thenCompose(ignore -> blockingManager.runBlocking(index::indexLocalEntries, "resp-search-index"))
+               .thenApply(ignore -> index);
+         return new LocalIndex(typed, stage);
+      });
+      return local.index().whenComplete((ignore, t) -> {
+         if (t != null) {
+            indexes.remove(key, local);
+         }
+      });
+   }
+
+   private void discard(SearchIndexKey key) {
+      LocalIndex local = indexes.remove(key);
+      if (local != null) {
+         local.index().thenAccept(index -> local.cache().removeListenerAsync(index.listener()));
+      }
+   }
+
+   /**
+    * @return a view of the cache which returns the stored values, so that the listeners receive the buckets
+    */
+   public static AdvancedCache<byte[], Object> typed(AdvancedCache<byte[], byte[]> cache) {
+      MediaType vmt = cache.getValueDataConversion().getStorageMediaType();
+      return cache.<byte[], Object>withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt);
+   }
+
+   private record LocalIndex(AdvancedCache<byte[], Object> cache, CompletionStage<SearchIndex> index) {
+   }
+
+   /**
+    * Discards the index of this node when its definition is removed or replaced, on any node.
+    */
+   @Listener(observation = Listener.Observation.POST)
+   public final class DefinitionListener {
+
+      @CacheEntryModified
+      public void onModified(CacheEntryModifiedEvent<SearchIndexKey, SearchIndexDefinition> event) {
+         if (!event.isCreated()) {
+            discard(event.getKey());
+         }
+      }
+
+      @CacheEntryRemoved
+      public void onRemoved(CacheEntryRemovedEvent<SearchIndexKey, SearchIndexDefinition> event) {
+         discard(event.getKey());
+      }
+   }
+}
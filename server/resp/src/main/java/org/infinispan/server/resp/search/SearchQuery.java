@@ -0,0 +1,367 @@
+package org.infinispan.server.resp.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+
+/**
+ * A parsed search query.
+ * <p>
+ * The supported syntax is a subset of the RediSearch query syntax:
+ * <ul>
+ *    <li>{@code *} matches every document</li>
+ *    <li>{@code term}, or {@code term*} for a prefix, matches the documents with the term in any TEXT attribute</li>
+ *    <li>{@code @attr:term} and {@code @attr:term*} match the term in the given TEXT attribute</li>
+ *    <li>{@code @attr:{a | b}} matches the documents with one of the values in the given TAG attribute</li>
+ *    <li>{@code @attr:[min max]} matches a range of a NUMERIC attribute, where a bound can be exclusive with a
+ *    leading {@code (}, and {@code -inf} and {@code +inf} are unbounded</li>
+ *    <li>clauses separated by spaces must all match, clauses separated by {@code |} are alternatives,
+ *    {@code -clause} negates a clause and parentheses group clauses</li>
+ * </ul>
+ *
+ * @since 16.3
+ */
+public abstract class SearchQuery {
+
+   /**
+    * @return the keys of the matching documents, which must not be modified
+    */
+   abstract Set<WrappedByteArray> evaluate(SearchIndex index);
+
+   /**
+    * Parses a query for the given index.
+    *
+    * @throws IllegalArgumentException if the query is malformed or refers to an unknown attribute
+    */
+   public static SearchQuery parse(String query, SearchIndex index) {
+      Parser parser = new Parser(query, index);
+      SearchQuery result = parser.union();
+      parser.skipSpaces();
+      if (!parser.atEnd()) {
+         throw parser.error();
+      }
+      return result;
+   }
+
+   private static final class Parser {
+      private final String query;
+      private final SearchIndex index;
+      private int pos;
+
+      private Parser(String query, SearchIndex index) {
+         this.query = query;
+         this.index = index;
+      }
+
+      private boolean atEnd() {
+         return pos >= query.length();
+      }
+
+      private char peek() {
+         return query.charAt(pos);
+      }
+
+      private void skipSpaces() {
+         while (!atEnd() && Character.isWhitespace(peek())) {
+            pos++;
+         }
+      }
+
+      private IllegalArgumentException error() {
+         return new IllegalArgumentException("Syntax error at offset " + pos + " near " + query.substring(Math.min(pos, query.length())));
+      }
+
+      private void expect(char c) {
+         skipSpaces();
+         if (atEnd() || peek() != c) {
+            throw error();
+         }
+         pos++;
+      }
+
+      private SearchQuery union() {
+         List<SearchQuery> alternatives = new ArrayList<>();
+         alternatives.add(intersection());
+         skipSpaces();
+         while (!atEnd() && peek() == '|') {
+            pos++;
+            alternatives.add(intersection());
+            skipSpaces();
+         }
+         return alternatives.size() == 1 ? alternatives.get(0) : new Union(alternatives);
+      }
+
+      private SearchQuery intersection() {
+         List<SearchQuery> clauses = new ArrayList<>();
+         skipSpaces();
+         while (!atEnd() && peek() != '|' && peek() != ')') {
+            clauses.add(clause());
+            skipSpaces();
+         }
+         if (clauses.isEmpty()) {
+            throw error();
+         }
+         return clauses.size() == 1 ? clauses.get(0) : new Intersection(clauses);
+      }
+
+      private SearchQuery clause() {
+         char c = peek();
+         if (c == '-') {
+            pos++;
+            return new Negation(clause());
+         }
+         if (c == '(') {
+            pos++;
+            SearchQuery group = union();
+            expect(')');
+            return group;
+         }
+         if (c == '*') {
+            pos++;
+            return new All();
+         }
+         if (c == '@') {
+            pos++;
+            String name = word();
+            SearchField field = index.field(name);
+            if (field == null) {
+               throw new IllegalArgumentException("Unknown field at offset " + pos + " near " + name);
+            }
+            expect(':');
+            skipSpaces();
+            return switch (field.type()) {
+               case TAG -> tags(field);
+               case NUMERIC -> range(field);
+               case TEXT -> {
+                  if (!atEnd() && peek() == '(') {
+                     pos++;
+                     List<SearchQuery> terms = new ArrayList<>();
+                     skipSpaces();
+                     while (!atEnd() && peek() != ')') {
+                        terms.add(term(field.name()));
+                        skipSpaces();
+                     }
+                     expect(')');
+                     yield terms.size() == 1 ? terms.get(0) : new Intersection(terms);
+                  }
+                  yield term(field.name());
+               }
+            };
+         }
+         return term(null);
+      }
+
+      private SearchQuery term(String field) {
+         String word = word();
+         boolean prefix = !atEnd() && peek() == '*';
+         if (prefix) {
+            pos++;
+         }
+         return new Term(field, word.toLowerCase(Locale.ROOT), prefix);
+      }
+
+      private SearchQuery tags(SearchField field) {
+         expect('{');
+         Set<String> tags = new HashSet<>();
+         StringBuilder sb = new StringBuilder();
+         while (true) {
+            if (atEnd()) {
+               throw error();
+            }
+            char c = query.charAt(pos++);
+            if (c == '\\' && !atEnd()) {
+               sb.append(query.charAt(pos++));
+            } else if (c == '|' || c == '}') {
+               String tag = sb.toString().strip();
+               if (!tag.isEmpty()) {
+                  tags.add(tag.toLowerCase(Locale.ROOT));
+               }
+               sb.setLength(0);
+               if (c == '}') {
+                  return new Tags(field.name(), tags);
+               }
+            } else {
+               sb.append(c);
+            }
+         }
+      }
+
+      private SearchQuery range(SearchField field) {
+         expect('[');
+         skipSpaces();
+         boolean minInclusive = atEnd() || peek() != '(';
+         if (!minInclusive) pos++;
+         double min = number();
+         skipSpaces();
+         boolean maxInclusive = atEnd() || peek() != '(';
+         if (!maxInclusive) pos++;
+         double max = number();
+         expect(']');
+         return new Range(field.name(), min, minInclusive, max, maxInclusive);
+      }
+
+      private double number() {
+         int start = pos;
+         while (!atEnd() && !Character.isWhitespace(peek()) && peek() != ']') {
+            pos++;
+         }
+         String value = query.substring(start, pos).toLowerCase(Locale.ROOT);
+         return switch (value) {
+            case "-inf" -> Double.NEGATIVE_INFINITY;
+            case "inf", "+inf" -> Double.POSITIVE_INFINITY;
+            default -> {
+               try {
+                  yield Double.parseDouble(value);
+               } catch (NumberFormatException e) {
+                  throw error();
+               }
+            }
+         };
+      }
+
+      private String word() {
+         StringBuilder sb = new StringBuilder();
+         while (!atEnd()) {
+            char c = peek();
+            if (c == '\\' && pos + 1 < query.length()) {
+               sb.append(query.charAt(pos + 1));
+               pos += 2;
+            } else if (Character.isLetterOrDigit(c) || c == '_') {
+               sb.append(c);
+               pos++;
+            } else {
+               break;
+            }
+         }
+         if (sb.isEmpty()) {
+            throw error();
+         }
+         return sb.toString();
+      }
+   }
+
+   private static final class All extends SearchQuery {
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         return index.all();
+      }
+   }
+
+   private static final class Term extends SearchQuery {
+      private final String field;
+      private final String term;
+      private final boolean prefix;
+
+      private Term(String field, String term, boolean prefix) {
+         this.field = field;
+         this.term = term;
+         this.prefix = prefix;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         return field == null ? index.text(term, prefix) : index.terms(field, term, prefix);
+      }
+   }
+
+   private static final class Tags extends SearchQuery {
+      private final String field;
+      private final Set<String> tags;
+
+      private Tags(String field, Set<String> tags) {
+         this.field = field;
+         this.tags = tags;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         Set<WrappedByteArray> keys = new HashSet<>();
+         for (String tag : tags) {
+            keys.addAll(index.terms(field, tag, false));
+         }
+         return keys;
+      }
+   }
+
+   private static final class Range extends SearchQuery {
+      private final String field;
+      private final double min;
+      private final boolean minInclusive;
+      private final double max;
+      private final boolean maxInclusive;
+
+      private Range(String field, double min, boolean minInclusive, double max, boolean maxInclusive) {
+         this.field = field;
+         this.min = min;
+         this.minInclusive = minInclusive;
+         this.max = max;
+         this.maxInclusive = maxInclusive;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         return index.range(field, min, minInclusive, max, maxInclusive);
+      }
+   }
+
+   private static final class Negation extends SearchQuery {
+      private final SearchQuery query;
+
+      private Negation(SearchQuery query) {
+         this.query = query;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         Set<WrappedByteArray> keys = new HashSet<>(index.all());
+         keys.removeAll(query.evaluate(index));
+         return keys;
+      }
+   }
+
+   private static final class Intersection extends SearchQuery {
+      private final List<SearchQuery> clauses;
+
+      private Intersection(List<SearchQuery> clauses) {
+         this.clauses = clauses;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         Set<WrappedByteArray> keys = null;
+         for (SearchQuery clause : clauses) {
+            Set<WrappedByteArray> matching = clause.evaluate(index);
+            if (keys == null) {
+               keys = new HashSet<>(matching);
+            } else {
+               keys.retainAll(matching);
+            }
+            if (keys.isEmpty()) {
+               break;
+            }
+         }
+         return keys;
+      }
+   }
+
+   private static final class Union extends SearchQuery {
+      private final List<SearchQuery> alternatives;
+
+      private Union(List<SearchQuery> alternatives) {
+         this.alternatives = alternatives;
+      }
+
+      @Override
+      Set<WrappedByteArray> evaluate(SearchIndex index) {
+         Set<WrappedByteArray> keys = new HashSet<>();
+         for (SearchQuery alternative : alternatives) {
+            keys.addAll(alternative.evaluate(index));
+         }
+         return keys;
+      }
+   }
+}
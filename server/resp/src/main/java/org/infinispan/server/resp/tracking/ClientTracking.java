@@ -0,0 +1,358 @@
+package org.infinispan.server.resp.tracking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.factories.impl.BasicComponentRegistry;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.ByteBufPool;
+import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespServer;
+import org.infinispan.server.resp.RespUtil;
+import org.infinispan.server.resp.commands.tx.WATCH;
+import org.infinispan.server.resp.logging.Log;
+import org.infinispan.server.resp.serialization.RespConstants;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufResponseWriter;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * Server side support for client side caching, enabled on a connection with {@code CLIENT TRACKING ON}.
+ * <p>
+ * In the default mode, the keys read by a connection are remembered in a table shared by all the connections of the
+ * server. The first time one of those keys is modified, the connection receives a RESP3 {@code invalidate} push
+ * message and the key is forgotten until the connection reads it again. In broadcasting mode ({@code BCAST}) nothing
+ * is remembered, and the connection receives an invalidation for every modified key which starts with one of its
+ * prefixes.
+ * <p>
+ * Modifications are observed with an asynchronous clustered listener, registered on a cache the first time a
+ * connection tracks the keys of that cache, so that modifications on any node of the cluster are notified without
+ * delaying the writes. The events only carry the key, and the listeners are removed once no key is tracked and no
+ * connection is broadcasting. As in Redis, the table only holds key names, so a modification in one database also
+ * invalidates a key of the same name read from another.
+ *
+ * @since 16.3
+ */
+public final class ClientTracking {
+   private static final Log log = Log.getLog(ClientTracking.class);
+   private static final AttributeKey<Tracker> TRACKER = AttributeKey.newInstance("client-tracking");
+   private static final byte[] INVALIDATE = "invalidate".getBytes(StandardCharsets.US_ASCII);
+
+   private final ConcurrentMap<WrappedByteArray, Set<Tracker>> keys = new ConcurrentHashMap<>();
+   private final Set<Tracker> broadcasting = ConcurrentHashMap.newKeySet();
+   private final ConcurrentMap<String, Registration> listening = new ConcurrentHashMap<>();
+   // Held for reading while keys are tracked and for writing while the listeners are removed, so that a listener is
+   // never removed while a key of its cache is being tracked
+   private final ReadWriteLock listeningLock = new ReentrantReadWriteLock();
+
+   /**
+    * Enables tracking for the channel, or adds the prefixes of a channel which is already broadcasting.
+    *
+    * @param cache    the cache the channel is currently using
+    * @param channel  the channel which receives the invalidations
+    * @param bcast    whether the channel is notified of every modified key matching its prefixes
+    * @param prefixes the prefixes of the keys to broadcast, where no prefix matches every key
+    * @return a stage completed once modifications are observed, or {@code null} if the channel is already tracking in
+    * the other mode
+    */
+   public CompletionStage<Void> enable(AdvancedCache<byte[], byte[]> cache, Channel channel, boolean bcast,
+                                       List<byte[]> prefixes) {
+      Tracker tracker = channel.attr(TRACKER).get();
+      if (tracker == null) {
+         tracker = new Tracker(channel, bcast);
+         channel.attr(TRACKER).set(tracker);
+      } else if (tracker.bcast != bcast) {
+         return null;
+      }
+      listeningLock.readLock().lock();
+      try {
+         if (bcast) {
+            List<byte[]> all = new ArrayList<>(tracker.prefixes);
+            all.addAll(prefixes);
+            tracker.prefixes = all;
+            broadcasting.add(tracker);
+         }
+         return listen(cache);
+      } finally {
+         listeningLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Disables tracking for the channel, forgetting every key it has read.
+    */
+   public void disable(Channel channel) {
+      Tracker tracker = channel.attr(TRACKER).getAndSet(null);
+      if (tracker == null) {
+         return;
+      }
+      broadcasting.remove(tracker);
+      for (WrappedByteArray key : tracker.keys) {
+         keys.computeIfPresent(key, (ignore, trackers) -> {
+            trackers.remove(tracker);
+            return trackers.isEmpty() ? null : trackers;
+         });
+      }
+      tracker.keys.clear();
+      stopListeningIfIdle();
+   }
+
+   /**
+    * Remembers the keys of a command read by the channel, if the channel is tracking keys in the default mode.
+    * <p>
+    * The keys are recorded before the command is executed, so that a concurrent modification may cause a spurious
+    * invalidation, but is never missed.
+    */
+   public void track(AdvancedCache<byte[], byte[]> cache, Channel channel, RespCommand command, List<byte[]> arguments) {
+      Tracker tracker = channel.attr(TRACKER).get();
+      if (tracker == null || tracker.bcast || !AclCategory.READ.matches(command.aclMask())) {
+         return;
+      }
+      listeningLock.readLock().lock();
+      try {
+         listen(cache);
+         for (byte[] key : command.extractKeys(arguments)) {
+            WrappedByteArray wrapped = new WrappedByteArray(key);
+            tracker.keys.add(wrapped);
+            // Atomic with the removal of the key when it is invalidated
+            keys.compute(wrapped, (ignore, trackers) -> {
+               if (trackers == null) {
+                  trackers = ConcurrentHashMap.newKeySet();
+               }
+               trackers.add(tracker);
+               return trackers;
+            });
+         }
+      } finally {
+         listeningLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Sends an invalidation for every key to all the tracking channels of the server on every node, for example after
+    * the cache was cleared, which does not notify the listeners.
+    *
+    * @param cache      the cache which was cleared
+    * @param serverName the qualified name of the server
+    * @return a stage completed once the channels of every node were notified
+    */
+   public static CompletionStage<Void> invalidateAll(AdvancedCache<?, ?> cache, String serverName) {
+      return SecurityActions.getClusterExecutor(cache)
+            .submitConsumer(ecm -> invalidateAllOnNode(ecm, serverName), (address, ignore, t) -> {
+               if (t != null) {
+                  throw CompletableFutures.asCompletionException(t);
+               }
+            });
+   }
+
+   private static Void invalidateAllOnNode(EmbeddedCacheManager ecm, String serverName) {
+      ComponentRef<RespServer> ref = SecurityActions.getGlobalComponentRegistry(ecm)
+            .getComponent(BasicComponentRegistry.class)
+            .getComponent(serverName, RespServer.class);
+      if (ref != null) {
+         ref.running().clientTracking().invalidateAll();
+      }
+      return null;
+   }
+
+   /**
+    * Sends an invalidation for every key to all the tracking channels of this node.
+    */
+   public void invalidateAll() {
+      Set<Tracker> trackers = new HashSet<>(broadcasting);
+      for (Set<Tracker> value : keys.values()) {
+         trackers.addAll(value);
+      }
+      keys.clear();
+      for (Tracker tracker : trackers) {
+         tracker.keys.clear();
+         tracker.push(null);
+      }
+      stopListeningIfIdle();
+   }
+
+   /**
+    * @return the tracking information of the channel, as returned by {@code CLIENT TRACKINGINFO}
+    */
+   public Map<String, Object> info(Channel channel) {
+      Tracker tracker = channel.attr(TRACKER).get();
+      List<String> flags = new ArrayList<>(2);
+      List<String> prefixes = new ArrayList<>();
+      if (tracker == null) {
+         flags.add("off");
+      } else {
+         flags.add("on");
+         if (tracker.bcast) {
+            flags.add("bcast");
+            for (byte[] prefix : tracker.prefixes) {
+               prefixes.add(RespUtil.utf8(prefix));
+            }
+         }
+      }
+      Map<String, Object> info = new LinkedHashMap<>(4);
+      info.put("flags", flags);
+      info.put("redirect", -1);
+      info.put("prefixes", prefixes);
+      return info;
+   }
+
+   private void invalidate(byte[] key) {
+      WrappedByteArray wrapped = new WrappedByteArray(key);
+      Set<Tracker> trackers = keys.remove(wrapped);
+      if (trackers != null) {
+         for (Tracker tracker : trackers) {
+            tracker.keys.remove(wrapped);
+            tracker.push(key);
+         }
+      }
+      for (Tracker tracker : broadcasting) {
+         if (tracker.matches(key)) {
+            tracker.push(key);
+         }
+      }
+      if (trackers != null) {
+         stopListeningIfIdle();
+      }
+   }
+
+   // Must be called with the read lock
+   private CompletionStage<Void> listen(AdvancedCache<byte[], byte[]> cache) {
+      String name = cache.getName();
+      Registration registration = listening.get(name);
+      if (registration == null) {
+         registration = listening.computeIfAbsent(name, ignore -> {
+            InvalidationListener listener = new InvalidationListener(this);
+            // The converter drops the values, so that the events only carry the keys
+            CompletionStage<Void> stage = cache.addListenerAsync(listener, null, new WATCH.TxEventConverterEmpty());
+            return new Registration(cache, listener, stage);
+         });
+         Registration registered = registration;
+         registration.stage().whenComplete((ignore, t) -> {
+            if (t != null) {
+               listening.remove(name, registered);
+               log.exceptionWhileRegisteringTrackingListener(t, name);
+            }
+         });
+      }
+      return registration.stage();
+   }
+
+   private void stopListeningIfIdle() {
+      if (!keys.isEmpty() || !broadcasting.isEmpty() || listening.isEmpty()) {
+         return;
+      }
+      // A channel holding the read lock is tracking keys, so the listeners are still needed
+      if (!listeningLock.writeLock().tryLock()) {
+         return;
+      }
+      try {
+         if (!keys.isEmpty() || !broadcasting.isEmpty()) {
+            return;
+         }
+         for (Registration registration : listening.values()) {
+            registration.stage().thenRun(() -> registration.cache().removeListenerAsync(registration.listener()));
+         }
+         listening.clear();
+      } finally {
+         listeningLock.writeLock().unlock();
+      }
+   }
+
+   private record Registration(AdvancedCache<byte[], byte[]> cache, InvalidationListener listener,
+                               CompletionStage<Void> stage) {
+   }
+
+   @Listener(clustered = true, sync = false)
+   public static class InvalidationListener {
+      private final ClientTracking tracking;
+
+      private InvalidationListener(ClientTracking tracking) {
+         this.tracking = tracking;
+      }
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      @CacheEntryRemoved
+      @CacheEntryExpired
+      public CompletionStage<Void> onEvent(CacheEntryEvent<Object, Object> event) {
+         Object key = event.getKey();
+         tracking.invalidate(key instanceof WrappedByteArray ? ((WrappedByteArray) key).getBytes() : (byte[]) key);
+         return CompletableFutures.completedNull();
+      }
+   }
+
+   private static final class Tracker {
+      private final Channel channel;
+      private final boolean bcast;
+      private final Set<WrappedByteArray> keys = ConcurrentHashMap.newKeySet();
+      private volatile List<byte[]> prefixes = List.of();
+
+      private Tracker(Channel channel, boolean bcast) {
+         this.channel = channel;
+         this.bcast = bcast;
+      }
+
+      private boolean matches(byte[] key) {
+         List<byte[]> prefixes = this.prefixes;
+         if (prefixes.isEmpty()) {
+            return true;
+         }
+         for (byte[] prefix : prefixes) {
+            if (key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length)) {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      private void push(byte[] key) {
+         if (!channel.isActive()) {
+            return;
+         }
+         // >2\r\n + $10\r\ninvalidate\r\n + either *1\r\n$<keylen>\r\n<key>\r\n or _\r\n
+         int byteSize = 4 + 1 + 2 + 2 + INVALIDATE.length + 2
+               + (key == null
+               ? 3
+               : 4 + 1 + ByteBufferUtils.stringSize(key.length) + 2 + key.length + 2);
+         ByteBuf byteBuf = channel.alloc().buffer(byteSize, byteSize);
+         ByteBufPool allocator = ignore -> byteBuf;
+         ByteBufResponseWriter w = new ByteBufResponseWriter(allocator);
+         w.writeNumericPrefix(RespConstants.PUSH, 2);
+         w.string(INVALIDATE);
+         if (key == null) {
+            w.nulls();
+         } else {
+            w.writeNumericPrefix(RespConstants.ARRAY, 1);
+            w.string(key);
+         }
+         assert byteBuf.writerIndex() == byteSize;
+         channel.writeAndFlush(byteBuf, channel.voidPromise());
+      }
+   }
+}
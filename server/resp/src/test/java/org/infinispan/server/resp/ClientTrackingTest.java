@@ -0,0 +1,134 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.CacheNotifierImpl;
+import org.infinispan.server.resp.tracking.ClientTracking;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+
+/**
+ * Invalidation messages sent to the connections which enabled {@code CLIENT TRACKING}
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "server.resp.ClientTrackingTest")
+public class ClientTrackingTest extends SingleNodeRespBaseTest {
+
+   public void testInvalidateReadKey() throws Exception {
+      try (StatefulRedisConnection<String, String> tracking = newConnection()) {
+         BlockingQueue<List<Object>> invalidations = invalidations(tracking);
+         RedisCommands<String, String> redis = tracking.sync();
+         assertThat(redis.clientTracking(TrackingArgs.Builder.enabled())).isEqualTo("OK");
+
+         RedisCommands<String, String> other = redisConnection.sync();
+         other.set(k(0), v(0));
+         assertThat(redis.get(k(0))).isEqualTo(v(0));
+         // A key which was not read is not invalidated
+         other.set(k(1), v(1));
+
+         other.set(k(0), v(1));
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of(k(0)));
+
+         // The key is forgotten once invalidated, until it is read again
+         other.del(k(0));
+         assertThat(invalidations.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+         assertThat(redis.get(k(0))).isNull();
+         other.set(k(0), v(2));
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of(k(0)));
+
+         // No more invalidations once tracking is disabled
+         assertThat(redis.get(k(0))).isEqualTo(v(2));
+         assertThat(redis.clientTracking(TrackingArgs.Builder.enabled(false))).isEqualTo("OK");
+         other.set(k(0), v(3));
+         assertThat(invalidations.poll(100, TimeUnit.MILLISECONDS)).isNull();
+      }
+   }
+
+   public void testBroadcastPrefixes() throws Exception {
+      try (StatefulRedisConnection<String, String> tracking = newConnection()) {
+         BlockingQueue<List<Object>> invalidations = invalidations(tracking);
+         RedisCommands<String, String> redis = tracking.sync();
+         assertThat(redis.clientTracking(TrackingArgs.Builder.enabled().bcast().prefixes("user:"))).isEqualTo("OK");
+
+         RedisCommands<String, String> other = redisConnection.sync();
+         other.set("session:1", v());
+         other.set("user:1", v());
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of("user:1"));
+         assertThat(invalidations.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+         assertThatThrownBy(() -> redis.clientTracking(TrackingArgs.Builder.enabled()))
+               .isInstanceOf(RedisCommandExecutionException.class)
+               .hasMessageContaining("BCAST");
+      }
+   }
+
+   public void testFlushInvalidatesEverything() throws Exception {
+      try (StatefulRedisConnection<String, String> tracking = newConnection()) {
+         BlockingQueue<List<Object>> invalidations = invalidations(tracking);
+         RedisCommands<String, String> redis = tracking.sync();
+         assertThat(redis.clientTracking(TrackingArgs.Builder.enabled())).isEqualTo("OK");
+         redis.get(k());
+
+         redisConnection.sync().flushdb();
+         List<Object> invalidation = invalidations.poll(10, TimeUnit.SECONDS);
+         assertThat(invalidation).hasSize(2);
+         assertThat(invalidation.get(0)).isEqualTo("invalidate");
+         assertThat(invalidation.get(1)).isNull();
+      }
+   }
+
+   public void testListenerRemovedWhenIdle() throws Exception {
+      CacheNotifierImpl<?, ?> cni = (CacheNotifierImpl<?, ?>) TestingUtil.extractComponent(cache, CacheNotifier.class);
+      try (StatefulRedisConnection<String, String> tracking = newConnection()) {
+         BlockingQueue<List<Object>> invalidations = invalidations(tracking);
+         RedisCommands<String, String> redis = tracking.sync();
+         assertThat(redis.clientTracking(TrackingArgs.Builder.enabled())).isEqualTo("OK");
+         redis.get(k());
+         eventually(() -> cni.getListeners().stream().anyMatch(l -> l instanceof ClientTracking.InvalidationListener));
+
+         // The only tracked key is invalidated, so the listener is not needed anymore
+         redisConnection.sync().set(k(), v());
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of(k()));
+         eventually(() -> cni.getListeners().stream().noneMatch(l -> l instanceof ClientTracking.InvalidationListener));
+
+         // Reading the key again registers it again
+         assertThat(redis.get(k())).isEqualTo(v());
+         redisConnection.sync().set(k(), v(1));
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of(k()));
+      }
+   }
+
+   public void testPrefixRequiresBroadcast() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThatThrownBy(() -> redis.clientTracking(TrackingArgs.Builder.enabled().prefixes("user:")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("PREFIX option requires BCAST mode");
+   }
+
+   private static BlockingQueue<List<Object>> invalidations(StatefulRedisConnection<String, String> connection) {
+      BlockingQueue<List<Object>> invalidations = new LinkedBlockingQueue<>();
+      connection.addListener(message -> {
+         if ("invalidate".equals(message.getType())) {
+            invalidations.add(message.getContent(StringCodec.UTF8::decodeKey));
+         }
+      });
+      return invalidations;
+   }
+}
@@ -0,0 +1,137 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+/**
+ * Pipelined GET and SET commands which are coalesced into getAll and putAll invocations
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "server.resp.RespPipelineBatchTest")
+public class RespPipelineBatchTest extends SingleNodeRespBaseTest {
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int i) {
+      return super.serverConfiguration(i).pipelineBatchSize(16);
+   }
+
+   public void testPipelinedGetAndSet() throws Exception {
+      try (StatefulRedisConnection<String, String> connection = newConnection()) {
+         RedisAsyncCommands<String, String> redis = connection.async();
+         connection.setAutoFlushCommands(false);
+         List<RedisFuture<String>> sets = new ArrayList<>();
+         for (int i = 0; i < 100; i++) {
+            sets.add(redis.set(k(i), v(i)));
+         }
+         // The same key twice in one batch, the last value wins
+         sets.add(redis.set(k(0), v(100)));
+         List<RedisFuture<String>> gets = new ArrayList<>();
+         for (int i = 0; i < 101; i++) {
+            gets.add(redis.get(k(i)));
+         }
+         connection.flushCommands();
+
+         for (RedisFuture<String> set : sets) {
+            assertThat(set.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         }
+         assertThat(gets.get(0).get(10, TimeUnit.SECONDS)).isEqualTo(v(100));
+         for (int i = 1; i < 100; i++) {
+            assertThat(gets.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(v(i));
+         }
+         assertThat(gets.get(100).get(10, TimeUnit.SECONDS)).isNull();
+      }
+   }
+
+   public void testReadsAreNotReorderedWithWrites() throws Exception {
+      try (StatefulRedisConnection<String, String> connection = newConnection()) {
+         RedisAsyncCommands<String, String> redis = connection.async();
+         connection.setAutoFlushCommands(false);
+         RedisFuture<String> before = redis.get(k());
+         RedisFuture<String> set = redis.set(k(), v());
+         RedisFuture<Long> append = redis.append(k(), "-appended");
+         RedisFuture<String> after = redis.get(k());
+         connection.flushCommands();
+
+         assertThat(before.get(10, TimeUnit.SECONDS)).isNull();
+         assertThat(set.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         assertThat(append.get(10, TimeUnit.SECONDS)).isEqualTo(v().length() + 9L);
+         assertThat(after.get(10, TimeUnit.SECONDS)).isEqualTo(v() + "-appended");
+      }
+   }
+
+   public void testBatchFollowedByCommandOfTheOtherType() throws Exception {
+      try (StatefulRedisConnection<String, String> connection = newConnection()) {
+         RedisAsyncCommands<String, String> redis = connection.async();
+         connection.setAutoFlushCommands(false);
+         RedisFuture<String> set1 = redis.set(k(1), v(1));
+         RedisFuture<String> set2 = redis.set(k(2), v(2));
+         // The last command of the pipeline must not be left in a new batch after the previous one completes
+         RedisFuture<String> get = redis.get(k(1));
+         connection.flushCommands();
+
+         assertThat(set1.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         assertThat(set2.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         assertThat(get.get(10, TimeUnit.SECONDS)).isEqualTo(v(1));
+
+         RedisFuture<String> get1 = redis.get(k(1));
+         RedisFuture<String> get2 = redis.get(k(2));
+         RedisFuture<String> set3 = redis.set(k(3), v(3));
+         connection.flushCommands();
+
+         assertThat(get1.get(10, TimeUnit.SECONDS)).isEqualTo(v(1));
+         assertThat(get2.get(10, TimeUnit.SECONDS)).isEqualTo(v(2));
+         assertThat(set3.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+      }
+   }
+
+   public void testMalformedGetInPipeline() throws Exception {
+      try (StatefulRedisConnection<String, String> connection = newConnection()) {
+         RedisAsyncCommands<String, String> redis = connection.async();
+         connection.setAutoFlushCommands(false);
+         RedisFuture<String> set = redis.set(k(), v());
+         RedisFuture<String> before = redis.get(k());
+         RedisFuture<String> noKey = redis.dispatch(CommandType.GET, new ValueOutput<>(StringCodec.UTF8),
+               new CommandArgs<>(StringCodec.UTF8));
+         RedisFuture<String> twoKeys = redis.dispatch(CommandType.GET, new ValueOutput<>(StringCodec.UTF8),
+               new CommandArgs<>(StringCodec.UTF8).addKey(k()).addKey(k(1)));
+         RedisFuture<String> after = redis.get(k());
+         connection.flushCommands();
+
+         assertThat(set.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         assertThat(before.get(10, TimeUnit.SECONDS)).isEqualTo(v());
+         assertThatThrownBy(() -> noKey.get(10, TimeUnit.SECONDS))
+               .isInstanceOf(ExecutionException.class)
+               .hasMessageContaining("wrong number of arguments");
+         assertThatThrownBy(() -> twoKeys.get(10, TimeUnit.SECONDS))
+               .isInstanceOf(ExecutionException.class)
+               .hasMessageContaining("wrong number of arguments");
+         // The connection is still usable
+         assertThat(after.get(10, TimeUnit.SECONDS)).isEqualTo(v());
+      }
+   }
+
+   public void testBatchSizeOfOneIsRejected() {
+      assertThatThrownBy(() -> new RespServerConfigurationBuilder().pipelineBatchSize(1).validate())
+            .isInstanceOf(CacheConfigurationException.class);
+   }
+}
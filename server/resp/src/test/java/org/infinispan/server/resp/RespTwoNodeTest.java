@@ -1,6 +1,7 @@
 package org.infinispan.server.resp;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.infinispan.server.resp.test.RespTestingUtil.OK;
 import static org.infinispan.server.resp.test.RespTestingUtil.PONG;
 import static org.infinispan.test.TestingUtil.v;
@@ -38,12 +39,19 @@
 import io.lettuce.core.RedisCommandExecutionException;
 import io.lettuce.core.RedisFuture;
 import io.lettuce.core.ScoredValue;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.SortArgs;
+import io.lettuce.core.TrackingArgs;
 import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
 import io.lettuce.core.json.DefaultJsonParser;
 import io.lettuce.core.json.JsonPath;
 import io.lettuce.core.json.JsonValue;
+import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.output.ValueSetOutput;
+import io.lettuce.core.protocol.CommandArgs;
 import io.lettuce.core.pubsub.RedisPubSubAdapter;
 import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands;
 
@@ -554,4 +562,80 @@ public void testJsonSetGet() {
       List<JsonValue> resultR1 = r1.jsonGet(numbers, jp);
       assertThat(resultR0.toString().equals(resultR1.toString()));
    }
+
+   @Test
+   public void testScriptFlushOnOtherNode() {
+      RedisCommands<String, String> r0 = redisConnection1.sync();
+      RedisCommands<String, String> r1 = redisConnection2.sync();
+
+      String sha = r0.scriptLoad("return 'testScriptFlushOnOtherNode'");
+      assertThat(r0.<String>evalsha(sha, ScriptOutputType.VALUE)).isEqualTo("testScriptFlushOnOtherNode");
+      assertThat(r1.<String>evalsha(sha, ScriptOutputType.VALUE)).isEqualTo("testScriptFlushOnOtherNode");
+
+      // The script is still cached by the first node, but it was removed from the store
+      r1.scriptFlush();
+      assertThatThrownBy(() -> r0.evalsha(sha, ScriptOutputType.VALUE))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("NOSCRIPT");
+   }
+
+   @Test
+   public void testSearchIndexOnAllNodes() {
+      RedisCommands<String, String> r0 = redisConnection1.sync();
+      RedisCommands<String, String> r1 = redisConnection2.sync();
+
+      assertThat(r0.dispatch(SearchCommandsTest.command("FT.CREATE"), new StatusOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("shared").add("PREFIX").add(1).add("shared:")
+                  .add("SCHEMA").add("name").add("TEXT"))).isEqualTo("OK");
+      r0.hset("shared:1", "name", "first");
+      r1.hset("shared:2", "name", "second");
+
+      // The index is built from its definition on the node which did not create it
+      assertThat(r1.dispatch(SearchCommandsTest.command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).contains("shared");
+      // The documents are indexed asynchronously
+      eventuallyEquals(List.of(2L, "shared:1", "shared:2"), () -> r1.dispatch(SearchCommandsTest.command("FT.SEARCH"),
+            new ArrayOutput<>(StringCodec.UTF8), new CommandArgs<>(StringCodec.UTF8).add("shared").add("*").add("NOCONTENT")));
+      assertThatThrownBy(() -> r1.dispatch(SearchCommandsTest.command("FT.CREATE"), new StatusOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("shared").add("SCHEMA").add("name").add("TEXT")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("Index already exists");
+
+      // Dropping the index on one node drops it on all of them
+      assertThat(r1.dispatch(SearchCommandsTest.command("FT.DROPINDEX"), new StatusOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("shared"))).isEqualTo("OK");
+      assertThat(r0.dispatch(SearchCommandsTest.command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).doesNotContain("shared");
+      assertThatThrownBy(() -> r0.dispatch(SearchCommandsTest.command("FT.SEARCH"), new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("shared").add("*")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("no such index");
+   }
+
+   public void testTrackingInvalidationsFromOtherNode() throws Exception {
+      RedisCommands<String, String> r0 = redisConnection1.sync();
+      RedisCommands<String, String> r1 = redisConnection2.sync();
+      BlockingQueue<List<Object>> invalidations = new LinkedBlockingQueue<>();
+      redisConnection1.addListener(message -> {
+         if ("invalidate".equals(message.getType())) {
+            invalidations.add(message.getContent(StringCodec.UTF8::decodeKey));
+         }
+      });
+
+      assertThat(r0.clientTracking(TrackingArgs.Builder.enabled())).isEqualTo(OK);
+      try {
+         r1.set("tracked", "v1");
+         assertThat(r0.get("tracked")).isEqualTo("v1");
+         r1.set("tracked", "v2");
+         assertThat(invalidations.poll(10, TimeUnit.SECONDS)).containsExactly("invalidate", List.of("tracked"));
+
+         // Flushing on the other node invalidates everything on this node too
+         assertThat(r0.get("tracked")).isEqualTo("v2");
+         assertThat(r1.flushdb()).isEqualTo(OK);
+         List<Object> invalidation = invalidations.poll(10, TimeUnit.SECONDS);
+         assertThat(invalidation).hasSize(2);
+         assertThat(invalidation.get(0)).isEqualTo("invalidate");
+         assertThat(invalidation.get(1)).isNull();
+      } finally {
+         r0.clientTracking(TrackingArgs.Builder.enabled(false));
+      }
+   }
 }
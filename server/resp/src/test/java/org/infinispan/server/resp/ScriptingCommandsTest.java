@@ -13,6 +13,7 @@
 import java.util.List;
 import java.util.Map;
 
+import org.infinispan.server.resp.scripting.LuaScriptStats;
 import org.testng.annotations.Test;
 
 import io.lettuce.core.ScriptOutputType;
@@ -60,6 +61,25 @@ public void testEvalSha() {
       assertThat(redis.get(k())).isEqualTo(v());
    }
 
+   @Test
+   public void testEvalShaDoesNotRecompile() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String sha = redis.scriptLoad("""
+            return redis.call('incr', KEYS[1])
+            """);
+      LuaScriptStats stats = server.luaEngine().stats();
+      long compilations = stats.compilations();
+      long executions = stats.executions();
+      for (int i = 1; i <= 10; i++) {
+         Long out = redis.evalsha(sha, ScriptOutputType.INTEGER, new String[]{k()});
+         assertThat(out).isEqualTo(i);
+      }
+      // The script was compiled in the pooled contexts when it was loaded
+      assertThat(stats.compilations()).isEqualTo(compilations);
+      assertThat(stats.executions()).isEqualTo(executions + 10);
+      assertThat(server.luaEngine().cachedScripts()).isPositive();
+   }
+
    @Test
    public void testEvalShaRo() {
       RedisCommands<String, String> redis = redisConnection.sync();
@@ -0,0 +1,201 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.json.JsonPath;
+import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.output.ValueSetOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.ProtocolKeyword;
+
+/**
+ * FT.CREATE, FT.SEARCH, FT.AGGREGATE and FT.DROPINDEX over hashes and JSON documents
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "server.resp.SearchCommandsTest")
+public class SearchCommandsTest extends SingleNodeRespBaseTest {
+
+   public void testSearchHashes() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      // Documents which exist before the index is created are indexed too
+      redis.hset("product:1", Map.of("name", "Red running shoes", "color", "red,blue", "price", "80"));
+      redis.hset("product:2", Map.of("name", "Blue shirt", "color", "blue", "price", "25"));
+      redis.hset("other:1", Map.of("name", "Red shoes", "color", "red", "price", "10"));
+
+      assertThat(create("products", "ON", "HASH", "PREFIX", "1", "product:", "SCHEMA",
+            "name", "TEXT", "color", "TAG", "price", "NUMERIC", "SORTABLE")).isEqualTo("OK");
+      redis.hset("product:3", Map.of("name", "Running socks", "color", "RED", "price", "5"));
+      // The documents written after the index is created are indexed asynchronously
+      eventuallyEquals(List.of(2L, "product:1", "product:3"), () -> search("products", "@color:{red}", "NOCONTENT"));
+
+      List<Object> result = search("products", "shoes");
+      assertThat(result).hasSize(3).startsWith(1L, "product:1");
+      assertThat((List<?>) result.get(2)).containsExactlyInAnyOrder("name", "Red running shoes", "color", "red,blue", "price", "80");
+      assertThat(search("products", "@price:[(5 +inf]", "NOCONTENT")).containsExactly(2L, "product:1", "product:2");
+      assertThat(search("products", "runn* -@color:{blue}", "NOCONTENT")).containsExactly(1L, "product:3");
+      assertThat(search("products", "shirt | socks", "NOCONTENT")).containsExactly(2L, "product:2", "product:3");
+      assertThat(search("products", "*", "RETURN", "1", "price", "SORTBY", "price", "DESC", "LIMIT", "1", "1"))
+            .containsExactly(3L, "product:2", List.of("price", "25"));
+
+      // Modifications and removals are reflected in the index
+      redis.hset("product:3", "color", "green");
+      redis.del("product:1");
+      eventuallyEquals(List.of(0L), () -> search("products", "@color:{red}", "NOCONTENT"));
+
+      assertThatThrownBy(() -> search("products", "@size:[1 2]"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("Unknown field");
+   }
+
+   public void testInvalidArguments() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("limits", "PREFIX", "1", "limits:", "SCHEMA", "name", "TEXT", "SORTABLE")).isEqualTo("OK");
+      redis.hset("limits:1", "name", "one");
+      redis.hset("limits:2", "name", "two");
+
+      // The end of the page is beyond Integer.MAX_VALUE
+      eventuallyEquals(List.of(2L, "limits:2"), () -> search("limits", "*", "NOCONTENT", "SORTBY", "name", "LIMIT", "1", "2147483647"));
+      assertThatThrownBy(() -> search("limits", "*", "SORTBY"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("syntax error");
+      assertThatThrownBy(() -> search("limits", "*", "RETURN"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("syntax error");
+      assertThatThrownBy(() -> redis.dispatch(command("FT.AGGREGATE"), new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("limits").add("*").add("GROUPBY")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("syntax error");
+   }
+
+   public void testSearchJson() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("users", "ON", "JSON", "PREFIX", "1", "user:", "SCHEMA",
+            "$.name", "AS", "name", "TEXT", "$.tags", "AS", "tags", "TAG", "$.age", "AS", "age", "NUMERIC")).isEqualTo("OK");
+      redis.jsonSet("user:1", JsonPath.ROOT_PATH, redis.getJsonParser().createJsonValue("{\"name\":\"Jane Doe\",\"tags\":[\"admin\",\"dev\"],\"age\":41}"));
+      redis.jsonSet("user:2", JsonPath.ROOT_PATH, redis.getJsonParser().createJsonValue("{\"name\":\"John Doe\",\"tags\":[\"dev\"],\"age\":29}"));
+      eventuallyEquals(List.of(2L, "user:1", "user:2"), () -> search("users", "@tags:{dev}", "NOCONTENT"));
+
+      assertThat(search("users", "@tags:{admin}", "RETURN", "1", "name")).containsExactly(1L, "user:1", List.of("name", "Jane Doe"));
+      assertThat(search("users", "doe @age:[30 50]", "NOCONTENT")).containsExactly(1L, "user:1");
+      List<Object> result = search("users", "@name:john");
+      assertThat(result).hasSize(3);
+      assertThat((List<?>) result.get(2)).hasSize(2).first().isEqualTo("$");
+   }
+
+   public void testAggregate() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("orders", "PREFIX", "1", "order:", "SCHEMA", "status", "TAG", "amount", "NUMERIC")).isEqualTo("OK");
+      redis.hset("order:1", Map.of("status", "open", "amount", "10"));
+      redis.hset("order:2", Map.of("status", "open", "amount", "15.5"));
+      redis.hset("order:3", Map.of("status", "closed", "amount", "7"));
+      eventuallyEquals(List.of(3L, "order:1", "order:2", "order:3"), () -> search("orders", "*", "NOCONTENT"));
+
+      List<Object> result = redis.dispatch(command("FT.AGGREGATE"), new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("orders").add("*")
+                  .add("GROUPBY").add(1).add("@status")
+                  .add("REDUCE").add("COUNT").add(0).add("AS").add("count")
+                  .add("REDUCE").add("SUM").add(1).add("@amount").add("AS").add("total")
+                  .add("SORTBY").add(2).add("@total").add("DESC"));
+      assertThat(result).containsExactly(2L,
+            List.of("status", "open", "count", "2", "total", "25.5"),
+            List.of("status", "closed", "count", "1", "total", "7"));
+   }
+
+   public void testListAndDropIndex() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("drop", "PREFIX", "1", "drop:", "SCHEMA", "name", "TEXT")).isEqualTo("OK");
+      assertThatThrownBy(() -> create("drop", "SCHEMA", "name", "TEXT"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("Index already exists");
+      redis.hset("drop:1", "name", "value");
+      redis.hset("drop:2", "name", "value");
+      eventuallyEquals(List.of(2L, "drop:1", "drop:2"), () -> search("drop", "*", "NOCONTENT"));
+      assertThat(redis.dispatch(command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).contains("drop");
+
+      assertThat(redis.dispatch(command("FT.DROPINDEX"), new StatusOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("drop").add("DD"))).isEqualTo("OK");
+      assertThat(redis.exists("drop:1", "drop:2")).isZero();
+      assertThat(redis.dispatch(command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).doesNotContain("drop");
+      assertThatThrownBy(() -> search("drop", "*"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("no such index");
+   }
+
+   public void testIndexesPerDatabase() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("scoped", "PREFIX", "1", "scoped:", "SCHEMA", "name", "TEXT")).isEqualTo("OK");
+      redis.hset("scoped:1", "name", "zero");
+      try {
+         assertThat(redis.select(1)).isEqualTo("OK");
+         assertThat(redis.dispatch(command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).doesNotContain("scoped");
+         assertThatThrownBy(() -> search("scoped", "*"))
+               .isInstanceOf(RedisCommandExecutionException.class)
+               .hasMessageContaining("no such index");
+
+         // The same name can be used by an index of another database
+         assertThat(create("scoped", "PREFIX", "1", "scoped:", "SCHEMA", "name", "TEXT")).isEqualTo("OK");
+         redis.hset("scoped:1", "name", "one");
+         eventuallyEquals(List.of(1L, "scoped:1"), () -> search("scoped", "one", "NOCONTENT"));
+      } finally {
+         redis.select(0);
+      }
+      eventuallyEquals(List.of(1L, "scoped:1"), () -> search("scoped", "zero", "NOCONTENT"));
+      assertThat(search("scoped", "one", "NOCONTENT")).containsExactly(0L);
+   }
+
+   public void testIndexRebuiltFromDefinition() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(create("rebuilt", "PREFIX", "1", "rebuilt:", "SCHEMA", "color", "TAG", "SEPARATOR", ";")).isEqualTo("OK");
+      redis.hset("rebuilt:1", "color", "red;blue");
+
+      // Discard the index of the node, the definition stored in the cluster is kept
+      server.searchIndexes().stop();
+      server.searchIndexes().start(server.getCacheManager(), server.getQualifiedName());
+      redis.hset("rebuilt:2", "color", "blue");
+
+      assertThat(redis.dispatch(command("FT._LIST"), new ValueSetOutput<>(StringCodec.UTF8))).contains("rebuilt");
+      eventuallyEquals(List.of(2L, "rebuilt:1", "rebuilt:2"), () -> search("rebuilt", "@color:{blue}", "NOCONTENT"));
+      assertThat(search("rebuilt", "@color:{red}", "RETURN", "1", "color")).containsExactly(1L, "rebuilt:1", List.of("color", "red;blue"));
+   }
+
+   private String create(String... arguments) {
+      CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8);
+      for (String argument : arguments) {
+         args.add(argument);
+      }
+      return redisConnection.sync().dispatch(command("FT.CREATE"), new StatusOutput<>(StringCodec.UTF8), args);
+   }
+
+   private List<Object> search(String... arguments) {
+      CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8);
+      for (String argument : arguments) {
+         args.add(argument);
+      }
+      return redisConnection.sync().dispatch(command("FT.SEARCH"), new ArrayOutput<>(StringCodec.UTF8), args);
+   }
+
+   static ProtocolKeyword command(String name) {
+      return new ProtocolKeyword() {
+         @Override
+         public byte[] getBytes() {
+            return name.getBytes();
+         }
+
+         @Override
+         public String name() {
+            return name;
+         }
+      };
+   }
+}
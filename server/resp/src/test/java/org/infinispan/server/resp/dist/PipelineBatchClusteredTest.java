@@ -0,0 +1,46 @@
+package org.infinispan.server.resp.dist;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.server.resp.RespPipelineBatchTest;
+import org.infinispan.server.resp.test.TestSetup;
+import org.testng.annotations.Test;
+
+/**
+ * Pipelined GET and SET batches in a cluster, where the getAll and putAll invocations complete asynchronously
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "dist.server.resp.PipelineBatchClusteredTest")
+public class PipelineBatchClusteredTest extends RespPipelineBatchTest {
+
+   private CacheMode mode;
+
+   protected PipelineBatchClusteredTest withCacheMode(CacheMode mode) {
+      this.mode = mode;
+      return this;
+   }
+
+   @Override
+   public Object[] factory() {
+      return new Object[] {
+            new PipelineBatchClusteredTest().withCacheMode(CacheMode.DIST_SYNC),
+            new PipelineBatchClusteredTest().withCacheMode(CacheMode.REPL_SYNC),
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "[mode=" + mode + "]";
+   }
+
+   @Override
+   protected void amendConfiguration(ConfigurationBuilder configurationBuilder) {
+      configurationBuilder.clustering().cacheMode(mode);
+   }
+
+   @Override
+   protected TestSetup setup() {
+      return TestSetup.clusteredTestSetup(3);
+   }
+}
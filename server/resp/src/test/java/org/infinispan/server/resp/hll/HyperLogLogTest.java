@@ -76,6 +76,30 @@ public void testSameElementDoesNotChangeCardinality() {
       assertThat(es.cardinality()).isEqualTo(1L);
    }
 
+   public void testMergeIsEquivalentToUnion() {
+      CompactSet first = new CompactSet();
+      CompactSet second = new CompactSet();
+      CompactSet union = new CompactSet();
+
+      for (int i = 0; i < 100_000; i++) {
+         byte[] value = ("hll-" + i).getBytes(StandardCharsets.US_ASCII);
+         (i % 3 == 0 ? first : second).set(value);
+         union.set(value);
+      }
+
+      first.merge(second);
+      assertThat(first).isEqualTo(union);
+      assertThat(first.cardinality()).isEqualTo(union.cardinality());
+
+      // Updates after the merge keep the registers histogram consistent.
+      for (int i = 0; i < 1_000; i++) {
+         byte[] value = ("other-" + i).getBytes(StandardCharsets.US_ASCII);
+         assertThat(first.set(value)).isEqualTo(union.set(value));
+      }
+      assertThat(first).isEqualTo(union);
+      assertThat(first.cardinality()).isEqualTo(union.cardinality());
+   }
+
    public void testConcurrentOperationsHLL() throws Exception {
       HyperLogLog hll = new HyperLogLog();
       CyclicBarrier barrier = new CyclicBarrier(3);
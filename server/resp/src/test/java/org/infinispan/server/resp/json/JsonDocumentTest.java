@@ -0,0 +1,67 @@
+package org.infinispan.server.resp.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+
+@Test(groups = "unit", testName = "server.resp.json.JsonDocumentTest")
+public class JsonDocumentTest extends AbstractInfinispanTest {
+
+   private static final byte[] DOC = ("{ \"a\" : { \"b\": [1, {\"c\": \"x\\\"y\"}, 2.5] },"
+         + " \"d\": null, \"e\": 1, \"e\": 2 }").getBytes(StandardCharsets.UTF_8);
+
+   public void testSegments() {
+      assertThat(JsonDocument.segments("$.a['b'][\"c\"][12]")).containsExactly("a", "b", "c", 12);
+      assertThat(JsonDocument.segments("$")).isNull();
+      assertThat(JsonDocument.segments(".a")).isNull();
+      assertThat(JsonDocument.segments("$..a")).isNull();
+      assertThat(JsonDocument.segments("$.a[*]")).isNull();
+      assertThat(JsonDocument.segments("$.a[-1]")).isNull();
+      assertThat(JsonDocument.segments("$['a','b']")).isNull();
+      assertThat(JsonDocument.segments("$.a[?(@.b == 1)]")).isNull();
+   }
+
+   public void testLocate() throws IOException {
+      assertThat(text(JsonDocument.locate(DOC, "$.a"))).isEqualTo("{ \"b\": [1, {\"c\": \"x\\\"y\"}, 2.5] }");
+      assertThat(text(JsonDocument.locate(DOC, "$.a.b[1].c"))).isEqualTo("\"x\\\"y\"");
+      assertThat(text(JsonDocument.locate(DOC, "$.a.b[2]"))).isEqualTo("2.5");
+      assertThat(text(JsonDocument.locate(DOC, "$.d"))).isEqualTo("null");
+      // The last value wins with duplicated fields, as when parsing the whole document
+      assertThat(text(JsonDocument.locate(DOC, "$.e"))).isEqualTo("2");
+
+      assertThat(JsonDocument.locate(DOC, "$.a.b[3]")).isNull();
+      assertThat(JsonDocument.locate(DOC, "$.a.c")).isNull();
+      assertThat(JsonDocument.locate(DOC, "$.e.f")).isNull();
+      assertThat(JsonDocument.locate(DOC, "$.a[0]")).isNull();
+   }
+
+   public void testReplace() throws IOException {
+      JsonDocument.Span span = JsonDocument.locate(DOC, "$.a.b[0]");
+      byte[] updated = span.replace(DOC, "100".getBytes(StandardCharsets.UTF_8));
+
+      JsonNode expected = JSONUtil.objectMapper.readTree(DOC);
+      ((ArrayNode) expected.get("a").get("b")).set(0, IntNode.valueOf(100));
+      assertThat(JSONUtil.objectMapper.readTree(updated)).isEqualTo(expected);
+   }
+
+   public void testReadMatchesJsonPath() throws IOException {
+      JsonDocument doc = new JsonDocument(DOC);
+      JsonNode root = JSONUtil.objectMapper.readTree(DOC);
+      for (String path : List.of("$.a.b[1]", "$.a['b'][2]", "$.d", "$.e", "$.a.b[5]", "$..c", "$.a.b[*]")) {
+         assertThat(doc.read(path)).as(path).isEqualTo(JSONUtil.parserForGet.parse(root).read(path));
+      }
+   }
+
+   private static String text(JsonDocument.Span span) {
+      return new String(DOC, span.offset(), span.length(), StandardCharsets.UTF_8);
+   }
+}
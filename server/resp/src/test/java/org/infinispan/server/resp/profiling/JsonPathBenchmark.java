@@ -0,0 +1,111 @@
+package org.infinispan.server.resp.profiling;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.container.entries.ReadCommittedEntry;
+import org.infinispan.encoding.impl.DataConversionInternal;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.impl.EntryViews;
+import org.infinispan.server.resp.json.JsonBucket;
+import org.infinispan.server.resp.json.JsonGetFunction;
+import org.infinispan.server.resp.json.JsonNumIncrOpFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures JSON.GET and JSON.NUMINCRBY with a single path on product catalog documents of different sizes.
+ * <p>
+ * The {@code simple} benchmarks use definite paths, which are resolved on the serialized document. The
+ * {@code filter} benchmark uses a filter expression, which still requires parsing the whole document.
+ */
+public class JsonPathBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+   private static final byte[] KEY = "catalog".getBytes(StandardCharsets.US_ASCII);
+
+   public static void main(String[] args) throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(JsonPathBenchmark.class.getName() + ".State.*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(1)
+            .forks(1)
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Thread)
+   public static class State {
+
+      // 1KB, 100KB, 1MB and 10MB
+      @Param({"1024", "102400", "1048576", "10485760"})
+      int documentSize;
+
+      private JsonBucket bucket;
+      private JsonGetFunction getSimple;
+      private JsonGetFunction getFilter;
+      private JsonNumIncrOpFunction incrSimple;
+
+      @Setup(Level.Trial)
+      public void setup() {
+         StringBuilder sb = new StringBuilder("{\"products\":[");
+         int products = 0;
+         while (sb.length() < documentSize) {
+            if (products > 0) sb.append(',');
+            sb.append("{\"id\":").append(products)
+                  .append(",\"name\":\"product-").append(products)
+                  .append("\",\"price\":").append(products).append(".99")
+                  .append(",\"stock\":").append(products % 100)
+                  .append(",\"tags\":[\"catalog\",\"sale\"]}");
+            products++;
+         }
+         sb.append("]}");
+         bucket = new JsonBucket(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+         int target = products / 2;
+         getSimple = new JsonGetFunction(List.of(bytes("$.products[" + target + "].name")), null, null, null);
+         getFilter = new JsonGetFunction(List.of(bytes("$.products[?(@.id == " + target + ")].name")), null, null, null);
+         incrSimple = new JsonNumIncrOpFunction(bytes("$.products[" + target + "].stock"), bytes("1"));
+      }
+
+      private static byte[] bytes(String s) {
+         return s.getBytes(StandardCharsets.UTF_8);
+      }
+
+      private ReadWriteEntryView<byte[], JsonBucket> view() {
+         return EntryViews.readWrite(new ReadCommittedEntry<>(KEY, bucket, null),
+               DataConversionInternal.IDENTITY_KEY, DataConversionInternal.IDENTITY_VALUE);
+      }
+
+      @Benchmark
+      public byte[] getSimple() {
+         return getSimple.apply(view());
+      }
+
+      @Benchmark
+      public byte[] getFilter() {
+         return getFilter.apply(view());
+      }
+
+      @Benchmark
+      public List<Number> numIncrBySimple() {
+         return incrSimple.apply(view());
+      }
+   }
+}
@@ -12,6 +12,7 @@ public enum Attribute {
 
    CACHE,
    NAME,
+   PIPELINE_BATCH_SIZE,
    SECURITY_REALM,
    SOCKET_BINDING;
 
@@ -84,6 +84,10 @@ private void parseResp(ConfigurationReader reader, ServerConfigurationBuilder se
                builder.name(value);
                break;
             }
+            case PIPELINE_BATCH_SIZE: {
+               builder.pipelineBatchSize(ParseUtils.parseInt(reader, i, value));
+               break;
+            }
             case SOCKET_BINDING: {
                builder.socketBinding(value);
                builder.startTransport(true);